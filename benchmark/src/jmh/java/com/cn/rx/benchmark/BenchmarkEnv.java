@@ -0,0 +1,118 @@
+package com.cn.rx.benchmark;
+
+import android.content.Context;
+
+import com.cn.rx.RxHttp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * 基准测试公共的初始化和内存传输
+ */
+public final class BenchmarkEnv {
+
+    public static final String BASE_URL = "http://localhost/";
+    public static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private static volatile boolean sInitialized;
+
+    private BenchmarkEnv() {
+    }
+
+    /**
+     * 初始化RxHttp，只执行一次
+     */
+    public static synchronized RxHttp init() {
+        if (!sInitialized) {
+            File dir = new File(System.getProperty("java.io.tmpdir"), "rxhttp-benchmark");
+            dir.mkdirs();
+            RxHttp.getInstance().init(new Context(dir)).baseUrl(BASE_URL);
+            sInitialized = true;
+        }
+        return RxHttp.getInstance();
+    }
+
+    public static ResponseBody jsonBody(String json) {
+        return ResponseBody.create(JSON, json);
+    }
+
+    /**
+     * 不经过网络的拦截器链，proceed直接返回固定的响应
+     */
+    public static final class MemoryChain implements Interceptor.Chain {
+        private final Request request;
+        private final String responseJson;
+
+        public MemoryChain(Request request, String responseJson) {
+            this.request = request;
+            this.responseJson = responseJson;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) throws IOException {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .body(jsonBody(responseJson))
+                    .build();
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return null;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+}
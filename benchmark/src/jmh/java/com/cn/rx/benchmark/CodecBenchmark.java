@@ -0,0 +1,190 @@
+package com.cn.rx.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.cn.rx.callback.ResultClazzCallProxy;
+import com.cn.rx.codec.CborCodec;
+import com.cn.rx.codec.Envelope;
+import com.cn.rx.codec.FastJsonCodec;
+import com.cn.rx.codec.MessagePackCodec;
+import com.cn.rx.codec.ResponseCodec;
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.entity.ApiResultEntity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * 同一份数据分别以JSON、MessagePack、CBOR返回时的解析开销
+ */
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"json", "msgpack", "cbor"})
+    public String format;
+
+    @Param({"100"})
+    public int items;
+
+    private ResponseCodec codec;
+    private MediaType contentType;
+    private byte[] bytes;
+    private Type resultType;
+    private Type dataType;
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnv.init();
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", i);
+            item.put("name", "item " + i);
+            item.put("price", i + 0.99);
+            item.put("tags", Arrays.asList("a", "b"));
+            list.add(item);
+        }
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("code", 0);
+        envelope.put("msg", "ok");
+        envelope.put("data", list);
+
+        Buffer buffer = new Buffer();
+        if ("msgpack".equals(format)) {
+            codec = new MessagePackCodec();
+            writeMessagePack(buffer, envelope);
+        } else if ("cbor".equals(format)) {
+            codec = new CborCodec();
+            writeCbor(buffer, envelope);
+        } else {
+            codec = new FastJsonCodec();
+            buffer.writeUtf8(JSON.toJSONString(envelope));
+        }
+        contentType = MediaType.parse(codec.contentTypes()[0]);
+        bytes = buffer.readByteArray();
+        dataType = new TypeReference<List<DecodeBenchmark.Item>>() {
+        }.getType();
+        resultType = new ResultClazzCallProxy<ApiResultEntity<List<DecodeBenchmark.Item>>, List<DecodeBenchmark.Item>>(dataType) {
+        }.getType();
+    }
+
+    /**
+     * 响应体大小
+     */
+    public int size() {
+        return bytes.length;
+    }
+
+    @Benchmark
+    public ApiResultEntity<List<DecodeBenchmark.Item>> apiResult() throws Exception {
+        return codec.decode(ResponseBody.create(contentType, bytes), resultType);
+    }
+
+    @Benchmark
+    public Object envelope() throws Exception {
+        Envelope envelope = codec.decodeEnvelope(ResponseBody.create(contentType, bytes), ResultConfigLoader.getProfile(), dataType, true);
+        return envelope.getData();
+    }
+
+    private static void writeMessagePack(Buffer out, Object value) {
+        if (value == null) {
+            out.writeByte(0xc0);
+        } else if (value instanceof Integer) {
+            int i = (Integer) value;
+            if (i >= 0 && i <= 0x7f) {
+                out.writeByte(i);
+            } else {
+                out.writeByte(0xd2).writeInt(i);
+            }
+        } else if (value instanceof Double) {
+            out.writeByte(0xcb).writeLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof String) {
+            Buffer utf8 = new Buffer().writeUtf8((String) value);
+            if (utf8.size() < 32) {
+                out.writeByte(0xa0 | (int) utf8.size());
+            } else {
+                out.writeByte(0xdb).writeInt((int) utf8.size());
+            }
+            out.write(utf8, utf8.size());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            if (list.size() < 16) {
+                out.writeByte(0x90 | list.size());
+            } else {
+                out.writeByte(0xdd).writeInt(list.size());
+            }
+            for (Object item : list) {
+                writeMessagePack(out, item);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.size() < 16) {
+                out.writeByte(0x80 | map.size());
+            } else {
+                out.writeByte(0xdf).writeInt(map.size());
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeMessagePack(out, entry.getKey());
+                writeMessagePack(out, entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException(value.getClass().toString());
+        }
+    }
+
+    private static void writeCbor(Buffer out, Object value) {
+        if (value == null) {
+            out.writeByte(0xf6);
+        } else if (value instanceof Integer) {
+            int i = (Integer) value;
+            writeCborHead(out, i >= 0 ? 0 : 1, i >= 0 ? i : -1L - i);
+        } else if (value instanceof Double) {
+            out.writeByte(0xfb).writeLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof String) {
+            Buffer utf8 = new Buffer().writeUtf8((String) value);
+            writeCborHead(out, 3, utf8.size());
+            out.write(utf8, utf8.size());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            writeCborHead(out, 4, list.size());
+            for (Object item : list) {
+                writeCbor(out, item);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeCborHead(out, 5, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeCbor(out, entry.getKey());
+                writeCbor(out, entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException(value.getClass().toString());
+        }
+    }
+
+    private static void writeCborHead(Buffer out, int major, long value) {
+        if (value < 24) {
+            out.writeByte(major << 5 | (int) value);
+        } else if (value <= 0xff) {
+            out.writeByte(major << 5 | 24).writeByte((int) value);
+        } else if (value <= 0xffff) {
+            out.writeByte(major << 5 | 25).writeShort((int) value);
+        } else {
+            out.writeByte(major << 5 | 26).writeInt((int) value);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cn.rx.benchmark;
+
+import android.content.Context;
+
+import com.cn.rx.cookie.CookieCacheImpl;
+import com.cn.rx.cookie.CookieManager;
+import com.cn.rx.cookie.SharedPrefsCookiePersistor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Cookie;
+import okhttp3.HttpUrl;
+
+/**
+ * 每个请求都会调用的CookieManager.loadForRequest
+ */
+@State(Scope.Benchmark)
+public class CookieBenchmark {
+
+    @Param({"10", "200"})
+    public int cookies;
+
+    private CookieManager cookieManager;
+    private HttpUrl url;
+
+    @Setup
+    public void setUp() {
+        Context context = new Context(new File(System.getProperty("java.io.tmpdir")));
+        cookieManager = new CookieManager(new CookieCacheImpl(), new SharedPrefsCookiePersistor(context));
+        url = HttpUrl.parse("https://api.example.com/v1/user/profile");
+        long expiresAt = System.currentTimeMillis() + 24L * 60 * 60 * 1000;
+        List<Cookie> list = new ArrayList<>();
+        for (int i = 0; i < cookies; i++) {
+            //一半属于其他域名，不会被返回
+            String domain = i % 2 == 0 ? "example.com" : "other" + i + ".com";
+            list.add(new Cookie.Builder()
+                    .name("cookie" + i)
+                    .value("value" + i)
+                    .domain(domain)
+                    .path("/")
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        cookieManager.saveFromResponse(HttpUrl.parse("https://example.com/"), list);
+    }
+
+    @Benchmark
+    public List<Cookie> loadForRequest() {
+        return cookieManager.loadForRequest(url);
+    }
+}
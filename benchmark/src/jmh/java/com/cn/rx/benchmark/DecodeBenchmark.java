@@ -0,0 +1,107 @@
+package com.cn.rx.benchmark;
+
+import com.alibaba.fastjson.TypeReference;
+import com.cn.rx.callback.ResponseTemplateCallback;
+import com.cn.rx.callback.ResultCallback;
+import com.cn.rx.callback.ResultCallbackProxy;
+import com.cn.rx.callback.ResultClazzCallProxy;
+import com.cn.rx.entity.ApiResultEntity;
+import com.cn.rx.exception.ApiThrowable;
+import com.cn.rx.func.ApiResultFunc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 响应体解析：ApiResultEntity信封以及模板回调
+ */
+@State(Scope.Benchmark)
+public class DecodeBenchmark {
+
+    @Param({"1", "100"})
+    public int items;
+
+    private String json;
+    private ApiResultFunc<List<Item>> apiResultFunc;
+    private ResponseTemplateCallback<List<Item>> templateCallback;
+    private ResultCallbackProxy<ApiResultEntity<List<Item>>, List<Item>> proxy;
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnv.init();
+        StringBuilder sb = new StringBuilder("{\"code\":0,\"msg\":\"ok\",\"data\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"item ").append(i)
+                    .append("\",\"price\":").append(i).append(".99")
+                    .append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        json = sb.append("]}").toString();
+        Type type = new ResultClazzCallProxy<ApiResultEntity<List<Item>>, List<Item>>(
+                new TypeReference<List<Item>>() {
+                }.getType()) {
+        }.getType();
+        apiResultFunc = new ApiResultFunc<>(type);
+        templateCallback = new ResponseTemplateCallback<List<Item>>() {
+            @Override
+            public void onError(Object tag, ApiThrowable throwable) {
+            }
+
+            @Override
+            public void onSuccess(Object tag, List<Item> result) {
+            }
+        };
+        proxy = ResultCallbackProxy.NEW_DEFAULT_INSTANCE(new ResultCallback<List<Item>>() {
+            @Override
+            public void onStart(Object tag) {
+            }
+
+            @Override
+            public void onCompleted(Object tag) {
+            }
+
+            @Override
+            public void onError(Object tag, ApiThrowable e) {
+            }
+
+            @Override
+            public void onSuccess(Object tag, List<Item> items) {
+            }
+        });
+    }
+
+    @Benchmark
+    public ApiResultEntity<List<Item>> apiResultFunc() throws Exception {
+        return apiResultFunc.apply(BenchmarkEnv.jsonBody(json));
+    }
+
+    /**
+     * 每次请求都会调用的泛型解析
+     */
+    @Benchmark
+    public Type resultCallbackProxyType() {
+        return proxy.getType();
+    }
+
+    @Benchmark
+    public List<Item> templateCallback() throws Exception {
+        return templateCallback.onTransformationResponse(BenchmarkEnv.jsonBody(json));
+    }
+
+    public static class Item {
+        public int id;
+        public String name;
+        public BigDecimal price;
+        public List<String> tags;
+    }
+}
@@ -0,0 +1,158 @@
+package com.cn.rx.benchmark;
+
+import android.text.TextUtils;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.serializer.CollectionCodec;
+import com.cn.rx.callback.ResponseTemplateCallback;
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.exception.ApiThrowable;
+import com.cn.rx.exception.ServerException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 模板回调解析统一格式响应：单次读取信封（当前实现）与先解析JSONObject再转字符串重新解析（原实现）对比
+ */
+@State(Scope.Benchmark)
+public class EnvelopeBenchmark {
+
+    @Param({"10", "1000"})
+    public int items;
+
+    /**
+     * data是否为分页对象：{"data":{"total":n,"data":[...]}}
+     */
+    @Param({"false", "true"})
+    public boolean paged;
+
+    private String json;
+    private ResponseTemplateCallback<List<DecodeBenchmark.Item>> callback;
+    private LegacyTemplateCallback<List<DecodeBenchmark.Item>> legacyCallback;
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnv.init();
+        StringBuilder list = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                list.append(',');
+            }
+            list.append("{\"id\":").append(i)
+                    .append(",\"name\":\"item ").append(i)
+                    .append("\",\"price\":").append(i).append(".99")
+                    .append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        list.append(']');
+        String data = paged ? "{\"total\":" + items + ",\"data\":" + list + "}" : list.toString();
+        json = "{\"code\":0,\"msg\":\"ok\",\"data\":" + data + "}";
+        callback = new ResponseTemplateCallback<List<DecodeBenchmark.Item>>() {
+            @Override
+            public void onError(Object tag, ApiThrowable throwable) {
+            }
+
+            @Override
+            public void onSuccess(Object tag, List<DecodeBenchmark.Item> result) {
+            }
+        };
+        legacyCallback = new LegacyTemplateCallback<List<DecodeBenchmark.Item>>() {
+        };
+    }
+
+    @Benchmark
+    public List<DecodeBenchmark.Item> singlePass() throws Exception {
+        return callback.onTransformationResponse(BenchmarkEnv.jsonBody(json));
+    }
+
+    @Benchmark
+    public List<DecodeBenchmark.Item> legacy() throws Exception {
+        return legacyCallback.onTransformationResponse(BenchmarkEnv.jsonBody(json));
+    }
+
+    /**
+     * 原ResponseTemplateCallback的解析过程（含code、msg读取和成功判断），作为对比基准
+     */
+    @SuppressWarnings("unchecked")
+    abstract static class LegacyTemplateCallback<T> {
+
+        T onTransformationResponse(ResponseBody body) throws Exception {
+            String jsonStr = body.string();
+            if (TextUtils.isEmpty(jsonStr)) throw new NullPointerException("body is null");
+            JSONObject object = JSON.parseObject(jsonStr);
+            String code = getCode(object);
+            String msg = getMessage(object);
+            String dataStr = getDataStr(object);
+            boolean isSuccess = checkSuccessCode(Integer.valueOf(code), msg);
+            if (isSuccess) {
+                Type genType = getClass().getGenericSuperclass();
+                if (genType instanceof ParameterizedType) {
+                    Type[] params = ((ParameterizedType) genType).getActualTypeArguments();
+                    if (params.length > 0) {
+                        Type paramType = params[0];
+                        if (paramType instanceof Class && String.class.isAssignableFrom((Class) paramType)) {
+                            return (T) dataStr;
+                        }
+                        ObjectDeserializer deserializer = ParserConfig.getGlobalInstance().getDeserializer(paramType);
+                        if (deserializer instanceof CollectionCodec) {
+                            if (dataStr.startsWith("{") && dataStr.endsWith("}")) {
+                                JSONObject pageJson = JSON.parseObject(dataStr);
+                                String pageDataStr = getDataStr(pageJson);
+                                if ("[]".equals(pageDataStr) || pageDataStr == null || "".equals(pageDataStr)) {
+                                    throw new NullPointerException("result data is null");
+                                }
+                                dataStr = pageDataStr;
+                            }
+                        }
+                        return JSON.parseObject(dataStr, paramType, Feature.UseBigDecimal);
+                    }
+                }
+            }
+            throw new ServerException(Integer.valueOf(code), msg);
+        }
+
+        public boolean checkSuccessCode(int code, String msg) {
+            return true;
+        }
+
+        private String getCode(JSONObject object) {
+            String codeKey = ResultConfigLoader.getCodeKey();
+            String code = "-1";
+            if (object.containsKey(codeKey)) {
+                code = object.getString(codeKey);
+            }
+            return code;
+        }
+
+        private String getMessage(JSONObject object) {
+            String msgKey = ResultConfigLoader.getMsgKey();
+            if (object.containsKey(msgKey)) {
+                return object.getString(msgKey);
+            }
+            return "";
+        }
+
+        private String getDataStr(JSONObject object) {
+            List<String> dataKey = ResultConfigLoader.getDataKey();
+            for (String key : dataKey) {
+                if (object.containsKey(key)) {
+                    return object.getString(key);
+                }
+            }
+            return "";
+        }
+    }
+}
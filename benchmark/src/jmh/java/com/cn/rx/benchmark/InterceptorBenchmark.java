@@ -0,0 +1,111 @@
+package com.cn.rx.benchmark;
+
+import com.cn.rx.entity.RequestOptions;
+import com.cn.rx.interceptor.HeaderInterceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import okhttp3.FormBody;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 公共请求头和动态参数签名拦截器；legacy开头的方法使用原来的实现（{@link LegacyDynamicInterceptor}），
+ * 对比gc.alloc.rate.norm即每次签名的内存分配
+ */
+@State(Scope.Benchmark)
+public class InterceptorBenchmark {
+
+    private static final String RESPONSE = "{\"code\":0,\"msg\":\"ok\",\"data\":null}";
+
+    private HeaderInterceptor headerInterceptor;
+    private SignInterceptor signInterceptor;
+    private LegacySignInterceptor legacySignInterceptor;
+    private BenchmarkEnv.MemoryChain getChain;
+    private BenchmarkEnv.MemoryChain formChain;
+    private BenchmarkEnv.MemoryChain multipartChain;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("User-Agent", "RxHttp-Benchmark");
+        headers.put("Accept-Language", "zh-CN");
+        headers.put("X-App-Version", "1.0.1");
+        headers.put("X-Device-Id", "0f1e2d3c4b5a");
+        headerInterceptor = new HeaderInterceptor(headers);
+        signInterceptor = new SignInterceptor().timeStamp(true);
+        //原实现的选项设置在共用的拦截器上
+        legacySignInterceptor = new LegacySignInterceptor().timeStamp(true).sign(true).accessToken(true);
+
+        RequestOptions options = new RequestOptions(true, true);
+        Request get = new Request.Builder()
+                .url(BenchmarkEnv.BASE_URL + "api/list?page=1&size=20&keyword=%E6%B5%8B%E8%AF%95&order=desc")
+                .tag(options)
+                .build();
+        FormBody.Builder form = new FormBody.Builder();
+        for (int i = 0; i < 10; i++) {
+            form.add("param" + i, "value " + i);
+        }
+        Request post = new Request.Builder()
+                .url(BenchmarkEnv.BASE_URL + "api/save")
+                .post(form.build())
+                .tag(options)
+                .build();
+        MultipartBody multipart = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("name", "avatar")
+                .addFormDataPart("file", "avatar.png", okhttp3.RequestBody.create(null, new byte[1024]))
+                .build();
+        Request upload = new Request.Builder()
+                .url(BenchmarkEnv.BASE_URL + "api/upload")
+                .post(multipart)
+                .tag(options)
+                .build();
+        getChain = new BenchmarkEnv.MemoryChain(get, RESPONSE);
+        formChain = new BenchmarkEnv.MemoryChain(post, RESPONSE);
+        multipartChain = new BenchmarkEnv.MemoryChain(upload, RESPONSE);
+    }
+
+    @Benchmark
+    public Response headerIntercept() throws IOException {
+        return headerInterceptor.intercept(getChain);
+    }
+
+    @Benchmark
+    public Response signGet() throws IOException {
+        return signInterceptor.intercept(getChain);
+    }
+
+    @Benchmark
+    public Response signPostForm() throws IOException {
+        return signInterceptor.intercept(formChain);
+    }
+
+    @Benchmark
+    public Response signMultipart() throws IOException {
+        return signInterceptor.intercept(multipartChain);
+    }
+
+    @Benchmark
+    public Response legacySignGet() throws IOException {
+        return legacySignInterceptor.intercept(getChain);
+    }
+
+    @Benchmark
+    public Response legacySignPostForm() throws IOException {
+        return legacySignInterceptor.intercept(formChain);
+    }
+
+    @Benchmark
+    public Response legacySignMultipart() throws IOException {
+        return legacySignInterceptor.intercept(multipartChain);
+    }
+}
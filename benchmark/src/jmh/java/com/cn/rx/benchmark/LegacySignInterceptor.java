@@ -0,0 +1,46 @@
+package com.cn.rx.benchmark;
+
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 与{@link SignInterceptor}相同的签名逻辑，基于{@link LegacyDynamicInterceptor}，自行拼接签名字符串
+ */
+public class LegacySignInterceptor extends LegacyDynamicInterceptor<LegacySignInterceptor> {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public TreeMap<String, String> dynamic(TreeMap<String, String> dynamicMap) {
+        if (isTimeStamp()) {
+            dynamicMap.put("timestamp", "1539756000000");
+        }
+        if (isAccessToken()) {
+            dynamicMap.put("token", "7f8e9a0b1c2d3e4f");
+        }
+        if (isSign()) {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, String> entry : dynamicMap.entrySet()) {
+                sb.append(entry.getKey()).append('=').append(entry.getValue()).append('&');
+            }
+            sb.append("secret=benchmark");
+            dynamicMap.put("sign", md5(sb.toString()));
+        }
+        return dynamicMap;
+    }
+
+    private static String md5(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes("UTF-8"));
+            char[] chars = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                chars[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                chars[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(chars);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.cn.rx.benchmark;
+
+import com.cn.rx.util.MimeUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * MimeUtils查询
+ */
+@State(Scope.Benchmark)
+public class MimeBenchmark {
+
+    @Setup
+    public void setUp() {
+        MimeUtils.preload();
+    }
+
+    @Benchmark
+    public String mimeTypeFromExtension() {
+        return MimeUtils.guessMimeTypeFromExtension("png");
+    }
+
+    @Benchmark
+    public String extensionFromMimeType() {
+        return MimeUtils.guessExtensionFromMimeType("application/vnd.android.package-archive");
+    }
+}
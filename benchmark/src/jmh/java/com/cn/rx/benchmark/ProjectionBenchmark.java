@@ -0,0 +1,90 @@
+package com.cn.rx.benchmark;
+
+import com.alibaba.fastjson.TypeReference;
+import com.cn.rx.callback.ResultClazzCallProxy;
+import com.cn.rx.entity.ApiResultEntity;
+import com.cn.rx.entity.LazyApiResultEntity;
+import com.cn.rx.func.ApiResultFunc;
+import com.cn.rx.func.ProjectionFunc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * 只取code、只取id列表与完整解析ApiResultEntity的对比，以及失败响应的延迟解析
+ */
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    @Param({"100"})
+    public int items;
+
+    private String json;
+    private String errorJson;
+    private ApiResultFunc<List<DecodeBenchmark.Item>> fullFunc;
+    private ApiResultFunc<List<DecodeBenchmark.Item>> lazyFunc;
+    private ProjectionFunc<Integer> codeFunc;
+    private ProjectionFunc<List<Long>> idsFunc;
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnv.init();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"item ").append(i)
+                    .append("\",\"price\":").append(i).append(".99")
+                    .append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        json = "{\"code\":0,\"msg\":\"ok\",\"data\":[" + sb + "]}";
+        errorJson = "{\"code\":1001,\"msg\":\"error\",\"data\":[" + sb + "]}";
+        Type dataType = new TypeReference<List<DecodeBenchmark.Item>>() {
+        }.getType();
+        fullFunc = new ApiResultFunc<>(new ResultClazzCallProxy<ApiResultEntity<List<DecodeBenchmark.Item>>, List<DecodeBenchmark.Item>>(dataType) {
+        }.getType());
+        lazyFunc = new ApiResultFunc<>(new ResultClazzCallProxy<LazyApiResultEntity<List<DecodeBenchmark.Item>>, List<DecodeBenchmark.Item>>(dataType) {
+        }.getType());
+        codeFunc = new ProjectionFunc<>("code", Integer.class);
+        idsFunc = new ProjectionFunc<>("data[*].id", new TypeReference<List<Long>>() {
+        }.getType());
+    }
+
+    @Benchmark
+    public ApiResultEntity<List<DecodeBenchmark.Item>> full() throws Exception {
+        return fullFunc.apply(BenchmarkEnv.jsonBody(json));
+    }
+
+    @Benchmark
+    public Integer code() throws Exception {
+        return codeFunc.apply(BenchmarkEnv.jsonBody(json));
+    }
+
+    @Benchmark
+    public List<Long> ids() throws Exception {
+        return idsFunc.apply(BenchmarkEnv.jsonBody(json));
+    }
+
+    @Benchmark
+    public ApiResultEntity<List<DecodeBenchmark.Item>> errorFull() throws Exception {
+        return fullFunc.apply(BenchmarkEnv.jsonBody(errorJson));
+    }
+
+    @Benchmark
+    public ApiResultEntity<List<DecodeBenchmark.Item>> errorLazy() throws Exception {
+        return lazyFunc.apply(BenchmarkEnv.jsonBody(errorJson));
+    }
+
+    @Benchmark
+    public ApiResultEntity<List<DecodeBenchmark.Item>> lazy() throws Exception {
+        return lazyFunc.apply(BenchmarkEnv.jsonBody(json));
+    }
+}
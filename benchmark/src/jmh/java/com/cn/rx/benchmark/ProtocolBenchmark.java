@@ -0,0 +1,108 @@
+package com.cn.rx.benchmark;
+
+import com.cn.rx.RxHttp;
+import com.cn.rx.connection.ProtocolMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+/**
+ * 并发请求本地MockWebServer时不同协议的吞吐量
+ * <p>
+ * HTTP_1_1和H2C_PRIOR_KNOWLEDGE使用明文http；HTTP_2_PREFERRED使用https，通过TLS的ALPN协商出HTTP/2，
+ * 结果包含TLS加解密的开销。客户端通过{@link RxHttp#protocol(ProtocolMode)}配置，
+ * 每个基准测试在单独的JVM中运行，修改全局配置不影响其他基准测试
+ */
+@State(Scope.Benchmark)
+@Threads(16)
+public class ProtocolBenchmark {
+
+    @Param({"HTTP_1_1", "H2C_PRIOR_KNOWLEDGE", "HTTP_2_PREFERRED"})
+    public ProtocolMode protocol;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private Request request;
+
+    @Setup
+    public void setUp() throws IOException {
+        RxHttp rxHttp = BenchmarkEnv.init().protocol(protocol);
+        server = new MockWebServer();
+        server.setProtocols(protocol.protocols());
+        if (protocol == ProtocolMode.HTTP_2_PREFERRED) {
+            HeldCertificate certificate = new HeldCertificate.Builder()
+                    .addSubjectAlternativeName(InetAddress.getByName("localhost").getCanonicalHostName())
+                    .build();
+            HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+                    .heldCertificate(certificate)
+                    .build();
+            server.useHttps(serverCertificates.sslSocketFactory(), false);
+            //客户端通过全局自签名证书信任服务端
+            rxHttp.certificates(new ByteArrayInputStream(certificate.certificatePem().getBytes(StandardCharsets.US_ASCII)));
+        }
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest recordedRequest) {
+                return new MockResponse().setBody("{\"code\":0,\"msg\":\"ok\",\"data\":{\"id\":1}}");
+            }
+        });
+        server.start();
+        client = rxHttp.getOkHttpClient();
+        client.dispatcher().setMaxRequestsPerHost(64);
+        request = new Request.Builder().url(server.url("/api/item")).build();
+        checkProtocol();
+    }
+
+    /**
+     * 确认实际使用的协议，ALPN不可用时HTTP_2_PREFERRED会退回HTTP/1.1，结果没有意义
+     */
+    private void checkProtocol() throws IOException {
+        Response response = client.newCall(request).execute();
+        try {
+            Protocol expected = protocol.protocols().get(0);
+            if (response.protocol() != expected) {
+                throw new IllegalStateException(protocol + " negotiated " + response.protocol() + ", expected " + expected);
+            }
+        } finally {
+            response.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.connectionPool().evictAll();
+        server.shutdown();
+        RxHttp.getInstance().protocol(ProtocolMode.HTTP_2_PREFERRED);
+    }
+
+    @Benchmark
+    public int request() throws IOException {
+        Response response = client.newCall(request).execute();
+        try {
+            return response.body().string().length();
+        } finally {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cn.rx.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.cn.rx.codec.FastJsonConverterFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import okhttp3.RequestBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * object()请求体：先转String再创建RequestBody与直接序列化到sink
+ */
+@State(Scope.Benchmark)
+public class RequestBodyBenchmark {
+
+    @Param({"1", "100"})
+    public int items;
+
+    private List<DecodeBenchmark.Item> value;
+    private Converter<Object, RequestBody> converter;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setUp() {
+        value = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            DecodeBenchmark.Item item = new DecodeBenchmark.Item();
+            item.id = i;
+            item.name = "item " + i;
+            item.price = new BigDecimal(i + ".99");
+            item.tags = Arrays.asList("a", "b");
+            value.add(item);
+        }
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(BenchmarkEnv.BASE_URL)
+                .addConverterFactory(FastJsonConverterFactory.create())
+                .build();
+        converter = (Converter<Object, RequestBody>) retrofit.requestBodyConverter(List.class,
+                new Annotation[0], new Annotation[0]);
+    }
+
+    @Benchmark
+    public Buffer viaString() throws Exception {
+        Buffer sink = new Buffer();
+        RequestBody.create(BenchmarkEnv.JSON, JSON.toJSONString(value)).writeTo(sink);
+        return sink;
+    }
+
+    @Benchmark
+    public Buffer streaming() throws Exception {
+        Buffer sink = new Buffer();
+        converter.convert(value).writeTo(sink);
+        return sink;
+    }
+}
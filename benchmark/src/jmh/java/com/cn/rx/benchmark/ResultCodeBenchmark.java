@@ -0,0 +1,56 @@
+package com.cn.rx.benchmark;
+
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * 每个响应的状态码判断：原来的List.contains、String.valueOf加HashMap查找与编译后的int数组对比
+ */
+@State(Scope.Benchmark)
+public class ResultCodeBenchmark {
+
+    private ResultConfigLoader.Config config;
+    private ResultProfile profile;
+    private String code = "1001";
+    private int errorCode = 1001;
+
+    @Setup
+    public void setUp() {
+        config = new ResultConfigLoader.Config();
+        config.setSuccessCode(Arrays.asList("0", "200", "201"));
+        HashMap<String, String> errorInfo = new HashMap<>();
+        for (int i = 1000; i < 1020; i++) {
+            errorInfo.put(String.valueOf(i), "error " + i);
+        }
+        config.setErrorInfo(errorInfo);
+        profile = ResultProfile.compile(config, ResultProfile.DEFAULT);
+    }
+
+    @Benchmark
+    public String legacy() {
+        if (config.getSuccessCode().contains(code)) {
+            return null;
+        }
+        //原来的checkErrorCode和errorDesc各格式化、查找一次
+        if (config.getErrorInfo().containsKey(String.valueOf(errorCode))) {
+            return config.getErrorInfo().get(String.valueOf(errorCode));
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String compiled() {
+        if (profile.isSuccess(code)) {
+            return null;
+        }
+        return profile.errorDesc(errorCode);
+    }
+}
@@ -0,0 +1,42 @@
+package com.cn.rx.benchmark;
+
+import com.cn.rx.interceptor.BaseDynamicInterceptor;
+
+import java.security.MessageDigest;
+import java.util.TreeMap;
+
+/**
+ * 典型的签名拦截器：追加时间戳和token，按参数排序拼接后计算MD5
+ */
+public class SignInterceptor extends BaseDynamicInterceptor<SignInterceptor> {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public TreeMap<String, String> dynamic(TreeMap<String, String> dynamicMap) {
+        if (isTimeStamp()) {
+            dynamicMap.put("timestamp", "1539756000000");
+        }
+        if (isAccessToken()) {
+            dynamicMap.put("token", "7f8e9a0b1c2d3e4f");
+        }
+        if (isSign()) {
+            dynamicMap.put("sign", md5(joinParams(dynamicMap) + "&secret=benchmark"));
+        }
+        return dynamicMap;
+    }
+
+    private static String md5(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes("UTF-8"));
+            char[] chars = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                chars[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                chars[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(chars);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
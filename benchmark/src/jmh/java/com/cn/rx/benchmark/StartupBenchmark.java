@@ -0,0 +1,86 @@
+package com.cn.rx.benchmark;
+
+import android.content.Context;
+
+import com.cn.rx.RxHttp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * 冷启动到第一个请求完成的耗时，每次测量使用新的JVM，对比同步init()和initAsync()
+ * <p>
+ * init之后先模拟一段应用自身的启动工作，再向MockWebServer发起第一个请求
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"sync", "async"})
+    public String init;
+
+    private MockWebServer server;
+    private File dir;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{\"code\":0,\"msg\":\"ok\",\"data\":{\"id\":1}}"));
+        server.start();
+        dir = new File(System.getProperty("java.io.tmpdir"), "rxhttp-benchmark");
+        dir.mkdirs();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public Map firstRequest() {
+        Context context = new Context(dir);
+        RxHttp rxHttp = RxHttp.getInstance();
+        if ("async".equals(init)) {
+            rxHttp.initAsync(context);
+        } else {
+            rxHttp.init(context);
+        }
+        rxHttp.baseUrl(server.url("/").toString());
+        simulateAppStartup();
+        return RxHttp.resultPost("api/item")
+                .execute(Map.class)
+                .blockingFirst();
+    }
+
+    /**
+     * 模拟应用启动时的其他工作（布局、数据库等），约20ms
+     */
+    private static void simulateAppStartup() {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+        while (System.nanoTime() < end) {
+            Thread.yield();
+        }
+    }
+}
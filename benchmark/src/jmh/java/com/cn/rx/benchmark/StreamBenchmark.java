@@ -0,0 +1,77 @@
+package com.cn.rx.benchmark;
+
+import com.alibaba.fastjson.TypeReference;
+import com.cn.rx.callback.ResultClazzCallProxy;
+import com.cn.rx.entity.ApiResultEntity;
+import com.cn.rx.func.ApiResultFunc;
+import com.cn.rx.func.StreamFunc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Flowable;
+
+/**
+ * 大数组逐个发送与整体解析的对比：拿到第一个元素的耗时、读完全部元素的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamBenchmark {
+
+    @Param({"2000"})
+    public int items;
+
+    private String json;
+    private ApiResultFunc<List<DecodeBenchmark.Item>> fullFunc;
+    private StreamFunc<DecodeBenchmark.Item> streamFunc;
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnv.init();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"item ").append(i)
+                    .append("\",\"price\":").append(i).append(".99")
+                    .append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        json = "{\"code\":0,\"msg\":\"ok\",\"data\":[" + sb + "]}";
+        Type dataType = new TypeReference<List<DecodeBenchmark.Item>>() {
+        }.getType();
+        fullFunc = new ApiResultFunc<>(new ResultClazzCallProxy<ApiResultEntity<List<DecodeBenchmark.Item>>, List<DecodeBenchmark.Item>>(dataType) {
+        }.getType());
+        streamFunc = new StreamFunc<>(DecodeBenchmark.Item.class, false);
+    }
+
+    /**
+     * 整体解析时第一个元素要等整个数组解析完
+     */
+    @Benchmark
+    public ApiResultEntity<List<DecodeBenchmark.Item>> full() throws Exception {
+        return fullFunc.apply(BenchmarkEnv.jsonBody(json));
+    }
+
+    @Benchmark
+    public DecodeBenchmark.Item streamFirst() throws Exception {
+        return Flowable.fromPublisher(streamFunc.apply(BenchmarkEnv.jsonBody(json))).blockingFirst();
+    }
+
+    @Benchmark
+    public long streamAll() throws Exception {
+        return Flowable.fromPublisher(streamFunc.apply(BenchmarkEnv.jsonBody(json))).count().blockingGet();
+    }
+}
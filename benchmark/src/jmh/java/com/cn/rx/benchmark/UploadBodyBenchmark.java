@@ -0,0 +1,107 @@
+package com.cn.rx.benchmark;
+
+import com.cn.rx.body.FileRequestBody;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
+
+/**
+ * 上传文件：RequestBody.create(File)与按段映射的FileRequestBody写入sink的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UploadBodyBenchmark {
+
+    private static final MediaType OCTET = MediaType.parse("application/octet-stream");
+
+    @Param({"16"})
+    public int megabytes;
+
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("upload", ".bin");
+        byte[] chunk = new byte[1024 * 1024];
+        new Random(1).nextBytes(chunk);
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < megabytes; i++) {
+                out.write(chunk);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public long okhttpFile() throws IOException {
+        return write(RequestBody.create(OCTET, file));
+    }
+
+    @Benchmark
+    public long mappedFile() throws IOException {
+        return write(new FileRequestBody(OCTET, file));
+    }
+
+    /**
+     * 模拟socket：sink每满一个Segment就交给下层，下层直接丢弃
+     */
+    private static long write(RequestBody body) throws IOException {
+        DiscardSink discard = new DiscardSink();
+        BufferedSink sink = Okio.buffer(discard);
+        body.writeTo(sink);
+        sink.flush();
+        return discard.total;
+    }
+
+    private static final class DiscardSink implements Sink {
+        long total;
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            source.skip(byteCount);
+            total += byteCount;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cn.rx.request;
+
+import com.cn.rx.benchmark.BenchmarkEnv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 创建请求并调用build()，与BaseRequest同包以便调用protected的build()
+ */
+@State(Scope.Benchmark)
+public class RequestBuildBenchmark {
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnv.init();
+    }
+
+    /**
+     * 使用全局配置，直接复用快照中的OkHttpClient/Retrofit
+     */
+    @Benchmark
+    public ApiResultPostRequest buildDefault() {
+        return new ApiResultPostRequest("api/save")
+                .param("id", "1")
+                .build();
+    }
+
+    /**
+     * 单独设置了超时和请求头，命中按配置缓存的OkHttpClient/Retrofit
+     */
+    @Benchmark
+    public ApiResultPostRequest buildCustomClient() {
+        return new ApiResultPostRequest("api/save")
+                .readTimeOut(10)
+                .addHeader("X-Trace", "benchmark")
+                .isSign(true)
+                .param("id", "1")
+                .build();
+    }
+}
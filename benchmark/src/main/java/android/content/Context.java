@@ -0,0 +1,54 @@
+package android.content;
+
+import android.content.res.Resources;
+import android.net.ConnectivityManager;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM上运行基准测试用的替身，目录指向临时目录，assets从classpath读取
+ */
+public class Context {
+
+    public static final int MODE_PRIVATE = 0;
+    public static final String CONNECTIVITY_SERVICE = "connectivity";
+
+    private final File mDir;
+    private final Resources mResources = new Resources();
+    private final Map<String, SharedPreferences> mPreferences = new HashMap<>();
+
+    public Context(File dir) {
+        this.mDir = dir;
+    }
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public File getCacheDir() {
+        return new File(mDir, "cache");
+    }
+
+    public File getExternalFilesDir(String type) {
+        return new File(mDir, "files");
+    }
+
+    public Resources getResources() {
+        return mResources;
+    }
+
+    public Object getSystemService(String name) {
+        return CONNECTIVITY_SERVICE.equals(name) ? new ConnectivityManager() : null;
+    }
+
+    public synchronized SharedPreferences getSharedPreferences(String name, int mode) {
+        SharedPreferences preferences = mPreferences.get(name);
+        if (preferences == null) {
+            preferences = new SharedPreferences();
+            mPreferences.put(name, preferences);
+        }
+        return preferences;
+    }
+}
@@ -0,0 +1,61 @@
+package android.content;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM上运行基准测试用的替身，只保存在内存中
+ */
+public class SharedPreferences {
+
+    private final Map<String, Object> mValues = new HashMap<>();
+
+    public synchronized Map<String, ?> getAll() {
+        return new HashMap<>(mValues);
+    }
+
+    public synchronized String getString(String key, String defValue) {
+        Object value = mValues.get(key);
+        return value instanceof String ? (String) value : defValue;
+    }
+
+    public Editor edit() {
+        return new Editor();
+    }
+
+    public class Editor {
+        private final Map<String, Object> mPut = new HashMap<>();
+        private final Map<String, Boolean> mRemove = new HashMap<>();
+        private boolean mClear;
+
+        public Editor putString(String key, String value) {
+            mPut.put(key, value);
+            return this;
+        }
+
+        public Editor remove(String key) {
+            mRemove.put(key, Boolean.TRUE);
+            return this;
+        }
+
+        public Editor clear() {
+            mClear = true;
+            return this;
+        }
+
+        public boolean commit() {
+            synchronized (SharedPreferences.this) {
+                if (mClear) {
+                    mValues.clear();
+                }
+                mValues.keySet().removeAll(mRemove.keySet());
+                mValues.putAll(mPut);
+            }
+            return true;
+        }
+
+        public void apply() {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package android.content.res;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * JVM上运行基准测试用的替身，从classpath的assets目录读取
+ */
+public class AssetManager {
+
+    public InputStream open(String fileName) throws IOException {
+        InputStream in = AssetManager.class.getClassLoader().getResourceAsStream("assets/" + fileName);
+        if (in == null) {
+            throw new FileNotFoundException(fileName);
+        }
+        return in;
+    }
+}
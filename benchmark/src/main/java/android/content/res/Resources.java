@@ -0,0 +1,13 @@
+package android.content.res;
+
+/**
+ * JVM上运行基准测试用的替身
+ */
+public class Resources {
+
+    private final AssetManager mAssets = new AssetManager();
+
+    public AssetManager getAssets() {
+        return mAssets;
+    }
+}
@@ -0,0 +1,11 @@
+package android.net;
+
+/**
+ * JVM上运行基准测试用的替身
+ */
+public class ParseException extends RuntimeException {
+
+    public ParseException(String detailMessage) {
+        super(detailMessage);
+    }
+}
@@ -0,0 +1,30 @@
+package android.os;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM上运行基准测试用的替身
+ */
+public class Bundle {
+
+    private final Map<String, Object> mValues = new HashMap<>();
+
+    public void putLong(String key, long value) {
+        mValues.put(key, value);
+    }
+
+    public long getLong(String key) {
+        Object value = mValues.get(key);
+        return value instanceof Long ? (Long) value : 0L;
+    }
+
+    public void putFloat(String key, float value) {
+        mValues.put(key, value);
+    }
+
+    public float getFloat(String key) {
+        Object value = mValues.get(key);
+        return value instanceof Float ? (Float) value : 0f;
+    }
+}
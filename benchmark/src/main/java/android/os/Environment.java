@@ -0,0 +1,19 @@
+package android.os;
+
+import java.io.File;
+
+/**
+ * JVM上运行基准测试用的替身，外部存储指向临时目录
+ */
+public class Environment {
+
+    public static final String MEDIA_MOUNTED = "mounted";
+
+    public static File getExternalStorageDirectory() {
+        return new File(System.getProperty("java.io.tmpdir"));
+    }
+
+    public static String getExternalStorageState() {
+        return MEDIA_MOUNTED;
+    }
+}
@@ -0,0 +1,46 @@
+package android.os;
+
+/**
+ * JVM上运行基准测试用的替身，消息在发送的线程上直接处理
+ */
+public class Handler {
+
+    public Handler() {
+    }
+
+    public Handler(Looper looper) {
+    }
+
+    public void handleMessage(Message msg) {
+    }
+
+    public final Message obtainMessage() {
+        return new Message();
+    }
+
+    public final boolean sendMessage(Message msg) {
+        handleMessage(msg);
+        return true;
+    }
+
+    public final boolean post(Runnable r) {
+        r.run();
+        return true;
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        r.run();
+        return true;
+    }
+
+    public final boolean postAtTime(Runnable r, Object token, long uptimeMillis) {
+        r.run();
+        return true;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+    }
+
+    public final void removeCallbacksAndMessages(Object token) {
+    }
+}
@@ -0,0 +1,20 @@
+package android.os;
+
+/**
+ * JVM上运行基准测试用的替身，没有消息循环，所有线程都不是主线程
+ */
+public final class Looper {
+
+    private static final Looper sMainLooper = new Looper();
+
+    private Looper() {
+    }
+
+    public static Looper getMainLooper() {
+        return sMainLooper;
+    }
+
+    public static Looper myLooper() {
+        return null;
+    }
+}
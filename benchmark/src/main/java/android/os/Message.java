@@ -0,0 +1,21 @@
+package android.os;
+
+/**
+ * JVM上运行基准测试用的替身
+ */
+public final class Message {
+
+    public int what;
+    private Bundle mData;
+
+    public Bundle getData() {
+        if (mData == null) {
+            mData = new Bundle();
+        }
+        return mData;
+    }
+
+    public void setData(Bundle data) {
+        this.mData = data;
+    }
+}
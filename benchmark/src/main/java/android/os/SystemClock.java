@@ -0,0 +1,14 @@
+package android.os;
+
+/**
+ * JVM上运行基准测试用的替身
+ */
+public final class SystemClock {
+
+    private SystemClock() {
+    }
+
+    public static long uptimeMillis() {
+        return System.nanoTime() / 1000000L;
+    }
+}
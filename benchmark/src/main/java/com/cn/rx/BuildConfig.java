@@ -0,0 +1,8 @@
+package com.cn.rx;
+
+/**
+ * Android插件生成的BuildConfig的替身，基准测试不输出调试日志
+ */
+public final class BuildConfig {
+    public static final boolean DEBUG = false;
+}
@@ -0,0 +1,17 @@
+package io.reactivex.android.schedulers;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * JVM上运行基准测试用的替身，没有主线程，切换到主线程的操作直接在当前线程执行
+ */
+public final class AndroidSchedulers {
+
+    private AndroidSchedulers() {
+    }
+
+    public static Scheduler mainThread() {
+        return Schedulers.trampoline();
+    }
+}
@@ -7,63 +7,118 @@ import io.reactivex.Observable;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
 import retrofit2.http.Body;
 import retrofit2.http.FieldMap;
 import retrofit2.http.FormUrlEncoded;
 import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.HeaderMap;
 import retrofit2.http.Headers;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.Part;
 import retrofit2.http.PartMap;
+import retrofit2.http.QueryMap;
 import retrofit2.http.Streaming;
 import retrofit2.http.Url;
 
+/**
+ * 请求头（包括{@link com.cn.rx.entity.RequestOptions}）通过HeaderMap随单次请求传入，
+ * 因此不同请求头的请求也可以共用同一个OkHttpClient
+ */
 public interface ApiManager {
 
     @POST()
-    Observable<ResponseBody> postBody(@Url String url, @Body RequestBody mRequestBody);
+    Observable<ResponseBody> postBody(@Url String url, @Body RequestBody mRequestBody, @HeaderMap Map<String, String> headers);
 
     @POST()
-    Observable<ResponseBody> postBody(@Url String url, @Body Object object);
+    Observable<ResponseBody> postBody(@Url String url, @Body Object object, @HeaderMap Map<String, String> headers);
 
     @POST()
     @Headers({"Content-Type: application/json", "Accept: application/json"})
-    Observable<ResponseBody> potJsonStr(@Url String url, @Body RequestBody jsonBody);
+    Observable<ResponseBody> potJsonStr(@Url String url, @Body RequestBody jsonBody, @HeaderMap Map<String, String> headers);
 
     @POST()
     @Headers({"Content-Type: application/json", "Accept: application/json"})
-    Observable<ResponseBody> postJson(@Url String url, @Body Object object);
+    Observable<ResponseBody> postJson(@Url String url, @Body Object object, @HeaderMap Map<String, String> headers);
 
     @POST()
-    Observable<ResponseBody> post(@Url String url);
+    Observable<ResponseBody> post(@Url String url, @HeaderMap Map<String, String> headers);
 
     @FormUrlEncoded
     @POST()
-    Observable<ResponseBody> postMap(@Url String mUrl, @FieldMap(encoded = true) Map<String, String> maps);
+    Observable<ResponseBody> postMap(@Url String mUrl, @FieldMap(encoded = true) Map<String, String> maps, @HeaderMap Map<String, String> headers);
+
+    /**
+     * 以下与上面的post方法相同，但响应体不预先读入内存，供边下载边解析使用
+     */
+    @Streaming
+    @POST()
+    Observable<ResponseBody> postBodyStreaming(@Url String url, @Body RequestBody mRequestBody, @HeaderMap Map<String, String> headers);
+
+    @Streaming
+    @POST()
+    Observable<ResponseBody> postBodyStreaming(@Url String url, @Body Object object, @HeaderMap Map<String, String> headers);
+
+    @Streaming
+    @POST()
+    @Headers({"Content-Type: application/json", "Accept: application/json"})
+    Observable<ResponseBody> postJsonStrStreaming(@Url String url, @Body RequestBody jsonBody, @HeaderMap Map<String, String> headers);
+
+    @Streaming
+    @POST()
+    @Headers({"Content-Type: application/json", "Accept: application/json"})
+    Observable<ResponseBody> postJsonStreaming(@Url String url, @Body Object object, @HeaderMap Map<String, String> headers);
+
+    @Streaming
+    @POST()
+    Observable<ResponseBody> postStreaming(@Url String url, @HeaderMap Map<String, String> headers);
+
+    @Streaming
+    @FormUrlEncoded
+    @POST()
+    Observable<ResponseBody> postMapStreaming(@Url String mUrl, @FieldMap(encoded = true) Map<String, String> maps, @HeaderMap Map<String, String> headers);
 
     @Multipart
     @POST()
-    Observable<ResponseBody> uploadFileWithPartList(@Url String mUrl, @Part() List<MultipartBody.Part> partList);
+    Observable<ResponseBody> uploadFileWithPartList(@Url String mUrl, @Part() List<MultipartBody.Part> partList, @HeaderMap Map<String, String> headers);
 
     @Multipart
     @POST()
-    Observable<ResponseBody> uploadFileWithPartMap(@Url String mUrl, @PartMap() Map<String, MultipartBody.Part> partMap);
+    Observable<ResponseBody> uploadFileWithPartMap(@Url String mUrl, @PartMap() Map<String, MultipartBody.Part> partMap, @HeaderMap Map<String, String> headers);
 
     @POST()
-    Observable<ResponseBody> uploadFileWithBody(@Url() String url, @Body RequestBody Body);
+    Observable<ResponseBody> uploadFileWithBody(@Url() String url, @Body RequestBody Body, @HeaderMap Map<String, String> headers);
 
     @Multipart
     @POST()
-    Observable<ResponseBody> uploadFileWithBodyMap(@Url String mUrl, @PartMap() Map<String, RequestBody> maps);
+    Observable<ResponseBody> uploadFileWithBodyMap(@Url String mUrl, @PartMap() Map<String, RequestBody> maps, @HeaderMap Map<String, String> headers);
 
     @Multipart
     @POST()
-    Observable<ResponseBody> uploadFileWithBodyMap(@Url String mUrl, @Body List<RequestBody> maps);
+    Observable<ResponseBody> uploadFileWithBodyMap(@Url String mUrl, @Body List<RequestBody> maps, @HeaderMap Map<String, String> headers);
+
+    /**
+     * 返回完整的Response，以便读取状态码（304）和ETag/Last-Modified响应头
+     */
+    @GET
+    Observable<Response<ResponseBody>> get(@Url String url, @QueryMap Map<String, String> maps, @HeaderMap Map<String, String> headers);
+
+    @Streaming
+    @GET
+    Observable<ResponseBody> downloadFile(@Url String mUrl, @HeaderMap Map<String, String> headers);
+
+    /**
+     * 分段下载在下载线程上同步执行，需要单独取消每个连接，因此返回Call
+     */
+    @HEAD
+    Call<Void> head(@Url String url, @HeaderMap Map<String, String> headers);
 
     @Streaming
     @GET
-    Observable<ResponseBody> downloadFile(@Url String mUrl);
+    Call<ResponseBody> downloadRange(@Url String url, @HeaderMap Map<String, String> headers);
 
 
 //    @POST()
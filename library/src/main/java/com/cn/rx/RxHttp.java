@@ -4,12 +4,34 @@ package com.cn.rx;
 import android.content.Context;
 
 
+import com.alibaba.fastjson.JSON;
+import com.cn.rx.codec.CodecRegistry;
+import com.cn.rx.codec.FastJsonConverterFactory;
+import com.cn.rx.codec.ResponseCodec;
+import com.cn.rx.compress.CompressionStats;
+import com.cn.rx.compress.GzipEncoder;
+import com.cn.rx.compress.RequestCompression;
+import com.cn.rx.compress.RequestEncoder;
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.connection.ConnectionMetrics;
+import com.cn.rx.connection.ConnectionStats;
+import com.cn.rx.connection.ProtocolMode;
+import com.cn.rx.dispatch.Lane;
+import com.cn.rx.dispatch.LaneStats;
+import com.cn.rx.dispatch.RequestDispatcher;
+import com.cn.rx.entity.PreconnectResult;
 import com.cn.rx.interceptor.HeaderInterceptor;
+import com.cn.rx.request.ClientCache;
 import com.cn.rx.request.DownloadRequest;
+import com.cn.rx.request.GetRequest;
+import com.cn.rx.request.Preconnector;
+import com.cn.rx.request.RequestCoalescer;
 import com.cn.rx.request.TemplatePostRequest;
 import com.cn.rx.request.ApiResultPostRequest;
 import com.cn.rx.request.UploadRequest;
+import com.cn.rx.request.ValidatorCache;
 import com.cn.rx.util.LogUtil;
+import com.cn.rx.util.MimeUtils;
 import com.cn.rx.util.SSLUtil;
 import com.cn.rx.util.Util;
 
@@ -26,9 +48,13 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 
+import io.reactivex.Observable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.Cache;
 import okhttp3.ConnectionPool;
 import okhttp3.CookieJar;
+import okhttp3.EventListener;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
@@ -46,7 +72,7 @@ public final class RxHttp {
     private static final int DEFAULT_RETRY_DELAY = 500;               //默认重试延时
 
 
-    private static RxHttp mInstance;
+    private static volatile RxHttp mInstance;
     private OkHttpClient.Builder okHttpClientBuilder;                       //okhttp请求的客户端
     private Retrofit.Builder retrofitBuilder;                         //Retrlofit请求Builder
     private long mCacheMaxSize;                                       //最大缓存
@@ -63,13 +89,46 @@ public final class RxHttp {
     private boolean isSign = false;
     private boolean accessToken = false;
     private boolean isSyncRequest = true;
-    private HeaderInterceptor mHeaderInterceptor;
+    private boolean batchDelivery = false;                            //是否合并投递主线程回调
+    private volatile RxHttpConfig mConfig;                            //全局配置快照
+    private final ClientCache mClientCache = new ClientCache();     //按配置缓存的OkHttpClient/Retrofit/ApiManager
+    private final RequestDispatcher mDispatcher = new RequestDispatcher(); //按通道和优先级调度请求
+    private final RequestCoalescer mCoalescer = new RequestCoalescer();    //合并相同的进行中请求
+    private String[] mPreconnectUrls;                                 //首次发布配置后需要预连接的地址
+    private ConnectionMetrics mConnectionMetrics;                     //连接及多路复用统计
+    private RequestCompression mRequestCompression;                   //请求体压缩
+    private final ValidatorCache mValidatorCache = new ValidatorCache();  //GET请求的协商缓存
+    private final CodecRegistry mCodecRegistry = new CodecRegistry();     //按Content-Type选择的响应解析器
 
     public RxHttp init(Context context) {
         this.context = context;
         return this;
     }
 
+    /**
+     * 初始化，并在后台线程完成耗时的准备工作：读取result-config.json、加载MimeUtils映射表、
+     * 初始化fastjson以及OkHttp的类加载和默认TLS；第一个请求只会等待它实际用到的部分
+     * <p>
+     * 全局配置快照仍由第一个请求在调用线程上编译：后台线程不读取全局配置，
+     * 之后链式调用的baseUrl、addHeader等设置方法不需要加锁
+     */
+    public RxHttp initAsync(Context context) {
+        this.context = context;
+        final Context appContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        ResultConfigLoader.lazyInit(appContext);
+        Schedulers.io().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                ResultConfigLoader.init(appContext);
+                JSON.parseObject("{}");
+                MimeUtils.preload();
+                //独立的Builder，不接触全局的okHttpClientBuilder
+                new OkHttpClient.Builder().build();
+            }
+        });
+        return this;
+    }
+
 
     private RxHttp() {
         okHttpClientBuilder = new OkHttpClient.Builder();
@@ -78,6 +137,7 @@ public final class RxHttp {
         okHttpClientBuilder.writeTimeout(DEFAULT_MILLISECONDS, TimeUnit.SECONDS);
         retrofitBuilder = new Retrofit.Builder();
         retrofitBuilder.addCallAdapterFactory(RxJava2CallAdapterFactory.create());//增加RxJava2CallAdapterFactory
+        retrofitBuilder.addConverterFactory(FastJsonConverterFactory.create());//object()等请求体默认用fastjson序列化
     }
 
     public static RxHttp getInstance() {
@@ -101,6 +161,7 @@ public final class RxHttp {
     public RxHttp baseUrl(String baseUrl) {
         this.baseUrl = baseUrl;
         retrofitBuilder.baseUrl(Util.checkNotNull(baseUrl, "OkHttpClient is null"));
+        invalidate();
         return this;
     }
 
@@ -109,6 +170,7 @@ public final class RxHttp {
      */
     public RxHttp OkHttpClient(OkHttpClient okHttpClient) {
         retrofitBuilder.client(Util.checkNotNull(okHttpClient, "OkHttpClient is null"));
+        invalidate();
         return this;
     }
 
@@ -124,6 +186,7 @@ public final class RxHttp {
             //设置 Debug Log 模式
             this.okHttpClientBuilder.addInterceptor(loggingInterceptor);
         }
+        invalidate();
         return this;
     }
 
@@ -134,6 +197,7 @@ public final class RxHttp {
         if (!networkInterceptorList.contains(Util.checkNotNull(interceptor, "interceptor is null"))) {
             networkInterceptorList.add(interceptor);
         }
+        invalidate();
         return this;
     }
 
@@ -144,6 +208,7 @@ public final class RxHttp {
         if (!interceptorList.contains(Util.checkNotNull(interceptor, "interceptor is null"))) {
             interceptorList.add(interceptor);
         }
+        invalidate();
         return this;
     }
 
@@ -152,6 +217,7 @@ public final class RxHttp {
      */
     public RxHttp cache(Cache cache) {
         okHttpClientBuilder.cache(Util.checkNotNull(cache, "cache is null"));
+        invalidate();
         return this;
     }
 
@@ -176,6 +242,7 @@ public final class RxHttp {
      */
     public RxHttp okProxy(Proxy proxy) {
         okHttpClientBuilder.proxy(proxy);
+        invalidate();
         return this;
     }
 
@@ -184,14 +251,16 @@ public final class RxHttp {
      */
     public RxHttp hostnameVerifier(HostnameVerifier hostnameVerifier) {
         okHttpClientBuilder.hostnameVerifier(Util.checkNotNull(hostnameVerifier, "HostnameVerifier is null"));
+        invalidate();
         return this;
     }
 
     /**
-     * 全局设置Converter.Factory
+     * 全局设置Converter.Factory，优先于默认的{@link FastJsonConverterFactory}
      */
     public RxHttp converterFactory(Converter.Factory converterFactory) {
         retrofitBuilder.addConverterFactory(Util.checkNotNull(converterFactory, "Converter.Factory is null"));
+        invalidate();
         return this;
     }
 
@@ -200,6 +269,7 @@ public final class RxHttp {
      */
     public RxHttp callAdapterFactory(CallAdapter.Factory callAdapterFactory) {
         retrofitBuilder.addCallAdapterFactory(Util.checkNotNull(callAdapterFactory, "CallAdapter.Factory is null"));
+        invalidate();
         return this;
     }
 
@@ -208,6 +278,7 @@ public final class RxHttp {
      */
     public RxHttp setCallFactory(okhttp3.Call.Factory factory) {
         retrofitBuilder.callFactory(Util.checkNotNull(factory, "factory == null"));
+        invalidate();
         return this;
     }
 
@@ -217,6 +288,7 @@ public final class RxHttp {
     public RxHttp certificates(InputStream... certificates) {
         SSLUtil.SSLParams sslParams = SSLUtil.getSslSocketFactory(null, null, certificates);
         okHttpClientBuilder.sslSocketFactory(sslParams.sSLSocketFactory, sslParams.trustManager);
+        invalidate();
         return this;
     }
 
@@ -226,17 +298,20 @@ public final class RxHttp {
     public RxHttp certificates(InputStream bksFile, String password, InputStream... certificates) {
         SSLUtil.SSLParams sslParams = SSLUtil.getSslSocketFactory(bksFile, password, certificates);
         okHttpClientBuilder.sslSocketFactory(sslParams.sSLSocketFactory, sslParams.trustManager);
+        invalidate();
         return this;
     }
 
     public RxHttp sslSocketFactory(SSLSocketFactory sslSocketFactory) {
         okHttpClientBuilder.sslSocketFactory(sslSocketFactory);
+        invalidate();
         return this;
     }
 
 
     public RxHttp trustManager(SSLSocketFactory sslSocketFactory, X509TrustManager trustManager) {
         okHttpClientBuilder.sslSocketFactory(sslSocketFactory, trustManager);
+        invalidate();
         return this;
     }
 
@@ -245,6 +320,7 @@ public final class RxHttp {
      */
     public RxHttp cookieJar(CookieJar cookieJar) {
         okHttpClientBuilder.cookieJar(cookieJar);
+        invalidate();
         return this;
     }
 
@@ -253,6 +329,7 @@ public final class RxHttp {
      */
     public RxHttp connectionPool(ConnectionPool connectionPool) {
         okHttpClientBuilder.connectionPool(connectionPool);
+        invalidate();
         return this;
     }
 
@@ -265,24 +342,19 @@ public final class RxHttp {
      */
     public RxHttp headers(Map<String, String> headers) {
         this.headers.putAll(headers);
+        invalidate();
         return this;
     }
 
     public RxHttp remove(String key) {
-        if (headers.containsKey(key)) {
-            headers.remove(key);
-        }
-        if (this.mHeaderInterceptor != null) {
-            this.mHeaderInterceptor.remove(key);
-        }
+        headers.remove(key);
+        invalidate();
         return this;
     }
 
     public RxHttp clearAllHeaders() {
         headers.clear();
-        if (this.mHeaderInterceptor != null) {
-            this.mHeaderInterceptor.clearAll();
-        }
+        invalidate();
         return this;
     }
 
@@ -291,11 +363,12 @@ public final class RxHttp {
      */
     public RxHttp addHeader(String key, String value) {
         this.headers.put(key, value);
+        invalidate();
         return this;
     }
 
     public HeaderInterceptor getBaseHeaderInterceptor() {
-        return this.mHeaderInterceptor;
+        return getConfig().getHeaderInterceptor();
     }
 
     public Map<String, String> getParameters() {
@@ -304,11 +377,13 @@ public final class RxHttp {
 
     public RxHttp parameters(Map<String, String> parameters) {
         this.parameters.putAll(parameters);
+        invalidate();
         return this;
     }
 
     public RxHttp addParam(String key, String value) {
         this.parameters.put(key, value);
+        invalidate();
         return this;
     }
 
@@ -321,6 +396,7 @@ public final class RxHttp {
      */
     public RxHttp httpClient(OkHttpClient httpClient) {
         this.httpClient = httpClient;
+        invalidate();
         return this;
     }
 
@@ -329,6 +405,7 @@ public final class RxHttp {
      */
     public RxHttp readTimeout(long readTimeout) {
         okHttpClientBuilder.readTimeout(readTimeout, TimeUnit.SECONDS);
+        invalidate();
         return this;
     }
 
@@ -337,6 +414,7 @@ public final class RxHttp {
      */
     public RxHttp writeTimeout(int writeTimeout) {
         okHttpClientBuilder.writeTimeout(writeTimeout, TimeUnit.SECONDS);
+        invalidate();
         return this;
     }
 
@@ -345,6 +423,7 @@ public final class RxHttp {
      */
     public RxHttp connectTimeout(int connectTimeout) {
         okHttpClientBuilder.connectTimeout(connectTimeout, TimeUnit.SECONDS);
+        invalidate();
         return this;
     }
 
@@ -354,6 +433,7 @@ public final class RxHttp {
 
     public RxHttp interceptorList(List<Interceptor> interceptorList) {
         this.interceptorList.addAll(interceptorList);
+        invalidate();
         return this;
     }
 
@@ -363,6 +443,7 @@ public final class RxHttp {
 
     public RxHttp networkInterceptorList(List<Interceptor> networkInterceptorList) {
         this.networkInterceptorList.addAll(networkInterceptorList);
+        invalidate();
         return this;
     }
 
@@ -389,6 +470,7 @@ public final class RxHttp {
 
     public RxHttp isSign(boolean isSign) {
         this.isSign = isSign;
+        invalidate();
         return this;
     }
 
@@ -401,6 +483,22 @@ public final class RxHttp {
      */
     public RxHttp isSyncRequest(boolean isSyncRequest) {
         this.isSyncRequest = isSyncRequest;
+        invalidate();
+        return this;
+    }
+
+    public boolean isBatchDelivery() {
+        return batchDelivery;
+    }
+
+    /**
+     * 全局设置是否合并投递主线程回调，开启后同时完成的请求在同一条主线程消息中回调，默认关闭
+     *
+     * @see com.cn.rx.dispatch.BatchMainScheduler
+     */
+    public RxHttp batchDelivery(boolean batchDelivery) {
+        this.batchDelivery = batchDelivery;
+        invalidate();
         return this;
     }
 
@@ -410,6 +508,7 @@ public final class RxHttp {
 
     public void accessToken(boolean accessToken) {
         this.accessToken = accessToken;
+        invalidate();
     }
 
     /**
@@ -418,6 +517,7 @@ public final class RxHttp {
     public RxHttp retryCount(int retryCount) {
         if (retryCount < 0) throw new IllegalArgumentException("retryCount must > 0");
         this.mRetryCount = retryCount;
+        invalidate();
         return this;
     }
 
@@ -427,6 +527,7 @@ public final class RxHttp {
     public RxHttp retryDelay(int retryDelay) {
         if (retryDelay < 0) throw new IllegalArgumentException("retryDelay must > 0");
         this.mRetryDelay = retryDelay;
+        invalidate();
         return this;
     }
 
@@ -437,43 +538,245 @@ public final class RxHttp {
         if (retryIncreaseDelay < 0)
             throw new IllegalArgumentException("retryIncreaseDelay must > 0");
         this.mRetryIncreaseDelay = retryIncreaseDelay;
+        invalidate();
         return this;
     }
 
-    private void testInitialize() {
-        if (this.context == null)
-            throw new ExceptionInInitializerError("请先在全局Application中调用 RxHttp.getInstance().init() 初始化！");
+    /**
+     * 全局设置使用的协议，默认优先HTTP/2
+     */
+    public RxHttp protocol(ProtocolMode protocolMode) {
+        okHttpClientBuilder.protocols(Util.checkNotNull(protocolMode, "protocolMode is null").protocols());
+        invalidate();
+        return this;
     }
 
-    public OkHttpClient.Builder getOkHttpClientBuilder() {
-        //加入请求参数以及头信息
-        if (headers.size() > 0) {
-            if (mHeaderInterceptor != null) {
-                mHeaderInterceptor.addHeaderMap(headers);
-            } else {
-                mHeaderInterceptor = new HeaderInterceptor(headers);
-                //将添加统一头内容的拦截器放在第一位方便后面的拦截器使用
-                addInterceptor(mHeaderInterceptor);
-            }
+    /**
+     * 全局设置HTTP/2及WebSocket的ping间隔，超时未收到响应时关闭连接，0表示不发送ping
+     */
+    public RxHttp pingInterval(long interval, TimeUnit unit) {
+        okHttpClientBuilder.pingInterval(interval, unit);
+        invalidate();
+        return this;
+    }
+
+    /**
+     * 是否统计连接的协议及每个连接上的并发流数，开启后会替换OkHttpClient.Builder上设置的EventListener
+     */
+    public RxHttp connectionMetrics(boolean enable) {
+        mConnectionMetrics = enable ? new ConnectionMetrics() : null;
+        okHttpClientBuilder.eventListener(enable ? mConnectionMetrics : EventListener.NONE);
+        invalidate();
+        return this;
+    }
+
+    /**
+     * 获取连接统计，未开启{@link #connectionMetrics(boolean)}时返回null
+     */
+    public ConnectionStats getConnectionStats() {
+        ConnectionMetrics metrics = mConnectionMetrics;
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    /**
+     * 开启请求体压缩：文本类请求体（JSON、text、表单等）长度不小于minSize时，
+     * 对支持的服务器边写边压缩，见{@link RequestCompression}；没有指定encoders时使用gzip
+     */
+    public RxHttp requestCompression(long minSize, RequestEncoder... encoders) {
+        mRequestCompression = new RequestCompression(minSize,
+                encoders.length > 0 ? encoders : new RequestEncoder[]{new GzipEncoder()});
+        invalidate();
+        return this;
+    }
+
+    /**
+     * 指定支持压缩请求体的服务器，其他服务器需要在响应中用Accept-Encoding声明后才压缩
+     */
+    public RxHttp compressHosts(String... urls) {
+        Util.checkNotNull(mRequestCompression, "call requestCompression first");
+        for (String url : urls) {
+            mRequestCompression.addHost(url);
         }
-        if (interceptorList != null && interceptorList.size() > 0) {
-            for (Interceptor interceptor : interceptorList) {
-                if (!okHttpClientBuilder.interceptors().contains(interceptor))
-                    okHttpClientBuilder.addInterceptor(interceptor);
-            }
+        return this;
+    }
+
+    public RequestCompression getRequestCompression() {
+        return mRequestCompression;
+    }
+
+    /**
+     * 获取按接口统计的压缩效果，未开启{@link #requestCompression(long, RequestEncoder...)}时返回null
+     */
+    public CompressionStats getCompressionStats() {
+        RequestCompression compression = mRequestCompression;
+        return compression != null ? compression.snapshot() : null;
+    }
+
+    /**
+     * 设置最多缓存多少份不同配置的OkHttpClient/Retrofit/ApiManager
+     */
+    public RxHttp clientCacheSize(int maxSize) {
+        mClientCache.maxSize(maxSize);
+        return this;
+    }
+
+    public ClientCache getClientCache() {
+        return mClientCache;
+    }
+
+    /**
+     * 所有通道共用的最大并发数，默认32
+     */
+    public RxHttp maxRequests(int maxRequests) {
+        mDispatcher.maxRequests(maxRequests);
+        return this;
+    }
+
+    /**
+     * 设置通道的最大并发数和单域名最大并发数
+     */
+    public RxHttp lane(Lane lane, int maxRequests, int maxRequestsPerHost) {
+        mDispatcher.lane(lane, maxRequests, maxRequestsPerHost);
+        return this;
+    }
+
+    /**
+     * 排队请求每等待多长时间（毫秒）提升一级优先级，默认500
+     */
+    public RxHttp priorityAging(long agingMillis) {
+        mDispatcher.agingInterval(agingMillis);
+        return this;
+    }
+
+    public RequestDispatcher getRequestDispatcher() {
+        return mDispatcher;
+    }
+
+    public LaneStats getLaneStats(Lane lane) {
+        return mDispatcher.getStats(lane);
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return mCoalescer;
+    }
+
+    /**
+     * 设置GET请求最多缓存多少个请求的ETag/Last-Modified及解析结果，默认64
+     */
+    public RxHttp validatorCacheSize(int maxSize) {
+        mValidatorCache.maxSize(maxSize);
+        return this;
+    }
+
+    public ValidatorCache getValidatorCache() {
+        return mValidatorCache;
+    }
+
+    /**
+     * 注册响应解析器，响应的Content-Type匹配时使用，并通过Accept请求头告知服务端支持的格式；
+     * 默认只使用fastjson解析JSON
+     */
+    public RxHttp addResponseCodec(ResponseCodec codec) {
+        mCodecRegistry.register(codec);
+        invalidate();
+        return this;
+    }
+
+    public RxHttp removeResponseCodec(ResponseCodec codec) {
+        mCodecRegistry.unregister(codec);
+        invalidate();
+        return this;
+    }
+
+    public CodecRegistry getCodecRegistry() {
+        return mCodecRegistry;
+    }
+
+    /**
+     * 启动时预连接的地址，在第一次发布全局配置（调用{@link #freeze()}或发起第一个请求）时在后台执行，
+     * 结果输出到日志；需要在启动时立即预连接可在配置完成后调用{@link #freeze()}
+     */
+    public RxHttp preconnectOnStart(String... urls) {
+        this.mPreconnectUrls = urls;
+        return this;
+    }
+
+    /**
+     * 在后台预先建立到指定域名的连接，连接放入全局连接池供之后的请求复用，逐个域名返回预连接的结果
+     */
+    public Observable<PreconnectResult> preconnect(String... urls) {
+        RxHttpConfig config = getConfig();
+        OkHttpClient client = config.getHttpClient() != null ? config.getHttpClient() : config.getOkHttpClient();
+        return Preconnector.preconnect(client, urls);
+    }
+
+    /**
+     * 将当前的全局配置编译成不可变快照并发布，之后的请求都读取这份快照
+     * <p>
+     * 通过{@link #getOkHttpClientBuilder()}直接修改了Builder后需要调用此方法使修改生效
+     */
+    public synchronized RxHttpConfig freeze() {
+        RxHttpConfig config = new RxHttpConfig(this, okHttpClientBuilder, retrofitBuilder);
+        mConfig = config;
+        mClientCache.evictAll();
+        //缓存项的key包含旧的快照，已不会再命中
+        mValidatorCache.evictAll();
+        if (mPreconnectUrls != null) {
+            String[] urls = mPreconnectUrls;
+            mPreconnectUrls = null;
+            preconnect(urls).subscribe(new Consumer<PreconnectResult>() {
+                @Override
+                public void accept(PreconnectResult result) throws Exception {
+                    LogUtil.i("preconnect " + result);
+                }
+            }, new Consumer<Throwable>() {
+                @Override
+                public void accept(Throwable throwable) throws Exception {
+                    LogUtil.e("preconnect failed", throwable);
+                }
+            });
         }
-        if (networkInterceptorList != null && networkInterceptorList.size() > 0) {
-            for (Interceptor interceptor : networkInterceptorList) {
-                if (!okHttpClientBuilder.interceptors().contains(interceptor))
-                    okHttpClientBuilder.addNetworkInterceptor(interceptor);
+        return config;
+    }
+
+    /**
+     * 获取当前的全局配置快照，全局配置改变后第一次获取时重新编译
+     */
+    public RxHttpConfig getConfig() {
+        RxHttpConfig config = mConfig;
+        if (config == null) {
+            synchronized (this) {
+                config = mConfig;
+                if (config == null) {
+                    config = freeze();
+                }
             }
         }
+        return config;
+    }
+
+    /**
+     * 全局配置发生改变，当前快照失效；与{@link #freeze()}互斥，避免后台编译的旧快照覆盖失效标记
+     */
+    private synchronized void invalidate() {
+        mConfig = null;
+    }
+
+    private void testInitialize() {
+        if (this.context == null)
+            throw new ExceptionInInitializerError("请先在全局Application中调用 RxHttp.getInstance().init() 初始化！");
+    }
+
+    /**
+     * 全局OkHttpClient的Builder，直接修改后需调用{@link #freeze()}
+     */
+    public OkHttpClient.Builder getOkHttpClientBuilder() {
         return okHttpClientBuilder;
     }
 
 
     public OkHttpClient getOkHttpClient() {
-        return getOkHttpClientBuilder().build();
+        return getConfig().getOkHttpClient();
     }
 
     public Retrofit.Builder getRetrofitBuilder() {
@@ -481,7 +784,11 @@ public final class RxHttp {
     }
 
     public Retrofit getRetrofit() {
-        return retrofitBuilder.build();
+        return getConfig().getRetrofit();
+    }
+
+    public static GetRequest get(String url) {
+        return new GetRequest(url);
     }
 
     public static TemplatePostRequest post(String url) {
@@ -0,0 +1,197 @@
+package com.cn.rx;
+
+import com.cn.rx.compress.RequestCompression;
+import com.cn.rx.dispatch.RequestDispatcher;
+import com.cn.rx.interceptor.AcceptInterceptor;
+import com.cn.rx.interceptor.CompressionInterceptor;
+import com.cn.rx.interceptor.DispatchInterceptor;
+import com.cn.rx.interceptor.HeaderInterceptor;
+import com.cn.rx.interceptor.OptionsInterceptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+
+/**
+ * RxHttp全局配置的不可变快照
+ * <p>
+ * 由{@link RxHttp#freeze()}一次性编译请求头、拦截器、重试参数以及OkHttpClient/Retrofit，
+ * 请求只读取快照，不再修改全局的OkHttpClient.Builder；全局配置改变后会重新发布新的快照
+ */
+public final class RxHttpConfig {
+
+    private final String baseUrl;
+    private final Map<String, String> headers;
+    private final Map<String, String> parameters;
+    private final List<Interceptor> interceptors;
+    private final List<Interceptor> networkInterceptors;
+    private final int retryCount;
+    private final int retryDelay;
+    private final int retryIncreaseDelay;
+    private final boolean sign;
+    private final boolean accessToken;
+    private final boolean syncRequest;
+    private final boolean batchDelivery;
+    private final HeaderInterceptor headerInterceptor;
+    private final RequestDispatcher dispatcher;
+    private final OkHttpClient okHttpClient;
+    private final OkHttpClient httpClient;
+    private final Retrofit retrofit;
+    private final ApiManager apiManager;
+
+    RxHttpConfig(RxHttp rxHttp, OkHttpClient.Builder okHttpClientBuilder, Retrofit.Builder retrofitBuilder) {
+        this.baseUrl = rxHttp.getBaseUrl();
+        this.headers = Collections.unmodifiableMap(new HashMap<>(rxHttp.getHeaders()));
+        this.parameters = Collections.unmodifiableMap(new HashMap<>(rxHttp.getParameters()));
+        this.interceptors = Collections.unmodifiableList(new ArrayList<>(rxHttp.getInterceptorList()));
+        this.networkInterceptors = Collections.unmodifiableList(new ArrayList<>(rxHttp.getNetworkInterceptorList()));
+        this.retryCount = rxHttp.getRetryCount();
+        this.retryDelay = rxHttp.getRetryDelay();
+        this.retryIncreaseDelay = rxHttp.getRetryIncreaseDelay();
+        this.sign = rxHttp.isSign();
+        this.accessToken = rxHttp.isAccessToken();
+        this.syncRequest = rxHttp.isSyncRequest();
+        this.batchDelivery = rxHttp.isBatchDelivery();
+        this.dispatcher = rxHttp.getRequestDispatcher();
+        this.httpClient = rxHttp.getHttpClient() != null ? wrapClient(rxHttp.getHttpClient()) : null;
+
+        //build()会复制拦截器列表，之后对全局Builder的修改不会影响到快照
+        OkHttpClient.Builder builder = okHttpClientBuilder.build().newBuilder();
+        if (!headers.isEmpty()) {
+            headerInterceptor = new HeaderInterceptor(new HashMap<>(headers));
+            //将添加统一头内容的拦截器放在第一位方便后面的拦截器使用
+            builder.interceptors().add(0, headerInterceptor);
+        } else {
+            headerInterceptor = null;
+        }
+        //单次请求的选项需要最先转为tag，供后面的拦截器读取；随后按选项中的通道和优先级排队
+        addOptionsInterceptors(builder);
+        //注册了其他格式的解析器时与服务端协商响应格式，全局或单个请求设置的Accept优先
+        String accept = rxHttp.getCodecRegistry().acceptHeader();
+        if (accept != null) {
+            builder.interceptors().add(new AcceptInterceptor(accept));
+        }
+        builder.interceptors().addAll(interceptors);
+        //压缩放在全局拦截器之后，签名等拦截器读取的仍是原始请求体
+        RequestCompression compression = rxHttp.getRequestCompression();
+        if (compression != null) {
+            builder.interceptors().add(new CompressionInterceptor(compression));
+        }
+        builder.networkInterceptors().addAll(networkInterceptors);
+        this.okHttpClient = builder.build();
+
+        if (baseUrl != null) {
+            this.retrofit = retrofitBuilder
+                    .client(httpClient != null ? httpClient : okHttpClient)
+                    .build();
+            this.apiManager = retrofit.create(ApiManager.class);
+        } else {
+            this.retrofit = null;
+            this.apiManager = null;
+        }
+    }
+
+    /**
+     * 自定义的OkHttpClient同样需要处理请求选项：派生一个在最前面加上{@link OptionsInterceptor}和
+     * {@link DispatchInterceptor}的OkHttpClient，共用原来的连接池；否则内部的请求头会发到服务端，
+     * 签名、token和通道设置也不会生效。结果由调用方缓存
+     */
+    public OkHttpClient wrapClient(OkHttpClient client) {
+        for (Interceptor interceptor : client.interceptors()) {
+            if (interceptor instanceof OptionsInterceptor) {
+                return client;
+            }
+        }
+        OkHttpClient.Builder builder = client.newBuilder();
+        addOptionsInterceptors(builder);
+        return builder.build();
+    }
+
+    private void addOptionsInterceptors(OkHttpClient.Builder builder) {
+        builder.interceptors().add(0, new OptionsInterceptor());
+        builder.interceptors().add(1, new DispatchInterceptor(dispatcher));
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public List<Interceptor> getInterceptors() {
+        return interceptors;
+    }
+
+    public List<Interceptor> getNetworkInterceptors() {
+        return networkInterceptors;
+    }
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public int getRetryDelay() {
+        return retryDelay;
+    }
+
+    public int getRetryIncreaseDelay() {
+        return retryIncreaseDelay;
+    }
+
+    public boolean isSign() {
+        return sign;
+    }
+
+    public boolean isAccessToken() {
+        return accessToken;
+    }
+
+    public boolean isSyncRequest() {
+        return syncRequest;
+    }
+
+    public boolean isBatchDelivery() {
+        return batchDelivery;
+    }
+
+    public HeaderInterceptor getHeaderInterceptor() {
+        return headerInterceptor;
+    }
+
+    /**
+     * 由全局配置构建的OkHttpClient
+     */
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    /**
+     * 全局设置的自定义OkHttpClient，已加上处理请求选项的拦截器
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * 全局的Retrofit，未设置baseUrl时为null
+     */
+    public Retrofit getRetrofit() {
+        return retrofit;
+    }
+
+    public ApiManager getApiManager() {
+        return apiManager;
+    }
+}
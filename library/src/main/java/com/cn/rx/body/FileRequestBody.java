@@ -0,0 +1,147 @@
+package com.cn.rx.body;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.internal.Util;
+import okio.BufferedSink;
+
+/**
+ * 文件请求体，通过FileChannel按段映射文件后直接写入sink
+ * <p>
+ * RequestBody.create(MediaType, File)先把文件读到Segment再写出；
+ * 这里映射后的数据只复制一次到sink的Segment，映射失败时退回到FileChannel读取。
+ * 可以只上传文件的一部分，用于分片上传
+ */
+public class FileRequestBody extends RequestBody {
+
+    private static final long MAP_SIZE = 8 * 1024 * 1024;   //每次映射8M，避免占用过多地址空间
+    private static final int READ_SIZE = 64 * 1024;
+
+    private final MediaType mediaType;
+    private final File file;
+    private final long offset;
+    private final long length;
+
+    public FileRequestBody(MediaType mediaType, File file) {
+        this(mediaType, file, 0, file.length());
+    }
+
+    /**
+     * @param offset 开始位置
+     * @param length 上传的长度
+     */
+    public FileRequestBody(MediaType mediaType, File file, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("offset < 0 || length < 0");
+        }
+        this.mediaType = mediaType;
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        FileInputStream input = new FileInputStream(file);
+        try {
+            FileChannel channel = input.getChannel();
+            long position = offset;
+            long end = offset + length;
+            if (end > channel.size()) {
+                throw new IOException("file is shorter than expected: " + file.getPath());
+            }
+            while (position < end) {
+                long size = Math.min(MAP_SIZE, end - position);
+                MappedByteBuffer buffer;
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                } catch (IOException e) {
+                    //部分文件系统不支持映射
+                    transfer(channel, position, end, sink);
+                    return;
+                }
+                try {
+                    write(buffer, sink);
+                } finally {
+                    unmap(buffer);
+                }
+                position += size;
+            }
+        } finally {
+            Util.closeQuietly(input);
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long end, BufferedSink sink) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(READ_SIZE, end - position));
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("unexpected end of file");
+            }
+            buffer.flip();
+            write(buffer, sink);
+            position += read;
+        }
+    }
+
+    /**
+     * 分小段写入，每段之后把写满的Segment交给下层，不在sink中积压整个映射区
+     */
+    private static void write(ByteBuffer buffer, BufferedSink sink) throws IOException {
+        int end = buffer.limit();
+        while (buffer.position() < end) {
+            buffer.limit(Math.min(end, buffer.position() + READ_SIZE));
+            while (buffer.hasRemaining()) {
+                sink.write(buffer);
+            }
+            sink.emitCompleteSegments();
+        }
+        buffer.limit(end);
+    }
+
+    /**
+     * 尽快释放映射，不等GC；不支持时忽略
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Throwable ignored) {
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.cn.rx.body;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.internal.Util;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * InputStream请求体，长度未知时使用chunked编码边读边发，不把整个流读入内存
+ * <p>
+ * 流只能读一次，默认第二次发送（重试）时抛出IOException，而不是发送空的或不完整的内容。
+ * 设置memoryLimit后发送时同时记录读到的数据，不超过memoryLimit的部分保存在内存中，
+ * 超出的部分写入临时文件，重试时先重放记录的数据再继续读取原来的流。
+ * 用完后调用{@link #close()}关闭流并删除临时文件
+ */
+public class InputStreamRequestBody extends RequestBody implements Closeable {
+
+    private static final int READ_SIZE = 8192;
+
+    private final MediaType mediaType;
+    private final InputStream input;
+    private final long contentLength;
+    private final long memoryLimit;         //小于0时不记录，不能重发
+    private final File tempDir;
+
+    private Source source;
+    private boolean consumed;
+    private boolean exhausted;              //原来的流已读完
+    private Buffer memory;                  //记录在内存中的开头部分
+    private File spillFile;                 //超出memoryLimit的部分
+    private BufferedSink spill;
+    private long recorded;
+
+    public InputStreamRequestBody(MediaType mediaType, InputStream input) {
+        this(mediaType, input, -1, -1, null);
+    }
+
+    /**
+     * @param contentLength 流的长度，未知时为-1
+     * @param memoryLimit   重放时在内存中保存的最大字节数，小于0时不支持重放
+     * @param tempDir       超出memoryLimit时临时文件的目录，为null时使用系统临时目录
+     */
+    public InputStreamRequestBody(MediaType mediaType, InputStream input, long contentLength, long memoryLimit, File tempDir) {
+        this.mediaType = mediaType;
+        this.input = input;
+        this.contentLength = contentLength;
+        this.memoryLimit = memoryLimit;
+        this.tempDir = tempDir;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public synchronized long contentLength() {
+        if (contentLength >= 0) {
+            return contentLength;
+        }
+        //已经完整记录过，重发时长度已知
+        return exhausted && memoryLimit >= 0 ? recorded : -1;
+    }
+
+    @Override
+    public synchronized void writeTo(BufferedSink sink) throws IOException {
+        if (memoryLimit < 0) {
+            if (consumed) {
+                throw new IOException("InputStream has been consumed, enable replay to retry");
+            }
+            consumed = true;
+            try {
+                sink.writeAll(Okio.source(input));
+            } finally {
+                Util.closeQuietly(input);
+            }
+            return;
+        }
+        replay(sink);
+        if (exhausted) {
+            return;
+        }
+        if (source == null) {
+            source = Okio.source(input);
+        }
+        Buffer buffer = new Buffer();
+        long read;
+        while ((read = source.read(buffer, READ_SIZE)) != -1) {
+            record(buffer, read);
+            sink.write(buffer, read);
+        }
+        exhausted = true;
+        Util.closeQuietly(source);
+        if (spill != null) {
+            spill.flush();
+        }
+    }
+
+    /**
+     * 发送上次已经读到的数据
+     */
+    private void replay(BufferedSink sink) throws IOException {
+        if (memory != null) {
+            //共享Segment，不复制数据
+            memory.copyTo(sink.buffer(), 0, memory.size());
+            sink.emitCompleteSegments();
+        }
+        if (spill != null) {
+            spill.flush();
+            Source fileSource = Okio.source(spillFile);
+            try {
+                sink.writeAll(fileSource);
+            } finally {
+                Util.closeQuietly(fileSource);
+            }
+        }
+    }
+
+    private void record(Buffer buffer, long byteCount) throws IOException {
+        if (spill == null && recorded + byteCount <= memoryLimit) {
+            if (memory == null) {
+                memory = new Buffer();
+            }
+            buffer.copyTo(memory, 0, byteCount);
+        } else {
+            if (spill == null) {
+                spillFile = File.createTempFile("upload", ".replay", tempDir);
+                spill = Okio.buffer(Okio.sink(spillFile));
+            }
+            buffer.copyTo(spill.buffer(), 0, byteCount);
+            spill.emitCompleteSegments();
+        }
+        recorded += byteCount;
+    }
+
+    /**
+     * 关闭原来的流，释放记录的数据
+     */
+    @Override
+    public synchronized void close() {
+        Util.closeQuietly(input);
+        if (memory != null) {
+            memory.clear();
+        }
+        if (spill != null) {
+            Util.closeQuietly(spill);
+            spillFile.delete();
+            spill = null;
+        }
+    }
+}
@@ -23,20 +23,17 @@ import android.os.Message;
 
 import com.cn.rx.callback.ResultProgressCallback;
 
-import java.io.IOException;
-import java.io.OutputStream;
-
 /**
- * 带进度的输出流
+ * 统计上传字节数并在主线程回调进度，可以由多个请求体共用（如分片上传），线程安全
  */
-class ProgressOutputStream extends OutputStream {
-    private final OutputStream stream;
+public class ProgressReporter {
     private final ResultProgressCallback listener;
     private Object tag;
 
     private long total;
     private long totalWritten;
     boolean started;
+    boolean finished;
     long lastRefreshTime = 0L;
     long lastBytesWritten = 0L;
     int minTime = 100;//最小回调时间100ms，避免频繁回调
@@ -50,8 +47,10 @@ class ProgressOutputStream extends OutputStream {
     private static final String PERCENT = "percent";
     private static final String SPEED = "speed";
 
-    ProgressOutputStream(OutputStream stream, ResultProgressCallback listener, long total, Object tag) {
-        this.stream = stream;
+    /**
+     * @param total 总大小，未知时为-1
+     */
+    public ProgressReporter(ResultProgressCallback listener, long total, Object tag) {
         this.listener = listener;
         this.total = total;
         this.tag = tag;
@@ -101,44 +100,28 @@ class ProgressOutputStream extends OutputStream {
         }
     }
 
-    @Override
-    public void write(byte[] b, int off, int len) throws IOException {
-        this.stream.write(b, off, len);
+    /**
+     * 增加已写大小，重新发送时可以传入负数减去上次发送的部分
+     */
+    public synchronized void add(long bytes) {
         if (this.total < 0) {
-           onProgressChanged(-1, -1, -1);
+            onProgressChanged(-1, -1, -1);
             return;
         }
-        if (len < b.length) {
-            this.totalWritten += len;
-        } else {
-            this.totalWritten += b.length;
-        }
-       onProgressChanged(this.totalWritten, this.total, (this.totalWritten * 1.0F) / this.total);
+        this.totalWritten += bytes;
+        onProgressChanged(this.totalWritten, this.total, (this.totalWritten * 1.0F) / this.total);
     }
 
-    @Override
-    public void write(int b) throws IOException {
-        this.stream.write(b);
+    /**
+     * 去掉不再发送的请求体（如批量上传中最终失败的文件）：总大小减去length，已写大小减去written
+     */
+    public synchronized void remove(long written, long length) {
         if (this.total < 0) {
-           onProgressChanged(-1, -1, -1);
             return;
         }
-        this.totalWritten++;
-        onProgressChanged(this.totalWritten, this.total, (this.totalWritten * 1.0F) / this.total);
-    }
-
-    @Override
-    public void close() throws IOException {
-        if (this.stream != null) {
-            this.stream.close();
-        }
-    }
-
-    @Override
-    public void flush() throws IOException {
-        if (this.stream != null) {
-            this.stream.flush();
-        }
+        this.total -= length;
+        this.totalWritten -= written;
+        onProgressChanged(this.totalWritten, this.total, this.total > 0 ? (this.totalWritten * 1.0F) / this.total : 1F);
     }
 
     /**
@@ -148,7 +131,7 @@ class ProgressOutputStream extends OutputStream {
      * @param totalBytes 总大小
      * @param percent    百分比
      */
-    public final void onProgressChanged(long numBytes, long totalBytes, float percent) {
+    private void onProgressChanged(long numBytes, long totalBytes, float percent) {
         if (!started) {
             onProgressStart(totalBytes);
             started = true;
@@ -169,7 +152,8 @@ class ProgressOutputStream extends OutputStream {
             lastRefreshTime = System.currentTimeMillis();
             lastBytesWritten = numBytes;
         }
-        if (numBytes == totalBytes || percent >= 1F) {
+        if (!finished && (numBytes == totalBytes || percent >= 1F)) {
+            finished = true;
             onProgressFinish();
         }
     }
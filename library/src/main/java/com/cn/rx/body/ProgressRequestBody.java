@@ -30,12 +30,36 @@ public class ProgressRequestBody extends RequestBody {
     private final RequestBody mRequestBody;
     private final ResultProgressCallback progressListener;
     private final Object tag;
+    private final ProgressReporter sharedReporter;
+    private long lastWritten;               //上次发送的大小，重新发送时从共用的进度中减去
 
 
     public ProgressRequestBody(RequestBody requestBody, ResultProgressCallback progressListener, Object tag) {
         this.mRequestBody = requestBody;
         this.progressListener = progressListener;
         this.tag = tag;
+        this.sharedReporter = null;
+    }
+
+    /**
+     * 多个请求体共用一个进度，如分片上传的各个分片
+     */
+    public ProgressRequestBody(RequestBody requestBody, ProgressReporter reporter) {
+        this.mRequestBody = requestBody;
+        this.progressListener = null;
+        this.tag = null;
+        this.sharedReporter = reporter;
+    }
+
+    /**
+     * 不再发送时（如批量上传中的一个文件最终失败）从共用的进度中去掉这个请求体
+     */
+    public void discard() throws IOException {
+        if (sharedReporter == null) {
+            return;
+        }
+        sharedReporter.remove(lastWritten, contentLength());
+        lastWritten = 0;
     }
 
     @Override
@@ -50,14 +74,26 @@ public class ProgressRequestBody extends RequestBody {
 
     @Override
     public void writeTo(BufferedSink sink) throws IOException {
-        if (progressListener == null) {
+        if (progressListener == null && sharedReporter == null) {
             mRequestBody.writeTo(sink);
             return;
         }
-        ProgressOutputStream progressOutputStream = new ProgressOutputStream(sink.outputStream(), progressListener, contentLength(), tag);
-        BufferedSink progressSink = Okio.buffer(Okio.sink(progressOutputStream));
-        mRequestBody.writeTo(progressSink);
-        progressSink.flush();
+        ProgressReporter reporter = sharedReporter;
+        if (reporter == null) {
+            reporter = new ProgressReporter(progressListener, contentLength(), tag);
+        } else if (lastWritten > 0) {
+            reporter.add(-lastWritten);
+            lastWritten = 0;
+        }
+        //Okio.buffer与下层sink之间只移动Segment，不复制数据
+        ProgressSink forwardingSink = new ProgressSink(sink, reporter);
+        BufferedSink progressSink = Okio.buffer(forwardingSink);
+        try {
+            mRequestBody.writeTo(progressSink);
+            progressSink.emit();
+        } finally {
+            lastWritten = forwardingSink.written();
+        }
     }
 
 }
\ No newline at end of file
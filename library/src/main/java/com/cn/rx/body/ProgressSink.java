@@ -0,0 +1,50 @@
+/**
+ * Copyright 2017 区长
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cn.rx.body;
+
+
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.ForwardingSink;
+import okio.Sink;
+
+/**
+ * 带进度的Sink，直接把Segment转交给下层，只统计字节数，不再经过OutputStream复制
+ */
+class ProgressSink extends ForwardingSink {
+    private final ProgressReporter reporter;
+    private long written;
+
+    ProgressSink(Sink delegate, ProgressReporter reporter) {
+        super(delegate);
+        this.reporter = reporter;
+    }
+
+    @Override
+    public void write(Buffer source, long byteCount) throws IOException {
+        super.write(source, byteCount);
+        written += byteCount;
+        reporter.add(byteCount);
+    }
+
+    /**
+     * 经过这个Sink写出的大小
+     */
+    long written() {
+        return written;
+    }
+}
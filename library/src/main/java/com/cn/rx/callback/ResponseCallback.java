@@ -1,7 +1,10 @@
 package com.cn.rx.callback;
 
+import com.cn.rx.config.ResultProfile;
 import com.cn.rx.exception.ApiThrowable;
 
+import okhttp3.ResponseBody;
+
 @SuppressWarnings(value = {"unchecked", "deprecation"})
 public abstract class ResponseCallback<T> implements IResponseCallback<T> {
 
@@ -30,6 +33,13 @@ public abstract class ResponseCallback<T> implements IResponseCallback<T> {
 
     }
 
+    /**
+     * 按请求地址对应的统一格式配置解析，默认不使用配置，直接调用{@link #onTransformationResponse(ResponseBody)}
+     */
+    public T onTransformationResponse(ResponseBody body, ResultProfile profile) throws Exception {
+        return onTransformationResponse(body);
+    }
+
     public abstract void onError(Object tag, ApiThrowable throwable);
 
     public abstract void onSuccess(Object tag, T result);
@@ -1,58 +1,34 @@
 package com.cn.rx.callback;
 
-import android.text.TextUtils;
-
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
+import com.cn.rx.RxHttp;
+import com.cn.rx.codec.Envelope;
 import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
 import com.cn.rx.exception.ServerException;
 
-import java.util.List;
-
 import okhttp3.ResponseBody;
 
 public abstract class ResponseClazzCallback implements IResponseCallback<String> {
 
     @Override
     public String onTransformationResponse(ResponseBody body) throws Exception {
-        String jsonStr = body.string();
-        if (TextUtils.isEmpty(jsonStr)) throw new NullPointerException("body is null");
-        JSONObject object = JSON.parseObject(jsonStr);
-        int code = getCode(object);
-        String msg = getMessage(object);
-        String dataStr = getDataStr(object);
-        if (checkSuccess(code)) {
-            return dataStr;
-        }
-        throw new ServerException(code, msg);
+        return onTransformationResponse(body, ResultConfigLoader.getProfile());
     }
 
-    abstract boolean checkSuccess(int code);
-
-    private int getCode(JSONObject object) {
-        String codeKey = ResultConfigLoader.getCodeKey();
-        int code = -1;
-        if (object.containsKey(codeKey)) {
-            code = object.getIntValue(codeKey);
-        }
-        return code;
-    }
-
-    private String getMessage(JSONObject object) {
-        String msgKey = ResultConfigLoader.getMsgKey();
-        if (object.containsKey(msgKey)) {
-            return object.getString(msgKey);
+    /**
+     * 按请求地址对应的统一格式配置解析
+     */
+    public String onTransformationResponse(ResponseBody body, ResultProfile profile) throws Exception {
+        //data读为JSON文本，由调用方按需要的类型解析
+        Envelope envelope = RxHttp.getInstance().getCodecRegistry().codecFor(body)
+                .decodeEnvelope(body, profile, String.class, false);
+        int code = envelope.getCode();
+        String msg = envelope.getMsg();
+        if (checkSuccess(code)) {
+            return envelope.hasData() ? (String) envelope.getData() : "";
         }
-        return "";
+        throw new ServerException(code, msg, profile);
     }
 
-    private String getDataStr(JSONObject object) {
-        List<String> dataKey = ResultConfigLoader.getDataKey();
-        for (String key : dataKey) {
-            if (object.containsKey(key)) {
-                return object.getString(key);
-            }
-        }
-        return "";
-    }
+    abstract boolean checkSuccess(int code);
 }
@@ -1,12 +1,8 @@
 package com.cn.rx.callback;
 
-import android.text.TextUtils;
-
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
-import com.alibaba.fastjson.parser.Feature;
+import com.cn.rx.RxHttp;
 
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 
 import okhttp3.ResponseBody;
@@ -20,15 +16,9 @@ public abstract class ResponseGenericsCallback<T> extends ResponseCallback<T> {
     @Override
     public T onTransformationResponse(ResponseBody body) throws Exception {
         try {
-            String jsonStr = body.string();
-            if (TextUtils.isEmpty(jsonStr)) throw new NullPointerException("body is null");
-            Type genType = getClass().getGenericSuperclass();
-            if (genType instanceof ParameterizedType) {
-                Type[] params = ((ParameterizedType) genType).getActualTypeArguments();
-                if (params.length > 0) {
-                    Type paramType = params[0];
-                    return JSON.parseObject(jsonStr, paramType, Feature.UseBigDecimal);
-                }
+            Type paramType = TypeCache.resolve(getClass()).type;
+            if (paramType != null) {
+                return RxHttp.getInstance().getCodecRegistry().codecFor(body).decode(body, paramType);
             }
         } finally {
             body.close();
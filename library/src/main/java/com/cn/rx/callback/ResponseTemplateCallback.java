@@ -1,20 +1,13 @@
 package com.cn.rx.callback;
 
-import android.text.TextUtils;
-
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
-import com.alibaba.fastjson.parser.Feature;
-import com.alibaba.fastjson.parser.ParserConfig;
-import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
 import com.alibaba.fastjson.serializer.CollectionCodec;
 import com.cn.rx.RxHttp;
+import com.cn.rx.codec.Envelope;
 import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
 import com.cn.rx.exception.ServerException;
 
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.List;
 
 import okhttp3.ResponseBody;
 
@@ -32,74 +25,40 @@ import okhttp3.ResponseBody;
 public abstract class ResponseTemplateCallback<T> extends ResponseCallback<T> {
 
     protected ResponseTemplateCallback() {
-        ResultConfigLoader.init(RxHttp.getInstance().getContext());
+        //构造时只记录Context，在解析响应的线程上第一次用到时才读取配置文件
+        ResultConfigLoader.lazyInit(RxHttp.getInstance().getContext());
     }
 
     @Override
     public T onTransformationResponse(ResponseBody body) throws Exception {
-        String jsonStr = body.string();
-        if (TextUtils.isEmpty(jsonStr)) throw new NullPointerException("body is null");
-        JSONObject object = JSON.parseObject(jsonStr);
-        String code = getCode(object);
-        String msg = getMessage(object);
-        String dataStr = getDataStr(object);
-        boolean isSuccess = checkSuccessCode(Integer.valueOf(code), msg);
-        if (isSuccess) {
-            Type genType = getClass().getGenericSuperclass();
-            if (genType instanceof ParameterizedType) {
-                Type[] params = ((ParameterizedType) genType).getActualTypeArguments();
-                if (params.length > 0) {
-                    Type paramType = params[0];
-                    if (paramType instanceof Class && String.class.isAssignableFrom((Class) paramType)) {
-                        return (T) dataStr;
-                    }
-                    ObjectDeserializer deserializer = ParserConfig.getGlobalInstance().getDeserializer(paramType);
-                    if (deserializer instanceof CollectionCodec) {
-                        if (dataStr.startsWith("{") && dataStr.endsWith("}")) {
-                            JSONObject pageJson = JSON.parseObject(dataStr);
-                            String pageDataStr = getDataStr(pageJson);
-                            if ("[]".equals(pageDataStr) || pageDataStr == null || "".equals(pageDataStr)) {
-                                throw new NullPointerException("result data is null");
-                            }
-                            dataStr = pageDataStr;
-                        }
-                    }
-                    return JSON.parseObject(dataStr, paramType, Feature.UseBigDecimal);
-                }
+        return onTransformationResponse(body, ResultConfigLoader.getProfile());
+    }
+
+    @Override
+    public T onTransformationResponse(ResponseBody body, ResultProfile profile) throws Exception {
+        TypeCache.Resolved resolved = TypeCache.resolve(getClass());
+        Type paramType = resolved.type;
+        boolean unwrapPage = resolved.deserializer instanceof CollectionCodec;
+        Envelope envelope = RxHttp.getInstance().getCodecRegistry().codecFor(body)
+                .decodeEnvelope(body, profile, paramType, unwrapPage);
+        int code = envelope.getCode();
+        String msg = envelope.getMsg();
+        boolean isSuccess = checkSuccessCode(code, msg);
+        if (isSuccess && paramType != null) {
+            if (paramType == String.class && !envelope.hasData()) {
+                return (T) "";
             }
+            Object data = envelope.getData();
+            if (envelope.isEmptyPage()) {
+                throw new NullPointerException("result data is null");
+            }
+            return (T) data;
         }
-        throw new ServerException(Integer.valueOf(code), msg);
+        throw new ServerException(code, msg, profile);
     }
 
     public boolean checkSuccessCode(int code, String msg) {
         return true;
     }
 
-    private String getCode(JSONObject object) {
-        String codeKey = ResultConfigLoader.getCodeKey();
-        String code = "-1";
-        if (object.containsKey(codeKey)) {
-            code = object.getString(codeKey);
-        }
-        return code;
-    }
-
-    private String getMessage(JSONObject object) {
-        String msgKey = ResultConfigLoader.getMsgKey();
-        if (object.containsKey(msgKey)) {
-            return object.getString(msgKey);
-        }
-        return "";
-    }
-
-    private String getDataStr(JSONObject object) {
-        List<String> dataKey = ResultConfigLoader.getDataKey();
-        for (String key : dataKey) {
-            if (object.containsKey(key)) {
-                return object.getString(key);
-            }
-        }
-        return "";
-    }
-
 }
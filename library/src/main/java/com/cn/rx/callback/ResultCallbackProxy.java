@@ -29,8 +29,22 @@ public abstract class ResultCallbackProxy<T extends ApiResultEntity<R>, R> imple
         return mCallback;
     }
 
+    /**
+     * 解析结果按代理类和回调类缓存，同一对类只解析一次
+     */
     @Override
     public Type getType() {
+        if (mCallback == null) {
+            return resolveType();
+        }
+        Type type = TypeCache.getProxyType(getClass(), mCallback.getClass());
+        if (type == null) {
+            type = TypeCache.putProxyType(getClass(), mCallback.getClass(), resolveType());
+        }
+        return type;
+    }
+
+    private Type resolveType() {
         Type typeArguments = null;
         if (mCallback != null) {
             Type rawType = mCallback.getRawType();//如果用户的信息是返回List需单独处理
@@ -1 +1 @@
-package com.cn.rx.callback;import com.cn.rx.entity.ApiResultEntity;import com.cn.rx.util.$Gson$Types;import com.cn.rx.util.Util;import java.lang.reflect.ParameterizedType;import java.lang.reflect.Type;/** * Class回调代理，方便自行处理结果 */public class ResultClazzCallProxy<T extends ApiResultEntity<R>, R> implements IResultType<T> {    private Type type;    public ResultClazzCallProxy(Type type) {        this.type = type;    }    @Override    public Type getType() {        Type typeArguments = null;        if (type != null) {            typeArguments = type;        }        if (typeArguments == null) {            typeArguments = Object.class;        }        Type rawType = Util.findNeedType(getClass());        if (rawType instanceof ParameterizedType) {            rawType = ((ParameterizedType) rawType).getRawType();        }        return $Gson$Types.newParameterizedTypeWithOwner(null, rawType, typeArguments);    }}
\ No newline at end of file
+package com.cn.rx.callback;import com.cn.rx.entity.ApiResultEntity;import com.cn.rx.util.$Gson$Types;import com.cn.rx.util.Util;import java.lang.reflect.ParameterizedType;import java.lang.reflect.Type;/** * Class回调代理，方便自行处理结果 */public class ResultClazzCallProxy<T extends ApiResultEntity<R>, R> implements IResultType<T> {    private Type type;    public ResultClazzCallProxy(Type type) {        this.type = type;    }    /**     * 解析结果按代理类和传入的类型缓存     */    @Override    public Type getType() {        Object key = type != null ? type : Object.class;        Type result = TypeCache.getProxyType(getClass(), key);        if (result == null) {            result = TypeCache.putProxyType(getClass(), key, resolveType());        }        return result;    }    private Type resolveType() {        Type typeArguments = null;        if (type != null) {            typeArguments = type;        }        if (typeArguments == null) {            typeArguments = Object.class;        }        Type rawType = Util.findNeedType(getClass());        if (rawType instanceof ParameterizedType) {            rawType = ((ParameterizedType) rawType).getRawType();        }        return $Gson$Types.newParameterizedTypeWithOwner(null, rawType, typeArguments);    }}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.cn.rx.callback;
+
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 按回调类、代理类缓存反射解析出的泛型类型和fastjson反序列化器，同一个类只解析一次
+ * <p>
+ * 以类为弱引用键，值使用软引用：解析结果中的类型会引用回调类本身，
+ * 软引用保证类加载器卸载（或内存紧张）时缓存可以被回收，不会因为缓存导致泄漏
+ */
+final class TypeCache {
+
+    private static final Map<Class<?>, SoftReference<Resolved>> RESOLVED = new WeakHashMap<>();
+    private static final Map<Class<?>, Map<Object, SoftReference<Type>>> PROXY_TYPES = new WeakHashMap<>();
+
+    private TypeCache() {
+    }
+
+    /**
+     * 回调类（ResponseCallback子类）第一个泛型参数以及对应的反序列化器
+     */
+    static Resolved resolve(Class<?> callbackClass) {
+        synchronized (RESOLVED) {
+            SoftReference<Resolved> ref = RESOLVED.get(callbackClass);
+            Resolved resolved = ref != null ? ref.get() : null;
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        Resolved resolved = new Resolved(callbackClass);
+        synchronized (RESOLVED) {
+            RESOLVED.put(callbackClass, new SoftReference<>(resolved));
+        }
+        return resolved;
+    }
+
+    /**
+     * 代理类解析出的完整类型
+     *
+     * @param proxyClass 代理类
+     * @param key        同一代理类下区分结果的键，如回调类或传入的类型
+     * @return 没有缓存时返回null
+     */
+    static Type getProxyType(Class<?> proxyClass, Object key) {
+        synchronized (PROXY_TYPES) {
+            Map<Object, SoftReference<Type>> types = PROXY_TYPES.get(proxyClass);
+            SoftReference<Type> ref = types != null ? types.get(key) : null;
+            return ref != null ? ref.get() : null;
+        }
+    }
+
+    static Type putProxyType(Class<?> proxyClass, Object key, Type type) {
+        synchronized (PROXY_TYPES) {
+            Map<Object, SoftReference<Type>> types = PROXY_TYPES.get(proxyClass);
+            if (types == null) {
+                types = new WeakHashMap<>();
+                PROXY_TYPES.put(proxyClass, types);
+            }
+            types.put(key, new SoftReference<>(type));
+        }
+        return type;
+    }
+
+    static final class Resolved {
+        /**
+         * 第一个泛型参数，没有泛型时为null
+         */
+        final Type type;
+        /**
+         * type对应的反序列化器，type为null或String时为null
+         */
+        final ObjectDeserializer deserializer;
+
+        Resolved(Class<?> callbackClass) {
+            Type paramType = null;
+            Type genType = callbackClass.getGenericSuperclass();
+            if (genType instanceof ParameterizedType) {
+                Type[] params = ((ParameterizedType) genType).getActualTypeArguments();
+                if (params.length > 0) {
+                    paramType = params[0];
+                }
+            }
+            this.type = paramType;
+            this.deserializer = paramType == null || paramType == String.class
+                    ? null : ParserConfig.getGlobalInstance().getDeserializer(paramType);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.cn.rx.codec;
+
+import java.io.IOException;
+
+import okio.BufferedSource;
+
+/**
+ * 解析CBOR响应，读取规则见{@link CborReader}
+ */
+public class CborCodec extends TreeCodec {
+
+    private static final String[] CONTENT_TYPES = {"application/cbor"};
+
+    @Override
+    public String[] contentTypes() {
+        return CONTENT_TYPES.clone();
+    }
+
+    @Override
+    protected Object readTree(BufferedSource source) throws IOException {
+        return new CborReader(source).read();
+    }
+}
@@ -0,0 +1,217 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.ProtocolException;
+import java.util.Date;
+
+import okio.Buffer;
+import okio.BufferedSource;
+
+/**
+ * 读取CBOR（RFC 7049）编码的值：map读为JSONObject（键转为字符串），array读为JSONArray，
+ * 字节串读为byte[]；标签1（时间戳）读为Date，标签2/3读为BigInteger，
+ * 其他标签（包括标签0的时间字符串，由fastjson按目标类型转换）只读取值
+ */
+final class CborReader {
+
+    private static final int MAX_DEPTH = 512;
+    private static final Object BREAK = new Object();
+
+    private final BufferedSource source;
+    private int depth;
+
+    CborReader(BufferedSource source) {
+        this.source = source;
+    }
+
+    Object read() throws IOException {
+        Object value = readItem();
+        if (value == BREAK) {
+            throw new ProtocolException("unexpected cbor break");
+        }
+        return value;
+    }
+
+    private Object readItem() throws IOException {
+        int initial = source.readByte() & 0xff;
+        int major = initial >>> 5;
+        int info = initial & 0x1f;
+        switch (major) {
+            case 0:
+                return number(readArgument(info), false);
+            case 1:
+                return number(readArgument(info), true);
+            case 2:
+                return info == 31 ? readChunks(2).readByteArray() : source.readByteArray(length(readArgument(info)));
+            case 3:
+                return info == 31 ? readChunks(3).readUtf8() : source.readUtf8(length(readArgument(info)));
+            case 4:
+                return readArray(info == 31 ? -1 : length(readArgument(info)));
+            case 5:
+                return readMap(info == 31 ? -1 : length(readArgument(info)));
+            case 6:
+                return readTagged(readArgument(info));
+            default:
+                return readSimple(info);
+        }
+    }
+
+    private long readArgument(int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return source.readByte() & 0xff;
+            case 25:
+                return source.readShort() & 0xffff;
+            case 26:
+                return source.readInt() & 0xffffffffL;
+            case 27:
+                return source.readLong();
+            default:
+                throw new ProtocolException("invalid cbor additional info: " + info);
+        }
+    }
+
+    /**
+     * @param value 无符号值，超过long范围时为负数
+     */
+    private static Object number(long value, boolean negative) {
+        if (value >= 0) {
+            long result = negative ? -1 - value : value;
+            if (result >= Integer.MIN_VALUE && result <= Integer.MAX_VALUE) {
+                return (int) result;
+            }
+            return result;
+        }
+        BigInteger unsigned = new BigInteger(1, new byte[]{
+                (byte) (value >>> 56), (byte) (value >>> 48), (byte) (value >>> 40), (byte) (value >>> 32),
+                (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+        return negative ? BigInteger.valueOf(-1).subtract(unsigned) : unsigned;
+    }
+
+    /**
+     * 不定长字节串/文本串由多个定长的同类型片段组成
+     */
+    private Buffer readChunks(int major) throws IOException {
+        Buffer buffer = new Buffer();
+        while (true) {
+            int initial = source.readByte() & 0xff;
+            if (initial == 0xff) {
+                return buffer;
+            }
+            if (initial >>> 5 != major || (initial & 0x1f) == 31) {
+                throw new ProtocolException("invalid cbor chunk: 0x" + Integer.toHexString(initial));
+            }
+            source.readFully(buffer, length(readArgument(initial & 0x1f)));
+        }
+    }
+
+    private JSONArray readArray(int size) throws IOException {
+        enter();
+        JSONArray array = new JSONArray(size < 0 ? 10 : Math.min(size, 256));
+        for (int i = 0; size < 0 || i < size; i++) {
+            Object item = readItem();
+            if (item == BREAK) {
+                if (size < 0) {
+                    break;
+                }
+                throw new ProtocolException("unexpected cbor break");
+            }
+            array.add(item);
+        }
+        depth--;
+        return array;
+    }
+
+    private JSONObject readMap(int size) throws IOException {
+        enter();
+        //长度来自响应，不直接按长度分配
+        JSONObject map = new JSONObject(size < 0 ? 16 : Math.min(size, 256), true);
+        for (int i = 0; size < 0 || i < size; i++) {
+            Object key = readItem();
+            if (key == BREAK) {
+                if (size < 0) {
+                    break;
+                }
+                throw new ProtocolException("unexpected cbor break");
+            }
+            map.put(key == null ? "null" : key.toString(), read());
+        }
+        depth--;
+        return map;
+    }
+
+    private Object readTagged(long tag) throws IOException {
+        Object value = read();
+        if (tag == 1 && value instanceof Number) {
+            return new Date((long) (((Number) value).doubleValue() * 1000));
+        } else if ((tag == 2 || tag == 3) && value instanceof byte[]) {
+            BigInteger unsigned = new BigInteger(1, (byte[]) value);
+            return tag == 2 ? unsigned : BigInteger.valueOf(-1).subtract(unsigned);
+        }
+        return value;
+    }
+
+    private Object readSimple(int info) throws IOException {
+        switch (info) {
+            case 20:
+                return false;
+            case 21:
+                return true;
+            case 22:
+            case 23:
+                return null;
+            case 24:
+                source.readByte();
+                return null;
+            case 25:
+                return halfToFloat(source.readShort() & 0xffff);
+            case 26:
+                return Float.intBitsToFloat(source.readInt());
+            case 27:
+                return Double.longBitsToDouble(source.readLong());
+            case 31:
+                return BREAK;
+            default:
+                if (info < 20) {
+                    //未分配的简单值
+                    return null;
+                }
+                throw new ProtocolException("invalid cbor simple value: " + info);
+        }
+    }
+
+    private static float halfToFloat(int half) {
+        int sign = half >>> 15;
+        int exponent = (half >>> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+        float value;
+        if (exponent == 0) {
+            value = (float) (mantissa * Math.pow(2, -24));
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = (float) ((mantissa + 1024) * Math.pow(2, exponent - 25));
+        }
+        return sign == 0 ? value : -value;
+    }
+
+    private void enter() throws ProtocolException {
+        if (++depth > MAX_DEPTH) {
+            throw new ProtocolException("cbor nesting too deep");
+        }
+    }
+
+    private static int length(long length) throws ProtocolException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new ProtocolException("cbor length too large");
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cn.rx.codec;
+
+import com.cn.rx.util.Util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+/**
+ * 已注册的响应解析器，按响应的Content-Type选择
+ * <p>
+ * 默认只有{@link FastJsonCodec}；Content-Type为空或没有匹配的解析器时使用fastjson（包括+json结尾的类型）。
+ * 注册了其他解析器时按注册顺序生成Accept请求头，先注册的优先，JSON排在最后
+ */
+public final class CodecRegistry {
+
+    private final ResponseCodec mDefaultCodec = new FastJsonCodec();
+    private final List<ResponseCodec> mCodecs = new CopyOnWriteArrayList<>();
+
+    /**
+     * 注册解析器，同一Content-Type先注册的优先
+     */
+    public void register(ResponseCodec codec) {
+        mCodecs.add(Util.checkNotNull(codec, "codec is null"));
+    }
+
+    public void unregister(ResponseCodec codec) {
+        mCodecs.remove(codec);
+    }
+
+    public List<ResponseCodec> getCodecs() {
+        return mCodecs;
+    }
+
+    /**
+     * 选择响应体对应的解析器
+     */
+    public ResponseCodec codecFor(ResponseBody body) {
+        return codecFor(body.contentType());
+    }
+
+    public ResponseCodec codecFor(MediaType contentType) {
+        if (contentType == null || mCodecs.isEmpty()) {
+            return mDefaultCodec;
+        }
+        String type = contentType.type() + "/" + contentType.subtype();
+        for (ResponseCodec codec : mCodecs) {
+            for (String supported : codec.contentTypes()) {
+                if (supported.equalsIgnoreCase(type)) {
+                    return codec;
+                }
+            }
+        }
+        return mDefaultCodec;
+    }
+
+    /**
+     * 生成Accept请求头，没有注册其他解析器时返回null（不添加请求头）
+     */
+    public String acceptHeader() {
+        if (mCodecs.isEmpty()) {
+            return null;
+        }
+        StringBuilder accept = new StringBuilder();
+        int weight = 10;
+        for (ResponseCodec codec : mCodecs) {
+            String[] types = codec.contentTypes();
+            if (types.length == 0) {
+                continue;
+            }
+            appendType(accept, types[0], weight);
+            weight = Math.max(weight - 1, 1);
+        }
+        appendType(accept, mDefaultCodec.contentTypes()[0], weight);
+        return accept.toString();
+    }
+
+    private static void appendType(StringBuilder accept, String type, int weight) {
+        if (accept.length() > 0) {
+            accept.append(", ");
+        }
+        accept.append(type);
+        if (weight < 10) {
+            accept.append(";q=0.").append(weight);
+        }
+    }
+}
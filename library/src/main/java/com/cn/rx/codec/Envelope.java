@@ -0,0 +1,148 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.cn.rx.config.ResultProfile;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统一格式响应（code、msg、data）的读取结果，字段名由{@link ResultProfile}配置
+ */
+public final class Envelope {
+    int code = -1;
+    String codeName;                //状态码不是int范围内的整数时（包括null）的原值
+    boolean numericCode = true;
+    String msg = "";
+    Object data;
+    boolean hasData;
+    boolean page;
+    RuntimeException dataError;
+
+    Envelope() {
+    }
+
+    /**
+     * 从已解析的结构（Map/List/基本类型）读取统一格式，供二进制格式的解析器使用
+     *
+     * @param profile    字段名配置
+     * @param dataType   data的目标类型，为null时忽略data；String时返回data的JSON文本
+     * @param unwrapPage data是对象时是否取其中配置的data字段（分页数据）
+     */
+    public static Envelope fromTree(Object tree, ResultProfile profile, Type dataType, boolean unwrapPage) {
+        if (!(tree instanceof Map)) {
+            throw new IllegalArgumentException("response is not an object: " + (tree == null ? null : tree.getClass()));
+        }
+        Map<?, ?> map = (Map<?, ?>) tree;
+        Envelope envelope = new Envelope();
+        Object code = map.get(profile.getCodeKey());
+        if (code != null || map.containsKey(profile.getCodeKey())) {
+            envelope.setCode(code);
+        }
+        Object msg = map.get(profile.getMsgKey());
+        if (msg != null || map.containsKey(profile.getMsgKey())) {
+            envelope.msg = msg == null ? null : msg.toString();
+        }
+        if (dataType != null) {
+            for (String key : profile.getDataKeys()) {
+                if (map.containsKey(key)) {
+                    envelope.hasData = true;
+                    try {
+                        envelope.convertData(map.get(key), dataType, unwrapPage, profile.getDataKeys());
+                    } catch (RuntimeException e) {
+                        envelope.dataError = e;
+                    }
+                    break;
+                }
+            }
+        }
+        return envelope;
+    }
+
+    /**
+     * 记录读到的状态码，整数直接保存为int，只有非数字的状态码才保留字符串
+     */
+    void setCode(Object value) {
+        if (value instanceof Integer) {
+            code = (Integer) value;
+            codeName = null;
+            numericCode = true;
+            return;
+        }
+        String text = value == null ? null : value.toString();
+        numericCode = ResultProfile.isIntCode(text);
+        code = ResultProfile.intCode(text);
+        codeName = numericCode ? null : text;
+    }
+
+    /**
+     * 将已解析的data结构转换为目标类型
+     */
+    void convertData(Object value, Type dataType, boolean unwrapPage, List<String> dataKeys) {
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        if (dataType == String.class) {
+            data = value == null || value instanceof String ? value : JSON.toJSONString(value);
+            return;
+        }
+        if (unwrapPage && value instanceof Map) {
+            page = true;
+            data = null;
+            Map<?, ?> pageMap = (Map<?, ?>) value;
+            for (String key : dataKeys) {
+                if (pageMap.containsKey(key)) {
+                    data = TreeBinder.bind(pageMap.get(key), dataType, config);
+                    return;
+                }
+            }
+            return;
+        }
+        data = TreeBinder.bind(value, dataType, config);
+    }
+
+    /**
+     * 状态码，没有该字段或不是整数时为-1（与{@link ResultProfile#intCode}一致）
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * 按配置判断状态码是否成功，非数字的状态码按原值比较
+     */
+    public boolean isSuccess(ResultProfile profile) {
+        return numericCode ? profile.isSuccess(code) : profile.isSuccess(codeName);
+    }
+
+    /**
+     * 说明信息，没有该字段时为""
+     */
+    public String getMsg() {
+        return msg;
+    }
+
+    /**
+     * 解析后的data，data解析失败时抛出解析异常
+     */
+    public Object getData() {
+        if (dataError != null) {
+            throw dataError;
+        }
+        return data;
+    }
+
+    public boolean hasData() {
+        return hasData;
+    }
+
+    /**
+     * data是分页对象，并且其中没有数据或数据为空集合
+     */
+    public boolean isEmptyPage() {
+        return page && (data == null
+                || data instanceof Collection && ((Collection) data).isEmpty()
+                || "".equals(data));
+    }
+}
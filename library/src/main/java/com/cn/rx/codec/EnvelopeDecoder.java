@@ -0,0 +1,133 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.cn.rx.config.ResultProfile;
+import com.cn.rx.util.JsonUtil;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 按ResultProfile配置的code、msg、data字段名一次读完统一格式的响应
+ * <p>
+ * 从响应体的字符流逐个读取信封的字段，data直接解析为目标类型，
+ * 不再先解析成JSONObject、把data转回字符串再解析（data出现在code之前时先读成JSON结构，读完后再转换）。
+ * 分页数据（目标是集合而data是对象）时只解析data对象中配置的data字段
+ */
+final class EnvelopeDecoder {
+
+    private EnvelopeDecoder() {
+    }
+
+    /**
+     * @param dataType   data的目标类型，为null时跳过data；String时返回data的JSON文本
+     * @param unwrapPage data是对象时是否取其中配置的data字段（分页数据）
+     * @throws NullPointerException 响应体为空
+     */
+    static Envelope decode(ResponseBody body, ResultProfile profile, Type dataType, boolean unwrapPage) throws IOException {
+        JSONLexer lexer = new JSONReaderScanner(JsonUtil.charStream(body));
+        try {
+            lexer.config(Feature.UseBigDecimal, true);
+            DefaultJSONParser parser = new DefaultJSONParser(lexer, ParserConfig.getGlobalInstance());
+            Envelope envelope = new Envelope();
+            readEnvelope(parser, profile, envelope, dataType, unwrapPage);
+            return envelope;
+        } finally {
+            //关闭时归还读取缓冲区并关闭响应体
+            lexer.close();
+        }
+    }
+
+    private static void readEnvelope(DefaultJSONParser parser, ResultProfile profile, Envelope envelope,
+                                     Type dataType, boolean unwrapPage) {
+        JSONLexer lexer = parser.lexer;
+        String codeKey = profile.getCodeKey();
+        String msgKey = profile.getMsgKey();
+        List<String> dataKeys = profile.getDataKeys();
+        //dataKey按配置的顺序优先，与逐个containsKey查找的结果一致
+        int dataIndex = Integer.MAX_VALUE;
+        boolean hasCode = false;
+        Object pending = null;              //code之前出现的data，先读成JSON结构，读完code后再转换
+
+        JsonTokens.startObject(lexer);
+        String key;
+        while ((key = JsonTokens.nextKey(lexer, parser.getSymbolTable())) != null) {
+            int index = dataKeys.indexOf(key);
+            if (key.equals(codeKey)) {
+                envelope.setCode(parser.parse());
+                hasCode = true;
+            } else if (key.equals(msgKey)) {
+                Object msg = parser.parse();
+                envelope.msg = msg == null ? null : msg.toString();
+            } else if (index >= 0 && index < dataIndex && dataType != null) {
+                dataIndex = index;
+                envelope.hasData = true;
+                if (!hasCode) {
+                    //失败响应的data格式常与成功时不同，还不知道code时不直接绑定，避免解析失败后读不到code和msg
+                    pending = parser.parse();
+                } else {
+                    pending = null;
+                    try {
+                        readData(parser, envelope, dataType, unwrapPage, dataKeys);
+                    } catch (RuntimeException e) {
+                        //解析失败后无法继续读取，由调用方根据code决定抛出ServerException还是解析异常
+                        envelope.dataError = e;
+                        return;
+                    }
+                }
+            } else {
+                JsonTokens.skipValue(lexer);
+            }
+        }
+        if (pending != null) {
+            try {
+                envelope.convertData(pending, dataType, unwrapPage, dataKeys);
+            } catch (RuntimeException e) {
+                envelope.dataError = e;
+            }
+        }
+    }
+
+    private static void readData(DefaultJSONParser parser, Envelope envelope, Type dataType,
+                                 boolean unwrapPage, List<String> dataKeys) {
+        JSONLexer lexer = parser.lexer;
+        if (dataType == String.class) {
+            Object value = parser.parse();
+            envelope.data = value == null || value instanceof String ? value : JSON.toJSONString(value);
+            return;
+        }
+        if (unwrapPage && lexer.token() == JSONToken.LBRACE) {
+            envelope.page = true;
+            envelope.data = null;
+            int pageIndex = Integer.MAX_VALUE;
+            JsonTokens.startObject(lexer);
+            String key;
+            while ((key = JsonTokens.nextKey(lexer, parser.getSymbolTable())) != null) {
+                int index = dataKeys.indexOf(key);
+                if (index >= 0 && index < pageIndex) {
+                    pageIndex = index;
+                    envelope.data = readValue(parser, dataType);
+                } else {
+                    JsonTokens.skipValue(lexer);
+                }
+            }
+            return;
+        }
+        envelope.data = readValue(parser, dataType);
+    }
+
+    private static Object readValue(DefaultJSONParser parser, Type type) {
+        Object value = parser.parseObject(type);
+        parser.handleResovleTask(value);
+        return value;
+    }
+}
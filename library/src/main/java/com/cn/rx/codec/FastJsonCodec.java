@@ -0,0 +1,32 @@
+package com.cn.rx.codec;
+
+import com.cn.rx.config.ResultProfile;
+import com.cn.rx.util.JsonUtil;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 使用fastjson解析JSON响应，默认的解析器；Content-Type不匹配任何已注册的解析器时也使用它
+ */
+public class FastJsonCodec implements ResponseCodec {
+
+    private static final String[] CONTENT_TYPES = {"application/json", "text/json"};
+
+    @Override
+    public String[] contentTypes() {
+        return CONTENT_TYPES.clone();
+    }
+
+    @Override
+    public <T> T decode(ResponseBody body, Type type) throws IOException {
+        return JsonUtil.parseObject(body, type);
+    }
+
+    @Override
+    public Envelope decodeEnvelope(ResponseBody body, ResultProfile profile, Type dataType, boolean unwrapPage) throws IOException {
+        return EnvelopeDecoder.decode(body, profile, dataType, unwrapPage);
+    }
+}
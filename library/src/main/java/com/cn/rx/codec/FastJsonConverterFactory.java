@@ -0,0 +1,73 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.cn.rx.util.Util;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.RequestBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * 使用fastjson把@Body参数直接序列化为请求体，RxHttp默认注册
+ * <p>
+ * 默认注册在最前面，为了让之后通过{@link com.cn.rx.RxHttp#converterFactory}等方式添加的Converter.Factory优先，
+ * 后面的Factory能处理该类型时这里不处理
+ */
+public final class FastJsonConverterFactory extends Converter.Factory {
+
+    private final SerializeConfig serializeConfig;
+    private final SerializerFeature[] features;
+
+    private FastJsonConverterFactory(SerializeConfig serializeConfig, SerializerFeature[] features) {
+        this.serializeConfig = serializeConfig;
+        this.features = features;
+    }
+
+    public static FastJsonConverterFactory create() {
+        return create(SerializeConfig.getGlobalInstance());
+    }
+
+    public static FastJsonConverterFactory create(SerializeConfig serializeConfig, SerializerFeature... features) {
+        return new FastJsonConverterFactory(Util.checkNotNull(serializeConfig, "serializeConfig is null"),
+                features != null ? features : new SerializerFeature[0]);
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations, Retrofit retrofit) {
+        if (type == RequestBody.class || handledAfter(type, parameterAnnotations, methodAnnotations, retrofit)) {
+            return null;
+        }
+        return new Converter<Object, RequestBody>() {
+            @Override
+            public RequestBody convert(Object value) {
+                return new FastJsonRequestBody(value, serializeConfig, features);
+            }
+        };
+    }
+
+    /**
+     * 排在自己后面的Factory是否可以处理该类型
+     */
+    private boolean handledAfter(Type type, Annotation[] parameterAnnotations,
+                                 Annotation[] methodAnnotations, Retrofit retrofit) {
+        List<Converter.Factory> factories = retrofit.converterFactories();
+        int start = factories.indexOf(this);
+        if (start < 0) {
+            return false;
+        }
+        for (int i = start + 1; i < factories.size(); i++) {
+            Converter.Factory factory = factories.get(i);
+            //newBuilder()后同一个Factory可能出现多次
+            if (factory != this && factory.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
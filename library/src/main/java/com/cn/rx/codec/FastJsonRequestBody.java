@@ -0,0 +1,139 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.cn.rx.util.Util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * 写出时才序列化的JSON请求体，fastjson的字符缓冲满了就以UTF-8编码写入sink，不生成中间的String和byte[]
+ * <p>
+ * 长度需要完整序列化一次才能得到，除null、整数、布尔值外不提供Content-Length（按chunked发送）
+ */
+final class FastJsonRequestBody extends RequestBody {
+    private static final MediaType MEDIA_TYPE = MediaType.parse(Util.MULTIPART_JSON_DATA);
+
+    private final Object value;
+    private final SerializeConfig serializeConfig;
+    private final SerializerFeature[] features;
+
+    FastJsonRequestBody(Object value, SerializeConfig serializeConfig, SerializerFeature[] features) {
+        this.value = value;
+        this.serializeConfig = serializeConfig;
+        this.features = features;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        if (value == null) {
+            return 4;
+        }
+        if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            return value.toString().length();
+        }
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        SerializeWriter out = new SerializeWriter(new Utf8SinkWriter(sink), JSON.DEFAULT_GENERATE_FEATURE, features);
+        try {
+            new JSONSerializer(out, serializeConfig).write(value);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * 把字符按UTF-8编码后写入sink，编码用的字节缓冲按线程复用
+     */
+    private static final class Utf8SinkWriter extends Writer {
+        private static final ThreadLocal<byte[]> BYTES = new ThreadLocal<>();
+
+        private final BufferedSink sink;
+        private final byte[] bytes;
+        private char highSurrogate;
+
+        Utf8SinkWriter(BufferedSink sink) {
+            this.sink = sink;
+            byte[] bytes = BYTES.get();
+            if (bytes == null) {
+                bytes = new byte[8192];
+                BYTES.set(bytes);
+            }
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            byte[] bytes = this.bytes;
+            int limit = bytes.length - 4;
+            int pos = 0;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                if (pos > limit) {
+                    sink.write(bytes, 0, pos);
+                    pos = 0;
+                }
+                char c = chars[i];
+                if (highSurrogate != 0) {
+                    if (Character.isLowSurrogate(c)) {
+                        int codePoint = Character.toCodePoint(highSurrogate, c);
+                        highSurrogate = 0;
+                        bytes[pos++] = (byte) (0xf0 | codePoint >> 18);
+                        bytes[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                        bytes[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                        bytes[pos++] = (byte) (0x80 | codePoint & 0x3f);
+                        continue;
+                    }
+                    //不成对的代理字符
+                    highSurrogate = 0;
+                    bytes[pos++] = '?';
+                }
+                if (c < 0x80) {
+                    bytes[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[pos++] = (byte) (0xc0 | c >> 6);
+                    bytes[pos++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c)) {
+                    highSurrogate = c;
+                } else if (Character.isLowSurrogate(c)) {
+                    bytes[pos++] = '?';
+                } else {
+                    bytes[pos++] = (byte) (0xe0 | c >> 12);
+                    bytes[pos++] = (byte) (0x80 | c >> 6 & 0x3f);
+                    bytes[pos++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            sink.write(bytes, 0, pos);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                sink.writeByte('?');
+            }
+            sink.emitCompleteSegments();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
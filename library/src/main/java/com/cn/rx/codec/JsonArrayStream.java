@@ -0,0 +1,210 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.cn.rx.config.ResultProfile;
+import com.cn.rx.exception.ServerException;
+import com.cn.rx.util.JsonUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 从统一格式的JSON响应中边下载边逐个读取data数组的元素
+ * <p>
+ * 读到code时立即检查，失败时不再解析data，读到msg后抛出{@link ServerException}；
+ * data是对象（分页数据）时读取其中第一个出现的data字段。
+ * data出现在code之前时还不能确定是否成功，先读成JSON结构，读完整个响应后再逐个转换。
+ * 数组中的null元素会被跳过
+ */
+public final class JsonArrayStream<T> implements Closeable {
+
+    private final JSONLexer lexer;
+    private final ResultProfile profile;
+    private final DefaultJSONParser parser;
+    private final Type elementType;
+    private final String codeKey;
+    private final String msgKey;
+    private final List<String> dataKeys;
+
+    private String code;
+    private String msg;
+    private boolean hasCode;
+    private boolean hasMsg;
+    private boolean hasData;
+    private boolean inPage;             //正在读取分页对象的字段
+    private boolean hasPageData;
+    private boolean inArray;            //正在读取data数组的元素
+    private Object pending;             //code之前出现的data
+    private Iterator<?> buffered;       //读完响应后再转换的元素
+
+    private JsonArrayStream(ResponseBody body, ResultProfile profile, Type elementType) throws IOException {
+        this.profile = profile;
+        this.elementType = elementType;
+        this.codeKey = profile.getCodeKey();
+        this.msgKey = profile.getMsgKey();
+        this.dataKeys = profile.getDataKeys();
+        //没有code字段时与完整解析一致：ApiResultEntity的code为0，Envelope的code为-1
+        this.code = profile == ResultProfile.API_RESULT ? "0" : "-1";
+        lexer = new JSONReaderScanner(JsonUtil.charStream(body));
+        try {
+            lexer.config(Feature.UseBigDecimal, true);
+            parser = new DefaultJSONParser(lexer, ParserConfig.getGlobalInstance());
+            JsonTokens.startObject(lexer);
+        } catch (RuntimeException e) {
+            lexer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param profile 字段名和成功状态码，ApiResultEntity的格式为{@link ResultProfile#API_RESULT}
+     */
+    public static <T> JsonArrayStream<T> open(ResponseBody body, ResultProfile profile, Type elementType) throws IOException {
+        return new JsonArrayStream<>(body, profile, elementType);
+    }
+
+    /**
+     * 读取下一个元素，必要时阻塞等待网络数据
+     *
+     * @return 没有更多元素时返回null
+     * @throws ServerException code表示失败
+     */
+    @SuppressWarnings("unchecked")
+    public T next() {
+        for (;;) {
+            if (inArray) {
+                if (lexer.token() == JSONToken.RBRACKET) {
+                    lexer.nextToken();
+                    inArray = false;
+                    continue;
+                }
+                Object value = parser.parseObject(elementType);
+                parser.handleResovleTask(value);
+                JsonTokens.nextElement(lexer);
+                if (value != null) {
+                    return (T) value;
+                }
+                continue;
+            }
+            if (buffered != null) {
+                while (buffered.hasNext()) {
+                    Object item = buffered.next();
+                    if (item != null) {
+                        return (T) TreeBinder.bind(item, elementType, ParserConfig.getGlobalInstance());
+                    }
+                }
+                return null;
+            }
+            String key = JsonTokens.nextKey(lexer, parser.getSymbolTable());
+            if (key == null) {
+                if (inPage) {
+                    inPage = false;
+                    continue;
+                }
+                if (!isSuccess()) {
+                    throw serverException();
+                }
+                buffered = pending != null ? elements(pending, true) : Collections.emptyList().iterator();
+                pending = null;
+                continue;
+            }
+            if (inPage) {
+                if (!hasPageData && dataKeys.contains(key)) {
+                    hasPageData = true;
+                    openData();
+                } else {
+                    JsonTokens.skipValue(lexer);
+                }
+            } else if (key.equals(codeKey)) {
+                Object value = parser.parse();
+                code = value == null ? null : value.toString();
+                hasCode = true;
+                if (hasMsg && !isSuccess()) {
+                    throw serverException();
+                }
+            } else if (key.equals(msgKey)) {
+                Object value = parser.parse();
+                msg = value == null ? null : value.toString();
+                hasMsg = true;
+                if (hasCode && !isSuccess()) {
+                    throw serverException();
+                }
+            } else if (!hasData && dataKeys.contains(key)) {
+                hasData = true;
+                if (!hasCode) {
+                    pending = parser.parse();
+                } else if (isSuccess()) {
+                    openData();
+                } else {
+                    //失败时不解析data，继续读取msg
+                    JsonTokens.skipValue(lexer);
+                }
+            } else {
+                JsonTokens.skipValue(lexer);
+            }
+        }
+    }
+
+    private void openData() {
+        int token = lexer.token();
+        if (token == JSONToken.LBRACKET) {
+            JsonTokens.startArray(lexer);
+            inArray = true;
+        } else if (token == JSONToken.LBRACE && !inPage) {
+            JsonTokens.startObject(lexer);
+            inPage = true;
+        } else if (token == JSONToken.NULL) {
+            lexer.nextToken();
+        } else {
+            throw new JSONException("data is not an array, actual " + lexer.tokenName());
+        }
+    }
+
+    private Iterator<?> elements(Object data, boolean unwrapPage) {
+        if (data instanceof List) {
+            return ((List<?>) data).iterator();
+        }
+        if (data instanceof Map && unwrapPage) {
+            Map<?, ?> page = (Map<?, ?>) data;
+            for (String key : dataKeys) {
+                if (page.containsKey(key)) {
+                    return elements(page.get(key), false);
+                }
+            }
+            return Collections.emptyList().iterator();
+        }
+        if (data == null) {
+            return Collections.emptyList().iterator();
+        }
+        throw new JSONException("data is not an array, actual " + data.getClass().getName());
+    }
+
+    private boolean isSuccess() {
+        return profile.isSuccess(code);
+    }
+
+    private ServerException serverException() {
+        return new ServerException(ResultProfile.intCode(code), msg, profile);
+    }
+
+    /**
+     * 关闭响应体，未读完时剩余内容不再读取
+     */
+    @Override
+    public void close() {
+        lexer.close();
+    }
+}
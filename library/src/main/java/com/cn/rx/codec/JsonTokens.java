@@ -0,0 +1,141 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.SymbolTable;
+
+/**
+ * 直接驱动fastjson词法分析器读取对象、数组的辅助方法
+ */
+public final class JsonTokens {
+
+    private JsonTokens() {
+    }
+
+    /**
+     * 检查当前记号是对象开始，之后用{@link #nextKey}逐个读取字段名
+     */
+    public static void startObject(JSONLexer lexer) {
+        if (lexer.token() != JSONToken.LBRACE) {
+            throw new JSONException("syntax error, expect {, actual " + lexer.tokenName());
+        }
+    }
+
+    /**
+     * 读取下一个字段名并停在字段值的记号上
+     * <p>
+     * 字段名从符号表中取，相同的字段名不会重复创建字符串
+     *
+     * @return 对象已结束时返回null，并停在对象之后的记号上
+     */
+    public static String nextKey(JSONLexer lexer, SymbolTable symbols) {
+        int token = lexer.token();
+        if (token == JSONToken.RBRACE) {
+            lexer.nextToken();
+            return null;
+        }
+        if (token != JSONToken.LBRACE && token != JSONToken.COMMA) {
+            throw new JSONException("syntax error, expect , or }, actual " + lexer.tokenName());
+        }
+        //记号是{或,时当前字符已是其后的字符
+        lexer.skipWhitespace();
+        char ch = lexer.getCurrent();
+        if (ch == '}' && token == JSONToken.LBRACE) {
+            lexer.next();
+            lexer.nextToken();
+            return null;
+        }
+        if (ch != '"' && ch != '\'') {
+            throw new JSONException("syntax error, expect field name, pos " + lexer.pos());
+        }
+        String key = lexer.scanSymbol(symbols, ch);
+        lexer.skipWhitespace();
+        if (lexer.getCurrent() != ':') {
+            throw new JSONException("syntax error, expect :, pos " + lexer.pos());
+        }
+        lexer.next();
+        lexer.resetStringPosition();
+        lexer.nextToken();
+        return key;
+    }
+
+    public static void startArray(JSONLexer lexer) {
+        if (lexer.token() != JSONToken.LBRACKET) {
+            throw new JSONException("syntax error, expect [, actual " + lexer.tokenName());
+        }
+        lexer.nextToken();
+    }
+
+    public static void nextElement(JSONLexer lexer) {
+        if (lexer.token() == JSONToken.COMMA) {
+            lexer.nextToken();
+        } else if (lexer.token() != JSONToken.RBRACKET) {
+            throw new JSONException("syntax error, expect , or ], actual " + lexer.tokenName());
+        }
+    }
+
+    /**
+     * 跳过当前的值，停在值之后的记号上
+     * <p>
+     * 对象和数组逐个字符扫描到匹配的括号，不经过词法分析，不创建字符串、数字和集合对象
+     */
+    public static void skipValue(JSONLexer lexer) {
+        switch (lexer.token()) {
+            case JSONToken.LBRACE:
+            case JSONToken.LBRACKET:
+                //记号是括号时当前字符已是括号后的字符
+                skipContainer(lexer);
+                break;
+            case JSONToken.EOF:
+                throw new JSONException("unexpected end of json");
+            case JSONToken.ERROR:
+            case JSONToken.RBRACE:
+            case JSONToken.RBRACKET:
+            case JSONToken.COMMA:
+            case JSONToken.COLON:
+                throw new JSONException("syntax error, expect value, actual " + lexer.tokenName() + ", pos " + lexer.pos());
+            default:
+                break;
+        }
+        lexer.nextToken();
+    }
+
+    private static void skipContainer(JSONLexer lexer) {
+        int depth = 1;
+        char ch = lexer.getCurrent();
+        for (;;) {
+            switch (ch) {
+                case '"':
+                case '\'':
+                    char quote = ch;
+                    ch = lexer.next();
+                    while (ch != quote) {
+                        if (ch == '\\') {
+                            lexer.next();
+                        } else if (ch == JSONLexer.EOI) {
+                            throw new JSONException("unclosed string");
+                        }
+                        ch = lexer.next();
+                    }
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (--depth == 0) {
+                        lexer.next();
+                        return;
+                    }
+                    break;
+                case JSONLexer.EOI:
+                    throw new JSONException("unexpected end of json");
+                default:
+                    break;
+            }
+            ch = lexer.next();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.cn.rx.codec;
+
+import java.io.IOException;
+
+import okio.BufferedSource;
+
+/**
+ * 解析MessagePack响应，读取规则见{@link MessagePackReader}
+ */
+public class MessagePackCodec extends TreeCodec {
+
+    private static final String[] CONTENT_TYPES = {"application/msgpack", "application/x-msgpack", "application/vnd.msgpack"};
+
+    @Override
+    public String[] contentTypes() {
+        return CONTENT_TYPES.clone();
+    }
+
+    @Override
+    protected Object readTree(BufferedSource source) throws IOException {
+        return new MessagePackReader(source).read();
+    }
+}
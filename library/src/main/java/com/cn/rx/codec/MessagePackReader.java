@@ -0,0 +1,167 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.ProtocolException;
+import java.util.Date;
+
+import okio.BufferedSource;
+
+/**
+ * 读取MessagePack编码的值：map读为JSONObject（键转为字符串），array读为JSONArray，
+ * bin读为byte[]，timestamp扩展类型读为Date，其他扩展类型读为其数据的byte[]
+ */
+final class MessagePackReader {
+
+    private static final int MAX_DEPTH = 512;
+
+    private final BufferedSource source;
+    private int depth;
+
+    MessagePackReader(BufferedSource source) {
+        this.source = source;
+    }
+
+    Object read() throws IOException {
+        int b = source.readByte() & 0xff;
+        if (b <= 0x7f) {
+            return b;
+        } else if (b <= 0x8f) {
+            return readMap(b & 0x0f);
+        } else if (b <= 0x9f) {
+            return readArray(b & 0x0f);
+        } else if (b <= 0xbf) {
+            return source.readUtf8(b & 0x1f);
+        } else if (b >= 0xe0) {
+            return (int) (byte) b;
+        }
+        switch (b) {
+            case 0xc0:
+                return null;
+            case 0xc2:
+                return false;
+            case 0xc3:
+                return true;
+            case 0xc4:
+                return source.readByteArray(source.readByte() & 0xff);
+            case 0xc5:
+                return source.readByteArray(source.readShort() & 0xffff);
+            case 0xc6:
+                return source.readByteArray(length(source.readInt()));
+            case 0xc7:
+                return readExt(source.readByte() & 0xff);
+            case 0xc8:
+                return readExt(source.readShort() & 0xffff);
+            case 0xc9:
+                return readExt(length(source.readInt()));
+            case 0xca:
+                return Float.intBitsToFloat(source.readInt());
+            case 0xcb:
+                return Double.longBitsToDouble(source.readLong());
+            case 0xcc:
+                return source.readByte() & 0xff;
+            case 0xcd:
+                return source.readShort() & 0xffff;
+            case 0xce:
+                return source.readInt() & 0xffffffffL;
+            case 0xcf:
+                long value = source.readLong();
+                return value >= 0 ? (Object) value
+                        : new BigInteger(1, new byte[]{
+                        (byte) (value >>> 56), (byte) (value >>> 48), (byte) (value >>> 40), (byte) (value >>> 32),
+                        (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+            case 0xd0:
+                return (int) source.readByte();
+            case 0xd1:
+                return (int) source.readShort();
+            case 0xd2:
+                return source.readInt();
+            case 0xd3:
+                return source.readLong();
+            case 0xd4:
+                return readExt(1);
+            case 0xd5:
+                return readExt(2);
+            case 0xd6:
+                return readExt(4);
+            case 0xd7:
+                return readExt(8);
+            case 0xd8:
+                return readExt(16);
+            case 0xd9:
+                return source.readUtf8(source.readByte() & 0xff);
+            case 0xda:
+                return source.readUtf8(source.readShort() & 0xffff);
+            case 0xdb:
+                return source.readUtf8(length(source.readInt()));
+            case 0xdc:
+                return readArray(source.readShort() & 0xffff);
+            case 0xdd:
+                return readArray(length(source.readInt()));
+            case 0xde:
+                return readMap(source.readShort() & 0xffff);
+            case 0xdf:
+                return readMap(length(source.readInt()));
+            default:
+                throw new ProtocolException("unknown msgpack type: 0x" + Integer.toHexString(b));
+        }
+    }
+
+    private JSONObject readMap(int size) throws IOException {
+        enter();
+        //长度来自响应，不直接按长度分配
+        JSONObject map = new JSONObject(Math.min(size, 256), true);
+        for (int i = 0; i < size; i++) {
+            Object key = read();
+            map.put(key == null ? "null" : key.toString(), read());
+        }
+        depth--;
+        return map;
+    }
+
+    private JSONArray readArray(int size) throws IOException {
+        enter();
+        JSONArray array = new JSONArray(Math.min(size, 256));
+        for (int i = 0; i < size; i++) {
+            array.add(read());
+        }
+        depth--;
+        return array;
+    }
+
+    private Object readExt(int size) throws IOException {
+        byte type = source.readByte();
+        if (type == -1) {
+            //timestamp扩展类型
+            if (size == 4) {
+                return new Date((source.readInt() & 0xffffffffL) * 1000);
+            } else if (size == 8) {
+                long value = source.readLong();
+                long nanos = value >>> 34;
+                long seconds = value & 0x3ffffffffL;
+                return new Date(seconds * 1000 + nanos / 1000000);
+            } else if (size == 12) {
+                long nanos = source.readInt() & 0xffffffffL;
+                long seconds = source.readLong();
+                return new Date(seconds * 1000 + nanos / 1000000);
+            }
+        }
+        return source.readByteArray(size);
+    }
+
+    private void enter() throws ProtocolException {
+        if (++depth > MAX_DEPTH) {
+            throw new ProtocolException("msgpack nesting too deep");
+        }
+    }
+
+    private static int length(int length) throws ProtocolException {
+        if (length < 0) {
+            throw new ProtocolException("msgpack length too large: " + (length & 0xffffffffL));
+        }
+        return length;
+    }
+}
@@ -0,0 +1,267 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.TypeUtils;
+import com.cn.rx.util.JsonUtil;
+import com.cn.rx.util.Util;
+
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 按路径只读取响应中的一部分，如"code"、"data.page.total"、"data.items[*].id"、"data[0]"
+ * <p>
+ * 路径由"."分隔的字段名组成，字段名后可以跟[n]取数组的第n个元素或[*]取所有元素。
+ * 读取JSON时边读边跳过路径以外的内容，只把路径上的值解析为目标类型；
+ * 路径含有[*]时匹配到的所有值组成集合，目标类型是集合（如List&lt;Long&gt;）或数组
+ */
+public final class PathProjection {
+
+    private static final int WILDCARD = -1;
+
+    private final String path;
+    private final String[] keys;        //字段名，数组下标的步骤为null
+    private final int[] indexes;        //数组下标，WILDCARD表示所有元素
+    private final boolean multiple;
+
+    private PathProjection(String path, String[] keys, int[] indexes, boolean multiple) {
+        this.path = path;
+        this.keys = keys;
+        this.indexes = indexes;
+        this.multiple = multiple;
+    }
+
+    /**
+     * @throws IllegalArgumentException 路径格式不正确
+     */
+    public static PathProjection compile(String path) {
+        Util.checkNotNull(path, "path is null");
+        String expression = path.startsWith("$.") ? path.substring(2) : path;
+        List<String> keys = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        boolean multiple = false;
+        for (String segment : expression.split("\\.", -1)) {
+            int bracket = segment.indexOf('[');
+            String name = bracket < 0 ? segment : segment.substring(0, bracket);
+            if (name.length() > 0) {
+                keys.add(name);
+                indexes.add(0);
+            } else if (bracket != 0 || keys.size() > 0) {
+                //只有第一段可以直接从数组开始，如"[0].id"
+                throw new IllegalArgumentException("illegal path: " + path);
+            }
+            while (bracket >= 0) {
+                int end = segment.indexOf(']', bracket);
+                if (end < 0) {
+                    throw new IllegalArgumentException("illegal path: " + path);
+                }
+                String index = segment.substring(bracket + 1, end).trim();
+                if ("*".equals(index)) {
+                    indexes.add(WILDCARD);
+                    multiple = true;
+                } else {
+                    try {
+                        int value = Integer.parseInt(index);
+                        if (value < 0) {
+                            throw new IllegalArgumentException("illegal path: " + path);
+                        }
+                        indexes.add(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("illegal path: " + path, e);
+                    }
+                }
+                keys.add(null);
+                bracket = end + 1 < segment.length() ? end + 1 : -1;
+                if (bracket >= 0 && segment.charAt(bracket) != '[') {
+                    throw new IllegalArgumentException("illegal path: " + path);
+                }
+            }
+        }
+        int[] indexArray = new int[indexes.size()];
+        for (int i = 0; i < indexArray.length; i++) {
+            indexArray[i] = indexes.get(i);
+        }
+        return new PathProjection(path, keys.toArray(new String[keys.size()]), indexArray, multiple);
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * 路径是否含有[*]
+     */
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    /**
+     * 从JSON响应体中读取路径上的值，读完后关闭响应体
+     *
+     * @return 路径不存在或值为null时返回null
+     * @throws NullPointerException 响应体为空
+     */
+    public <T> T read(ResponseBody body, Type type) throws IOException {
+        JSONLexer lexer = new JSONReaderScanner(JsonUtil.charStream(body));
+        try {
+            lexer.config(Feature.UseBigDecimal, true);
+            DefaultJSONParser parser = new DefaultJSONParser(lexer, ParserConfig.getGlobalInstance());
+            Type itemType = itemType(type);
+            List<Object> matches = new ArrayList<>(multiple ? 16 : 1);
+            readStep(parser, 0, itemType, matches);
+            return result(matches, type);
+        } finally {
+            lexer.close();
+        }
+    }
+
+    /**
+     * 从已解析的结构（Map/List）中取路径上的值，供二进制格式使用
+     *
+     * @return 路径不存在或值为null时返回null
+     */
+    public <T> T select(Object tree, Type type) {
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        Type itemType = itemType(type);
+        List<Object> matches = new ArrayList<>(multiple ? 16 : 1);
+        selectStep(tree, 0, itemType, matches, config);
+        return result(matches, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T result(List<Object> matches, Type type) {
+        if (!multiple) {
+            return matches.isEmpty() ? null : (T) matches.get(0);
+        }
+        Class<?> rawType = TypeUtils.getClass(type);
+        if (rawType.isAssignableFrom(ArrayList.class)) {
+            return (T) matches;
+        }
+        //Set、数组等其他集合类型，元素已经是目标类型
+        return (T) TypeUtils.cast(matches, type, ParserConfig.getGlobalInstance());
+    }
+
+    /**
+     * @return 不含[*]的路径已经读到值，剩余内容不再读取
+     */
+    private boolean readStep(DefaultJSONParser parser, int step, Type itemType, List<Object> matches) {
+        JSONLexer lexer = parser.lexer;
+        if (step == keys.length) {
+            Object value = parser.parseObject(itemType);
+            parser.handleResovleTask(value);
+            if (value != null) {
+                matches.add(value);
+            }
+            return !multiple;
+        }
+        String key = keys[step];
+        if (key != null) {
+            if (lexer.token() != JSONToken.LBRACE) {
+                JsonTokens.skipValue(lexer);
+                return false;
+            }
+            boolean found = false;
+            JsonTokens.startObject(lexer);
+            String name;
+            while ((name = JsonTokens.nextKey(lexer, parser.getSymbolTable())) != null) {
+                //重复的字段只取第一个
+                if (!found && key.equals(name)) {
+                    found = true;
+                    if (readStep(parser, step + 1, itemType, matches)) {
+                        return true;
+                    }
+                } else {
+                    JsonTokens.skipValue(lexer);
+                }
+            }
+            return false;
+        }
+        if (lexer.token() != JSONToken.LBRACKET) {
+            JsonTokens.skipValue(lexer);
+            return false;
+        }
+        int index = indexes[step];
+        JsonTokens.startArray(lexer);
+        for (int i = 0; lexer.token() != JSONToken.RBRACKET; i++) {
+            if (index == WILDCARD || index == i) {
+                if (readStep(parser, step + 1, itemType, matches)) {
+                    return true;
+                }
+            } else {
+                JsonTokens.skipValue(lexer);
+            }
+            JsonTokens.nextElement(lexer);
+        }
+        lexer.nextToken();
+        return false;
+    }
+
+    private void selectStep(Object node, int step, Type itemType, List<Object> matches, ParserConfig config) {
+        if (node == null) {
+            return;
+        }
+        if (step == keys.length) {
+            Object value = TreeBinder.bind(node, itemType, config);
+            if (value != null) {
+                matches.add(value);
+            }
+            return;
+        }
+        String key = keys[step];
+        if (key != null) {
+            if (node instanceof Map) {
+                selectStep(((Map<?, ?>) node).get(key), step + 1, itemType, matches, config);
+            }
+            return;
+        }
+        if (!(node instanceof List)) {
+            return;
+        }
+        List<?> list = (List<?>) node;
+        int index = indexes[step];
+        if (index == WILDCARD) {
+            for (Object item : list) {
+                selectStep(item, step + 1, itemType, matches, config);
+            }
+        } else if (index < list.size()) {
+            selectStep(list.get(index), step + 1, itemType, matches, config);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * 路径含有[*]时每个匹配值的类型
+     */
+    private Type itemType(Type type) {
+        if (!multiple) {
+            return type;
+        }
+        if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        Class<?> rawType = TypeUtils.getClass(type);
+        if (rawType.isArray()) {
+            return rawType.getComponentType();
+        }
+        if (!Collection.class.isAssignableFrom(rawType)) {
+            throw new IllegalArgumentException("path " + path + " matches multiple values, type must be a collection or array: " + type);
+        }
+        return TypeUtils.getCollectionItemType(type);
+    }
+}
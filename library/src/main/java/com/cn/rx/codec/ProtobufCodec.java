@@ -0,0 +1,87 @@
+package com.cn.rx.codec;
+
+import com.cn.rx.config.ResultProfile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 解析protobuf（含protobuf-lite）响应
+ * <p>
+ * 通过反射调用生成的消息类的静态方法parseFrom(InputStream)，库本身不依赖protobuf；
+ * 目标类型必须是生成的消息类。protobuf没有按字段名读取的统一格式，不支持{@link #decodeEnvelope}，
+ * 需要直接按消息类型请求（如execute(Class)）
+ */
+public class ProtobufCodec implements ResponseCodec {
+
+    private static final String[] CONTENT_TYPES = {"application/x-protobuf", "application/protobuf"};
+
+    //Method引用了消息类，值使用软引用避免缓存阻止类卸载
+    private final Map<Class<?>, SoftReference<Method>> mParsers = new WeakHashMap<>();
+
+    @Override
+    public String[] contentTypes() {
+        return CONTENT_TYPES.clone();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T decode(ResponseBody body, Type type) throws IOException {
+        try {
+            Method parseFrom = parser(type);
+            return (T) parseFrom.invoke(null, body.byteStream());
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            body.close();
+        }
+    }
+
+    @Override
+    public Envelope decodeEnvelope(ResponseBody body, ResultProfile profile, Type dataType, boolean unwrapPage) throws IOException {
+        body.close();
+        throw new UnsupportedOperationException("protobuf response has no envelope, request the message type directly");
+    }
+
+    private Method parser(Type type) {
+        if (!(type instanceof Class)) {
+            throw new IllegalArgumentException("not a protobuf message class: " + type);
+        }
+        Class<?> clazz = (Class<?>) type;
+        synchronized (mParsers) {
+            SoftReference<Method> ref = mParsers.get(clazz);
+            Method method = ref != null ? ref.get() : null;
+            if (method != null) {
+                return method;
+            }
+        }
+        Method method;
+        try {
+            method = clazz.getMethod("parseFrom", InputStream.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("not a protobuf message class: " + type, e);
+        }
+        if (!Modifier.isStatic(method.getModifiers()) || !clazz.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalArgumentException("not a protobuf message class: " + type);
+        }
+        synchronized (mParsers) {
+            mParsers.put(clazz, new SoftReference<>(method));
+        }
+        return method;
+    }
+}
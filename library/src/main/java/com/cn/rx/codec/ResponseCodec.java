@@ -0,0 +1,38 @@
+package com.cn.rx.codec;
+
+import com.cn.rx.config.ResultProfile;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 响应体解析器，按响应的Content-Type选择，见{@link CodecRegistry}
+ * <p>
+ * 解析完成后（包括失败时）需要关闭响应体
+ */
+public interface ResponseCodec {
+
+    /**
+     * 支持的Content-Type（type/subtype，不含参数），第一个用于生成Accept请求头
+     */
+    String[] contentTypes();
+
+    /**
+     * 解析为指定类型
+     *
+     * @throws NullPointerException 响应体为空
+     */
+    <T> T decode(ResponseBody body, Type type) throws IOException;
+
+    /**
+     * 按配置的字段名读取统一格式（code、msg、data）的响应
+     *
+     * @param profile    字段名等配置，见ResultConfigLoader
+     * @param dataType   data的目标类型，为null时忽略data；String时返回data的JSON文本
+     * @param unwrapPage data是对象时是否取其中配置的data字段（分页数据）
+     * @throws NullPointerException 响应体为空
+     */
+    Envelope decodeEnvelope(ResponseBody body, ResultProfile profile, Type dataType, boolean unwrapPage) throws IOException;
+}
@@ -0,0 +1,109 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.JavaBeanDeserializer;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.util.FieldInfo;
+import com.alibaba.fastjson.util.JavaBeanInfo;
+import com.alibaba.fastjson.util.TypeUtils;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 把已解析的结构（Map/List/基本类型）转换为目标类型
+ * <p>
+ * 基本规则与fastjson的TypeUtils.cast一致；TypeUtils.cast转换带泛型的JavaBean（如ApiResultEntity&lt;List&lt;T&gt;&gt;）时
+ * 会先序列化成JSON字符串再解析，这里改为先按原始类型转换，再按解析出的泛型重新转换泛型字段
+ */
+final class TreeBinder {
+
+    private static final Map<Type, SoftReference<FieldInfo[]>> GENERIC_FIELDS = new WeakHashMap<>();
+
+    private TreeBinder() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object bind(Object value, Type type, ParserConfig config) {
+        if (value == null || !(type instanceof ParameterizedType)) {
+            return TypeUtils.cast(value, type, config);
+        }
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+        Type[] arguments = parameterizedType.getActualTypeArguments();
+        if (value instanceof List && arguments.length == 1 && arguments[0] instanceof ParameterizedType
+                && (rawType.isAssignableFrom(ArrayList.class) || rawType.isAssignableFrom(HashSet.class))) {
+            //元素本身带泛型，逐个转换
+            Collection<Object> collection = rawType.isAssignableFrom(ArrayList.class)
+                    ? new ArrayList<>(((List) value).size()) : new HashSet<>();
+            for (Object item : (List) value) {
+                collection.add(bind(item, arguments[0], config));
+            }
+            return collection;
+        }
+        if (value instanceof Map && !Map.class.isAssignableFrom(rawType) && !Collection.class.isAssignableFrom(rawType)) {
+            ObjectDeserializer deserializer = config.getDeserializer(rawType);
+            if (deserializer instanceof JavaBeanDeserializer) {
+                return bindBean((Map<String, Object>) value, rawType, parameterizedType, config);
+            }
+        }
+        return TypeUtils.cast(value, type, config);
+    }
+
+    private static Object bindBean(Map<String, Object> map, Class<?> rawType, ParameterizedType type, ParserConfig config) {
+        Object bean = TypeUtils.castToJavaBean(map, rawType, config);
+        if (bean == null) {
+            return null;
+        }
+        for (FieldInfo field : genericFields(rawType, type, config)) {
+            if (!map.containsKey(field.name)) {
+                continue;
+            }
+            try {
+                field.set(bean, bind(map.get(field.name), field.fieldType, config));
+            } catch (Exception e) {
+                throw new JSONException("set property error, " + field.name, e);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 声明类型中含有类型参数的字段，字段类型已按type解析
+     */
+    private static FieldInfo[] genericFields(Class<?> rawType, ParameterizedType type, ParserConfig config) {
+        synchronized (GENERIC_FIELDS) {
+            SoftReference<FieldInfo[]> ref = GENERIC_FIELDS.get(type);
+            FieldInfo[] fields = ref != null ? ref.get() : null;
+            if (fields != null) {
+                return fields;
+            }
+        }
+        JavaBeanInfo beanInfo = JavaBeanInfo.build(rawType, type, config.propertyNamingStrategy);
+        List<FieldInfo> generic = new ArrayList<>();
+        for (FieldInfo field : beanInfo.fields) {
+            if (field.getOnly) {
+                continue;
+            }
+            Type declared = field.method != null && field.method.getParameterTypes().length == 1
+                    ? field.method.getGenericParameterTypes()[0]
+                    : field.field != null ? field.field.getGenericType() : field.fieldClass;
+            if (!declared.equals(field.fieldType)) {
+                generic.add(field);
+            }
+        }
+        FieldInfo[] fields = generic.toArray(new FieldInfo[generic.size()]);
+        synchronized (GENERIC_FIELDS) {
+            GENERIC_FIELDS.put(type, new SoftReference<>(fields));
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,45 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.cn.rx.config.ResultProfile;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * 先把响应读成通用结构（JSONObject/JSONArray/基本类型）再转换为目标类型的解析器，
+ * 用于MessagePack、CBOR等自描述的二进制格式，转换规则与fastjson一致
+ */
+public abstract class TreeCodec implements ResponseCodec {
+
+    /**
+     * 读取一个完整的值
+     */
+    protected abstract Object readTree(BufferedSource source) throws IOException;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T decode(ResponseBody body, Type type) throws IOException {
+        return (T) TreeBinder.bind(read(body), type, ParserConfig.getGlobalInstance());
+    }
+
+    @Override
+    public Envelope decodeEnvelope(ResponseBody body, ResultProfile profile, Type dataType, boolean unwrapPage) throws IOException {
+        return Envelope.fromTree(read(body), profile, dataType, unwrapPage);
+    }
+
+    private Object read(ResponseBody body) throws IOException {
+        try {
+            BufferedSource source = body.source();
+            if (source.exhausted()) {
+                throw new NullPointerException("body is null");
+            }
+            return readTree(source);
+        } finally {
+            body.close();
+        }
+    }
+}
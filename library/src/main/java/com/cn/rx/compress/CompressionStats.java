@@ -0,0 +1,75 @@
+package com.cn.rx.compress;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 某一时刻按接口统计的请求体压缩效果
+ */
+public final class CompressionStats {
+
+    private final Map<String, Entry> endpoints;
+
+    CompressionStats(Map<String, Entry> endpoints) {
+        this.endpoints = Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * 按接口（host+path）统计，接口过多时其余的合并到"*"
+     */
+    public Map<String, Entry> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 所有接口共节省的字节数
+     */
+    public long getSavedBytes() {
+        long saved = 0;
+        for (Entry entry : endpoints.values()) {
+            saved += entry.getSavedBytes();
+        }
+        return saved;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats{" + endpoints + "}";
+    }
+
+    public static final class Entry {
+        private final long requests;
+        private final long originalBytes;
+        private final long encodedBytes;
+
+        Entry(long requests, long originalBytes, long encodedBytes) {
+            this.requests = requests;
+            this.originalBytes = originalBytes;
+            this.encodedBytes = encodedBytes;
+        }
+
+        /**
+         * 压缩发送的次数，重试也计入
+         */
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getOriginalBytes() {
+            return originalBytes;
+        }
+
+        public long getEncodedBytes() {
+            return encodedBytes;
+        }
+
+        public long getSavedBytes() {
+            return originalBytes - encodedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "(requests=" + requests + ", original=" + originalBytes + ", encoded=" + encodedBytes + ")";
+        }
+    }
+}
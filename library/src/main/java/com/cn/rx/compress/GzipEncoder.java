@@ -0,0 +1,37 @@
+package com.cn.rx.compress;
+
+import java.util.zip.Deflater;
+
+import okio.GzipSink;
+import okio.Sink;
+
+/**
+ * gzip压缩，边写边压缩，不生成中间的byte[]
+ */
+public class GzipEncoder implements RequestEncoder {
+
+    private final int level;
+
+    public GzipEncoder() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level 压缩级别，1最快，9压缩率最高
+     */
+    public GzipEncoder(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public String encoding() {
+        return "gzip";
+    }
+
+    @Override
+    public Sink encode(Sink sink) {
+        GzipSink gzipSink = new GzipSink(sink);
+        gzipSink.deflater().setLevel(level);
+        return gzipSink;
+    }
+}
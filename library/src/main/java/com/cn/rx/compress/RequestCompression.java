@@ -0,0 +1,279 @@
+package com.cn.rx.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.internal.Util;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Sink;
+
+/**
+ * 请求体压缩的策略、各服务器支持的编码以及压缩效果统计
+ * <p>
+ * 只压缩文本类的请求体（JSON、XML、text、表单），并且只对支持的服务器压缩：
+ * 通过{@link #addHost(String)}指定，或者服务器在响应中用Accept-Encoding声明（RFC 7694）。
+ * 长度已知且小于minSize的请求体不压缩，长度未知的（如object()流式序列化）按需要压缩处理。
+ * multipart按RFC 7578不支持单个part的Content-Encoding，整体压缩也没有意义，不做处理
+ */
+public final class RequestCompression {
+
+    private static final int MAX_ENDPOINTS = 256;
+    private static final String OTHER_ENDPOINTS = "*";
+
+    private final long minSize;
+    private final List<RequestEncoder> encoders;
+    private final Set<String> encodings;
+    private final Map<String, Set<String>> hosts = new ConcurrentHashMap<>();   //host:port对应支持的编码
+    private final Map<String, long[]> endpoints = new HashMap<>();              //次数、原始大小、压缩后大小
+
+    /**
+     * @param minSize  长度已知时，不小于该值才压缩
+     * @param encoders 按优先顺序，服务器支持多个时使用靠前的
+     */
+    public RequestCompression(long minSize, RequestEncoder... encoders) {
+        if (encoders == null || encoders.length == 0) {
+            throw new IllegalArgumentException("encoders is empty");
+        }
+        this.minSize = minSize;
+        this.encoders = Collections.unmodifiableList(Arrays.asList(encoders.clone()));
+        Set<String> encodings = new HashSet<>();
+        for (RequestEncoder encoder : encoders) {
+            encodings.add(encoder.encoding().toLowerCase(Locale.US));
+        }
+        this.encodings = encodings;
+    }
+
+    /**
+     * 指定支持压缩的服务器，支持所有注册的编码
+     *
+     * @param url 服务器地址，如https://api.example.com/
+     */
+    public void addHost(String url) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        if (httpUrl == null) {
+            throw new IllegalArgumentException("illegal url: " + url);
+        }
+        hosts.put(hostKey(httpUrl), encodings);
+    }
+
+    /**
+     * 选择请求使用的编码，不需要或不能压缩时返回null
+     */
+    public RequestEncoder select(Request request) {
+        RequestBody body = request.body();
+        if (body == null || request.header("Content-Encoding") != null || !isCompressible(body.contentType())) {
+            return null;
+        }
+        Set<String> supported = hosts.get(hostKey(request.url()));
+        if (supported == null || supported.isEmpty()) {
+            return null;
+        }
+        long length;
+        try {
+            length = body.contentLength();
+        } catch (IOException e) {
+            return null;
+        }
+        if (length >= 0 && length < minSize) {
+            return null;
+        }
+        for (RequestEncoder encoder : encoders) {
+            if (supported.contains(encoder.encoding().toLowerCase(Locale.US))) {
+                return encoder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 包装为边写边压缩的请求体，长度未知（chunked发送）
+     */
+    public RequestBody encode(Request request, RequestEncoder encoder) {
+        HttpUrl url = request.url();
+        return new EncodedRequestBody(request.body(), encoder, url.host() + url.encodedPath());
+    }
+
+    /**
+     * 从响应的Accept-Encoding记录服务器支持的编码
+     */
+    public void onResponse(Request request, Response response) {
+        List<String> values = response.headers("Accept-Encoding");
+        if (!values.isEmpty()) {
+            hosts.put(hostKey(request.url()), parseEncodings(values));
+        }
+    }
+
+    /**
+     * 压缩的请求返回了415：不再对该服务器使用这个编码
+     */
+    public void onUnsupported(Request request, RequestEncoder encoder, Response response) {
+        String key = hostKey(request.url());
+        Set<String> supported = response.headers("Accept-Encoding").isEmpty()
+                ? hosts.get(key) : parseEncodings(response.headers("Accept-Encoding"));
+        Set<String> remain = supported == null ? new HashSet<String>() : new HashSet<>(supported);
+        remain.remove(encoder.encoding().toLowerCase(Locale.US));
+        hosts.put(key, remain);
+    }
+
+    /**
+     * 获取当前的统计快照
+     */
+    public synchronized CompressionStats snapshot() {
+        Map<String, CompressionStats.Entry> entries = new HashMap<>(endpoints.size());
+        for (Map.Entry<String, long[]> entry : endpoints.entrySet()) {
+            long[] value = entry.getValue();
+            entries.put(entry.getKey(), new CompressionStats.Entry(value[0], value[1], value[2]));
+        }
+        return new CompressionStats(entries);
+    }
+
+    synchronized void record(String endpoint, long originalBytes, long encodedBytes) {
+        long[] value = endpoints.get(endpoint);
+        if (value == null) {
+            if (endpoints.size() >= MAX_ENDPOINTS) {
+                endpoint = OTHER_ENDPOINTS;
+                value = endpoints.get(endpoint);
+            }
+            if (value == null) {
+                value = new long[3];
+                endpoints.put(endpoint, value);
+            }
+        }
+        value[0]++;
+        value[1] += originalBytes;
+        value[2] += encodedBytes;
+    }
+
+    private static String hostKey(HttpUrl url) {
+        return url.host() + ":" + url.port();
+    }
+
+    private static boolean isCompressible(MediaType mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        String type = mediaType.type();
+        String subtype = mediaType.subtype().toLowerCase(Locale.US);
+        return "text".equalsIgnoreCase(type) || subtype.contains("json") || subtype.contains("xml")
+                || subtype.equals("x-www-form-urlencoded");
+    }
+
+    /**
+     * 解析Accept-Encoding，忽略q=0、identity和*
+     */
+    private static Set<String> parseEncodings(List<String> values) {
+        Set<String> result = new HashSet<>();
+        for (String value : values) {
+            for (String item : value.split(",")) {
+                String[] parts = item.split(";");
+                String encoding = parts[0].trim().toLowerCase(Locale.US);
+                if (encoding.isEmpty() || encoding.equals("identity") || encoding.equals("*")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && isZero(param.substring(2))) {
+                        refused = true;
+                    }
+                }
+                if (!refused) {
+                    result.add(encoding);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isZero(String q) {
+        try {
+            return Float.parseFloat(q) == 0F;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 边写边压缩的请求体，同时统计压缩前后的大小
+     */
+    private final class EncodedRequestBody extends RequestBody {
+        private final RequestBody body;
+        private final RequestEncoder encoder;
+        private final String endpoint;
+
+        EncodedRequestBody(RequestBody body, RequestEncoder encoder, String endpoint) {
+            this.body = body;
+            this.encoder = encoder;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            CountingSink encoded = new CountingSink(sink, false);
+            CountingSink original = new CountingSink(encoder.encode(encoded), true);
+            BufferedSink buffer = Okio.buffer(original);
+            boolean success = false;
+            try {
+                body.writeTo(buffer);
+                //写出压缩的结尾，不关闭请求的sink
+                buffer.close();
+                success = true;
+            } finally {
+                if (!success) {
+                    //释放Deflater等资源
+                    Util.closeQuietly(buffer);
+                }
+            }
+            record(endpoint, original.count, encoded.count);
+        }
+    }
+
+    private static final class CountingSink extends ForwardingSink {
+        private final boolean closeDelegate;
+        long count;
+
+        CountingSink(Sink delegate, boolean closeDelegate) {
+            super(delegate);
+            this.closeDelegate = closeDelegate;
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            count += byteCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closeDelegate) {
+                super.close();
+            }
+        }
+    }
+}
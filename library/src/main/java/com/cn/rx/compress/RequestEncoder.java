@@ -0,0 +1,24 @@
+package com.cn.rx.compress;
+
+import java.io.IOException;
+
+import okio.Sink;
+
+/**
+ * 请求体的压缩方式，如{@link GzipEncoder}
+ * <p>
+ * 其他编码（如使用预训练字典的zstd）可以由应用基于相应的库实现，
+ * 服务端需要能按{@link #encoding()}和同一份字典解压
+ */
+public interface RequestEncoder {
+
+    /**
+     * Content-Encoding的值，如gzip
+     */
+    String encoding();
+
+    /**
+     * 返回把数据压缩后写入sink的Sink；close时写出剩余数据并关闭sink
+     */
+    Sink encode(Sink sink) throws IOException;
+}
@@ -4,94 +4,193 @@ import android.content.Context;
 import android.text.TextUtils;
 
 import com.alibaba.fastjson.JSON;
+import com.cn.rx.util.Util;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import okhttp3.HttpUrl;
+
+/**
+ * 读取assets中的result-config.json并编译为{@link ResultProfile}
+ * <p>
+ * 配置中的hosts可以为不同baseUrl（按host和端口区分）单独配置字段名和状态码，没有配置的项沿用外层的配置，例如
+ * {"successCode":["0"], ..., "hosts":{"https://api2.example.com":{"codeKey":"status","successCode":["200"]}}}。
+ * 编译结果是不可变的，运行时重新加载或修改配置时整体替换，正在解析的响应继续使用原来的配置
+ */
 public class ResultConfigLoader {
 
-    private static Config config;
+    private static volatile Profiles profiles = new Profiles(ResultProfile.DEFAULT,
+            Collections.<String, ResultProfile>emptyMap());
+    private static volatile boolean sLoaded;                //配置文件已读取（文件不存在也算已读取）
+    private static volatile Context sContext;               //延迟读取时使用的Context
 
     private final static String CONFIG_NAME = "result-config.json";
 
     /**
-     * 初始化
+     * 初始化，在当前线程读取配置文件
      */
     public static void init(Context context) {
         loadConfig(context);
     }
 
-    private static void loadConfig(Context context) {
-        if (config != null) {
+    /**
+     * 只记录Context，第一次读取配置时才读取配置文件；
+     * 其他线程正在读取时等待其读取完成，不会重复读取
+     */
+    public static void lazyInit(Context context) {
+        if (!sLoaded && context != null) {
+            sContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        }
+    }
+
+    /**
+     * 重新读取配置文件，之后的响应使用新的配置；通过{@link #setConfig(String, Config)}单独设置的配置会被清除
+     */
+    public static synchronized void reload(Context context) {
+        sLoaded = false;
+        loadConfig(context);
+    }
+
+    /**
+     * 直接设置配置，替换配置文件中的配置（包括其中的hosts）和单独设置的配置，为null时恢复为没有配置
+     */
+    public static synchronized void setConfig(Config config) {
+        profiles = compile(config);
+        sLoaded = true;
+        sContext = null;
+    }
+
+    /**
+     * 为baseUrl单独设置配置，没有配置的项沿用全局配置；config为null时移除
+     *
+     * @param baseUrl 按其中的host和端口匹配请求地址
+     */
+    public static synchronized void setConfig(String baseUrl, Config config) {
+        Profiles current = getProfiles();
+        Map<String, ResultProfile> hosts = new HashMap<>(current.hosts);
+        String key = hostKey(baseUrl);
+        if (config == null) {
+            hosts.remove(key);
+        } else {
+            hosts.put(key, ResultProfile.compile(config, current.defaultProfile));
+        }
+        profiles = new Profiles(current.defaultProfile, hosts);
+    }
+
+    private static synchronized void loadConfig(Context context) {
+        if (sLoaded || context == null) {
             return;
         }
         String jsonStr = loadFromAssets(context, CONFIG_NAME);
-        if (TextUtils.isEmpty(jsonStr)) {
-            return;
+        Config config = null;
+        if (!TextUtils.isEmpty(jsonStr)) {
+            jsonStr = jsonStr.replace("\r\n", "");
+            config = JSON.parseObject(jsonStr, Config.class);
+        }
+        profiles = compile(config);
+        sLoaded = true;
+        sContext = null;
+    }
+
+    private static Profiles compile(Config config) {
+        ResultProfile defaultProfile = ResultProfile.compile(config, ResultProfile.DEFAULT);
+        if (config == null || config.getHosts() == null || config.getHosts().isEmpty()) {
+            return new Profiles(defaultProfile, Collections.<String, ResultProfile>emptyMap());
+        }
+        Map<String, ResultProfile> hosts = new HashMap<>();
+        for (Map.Entry<String, Config> entry : config.getHosts().entrySet()) {
+            hosts.put(hostKey(entry.getKey()), ResultProfile.compile(entry.getValue(), defaultProfile));
         }
-        jsonStr = jsonStr.replace("\r\n","");
-        config = JSON.parseObject(jsonStr, Config.class);
+        return new Profiles(defaultProfile, hosts);
+    }
+
+    private static Profiles getProfiles() {
+        if (!sLoaded) {
+            loadConfig(sContext);
+        }
+        return profiles;
     }
 
     /**
-     * 获取自定义失败对应的说明信息
+     * 全局配置
      */
-    private static HashMap<String, String> getErrorConfig() {
-        return config.getErrorInfo();
+    public static ResultProfile getProfile() {
+        return getProfiles().defaultProfile;
+    }
+
+    /**
+     * 请求地址对应的配置，没有单独配置时返回全局配置
+     */
+    public static ResultProfile getProfile(HttpUrl url) {
+        Profiles current = getProfiles();
+        if (url == null || current.hosts.isEmpty()) {
+            return current.defaultProfile;
+        }
+        ResultProfile profile = current.hosts.get(url.host() + ":" + url.port());
+        return profile != null ? profile : current.defaultProfile;
+    }
+
+    private static String hostKey(String baseUrl) {
+        HttpUrl url = HttpUrl.parse(Util.checkNotNull(baseUrl, "baseUrl is null"));
+        if (url == null) {
+            throw new IllegalArgumentException("illegal baseUrl: " + baseUrl);
+        }
+        return url.host() + ":" + url.port();
     }
 
     public static boolean checkErrorCode(int errorCode) {
-        return getErrorConfig() != null && getErrorConfig().containsKey(String.valueOf(errorCode));
+        return getProfile().hasErrorDesc(errorCode);
     }
 
+    /**
+     * 自定义失败对应的说明信息，没有配置时返回"未知错误"
+     */
     public static String errorDesc(int errorCode) {
-        if (checkErrorCode(errorCode)) {
-            getErrorConfig().get(String.valueOf(errorCode));
-        }
-        return "未知错误";
+        String desc = getProfile().errorDesc(errorCode);
+        return desc != null ? desc : "未知错误";
     }
 
     public static String getMsgKey() {
-        if (config == null) {
-            return "msg";
-        }
-        return config.getMsgKey();
+        return getProfile().getMsgKey();
     }
 
     /**
      * 获取状态码对应的键
      */
     public static String getCodeKey() {
-        if (config == null) {
-            return "code";
-        }
-        return config.getCodeKey();
+        return getProfile().getCodeKey();
     }
 
     /**
      * 数据对应的键
      */
     public static List<String> getDataKey() {
-        if (config == null) {
-            List<String> dataKeyList = new ArrayList<>();
-            dataKeyList.add("data");
-            return dataKeyList;
-        }
-        return config.getDataKey();
+        return getProfile().getDataKeys();
     }
 
     /**
      * 判断是否请求成功
      */
     public static boolean checkSuccess(String code) {
-        return config == null || config.getSuccessCode().contains(code);
+        return getProfile().isSuccess(code);
     }
 
+    private static final class Profiles {
+        final ResultProfile defaultProfile;
+        final Map<String, ResultProfile> hosts;     //key为host:port
+
+        Profiles(ResultProfile defaultProfile, Map<String, ResultProfile> hosts) {
+            this.defaultProfile = defaultProfile;
+            this.hosts = hosts;
+        }
+    }
 
     private static String loadFromAssets(Context context, String fileName) {
         BufferedReader reader = null;
@@ -130,6 +229,7 @@ public class ResultConfigLoader {
         private List<String> dataKey;
         private String msgKey;
         private HashMap<String, String> errorInfo;
+        private HashMap<String, Config> hosts;          //按baseUrl单独的配置
 
         public List<String> getSuccessCode() {
             return successCode;
@@ -170,6 +270,14 @@ public class ResultConfigLoader {
         public void setErrorInfo(HashMap<String, String> errorInfo) {
             this.errorInfo = errorInfo;
         }
+
+        public HashMap<String, Config> getHosts() {
+            return hosts;
+        }
+
+        public void setHosts(HashMap<String, Config> hosts) {
+            this.hosts = hosts;
+        }
     }
 
 }
@@ -0,0 +1,214 @@
+package com.cn.rx.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的统一格式配置（字段名、成功状态码、错误说明），创建后不再修改
+ * <p>
+ * 数字状态码保存为有序的int数组，判断时二分查找，不需要格式化字符串或查询HashMap；
+ * 非数字的成功状态码（少见）单独保存
+ */
+public final class ResultProfile {
+
+    private static final int[] NO_CODES = new int[0];
+    private static final String[] NO_NAMES = new String[0];
+
+    /**
+     * 没有配置文件时使用：字段名为code、msg、data，任何状态码都算成功
+     */
+    public static final ResultProfile DEFAULT = new ResultProfile("code", "msg",
+            Collections.singletonList("data"), true, NO_CODES, NO_NAMES, NO_CODES, NO_NAMES);
+
+    /**
+     * ApiResultEntity的格式：字段名为code、msg、data，状态码0为成功
+     */
+    public static final ResultProfile API_RESULT = new ResultProfile("code", "msg",
+            Collections.singletonList("data"), false, new int[]{0}, NO_NAMES, NO_CODES, NO_NAMES);
+
+    private final String codeKey;
+    private final String msgKey;
+    private final List<String> dataKeys;
+    private final boolean anySuccess;
+    private final int[] successCodes;               //有序
+    private final String[] successNames;            //非数字的成功状态码
+    private final int[] errorCodes;                 //有序
+    private final String[] errorDescs;              //与errorCodes一一对应
+
+    private ResultProfile(String codeKey, String msgKey, List<String> dataKeys, boolean anySuccess,
+                          int[] successCodes, String[] successNames, int[] errorCodes, String[] errorDescs) {
+        this.codeKey = codeKey;
+        this.msgKey = msgKey;
+        this.dataKeys = dataKeys;
+        this.anySuccess = anySuccess;
+        this.successCodes = successCodes;
+        this.successNames = successNames;
+        this.errorCodes = errorCodes;
+        this.errorDescs = errorDescs;
+    }
+
+    /**
+     * 编译配置，配置中没有的项使用parent的
+     *
+     * @throws IllegalArgumentException 错误说明的状态码不是整数
+     */
+    public static ResultProfile compile(ResultConfigLoader.Config config, ResultProfile parent) {
+        if (config == null) {
+            return parent;
+        }
+        String codeKey = config.getCodeKey() != null ? config.getCodeKey() : parent.codeKey;
+        String msgKey = config.getMsgKey() != null ? config.getMsgKey() : parent.msgKey;
+        List<String> dataKeys = config.getDataKey() != null && !config.getDataKey().isEmpty()
+                ? Collections.unmodifiableList(new ArrayList<>(config.getDataKey())) : parent.dataKeys;
+
+        boolean anySuccess = parent.anySuccess;
+        int[] successCodes = parent.successCodes;
+        String[] successNames = parent.successNames;
+        List<String> successList = config.getSuccessCode();
+        if (successList != null && !successList.isEmpty()) {
+            anySuccess = false;
+            int[] codes = new int[successList.size()];
+            int count = 0;
+            List<String> names = new ArrayList<>();
+            for (String code : successList) {
+                if (code == null) {
+                    continue;
+                }
+                long value = parseCode(code);
+                if (value == Long.MIN_VALUE) {
+                    names.add(code);
+                } else {
+                    codes[count++] = (int) value;
+                }
+            }
+            successCodes = sortedCopy(codes, count);
+            successNames = names.toArray(new String[names.size()]);
+        }
+
+        int[] errorCodes = parent.errorCodes;
+        String[] errorDescs = parent.errorDescs;
+        Map<String, String> errorInfo = config.getErrorInfo();
+        if (errorInfo != null && !errorInfo.isEmpty()) {
+            int[] codes = new int[errorInfo.size()];
+            int count = 0;
+            for (String code : errorInfo.keySet()) {
+                long value = code == null ? Long.MIN_VALUE : parseCode(code);
+                if (value == Long.MIN_VALUE) {
+                    throw new IllegalArgumentException("errorInfo code is not an integer: " + code);
+                }
+                codes[count++] = (int) value;
+            }
+            errorCodes = sortedCopy(codes, count);
+            errorDescs = new String[errorCodes.length];
+            for (Map.Entry<String, String> entry : errorInfo.entrySet()) {
+                errorDescs[Arrays.binarySearch(errorCodes, (int) parseCode(entry.getKey()))] = entry.getValue();
+            }
+        }
+        return new ResultProfile(codeKey, msgKey, dataKeys, anySuccess, successCodes, successNames, errorCodes, errorDescs);
+    }
+
+    public String getCodeKey() {
+        return codeKey;
+    }
+
+    public String getMsgKey() {
+        return msgKey;
+    }
+
+    /**
+     * 数据对应的键，按优先顺序
+     */
+    public List<String> getDataKeys() {
+        return dataKeys;
+    }
+
+    public boolean isSuccess(int code) {
+        return anySuccess || Arrays.binarySearch(successCodes, code) >= 0;
+    }
+
+    /**
+     * 响应中读到的状态码，数字按数值比较（"00"与"0"相同）
+     */
+    public boolean isSuccess(String code) {
+        if (anySuccess) {
+            return true;
+        }
+        if (code == null) {
+            return false;
+        }
+        long value = parseCode(code);
+        if (value != Long.MIN_VALUE) {
+            return Arrays.binarySearch(successCodes, (int) value) >= 0;
+        }
+        for (String name : successNames) {
+            if (name.equals(code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasErrorDesc(int code) {
+        return Arrays.binarySearch(errorCodes, code) >= 0;
+    }
+
+    /**
+     * 配置的错误说明，没有配置时返回null
+     */
+    public String errorDesc(int code) {
+        int index = Arrays.binarySearch(errorCodes, code);
+        return index >= 0 ? errorDescs[index] : null;
+    }
+
+    /**
+     * 响应中的状态码是否为int范围内的整数
+     */
+    public static boolean isIntCode(String code) {
+        return code != null && parseCode(code) != Long.MIN_VALUE;
+    }
+
+    /**
+     * 响应中的状态码转为int，不是整数时返回-1
+     */
+    public static int intCode(String code) {
+        long value = code == null ? Long.MIN_VALUE : parseCode(code);
+        return value == Long.MIN_VALUE ? -1 : (int) value;
+    }
+
+    /**
+     * 解析int范围内的十进制整数，不创建对象
+     *
+     * @return 不是整数时返回Long.MIN_VALUE
+     */
+    private static long parseCode(String code) {
+        int length = code.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (code.charAt(0) == '-' || code.charAt(0) == '+')) {
+            negative = code.charAt(0) == '-';
+            i = 1;
+        }
+        if (i == length || length - i > 10) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < length; i++) {
+            char ch = code.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    private static int[] sortedCopy(int[] codes, int count) {
+        int[] sorted = Arrays.copyOf(codes, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,90 @@
+package com.cn.rx.connection;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+/**
+ * 统计连接的协议和每个连接上的并发流数，用于判断请求是否在HTTP/2连接上复用
+ * <p>
+ * 每次请求占用连接时记为连接上的一个流，HTTP/1.1连接同一时刻最多一个流，
+ * HTTP/2连接同一时刻有多个流说明发生了多路复用
+ */
+public class ConnectionMetrics extends EventListener {
+
+    private final Map<Connection, ConnectionState> mConnections = new WeakHashMap<>();
+    private final Map<Protocol, Integer> mOpened = new EnumMap<>(Protocol.class);
+    private int mFailed;
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        if (protocol == null) {
+            return;
+        }
+        synchronized (this) {
+            Integer count = mOpened.get(protocol);
+            mOpened.put(protocol, count == null ? 1 : count + 1);
+        }
+    }
+
+    @Override
+    public synchronized void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                                           Protocol protocol, IOException ioe) {
+        mFailed++;
+    }
+
+    @Override
+    public synchronized void connectionAcquired(Call call, Connection connection) {
+        ConnectionState state = mConnections.get(connection);
+        if (state == null) {
+            state = new ConnectionState(connection.route().address().url().host(), connection.protocol());
+            mConnections.put(connection, state);
+        }
+        state.activeStreams++;
+        state.totalStreams++;
+        state.maxConcurrentStreams = Math.max(state.maxConcurrentStreams, state.activeStreams);
+    }
+
+    @Override
+    public synchronized void connectionReleased(Call call, Connection connection) {
+        ConnectionState state = mConnections.get(connection);
+        if (state != null && state.activeStreams > 0) {
+            state.activeStreams--;
+        }
+    }
+
+    /**
+     * 获取当前的统计快照，已被连接池回收的连接不再统计
+     */
+    public synchronized ConnectionStats snapshot() {
+        List<ConnectionStats.Entry> entries = new ArrayList<>(mConnections.size());
+        for (ConnectionState state : mConnections.values()) {
+            entries.add(new ConnectionStats.Entry(state.host, state.protocol, state.activeStreams,
+                    state.totalStreams, state.maxConcurrentStreams));
+        }
+        return new ConnectionStats(new EnumMap<>(mOpened), mFailed, entries);
+    }
+
+    private static final class ConnectionState {
+        final String host;
+        final Protocol protocol;
+        int activeStreams;
+        long totalStreams;
+        int maxConcurrentStreams;
+
+        ConnectionState(String host, Protocol protocol) {
+            this.host = host;
+            this.protocol = protocol;
+        }
+    }
+}
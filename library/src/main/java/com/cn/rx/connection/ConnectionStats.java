@@ -0,0 +1,114 @@
+package com.cn.rx.connection;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Protocol;
+
+/**
+ * 某一时刻的连接统计
+ */
+public final class ConnectionStats {
+
+    private final Map<Protocol, Integer> opened;
+    private final int failed;
+    private final List<Entry> connections;
+
+    ConnectionStats(Map<Protocol, Integer> opened, int failed, List<Entry> connections) {
+        this.opened = Collections.unmodifiableMap(opened);
+        this.failed = failed;
+        this.connections = Collections.unmodifiableList(connections);
+    }
+
+    /**
+     * 按协议统计新建的连接数
+     */
+    public int getOpenedConnections(Protocol protocol) {
+        Integer count = opened.get(protocol);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 建立失败的连接数
+     */
+    public int getFailedConnections() {
+        return failed;
+    }
+
+    /**
+     * 仍在连接池中的连接
+     */
+    public List<Entry> getConnections() {
+        return connections;
+    }
+
+    /**
+     * 同一时刻承载过多个流（发生过多路复用）的连接数
+     */
+    public int getMultiplexedConnections() {
+        int count = 0;
+        for (Entry entry : connections) {
+            if (entry.maxConcurrentStreams > 1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionStats{opened=" + opened + ", failed=" + failed + ", connections=" + connections + "}";
+    }
+
+    public static final class Entry {
+        private final String host;
+        private final Protocol protocol;
+        private final int activeStreams;
+        private final long totalStreams;
+        private final int maxConcurrentStreams;
+
+        Entry(String host, Protocol protocol, int activeStreams, long totalStreams, int maxConcurrentStreams) {
+            this.host = host;
+            this.protocol = protocol;
+            this.activeStreams = activeStreams;
+            this.totalStreams = totalStreams;
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public Protocol getProtocol() {
+            return protocol;
+        }
+
+        /**
+         * 当前正在进行的流数
+         */
+        public int getActiveStreams() {
+            return activeStreams;
+        }
+
+        /**
+         * 连接上累计承载的流数
+         */
+        public long getTotalStreams() {
+            return totalStreams;
+        }
+
+        /**
+         * 同一时刻承载的最大流数
+         */
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        @Override
+        public String toString() {
+            return host + "(" + protocol + ", active=" + activeStreams + ", total=" + totalStreams
+                    + ", maxConcurrent=" + maxConcurrentStreams + ")";
+        }
+    }
+}
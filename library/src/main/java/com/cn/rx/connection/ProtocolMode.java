@@ -0,0 +1,35 @@
+package com.cn.rx.connection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Protocol;
+
+/**
+ * 请求使用的协议
+ */
+public enum ProtocolMode {
+    /**
+     * 优先HTTP/2，服务端不支持时（TLS协商失败或明文http）使用HTTP/1.1，默认
+     */
+    HTTP_2_PREFERRED(Protocol.HTTP_2, Protocol.HTTP_1_1),
+    /**
+     * 明文http直接使用HTTP/2（h2c prior knowledge），只适用于确定支持h2c的内网域名，不支持https
+     */
+    H2C_PRIOR_KNOWLEDGE(Protocol.H2_PRIOR_KNOWLEDGE),
+    /**
+     * 只使用HTTP/1.1
+     */
+    HTTP_1_1(Protocol.HTTP_1_1);
+
+    private final List<Protocol> protocols;
+
+    ProtocolMode(Protocol... protocols) {
+        this.protocols = Collections.unmodifiableList(Arrays.asList(protocols));
+    }
+
+    public List<Protocol> protocols() {
+        return protocols;
+    }
+}
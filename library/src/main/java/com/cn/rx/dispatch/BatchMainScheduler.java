@@ -0,0 +1,196 @@
+package com.cn.rx.dispatch;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * 合并投递的主线程调度器
+ * <p>
+ * AndroidSchedulers.mainThread()每个任务发送一条消息，大量请求同时完成时主线程的消息队列会被挤满。
+ * 这里所有任务进入同一个队列，队列由空变为非空时才发送一条消息，消息处理前到达的任务（比如主线程绘制一帧期间完成的请求）
+ * 都在这一条消息中按到达顺序执行，同一个请求的回调顺序不变
+ */
+public final class BatchMainScheduler extends Scheduler {
+
+    private static final BatchMainScheduler INSTANCE = new BatchMainScheduler(new HandlerPoster(new Handler(Looper.getMainLooper())));
+
+    private final Poster mPoster;
+    private final Queue<ScheduledTask> mQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mSize = new AtomicInteger();
+    private final AtomicBoolean mPosted = new AtomicBoolean();
+    private final Runnable mDrain = new Runnable() {
+        @Override
+        public void run() {
+            mPosted.set(false);
+            //只执行这条消息之前到达的任务，执行过程中新到达的由下一条消息处理
+            for (int count = mSize.get(); count > 0; count--) {
+                ScheduledTask task = mQueue.poll();
+                if (task == null) {
+                    break;
+                }
+                mSize.decrementAndGet();
+                task.run();
+            }
+        }
+    };
+
+    BatchMainScheduler(Poster poster) {
+        this.mPoster = poster;
+    }
+
+    public static BatchMainScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new BatchWorker();
+    }
+
+    private void enqueue(ScheduledTask task) {
+        mQueue.offer(task);
+        mSize.incrementAndGet();
+        if (mPosted.compareAndSet(false, true)) {
+            mPoster.post(mDrain);
+        }
+    }
+
+    private final class BatchWorker extends Worker {
+        private volatile boolean disposed;
+
+        @Override
+        public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+            if (run == null) throw new NullPointerException("run == null");
+            if (unit == null) throw new NullPointerException("unit == null");
+            if (disposed) {
+                return Disposables.disposed();
+            }
+            final ScheduledTask task = new ScheduledTask(this, RxJavaPlugins.onSchedule(run));
+            if (delay <= 0) {
+                enqueue(task);
+            } else {
+                //延迟任务到时间后再进入队列；取消时从消息队列中移除，不在延迟期间持有任务
+                task.pending = new Runnable() {
+                    @Override
+                    public void run() {
+                        task.pending = null;
+                        if (!task.isDisposed()) {
+                            enqueue(task);
+                        }
+                    }
+                };
+                mPoster.postDelayed(task.pending, this, unit.toMillis(delay));
+                if (disposed) {
+                    mPoster.removeAll(this);
+                }
+            }
+            return task;
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            mPoster.removeAll(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    private final class ScheduledTask implements Runnable, Disposable {
+        private final BatchWorker worker;
+        private final Runnable delegate;
+        private volatile boolean disposed;
+        volatile Runnable pending;          //还未进入队列的延迟任务
+
+        ScheduledTask(BatchWorker worker, Runnable delegate) {
+            this.worker = worker;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            if (isDisposed()) {
+                return;
+            }
+            try {
+                delegate.run();
+            } catch (Throwable t) {
+                //不能影响同一批次中的其他任务
+                RxJavaPlugins.onError(t);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            Runnable delayed = pending;
+            if (delayed != null) {
+                mPoster.remove(delayed);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed || worker.disposed;
+        }
+    }
+
+    /**
+     * 向主线程的消息队列发送任务，测试时替换为手动执行的实现
+     */
+    interface Poster {
+        void post(Runnable run);
+
+        /**
+         * @param token 取消时{@link #removeAll(Object)}传入的标记
+         */
+        void postDelayed(Runnable run, Object token, long delayMillis);
+
+        void remove(Runnable run);
+
+        void removeAll(Object token);
+    }
+
+    private static final class HandlerPoster implements Poster {
+        private final Handler handler;
+
+        HandlerPoster(Handler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void post(Runnable run) {
+            handler.post(run);
+        }
+
+        @Override
+        public void postDelayed(Runnable run, Object token, long delayMillis) {
+            handler.postAtTime(run, token, SystemClock.uptimeMillis() + delayMillis);
+        }
+
+        @Override
+        public void remove(Runnable run) {
+            handler.removeCallbacks(run);
+        }
+
+        @Override
+        public void removeAll(Object token) {
+            handler.removeCallbacksAndMessages(token);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.cn.rx.dispatch;
+
+/**
+ * 请求通道，不同通道有各自的并发数和单域名并发数，排队时优先级高的通道先执行
+ */
+public enum Lane {
+    /**
+     * 影响界面交互的请求，优先级最高
+     */
+    INTERACTIVE(16, 6),
+    /**
+     * 普通请求
+     */
+    NORMAL(16, 5),
+    /**
+     * 图片、文件等批量请求，优先级最低，通过等待时间提升优先级避免一直得不到执行
+     */
+    BULK(4, 2);
+
+    final int defaultMaxRequests;
+    final int defaultMaxRequestsPerHost;
+
+    Lane(int defaultMaxRequests, int defaultMaxRequestsPerHost) {
+        this.defaultMaxRequests = defaultMaxRequests;
+        this.defaultMaxRequestsPerHost = defaultMaxRequestsPerHost;
+    }
+}
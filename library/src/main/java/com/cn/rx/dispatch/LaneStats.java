@@ -0,0 +1,68 @@
+package com.cn.rx.dispatch;
+
+/**
+ * 某个通道在某一时刻的统计信息，用于调整通道的并发配置
+ */
+public final class LaneStats {
+
+    private final Lane lane;
+    private final int queued;
+    private final int running;
+    private final long executedCount;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+
+    LaneStats(Lane lane, int queued, int running, long executedCount, long totalWaitMillis, long maxWaitMillis) {
+        this.lane = lane;
+        this.queued = queued;
+        this.running = running;
+        this.executedCount = executedCount;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public Lane getLane() {
+        return lane;
+    }
+
+    /**
+     * 正在排队的请求数
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * 正在执行的请求数
+     */
+    public int getRunning() {
+        return running;
+    }
+
+    /**
+     * 已开始执行的请求总数
+     */
+    public long getExecutedCount() {
+        return executedCount;
+    }
+
+    /**
+     * 平均排队时间
+     */
+    public long getAverageWaitMillis() {
+        return executedCount == 0 ? 0 : totalWaitMillis / executedCount;
+    }
+
+    /**
+     * 最长排队时间
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return lane + "{queued=" + queued + ", running=" + running + ", executed=" + executedCount
+                + ", avgWait=" + getAverageWaitMillis() + "ms, maxWait=" + maxWaitMillis + "ms}";
+    }
+}
@@ -0,0 +1,219 @@
+package com.cn.rx.dispatch;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按通道和优先级调度请求
+ * <p>
+ * 每个通道有自己的最大并发数和单域名最大并发数，所有通道还共用一个总并发数。
+ * 有空闲名额时按优先级从高到低放行排队的请求，排队越久优先级越高，保证批量请求不会一直排不上。
+ * <p>
+ * RxJava2CallAdapterFactory以同步方式执行请求，OkHttp的Dispatcher限制不到这些请求，
+ * 因此由{@link com.cn.rx.interceptor.DispatchInterceptor}在执行请求的线程上排队
+ */
+public final class RequestDispatcher {
+
+    private static final int DEFAULT_MAX_REQUESTS = 32;              //默认总并发数
+    private static final long DEFAULT_AGING_MILLIS = 500;            //默认每排队多久提升一级优先级
+    private static final int LANE_STEP = 10;                         //相邻通道之间相差的优先级
+
+    private final LaneState[] mLanes;
+    private final List<Call> mWaiting = new ArrayList<>();
+    private int mMaxRequests = DEFAULT_MAX_REQUESTS;
+    private long mAgingMillis = DEFAULT_AGING_MILLIS;
+    private int mRunning;
+
+    public RequestDispatcher() {
+        Lane[] lanes = Lane.values();
+        mLanes = new LaneState[lanes.length];
+        for (Lane lane : lanes) {
+            mLanes[lane.ordinal()] = new LaneState(lane);
+        }
+    }
+
+    /**
+     * 设置所有通道的总并发数
+     */
+    public synchronized RequestDispatcher maxRequests(int maxRequests) {
+        if (maxRequests < 1) throw new IllegalArgumentException("maxRequests must >= 1");
+        this.mMaxRequests = maxRequests;
+        promote();
+        return this;
+    }
+
+    /**
+     * 设置通道的最大并发数和单域名最大并发数
+     */
+    public synchronized RequestDispatcher lane(Lane lane, int maxRequests, int maxRequestsPerHost) {
+        if (maxRequests < 1) throw new IllegalArgumentException("maxRequests must >= 1");
+        if (maxRequestsPerHost < 1) throw new IllegalArgumentException("maxRequestsPerHost must >= 1");
+        LaneState state = mLanes[lane.ordinal()];
+        state.maxRequests = maxRequests;
+        state.maxRequestsPerHost = maxRequestsPerHost;
+        promote();
+        return this;
+    }
+
+    /**
+     * 设置排队多长时间提升一级优先级
+     */
+    public synchronized RequestDispatcher agingInterval(long agingMillis) {
+        if (agingMillis < 1) throw new IllegalArgumentException("agingMillis must >= 1");
+        this.mAgingMillis = agingMillis;
+        return this;
+    }
+
+    /**
+     * 获取通道当前的排队数、执行数和排队时间
+     */
+    public synchronized LaneStats getStats(Lane lane) {
+        LaneState state = mLanes[lane.ordinal()];
+        return new LaneStats(lane, state.queued, state.running, state.executedCount,
+                TimeUnit.NANOSECONDS.toMillis(state.totalWaitNanos), TimeUnit.NANOSECONDS.toMillis(state.maxWaitNanos));
+    }
+
+    /**
+     * 获取执行名额，没有名额时阻塞当前线程直到轮到该请求
+     *
+     * @throws InterruptedIOException 排队时线程被中断（请求被取消）
+     */
+    public void acquire(Lane lane, int priority, String host) throws InterruptedIOException {
+        Call call = new Call(mLanes[lane.ordinal()], priority, host, System.nanoTime());
+        synchronized (this) {
+            mWaiting.add(call);
+            call.lane.queued++;
+            promote();
+            try {
+                while (!call.granted) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                if (call.granted) {
+                    finish(call.lane, host);
+                } else {
+                    mWaiting.remove(call);
+                    call.lane.queued--;
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("canceled");
+            }
+        }
+    }
+
+    /**
+     * 请求执行完毕，归还名额
+     */
+    public synchronized void release(Lane lane, String host) {
+        finish(mLanes[lane.ordinal()], host);
+    }
+
+    private void finish(LaneState lane, String host) {
+        mRunning--;
+        lane.running--;
+        Integer count = lane.hostRunning.get(host);
+        if (count == null || count <= 1) {
+            lane.hostRunning.remove(host);
+        } else {
+            lane.hostRunning.put(host, count - 1);
+        }
+        promote();
+    }
+
+    /**
+     * 按优先级放行所有可以执行的排队请求
+     */
+    private void promote() {
+        boolean granted = false;
+        while (mRunning < mMaxRequests && !mWaiting.isEmpty()) {
+            long now = System.nanoTime();
+            Call best = null;
+            long bestScore = 0;
+            for (int i = 0, size = mWaiting.size(); i < size; i++) {
+                Call call = mWaiting.get(i);
+                if (!canRun(call)) {
+                    continue;
+                }
+                long score = score(call, now);
+                if (best == null || score > bestScore) {  //分数相同时先排队的优先
+                    best = call;
+                    bestScore = score;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            mWaiting.remove(best);
+            start(best, now);
+            granted = true;
+        }
+        if (granted) {
+            notifyAll();
+        }
+    }
+
+    private boolean canRun(Call call) {
+        LaneState lane = call.lane;
+        if (lane.running >= lane.maxRequests) {
+            return false;
+        }
+        Integer count = lane.hostRunning.get(call.host);
+        return count == null || count < lane.maxRequestsPerHost;
+    }
+
+    private long score(Call call, long now) {
+        long waited = TimeUnit.NANOSECONDS.toMillis(now - call.enqueuedAt);
+        return (long) (mLanes.length - call.lane.lane.ordinal()) * LANE_STEP + call.priority + waited / mAgingMillis;
+    }
+
+    private void start(Call call, long now) {
+        LaneState lane = call.lane;
+        mRunning++;
+        lane.queued--;
+        lane.running++;
+        Integer count = lane.hostRunning.get(call.host);
+        lane.hostRunning.put(call.host, count == null ? 1 : count + 1);
+        long waitNanos = now - call.enqueuedAt;
+        lane.executedCount++;
+        lane.totalWaitNanos += waitNanos;
+        lane.maxWaitNanos = Math.max(lane.maxWaitNanos, waitNanos);
+        call.granted = true;
+    }
+
+    private static final class LaneState {
+        final Lane lane;
+        final Map<String, Integer> hostRunning = new HashMap<>();
+        int maxRequests;
+        int maxRequestsPerHost;
+        int queued;
+        int running;
+        long executedCount;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        LaneState(Lane lane) {
+            this.lane = lane;
+            this.maxRequests = lane.defaultMaxRequests;
+            this.maxRequestsPerHost = lane.defaultMaxRequestsPerHost;
+        }
+    }
+
+    private static final class Call {
+        final LaneState lane;
+        final int priority;
+        final String host;
+        final long enqueuedAt;
+        boolean granted;
+
+        Call(LaneState lane, int priority, String host, long enqueuedAt) {
+            this.lane = lane;
+            this.priority = priority;
+            this.host = host;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
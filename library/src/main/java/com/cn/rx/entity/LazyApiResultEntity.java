@@ -0,0 +1,88 @@
+package com.cn.rx.entity;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.TypeUtils;
+import com.cn.rx.codec.JsonTokens;
+
+import java.lang.reflect.Type;
+
+/**
+ * data在第一次调用{@link #getData()}时才解析的ApiResultEntity
+ * <p>
+ * 解析时只读取code和msg，data只记录在原文中的位置，失败的响应不会解析data。
+ * 需要保留响应原文，适合data较大而经常只看code的接口；
+ * 使用时以它作为ResultClazzCallProxy的第一个泛型参数，如ResultClazzCallProxy&lt;LazyApiResultEntity&lt;T&gt;, T&gt;
+ */
+public class LazyApiResultEntity<T> extends ApiResultEntity<T> {
+
+    private String json;                //未解析data时保留的原文
+    private int dataStart;
+    private int dataEnd;
+    private Type dataType;
+
+    /**
+     * 读取code、msg并记录data的位置
+     */
+    public static <T> LazyApiResultEntity<T> parse(String json, Type dataType) {
+        LazyApiResultEntity<T> entity = new LazyApiResultEntity<>();
+        JSONScanner lexer = new JSONScanner(json);
+        try {
+            lexer.config(Feature.UseBigDecimal, true);
+            DefaultJSONParser parser = new DefaultJSONParser(lexer, ParserConfig.getGlobalInstance());
+            boolean hasData = false;
+            JsonTokens.startObject(lexer);
+            String key;
+            while ((key = JsonTokens.nextKey(lexer, parser.getSymbolTable())) != null) {
+                if ("code".equals(key)) {
+                    Integer code = TypeUtils.castToInt(parser.parse());
+                    entity.setCode(code == null ? 0 : code);
+                } else if ("msg".equals(key)) {
+                    Object msg = parser.parse();
+                    entity.setMsg(msg == null ? null : msg.toString());
+                } else if ("data".equals(key) && !hasData) {
+                    hasData = true;
+                    entity.dataStart = lexer.pos();
+                    JsonTokens.skipValue(lexer);
+                    entity.dataEnd = lexer.pos();
+                } else {
+                    JsonTokens.skipValue(lexer);
+                }
+            }
+            if (hasData) {
+                entity.json = json;
+                entity.dataType = dataType;
+            }
+            return entity;
+        } finally {
+            lexer.close();
+        }
+    }
+
+    @Override
+    public synchronized T getData() {
+        if (json != null) {
+            T data = JSON.parseObject(json.substring(dataStart, dataEnd), dataType, Feature.UseBigDecimal);
+            json = null;
+            super.setData(data);
+        }
+        return super.getData();
+    }
+
+    @Override
+    public synchronized void setData(T data) {
+        json = null;
+        super.setData(data);
+    }
+
+    /**
+     * data是否已经解析（或没有data）
+     */
+    public synchronized boolean isDataDecoded() {
+        return json == null;
+    }
+}
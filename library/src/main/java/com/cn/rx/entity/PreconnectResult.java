@@ -0,0 +1,62 @@
+package com.cn.rx.entity;
+
+import okhttp3.Protocol;
+
+/**
+ * 预连接单个域名的结果
+ */
+public class PreconnectResult {
+    private final String url;
+    private final String host;
+    private final boolean success;
+    private final long elapsedMillis;
+    private final Protocol protocol;
+    private final Throwable error;
+
+    public PreconnectResult(String url, String host, boolean success, long elapsedMillis, Protocol protocol, Throwable error) {
+        this.url = url;
+        this.host = host;
+        this.success = success;
+        this.elapsedMillis = elapsedMillis;
+        this.protocol = protocol;
+        this.error = error;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 是否已建立连接（服务端返回任意状态码都算成功）
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * DNS、TCP、TLS握手及首个响应的总耗时
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 协商的协议，失败时为null
+     */
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return host + (success ? " connected via " + protocol : " failed: " + error) + " in " + elapsedMillis + "ms";
+    }
+}
@@ -0,0 +1,118 @@
+package com.cn.rx.entity;
+
+import com.cn.rx.dispatch.Lane;
+
+import okhttp3.Request;
+
+/**
+ * 单次请求的选项（是否签名、是否添加token、调度通道及优先级）
+ * <p>
+ * Retrofit无法直接给请求设置tag，选项先以{@link #HEADER}请求头的形式随请求发出，
+ * 再由{@link com.cn.rx.interceptor.OptionsInterceptor}移除请求头并设置为请求的tag，
+ * 共享的拦截器通过{@link #of(Request)}读取，不再依赖拦截器自身的字段
+ */
+public final class RequestOptions {
+
+    public static final String HEADER = "RxHttp-Options";
+
+    private final boolean sign;
+    private final boolean accessToken;
+    private final Lane lane;
+    private final int priority;
+
+    public RequestOptions(boolean sign, boolean accessToken) {
+        this(sign, accessToken, Lane.NORMAL, 0);
+    }
+
+    public RequestOptions(boolean sign, boolean accessToken, Lane lane, int priority) {
+        this.sign = sign;
+        this.accessToken = accessToken;
+        this.lane = lane != null ? lane : Lane.NORMAL;
+        this.priority = priority;
+    }
+
+    public boolean isSign() {
+        return sign;
+    }
+
+    public boolean isAccessToken() {
+        return accessToken;
+    }
+
+    public Lane getLane() {
+        return lane;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * 编码为请求头的值
+     */
+    public String toHeader() {
+        return "sign=" + (sign ? 1 : 0) + ";token=" + (accessToken ? 1 : 0)
+                + ";lane=" + lane.ordinal() + ";priority=" + priority;
+    }
+
+    /**
+     * 解析请求头的值，格式不正确时返回null
+     */
+    public static RequestOptions parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        boolean sign = false;
+        boolean accessToken = false;
+        Lane lane = Lane.NORMAL;
+        int priority = 0;
+        int start = 0;
+        int length = header.length();
+        while (start < length) {
+            int end = header.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+            int eq = header.indexOf('=', start);
+            if (eq > start && eq + 1 < end) {
+                boolean value = header.charAt(eq + 1) == '1';
+                if (isKey(header, start, eq, "sign")) {
+                    sign = value;
+                } else if (isKey(header, start, eq, "token")) {
+                    accessToken = value;
+                } else if (isKey(header, start, eq, "lane")) {
+                    int ordinal = parseInt(header, eq + 1, end, Lane.NORMAL.ordinal());
+                    Lane[] lanes = Lane.values();
+                    lane = ordinal >= 0 && ordinal < lanes.length ? lanes[ordinal] : Lane.NORMAL;
+                } else if (isKey(header, start, eq, "priority")) {
+                    priority = parseInt(header, eq + 1, end, 0);
+                }
+            }
+            start = end + 1;
+        }
+        return new RequestOptions(sign, accessToken, lane, priority);
+    }
+
+    private static boolean isKey(String header, int start, int end, String key) {
+        return end - start == key.length() && header.startsWith(key, start);
+    }
+
+    private static int parseInt(String header, int start, int end, int defaultValue) {
+        try {
+            return Integer.parseInt(header.substring(start, end).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 获取请求携带的选项，没有携带时返回null
+     */
+    public static RequestOptions of(Request request) {
+        Object tag = request.tag();
+        if (tag instanceof RequestOptions) {
+            return (RequestOptions) tag;
+        }
+        return parse(request.header(HEADER));
+    }
+}
@@ -0,0 +1,61 @@
+package com.cn.rx.entity;
+
+import com.cn.rx.exception.ApiThrowable;
+
+/**
+ * 批量上传中一个文件的结果，成功时有data，失败时有error
+ */
+public final class UploadResult<T> {
+
+    private final String key;
+    private final FileEntity file;
+    private final T data;
+    private final ApiThrowable error;
+
+    private UploadResult(String key, FileEntity file, T data, ApiThrowable error) {
+        this.key = key;
+        this.file = file;
+        this.data = data;
+        this.error = error;
+    }
+
+    public static <T> UploadResult<T> success(String key, FileEntity file, T data) {
+        return new UploadResult<>(key, file, data, null);
+    }
+
+    public static <T> UploadResult<T> failure(String key, FileEntity file, ApiThrowable error) {
+        return new UploadResult<>(key, file, null, error);
+    }
+
+    /**
+     * 上传时使用的参数名
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public FileEntity getFile() {
+        return file;
+    }
+
+    public String getFileName() {
+        return file.getFileName();
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public ApiThrowable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadResult{" + key + "=" + file.getFileName() + (error == null ? ", data=" + data : ", error=" + error) + "}";
+    }
+}
@@ -4,6 +4,7 @@ import android.net.ParseException;
 import android.text.TextUtils;
 
 import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
 import com.cn.rx.util.LogUtil;
 
 import org.apache.http.conn.ConnectTimeoutException;
@@ -94,12 +95,14 @@ public class ExceptionFactory {
         } else if (e instanceof ServerException) {
             ServerException resultException = (ServerException) e;
             ex = new ApiThrowable(resultException, resultException.getCode());
-            String errorMsg = ResultConfigLoader.errorDesc(resultException.getCode());
-            if ("".equals(errorMsg)) {
-                ex.setMessage(errorMsg);
-                return ex;
+            //配置了错误说明时使用配置的说明，否则使用服务器返回的msg；
+            //按请求地址的配置解析时使用该配置，ApiResultEntity格式没有错误说明，使用默认配置
+            ResultProfile profile = resultException.getProfile();
+            if (profile == null || profile == ResultProfile.API_RESULT) {
+                profile = ResultConfigLoader.getProfile();
             }
-            ex.setMessage(resultException.getMessage());
+            String errorMsg = profile.errorDesc(resultException.getCode());
+            ex.setMessage(errorMsg != null ? errorMsg : resultException.getMessage());
             return ex;
         } else if (e instanceof com.alibaba.fastjson.JSONException
                 || e instanceof JSONException
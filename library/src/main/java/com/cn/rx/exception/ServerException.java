@@ -1,8 +1,11 @@
 package com.cn.rx.exception;
 
+import com.cn.rx.config.ResultProfile;
+
 public class ServerException extends RuntimeException {
     private int code;
     private String msg;
+    private transient ResultProfile profile;
 
     public ServerException() {
     }
@@ -17,6 +20,14 @@ public class ServerException extends RuntimeException {
         this.msg = message;
     }
 
+    /**
+     * @param profile 解析响应时使用的配置，转换为{@link ApiThrowable}时按其中的错误说明设置提示信息
+     */
+    public ServerException(int code, String message, ResultProfile profile) {
+        this(code, message);
+        this.profile = profile;
+    }
+
     public int getCode() {
         return code;
     }
@@ -32,4 +43,11 @@ public class ServerException extends RuntimeException {
     public void setMsg(String msg) {
         this.msg = msg;
     }
+
+    /**
+     * 解析响应时使用的配置，没有时为null
+     */
+    public ResultProfile getProfile() {
+        return profile;
+    }
 }
@@ -1,10 +1,10 @@
 package com.cn.rx.func;
 
-import android.text.TextUtils;
-
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.parser.Feature;
+import com.cn.rx.RxHttp;
+import com.cn.rx.codec.FastJsonCodec;
+import com.cn.rx.codec.ResponseCodec;
 import com.cn.rx.entity.ApiResultEntity;
+import com.cn.rx.entity.LazyApiResultEntity;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -24,14 +24,20 @@ public class ApiResultFunc<T> implements Function<ResponseBody, ApiResultEntity<
     @Override
     public ApiResultEntity<T> apply(ResponseBody body) throws Exception {
         ApiResultEntity<T> apiResult = new ApiResultEntity<>();
-        String jsonStr = body.string();
         apiResult.setCode(-1);
-        if (TextUtils.isEmpty(jsonStr))
-            throw new NullPointerException("json is null");
         try {
+            ResponseCodec codec = RxHttp.getInstance().getCodecRegistry().codecFor(body);
             final Class<T> subClazz = (Class) ((ParameterizedType) type).getRawType();
-            if (ApiResultEntity.class.isAssignableFrom(subClazz)) {
-                apiResult = JSON.parseObject(jsonStr, type, Feature.UseBigDecimal);
+            if (subClazz == LazyApiResultEntity.class && codec instanceof FastJsonCodec) {
+                Type dataType = ((ParameterizedType) type).getActualTypeArguments()[0];
+                LazyApiResultEntity<T> lazyResult = LazyApiResultEntity.parse(body.string(), dataType);
+                //结果在主线程取data，成功时在这里先解析；失败的响应不解析data
+                if (lazyResult.isOk()) {
+                    lazyResult.getData();
+                }
+                apiResult = lazyResult;
+            } else if (ApiResultEntity.class.isAssignableFrom(subClazz)) {
+                apiResult = codec.decode(body, type);
             } else {
                 apiResult.setCode(-1);
                 apiResult.setMsg("ApiResultEntity.class.isAssignableFrom(subClazz) err!!");
@@ -0,0 +1,48 @@
+package com.cn.rx.func;
+
+import com.alibaba.fastjson.JSONException;
+import com.cn.rx.RxHttp;
+import com.cn.rx.codec.FastJsonCodec;
+import com.cn.rx.codec.PathProjection;
+import com.cn.rx.codec.ResponseCodec;
+import com.cn.rx.codec.TreeCodec;
+
+import java.lang.reflect.Type;
+
+import io.reactivex.functions.Function;
+import okhttp3.ResponseBody;
+
+/**
+ * 只解析响应中路径指向的部分，见{@link PathProjection}
+ * <p>
+ * JSON响应边读边跳过路径以外的内容；MessagePack等二进制格式先读成通用结构再取值
+ */
+public class ProjectionFunc<T> implements Function<ResponseBody, T> {
+
+    private final PathProjection projection;
+    private final Type type;
+
+    public ProjectionFunc(String path, Type type) {
+        this.projection = PathProjection.compile(path);
+        this.type = type;
+    }
+
+    @Override
+    public T apply(ResponseBody body) throws Exception {
+        ResponseCodec codec = RxHttp.getInstance().getCodecRegistry().codecFor(body);
+        T value;
+        if (codec instanceof TreeCodec) {
+            value = projection.select(codec.decode(body, Object.class), type);
+        } else if (codec instanceof FastJsonCodec) {
+            value = projection.read(body, type);
+        } else {
+            body.close();
+            throw new UnsupportedOperationException(codec.getClass().getSimpleName() + " does not support path projection");
+        }
+        if (value == null) {
+            //RxJava不能发送null
+            throw new JSONException("no value at path: " + projection.path());
+        }
+        return value;
+    }
+}
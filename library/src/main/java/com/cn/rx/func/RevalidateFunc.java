@@ -0,0 +1,60 @@
+package com.cn.rx.func;
+
+import com.cn.rx.request.ValidatorCache;
+
+import io.reactivex.functions.Function;
+import okhttp3.ResponseBody;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * 处理带协商缓存的响应：304时返回缓存的结果，成功时解析响应体并保存新的ETag/Last-Modified
+ */
+@SuppressWarnings("unchecked")
+public class RevalidateFunc<T> implements Function<Response<ResponseBody>, T> {
+
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private final ValidatorCache cache;
+    private final Object key;
+    private final ValidatorCache.Entry cached;
+    private final Function<ResponseBody, T> decoder;
+
+    /**
+     * @param cached  发起请求时使用的缓存项，没有缓存时为null
+     * @param decoder 解析响应体
+     */
+    public RevalidateFunc(ValidatorCache cache, Object key, ValidatorCache.Entry cached, Function<ResponseBody, T> decoder) {
+        this.cache = cache;
+        this.key = key;
+        this.cached = cached;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public T apply(Response<ResponseBody> response) throws Exception {
+        if (response.code() == HTTP_NOT_MODIFIED && cached != null) {
+            ResponseBody body = response.body();
+            if (body != null) {
+                body.close();
+            }
+            return (T) cached.value;
+        }
+        if (!response.isSuccessful()) {
+            throw new HttpException(response);
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new NullPointerException("body is null");
+        }
+        T value = decoder.apply(body);
+        String etag = response.headers().get("ETag");
+        String lastModified = response.headers().get("Last-Modified");
+        if (etag != null || lastModified != null) {
+            cache.put(key, new ValidatorCache.Entry(etag, lastModified, value));
+        } else {
+            cache.remove(key);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,105 @@
+package com.cn.rx.func;
+
+import com.cn.rx.RxHttp;
+import com.cn.rx.codec.Envelope;
+import com.cn.rx.codec.FastJsonCodec;
+import com.cn.rx.codec.JsonArrayStream;
+import com.cn.rx.codec.ResponseCodec;
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
+import com.cn.rx.exception.ServerException;
+import com.cn.rx.util.$Gson$Types;
+
+import org.reactivestreams.Publisher;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
+import io.reactivex.functions.BiConsumer;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import okhttp3.HttpUrl;
+import okhttp3.ResponseBody;
+
+/**
+ * 把统一格式响应中的data数组转换为逐个发送元素的Flowable
+ * <p>
+ * JSON响应由下游请求时才从网络读取下一个元素，见{@link JsonArrayStream}；
+ * 二进制格式没有流式读取，整体解析后再逐个发送
+ */
+public class StreamFunc<T> implements Function<ResponseBody, Publisher<T>> {
+
+    private final Type elementType;
+    private final boolean template;
+    private final HttpUrl url;
+
+    public StreamFunc(Type elementType, boolean template) {
+        this(elementType, template, null);
+    }
+
+    /**
+     * @param template true时按请求地址对应的ResultProfile读取，否则按ApiResultEntity的格式
+     * @param url      请求地址，为null时使用全局配置
+     */
+    public StreamFunc(Type elementType, boolean template, HttpUrl url) {
+        this.elementType = elementType;
+        this.template = template;
+        this.url = url;
+    }
+
+    @Override
+    public Publisher<T> apply(final ResponseBody body) throws Exception {
+        //在io线程选择配置，第一次使用时才读取配置文件
+        final ResultProfile profile = template ? ResultConfigLoader.getProfile(url) : ResultProfile.API_RESULT;
+        ResponseCodec codec = RxHttp.getInstance().getCodecRegistry().codecFor(body);
+        if (!(codec instanceof FastJsonCodec)) {
+            return decodeAll(codec, profile, body);
+        }
+        return Flowable.generate(new Callable<JsonArrayStream<T>>() {
+            @Override
+            public JsonArrayStream<T> call() throws Exception {
+                return JsonArrayStream.open(body, profile, elementType);
+            }
+        }, new BiConsumer<JsonArrayStream<T>, Emitter<T>>() {
+            @Override
+            public void accept(JsonArrayStream<T> stream, Emitter<T> emitter) throws Exception {
+                T item = stream.next();
+                if (item != null) {
+                    emitter.onNext(item);
+                } else {
+                    emitter.onComplete();
+                }
+            }
+        }, new Consumer<JsonArrayStream<T>>() {
+            @Override
+            public void accept(JsonArrayStream<T> stream) throws Exception {
+                stream.close();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Publisher<T> decodeAll(ResponseCodec codec, ResultProfile profile, ResponseBody body) throws Exception {
+        Type listType = $Gson$Types.newParameterizedTypeWithOwner(null, List.class, elementType);
+        Envelope envelope = codec.decodeEnvelope(body, profile, listType, true);
+        if (!envelope.isSuccess(profile)) {
+            throw new ServerException(envelope.getCode(), envelope.getMsg(), profile);
+        }
+        List<T> data = (List<T>) envelope.getData();
+        if (data == null) {
+            return Flowable.empty();
+        }
+        //与JSON一样跳过null元素，RxJava不能发送null
+        List<T> items = new ArrayList<>(data.size());
+        for (T item : data) {
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return Flowable.fromIterable(items);
+    }
+}
@@ -0,0 +1,39 @@
+package com.cn.rx.interceptor;
+
+import java.io.IOException;
+
+import io.reactivex.annotations.NonNull;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 为没有设置Accept的请求添加按已注册解析器生成的Accept请求头，与服务端协商响应格式
+ * <p>
+ * {@link com.cn.rx.ApiManager}的JSON提交接口固定带有Accept: application/json，这个默认值同样替换为协商的Accept，
+ * 其他显式设置的Accept保持不变
+ * <p>
+ * 由{@link com.cn.rx.RxHttpConfig}在注册了JSON以外的解析器时添加，见{@link com.cn.rx.codec.CodecRegistry}
+ */
+public class AcceptInterceptor implements Interceptor {
+
+    private static final String DEFAULT_ACCEPT = "application/json";
+
+    private final String accept;
+
+    public AcceptInterceptor(String accept) {
+        this.accept = accept;
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String current = request.header("Accept");
+        if (current != null && !DEFAULT_ACCEPT.equalsIgnoreCase(current.trim())) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+                .header("Accept", accept)
+                .build());
+    }
+}
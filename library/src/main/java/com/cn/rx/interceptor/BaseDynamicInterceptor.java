@@ -1,16 +1,13 @@
 package com.cn.rx.interceptor;
 
+import com.cn.rx.entity.RequestOptions;
 import com.cn.rx.util.LogUtil;
 import com.cn.rx.util.Util;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
 
 import okhttp3.FormBody;
@@ -20,9 +17,17 @@ import okhttp3.MultipartBody;
 import okhttp3.Request;
 import okhttp3.Response;
 
+/**
+ * 动态参数及签名拦截器
+ * <p>
+ * 拦截器是所有请求共享的，单次请求的签名/token选项通过请求的{@link RequestOptions}传入，
+ * 在{@link #dynamic(TreeMap)}执行期间{@link #isSign()}、{@link #isAccessToken()}、{@link #getHttpUrl()}
+ * 返回的是当前线程正在处理的请求的值，请求没有携带选项时使用拦截器自身的设置
+ */
 @SuppressWarnings(value = {"unchecked", "deprecation"})
 public abstract class BaseDynamicInterceptor<R extends BaseDynamicInterceptor> implements Interceptor {
-    private HttpUrl httpUrl;
+
+    private final ThreadLocal<Request> mCurrentRequest = new ThreadLocal<>();
 
     private boolean isSign = false;    //是否需要签名
     private boolean timeStamp = false;    //是否需要追加时间戳
@@ -32,7 +37,8 @@ public abstract class BaseDynamicInterceptor<R extends BaseDynamicInterceptor> i
     }
 
     public boolean isSign() {
-        return isSign;
+        RequestOptions options = currentOptions();
+        return options != null ? options.isSign() : isSign;
     }
 
     public R sign(boolean sign) {
@@ -55,138 +61,168 @@ public abstract class BaseDynamicInterceptor<R extends BaseDynamicInterceptor> i
     }
 
     public boolean isAccessToken() {
-        return accessToken;
+        RequestOptions options = currentOptions();
+        return options != null ? options.isAccessToken() : accessToken;
     }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request request = chain.request();
-        if (request.method().equals("GET")) {
-            this.httpUrl = HttpUrl.parse(parseUrl(request.url().url().toString()));
-            request = addGetParamsSign(request);
-        } else if (request.method().equals("POST")) {
-            this.httpUrl = request.url();
-            request = addPostParamsSign(request);
+        mCurrentRequest.set(request);
+        try {
+            if (request.method().equals("GET")) {
+                request = addGetParamsSign(request);
+            } else if (request.method().equals("POST")) {
+                request = addPostParamsSign(request);
+            }
+        } finally {
+            mCurrentRequest.remove();
         }
         return chain.proceed(request);
     }
 
+    /**
+     * 当前正在处理的请求地址（不含查询参数），只在{@link #dynamic(TreeMap)}执行期间有效
+     */
     public HttpUrl getHttpUrl() {
-        return httpUrl;
+        Request request = mCurrentRequest.get();
+        if (request == null) {
+            return null;
+        }
+        HttpUrl url = request.url();
+        return url.querySize() == 0 ? url : url.newBuilder().query(null).build();
+    }
+
+    private RequestOptions currentOptions() {
+        Request request = mCurrentRequest.get();
+        return request != null ? RequestOptions.of(request) : null;
     }
 
     //get 添加签名和公共动态参数
-    private Request addGetParamsSign(Request request) throws UnsupportedEncodingException {
+    private Request addGetParamsSign(Request request) {
         HttpUrl httpUrl = request.url();
-        HttpUrl.Builder newBuilder = httpUrl.newBuilder();
-
-        //获取原有的参数
-        Set<String> nameSet = httpUrl.queryParameterNames();
-        ArrayList<String> nameList = new ArrayList<>();
-        nameList.addAll(nameSet);
-        TreeMap<String, String> oldparams = new TreeMap<>();
-        for (int i = 0; i < nameList.size(); i++) {
-            String value = httpUrl.queryParameterValues(nameList.get(i)) != null && httpUrl.queryParameterValues(nameList.get(i)).size() > 0 ? httpUrl.queryParameterValues(nameList.get(i)).get(0) : "";
-            oldparams.put(nameList.get(i), value);
+
+        //获取原有的参数，同名参数只取第一个
+        TreeMap<String, String> params = new TreeMap<>();
+        for (int i = 0, size = httpUrl.querySize(); i < size; i++) {
+            String name = httpUrl.queryParameterName(i);
+            if (!params.containsKey(name)) {
+                String value = httpUrl.queryParameterValue(i);
+                params.put(name, value != null ? value : "");
+            }
         }
-        String nameKeys = Collections.singletonList(nameList).toString();
-        //拼装新的参数
-        TreeMap<String, String> newParams = dynamic(oldparams);
-        Util.checkNotNull(newParams, "newParams==null");
+        //拼装新的参数，只追加原来没有的参数
+        TreeMap<String, String> newParams = Util.checkNotNull(dynamic(params), "newParams==null");
+        HttpUrl.Builder newBuilder = null;
         for (Map.Entry<String, String> entry : newParams.entrySet()) {
-            String urlValue = URLEncoder.encode(entry.getValue(), "UTF-8");
-            if (!nameKeys.contains(entry.getKey())) {//避免重复添加
-                newBuilder.addQueryParameter(entry.getKey(), urlValue);
+            if (!hasQueryParameter(httpUrl, entry.getKey())) {
+                if (newBuilder == null) {
+                    newBuilder = httpUrl.newBuilder();
+                }
+                newBuilder.addQueryParameter(entry.getKey(), entry.getValue());
             }
         }
+        if (newBuilder == null) {
+            return request;
+        }
+        return request.newBuilder().url(newBuilder.build()).build();
+    }
 
-        httpUrl = newBuilder.build();
-        request = request.newBuilder().url(httpUrl).build();
-        return request;
+    private static boolean hasQueryParameter(HttpUrl httpUrl, String name) {
+        for (int i = 0, size = httpUrl.querySize(); i < size; i++) {
+            if (name.equals(httpUrl.queryParameterName(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     //templatePost 添加签名和公共动态参数
-    private Request addPostParamsSign(Request request) throws UnsupportedEncodingException {
+    private Request addPostParamsSign(Request request) {
         if (request.body() instanceof FormBody) {
-            FormBody.Builder bodyBuilder = new FormBody.Builder();
             FormBody formBody = (FormBody) request.body();
 
             //原有的参数
-            TreeMap<String, String> oldparams = new TreeMap<>();
+            TreeMap<String, String> params = new TreeMap<>();
             for (int i = 0; i < formBody.size(); i++) {
-                oldparams.put(formBody.encodedName(i), formBody.encodedValue(i));
+                params.put(formBody.name(i), formBody.value(i));
             }
 
-            //拼装新的参数
-            TreeMap<String, String> newParams = dynamic(oldparams);
-            Util.checkNotNull(newParams, "newParams==null");
-            //Logc.i("======post请求参数===========");
+            //拼装新的参数，参数没有变化时不重新生成请求体
+            TreeMap<String, String> newParams = Util.checkNotNull(dynamic(params), "newParams==null");
+            if (isSameParams(formBody, newParams)) {
+                return request;
+            }
+            FormBody.Builder bodyBuilder = new FormBody.Builder();
             for (Map.Entry<String, String> entry : newParams.entrySet()) {
-                String value = URLEncoder.encode(entry.getValue(), "UTF-8");
-                bodyBuilder.addEncoded(entry.getKey(), value);
-                //Logc.i(entry.getKey() + " -> " + value);
+                bodyBuilder.add(entry.getKey(), entry.getValue());
             }
-            String url = createUrlFromParams(httpUrl.url().toString(), newParams);
-            LogUtil.i(url);
-            formBody = bodyBuilder.build();
-            request = request.newBuilder().post(formBody).build();
+            if (LogUtil.isDebug()) {
+                LogUtil.i(request.url() + "?" + joinParams(newParams));
+            }
+            return request.newBuilder().post(bodyBuilder.build()).build();
         } else if (request.body() instanceof MultipartBody) {
-            MultipartBody multipartBody = (MultipartBody) request.body();
-            MultipartBody.Builder bodyBuilder = new MultipartBody.Builder().setType(MultipartBody.FORM);
-            List<MultipartBody.Part> oldparts = multipartBody.parts();
-
             //拼装新的参数
-            List<MultipartBody.Part> newparts = new ArrayList<>();
-            newparts.addAll(oldparts);
-            TreeMap<String, String> oldparams = new TreeMap<>();
-            TreeMap<String, String> newParams = dynamic(oldparams);
-            for (Map.Entry<String, String> stringStringEntry : newParams.entrySet()) {
-                MultipartBody.Part part = MultipartBody.Part.createFormData(stringStringEntry.getKey(), stringStringEntry.getValue());
-                newparts.add(part);
+            TreeMap<String, String> newParams = dynamic(new TreeMap<String, String>());
+            if (newParams == null || newParams.isEmpty()) {
+                return request;
+            }
+            MultipartBody multipartBody = (MultipartBody) request.body();
+            MultipartBody.Builder bodyBuilder = new MultipartBody.Builder(multipartBody.boundary())
+                    .setType(multipartBody.type());
+            List<MultipartBody.Part> oldParts = multipartBody.parts();
+            for (int i = 0, size = oldParts.size(); i < size; i++) {
+                bodyBuilder.addPart(oldParts.get(i));
             }
-            for (MultipartBody.Part part : newparts) {
-                bodyBuilder.addPart(part);
+            for (Map.Entry<String, String> entry : newParams.entrySet()) {
+                bodyBuilder.addFormDataPart(entry.getKey(), entry.getValue());
             }
-            multipartBody = bodyBuilder.build();
-            request = request.newBuilder().post(multipartBody).build();
+            return request.newBuilder().post(bodyBuilder.build()).build();
         }
         return request;
     }
 
-    //解析前：https://xxx.xxx.xxx/app/chairdressing/skinAnalyzePower/skinTestResult?appId=10101
-    //解析后：https://xxx.xxx.xxx/app/chairdressing/skinAnalyzePower/skinTestResult
-    private String parseUrl(String url) {
-        if (!"".equals(url) && url.contains("?")) {// 如果URL不是空字符串
-            url = url.substring(0, url.indexOf('?'));
+    private static boolean isSameParams(FormBody formBody, SortedMap<String, String> params) {
+        if (formBody.size() != params.size()) {
+            return false;
         }
-        return url;
+        for (int i = 0; i < formBody.size(); i++) {
+            if (!formBody.value(i).equals(params.get(formBody.name(i)))) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private String createUrlFromParams(String url, Map<String, String> params) {
-        try {
-            StringBuilder sb = new StringBuilder();
-            sb.append(url);
-            if (url.indexOf('&') > 0 || url.indexOf('?') > 0) sb.append("&");
-            else sb.append("?");
-            for (Map.Entry<String, String> urlParams : params.entrySet()) {
-                String urlValues = urlParams.getValue();
-                //对参数进行 utf-8 编码,防止头信息传中文
-                //String urlValue = URLEncoder.encode(urlValues, UTF8.name());
-                sb.append(urlParams.getKey()).append("=").append(urlValues).append("&");
+    /**
+     * 按键的顺序一次拼接为key1=value1&key2=value2，可用于生成待签名的字符串
+     */
+    protected static String joinParams(SortedMap<String, String> params) {
+        if (params.isEmpty()) {
+            return "";
+        }
+        int length = 0;
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            length += entry.getKey().length() + (entry.getValue() != null ? entry.getValue().length() : 0) + 2;
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(entry.getKey()).append('=');
+            if (entry.getValue() != null) {
+                sb.append(entry.getValue());
             }
-            sb.deleteCharAt(sb.length() - 1);
-            return sb.toString();
-        } catch (Exception e) {
-            LogUtil.e(e.getMessage());
         }
-        return url;
+        return sb.toString();
     }
 
 
     /**
      * 动态处理参数
      *
-     * @param dynamicMap
+     * @param dynamicMap 按键排序的原有参数（已解码）
      * @return 返回新的参数集合
      */
     public abstract TreeMap<String, String> dynamic(TreeMap<String, String> dynamicMap);
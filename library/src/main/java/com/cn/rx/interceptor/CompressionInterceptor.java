@@ -0,0 +1,51 @@
+package com.cn.rx.interceptor;
+
+import com.cn.rx.compress.RequestCompression;
+import com.cn.rx.compress.RequestEncoder;
+
+import java.io.IOException;
+
+import io.reactivex.annotations.NonNull;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 按{@link RequestCompression}压缩请求体，并从响应中记录服务器支持的编码
+ * <p>
+ * 由{@link com.cn.rx.RxHttpConfig}添加在全局拦截器之后，签名等拦截器读取的仍是原始请求体；
+ * 压缩的请求返回415时不再对该服务器使用这个编码，并以原始请求体重发一次
+ */
+public class CompressionInterceptor implements Interceptor {
+
+    private static final int UNSUPPORTED_MEDIA_TYPE = 415;
+
+    private final RequestCompression compression;
+
+    public CompressionInterceptor(RequestCompression compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestEncoder encoder = compression.select(request);
+        if (encoder == null) {
+            Response response = chain.proceed(request);
+            compression.onResponse(request, response);
+            return response;
+        }
+        Request encoded = request.newBuilder()
+                .header("Content-Encoding", encoder.encoding())
+                .method(request.method(), compression.encode(request, encoder))
+                .build();
+        Response response = chain.proceed(encoded);
+        if (response.code() == UNSUPPORTED_MEDIA_TYPE) {
+            compression.onUnsupported(request, encoder, response);
+            response.close();
+            response = chain.proceed(request);
+        }
+        compression.onResponse(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,131 @@
+package com.cn.rx.interceptor;
+
+import com.cn.rx.dispatch.Lane;
+import com.cn.rx.dispatch.RequestDispatcher;
+import com.cn.rx.entity.RequestOptions;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.annotations.NonNull;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * 请求执行前按通道和优先级排队，拿到名额后才继续执行
+ * <p>
+ * 由{@link com.cn.rx.RxHttpConfig}放在{@link OptionsInterceptor}之后，名额在响应体读完或关闭后归还，
+ * 执行出错时立即归还
+ */
+public class DispatchInterceptor implements Interceptor {
+
+    private final RequestDispatcher dispatcher;
+
+    public DispatchInterceptor(RequestDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestOptions options = RequestOptions.of(request);
+        Lane lane = options != null ? options.getLane() : Lane.NORMAL;
+        int priority = options != null ? options.getPriority() : 0;
+        String host = request.url().host();
+        dispatcher.acquire(lane, priority, host);
+        Permit permit = new Permit(dispatcher, lane, host);
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException | Error e) {
+            permit.release();
+            throw e;
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            permit.release();
+            return response;
+        }
+        //响应头返回时下载还没有开始，名额要等响应体读完或关闭后才归还，否则限制不到大文件的下载
+        return response.newBuilder().body(new PermitResponseBody(body, permit)).build();
+    }
+
+    /**
+     * 一次请求占用的名额，只归还一次
+     */
+    private static final class Permit {
+        private final RequestDispatcher dispatcher;
+        private final Lane lane;
+        private final String host;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(RequestDispatcher dispatcher, Lane lane, String host) {
+            this.dispatcher = dispatcher;
+            this.lane = lane;
+            this.host = host;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                dispatcher.release(lane, host);
+            }
+        }
+    }
+
+    /**
+     * 读到末尾或关闭时归还名额的响应体
+     */
+    private static final class PermitResponseBody extends ResponseBody {
+        private final ResponseBody body;
+        private final Permit permit;
+        private BufferedSource source;
+
+        PermitResponseBody(ResponseBody body, Permit permit) {
+            this.body = body;
+            this.permit = permit;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.contentLength();
+        }
+
+        @Override
+        public synchronized BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(body.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        long read = super.read(sink, byteCount);
+                        if (read == -1) {
+                            permit.release();
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            permit.release();
+                        }
+                    }
+                });
+            }
+            return source;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.cn.rx.util.LogUtil;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 
 import io.reactivex.annotations.NonNull;
 import okhttp3.Interceptor;
@@ -44,14 +43,17 @@ public class HeaderInterceptor implements Interceptor {
 
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
+        if (map == null || map.isEmpty()) {
+            return chain.proceed(chain.request());
+        }
         Request.Builder builder = chain.request().newBuilder();
-        if (map != null && map.size() > 0) {
-            Set<String> keys = map.keySet();
-            for (String headerKey : keys) {
-                builder.addHeader(headerKey, map.get(headerKey) == null ? "" : map.get(headerKey)).build();
-            }
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            builder.addHeader(entry.getKey(), entry.getValue() == null ? "" : entry.getValue());
+        }
+        Request request = builder.build();
+        if (LogUtil.isDebug()) {
+            LogUtil.i("RxHttp", "-->>headers：" + request.headers().toString());
         }
-        LogUtil.i("RxHttp", "-->>headers：" + builder.build().headers().toString());
-        return chain.proceed(builder.build());
+        return chain.proceed(request);
     }
 }
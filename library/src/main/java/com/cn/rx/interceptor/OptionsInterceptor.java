@@ -0,0 +1,31 @@
+package com.cn.rx.interceptor;
+
+import com.cn.rx.entity.RequestOptions;
+
+import java.io.IOException;
+
+import io.reactivex.annotations.NonNull;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 将请求头中携带的{@link RequestOptions}转为请求的tag，并移除该请求头避免发送到服务端
+ * <p>
+ * 由{@link com.cn.rx.RxHttpConfig}放在拦截器的第一位
+ */
+public class OptionsInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String header = request.header(RequestOptions.HEADER);
+        if (header == null) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+                .removeHeader(RequestOptions.HEADER)
+                .tag(RequestOptions.parse(header))
+                .build());
+    }
+}
@@ -4,14 +4,19 @@ package com.cn.rx.request;
 import com.cn.rx.callback.ResultCallback;
 import com.cn.rx.callback.ResultCallbackProxy;
 import com.cn.rx.callback.ResultClazzCallProxy;
+import com.cn.rx.codec.PathProjection;
 import com.cn.rx.entity.ApiResultEntity;
 import com.cn.rx.func.ApiResultFunc;
+import com.cn.rx.func.ProjectionFunc;
 import com.cn.rx.func.RetryExceptionFunc;
+import com.cn.rx.func.StreamFunc;
 import com.cn.rx.subscriber.ResultCallbackSubscriber;
+import com.cn.rx.transformer.HandleErrorTransformer;
 import com.cn.rx.util.RxUtil;
 
 import java.lang.reflect.Type;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 
@@ -32,11 +37,34 @@ public class ApiResultPostRequest extends HttpBodyRequest<ApiResultPostRequest>
         });
     }
 
+    /**
+     * 只解析响应中路径指向的部分，不检查code，如execute("code", Integer.class)
+     *
+     * @param path 路径格式见{@link PathProjection}
+     * @param type 路径上的值的类型，路径含有[*]时为集合或数组类型
+     */
+    public <T> Observable<T> execute(String path, Type type) {
+        Observable<T> observable = build().generateRequest()
+                .map(new ProjectionFunc<T>(path, type))
+                .compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
+                .compose(new HandleErrorTransformer())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+        return coalesce(observable, path, type);
+    }
+
+    /**
+     * data为数组时逐个发送其中的元素，不必等整个数组解析完；code不为0时发送ServerException
+     */
+    public <T> Flowable<T> executeStream(Class<T> clazz) {
+        return build().generateStream(new StreamFunc<T>(clazz, false));
+    }
+
     public <T> Observable<T> execute(ResultClazzCallProxy<? extends ApiResultEntity<T>, T> proxy) {
-        return build().generateRequest()
+        Observable<T> observable = build().generateRequest()
                 .map(new ApiResultFunc(proxy.getType()))
-                .compose(isSyncRequest ? RxUtil._io_main_result() : RxUtil._main_result())
+                .compose(isSyncRequest ? RxUtil._io_main_result(deliveryScheduler()) : RxUtil._main_result())
                 .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+        return coalesce(observable, proxy.getType());
     }
 
     public <T> Disposable execute(Object tag, ResultCallback<T> callback) {
@@ -49,9 +77,10 @@ public class ApiResultPostRequest extends HttpBodyRequest<ApiResultPostRequest>
     }
 
     protected  <T> Observable<T> generateObservable(Observable observable, ResultCallbackProxy<? extends ApiResultEntity<T>, T> proxy) {
-        return observable.map(new ApiResultFunc(proxy.getType()))
-                .compose(isSyncRequest ? RxUtil._io_main_result() : RxUtil._main_result())
+        Observable<T> result = observable.map(new ApiResultFunc(proxy.getType()))
+                .compose(isSyncRequest ? RxUtil._io_main_result(deliveryScheduler()) : RxUtil._main_result())
                 .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+        return coalesce(result, proxy.getType());
     }
 
 }
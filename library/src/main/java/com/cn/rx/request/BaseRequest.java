@@ -5,9 +5,12 @@ import android.content.Context;
 
 import com.cn.rx.ApiManager;
 import com.cn.rx.RxHttp;
+import com.cn.rx.RxHttpConfig;
+import com.cn.rx.connection.ProtocolMode;
+import com.cn.rx.dispatch.BatchMainScheduler;
+import com.cn.rx.dispatch.Lane;
 import com.cn.rx.entity.HttpParamEntity;
-import com.cn.rx.interceptor.BaseDynamicInterceptor;
-import com.cn.rx.interceptor.HeaderInterceptor;
+import com.cn.rx.entity.RequestOptions;
 import com.cn.rx.util.SSLUtil;
 import com.cn.rx.util.Util;
 
@@ -25,6 +28,8 @@ import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.android.schedulers.AndroidSchedulers;
 import okhttp3.Cache;
 import okhttp3.ConnectionPool;
 import okhttp3.CookieJar;
@@ -68,23 +73,31 @@ public abstract class BaseRequest<R extends BaseRequest> {
     private String mBaseUrl;
     private boolean isSign = false;                                   //是否需要签名
     private boolean accessToken = false;                              //是否需要添加token
+    private Lane mLane = Lane.NORMAL;                                 //调度通道
+    private int mPriority;                                            //通道内的优先级，越大越先执行
+    private boolean mCoalesce = false;                                //是否合并相同的进行中请求
+    private ProtocolMode mProtocolMode;                               //单独设置的协议
     boolean isSyncRequest = true;
+    private boolean mBatchDelivery;                                   //是否合并投递主线程回调
     private Retrofit mRetrofit;
     private OkHttpClient mOkHttpClient;
     ApiManager mApiManager;
-    private HeaderInterceptor mHeaderInterceptor;
+    Map<String, String> mRequestHeaders;                              //随本次请求发送的请求头
+    final RxHttpConfig mConfig;                                       //创建请求时的全局配置快照
 
 
     public BaseRequest(String url) {
         RxHttp rxHttp = RxHttp.getInstance();
+        this.mConfig = rxHttp.getConfig();
         this.mUrl = url;
         this.mContext = rxHttp.getContext();
-        this.isSign = rxHttp.isSign();
-        this.accessToken = rxHttp.isAccessToken();
-        this.isSyncRequest = rxHttp.isSyncRequest();
-        this.mRetryCount = rxHttp.getRetryCount();
-        this.mRetryDelay = rxHttp.getRetryDelay();
-        this.mRetryIncreaseDelay = rxHttp.getRetryIncreaseDelay();
+        this.isSign = mConfig.isSign();
+        this.accessToken = mConfig.isAccessToken();
+        this.isSyncRequest = mConfig.isSyncRequest();
+        this.mBatchDelivery = mConfig.isBatchDelivery();
+        this.mRetryCount = mConfig.getRetryCount();
+        this.mRetryDelay = mConfig.getRetryDelay();
+        this.mRetryIncreaseDelay = mConfig.getRetryIncreaseDelay();
         if (mBaseUrl == null && url != null && (url.startsWith("http://") || url.startsWith("https://"))) {
             HttpUrl httpUrl = HttpUrl.parse(url);
             if (httpUrl != null)
@@ -108,6 +121,16 @@ public abstract class BaseRequest<R extends BaseRequest> {
         return (R) this;
     }
 
+    /**
+     * 是否合并投递主线程回调，默认使用全局设置
+     *
+     * @see BatchMainScheduler
+     */
+    public R batchDelivery(boolean batchDelivery) {
+        this.mBatchDelivery = batchDelivery;
+        return (R) this;
+    }
+
     public R cache(Cache cache) {
         this.mCache = Util.checkNotNull(cache, "cache is null");
         return (R) this;
@@ -170,16 +193,12 @@ public abstract class BaseRequest<R extends BaseRequest> {
     }
 
     public R removeHeader(String key) {
-        if (mHeaderInterceptor != null) {
-            mHeaderInterceptor.remove(key);
-        }
+        this.mHeaders.remove(key);
         return (R) this;
     }
 
     public R clearHeaders() {
-        if (mHeaderInterceptor != null) {
-            mHeaderInterceptor.clearAll();
-        }
+        this.mHeaders.clear();
         return (R) this;
     }
 
@@ -244,6 +263,38 @@ public abstract class BaseRequest<R extends BaseRequest> {
         return (R) this;
     }
 
+    /**
+     * 设置请求的调度通道，默认{@link Lane#NORMAL}
+     */
+    public R lane(Lane lane) {
+        this.mLane = Util.checkNotNull(lane, "lane is null");
+        return (R) this;
+    }
+
+    /**
+     * 设置请求在通道内的优先级，越大越先执行，默认0
+     */
+    public R priority(int priority) {
+        this.mPriority = priority;
+        return (R) this;
+    }
+
+    /**
+     * 单独设置请求使用的协议，例如对内网域名使用{@link ProtocolMode#H2C_PRIOR_KNOWLEDGE}
+     */
+    public R protocol(ProtocolMode protocolMode) {
+        this.mProtocolMode = Util.checkNotNull(protocolMode, "protocolMode is null");
+        return (R) this;
+    }
+
+    /**
+     * 是否合并相同的进行中请求，开启后相同的请求共享同一次网络请求解析后的结果，默认关闭
+     */
+    public R coalesce(boolean coalesce) {
+        this.mCoalesce = coalesce;
+        return (R) this;
+    }
+
     public R retryCount(int mRetryCount) {
         if (mRetryCount < 0)
             throw new IllegalArgumentException("retryIncreaseDelay must > 0");
@@ -280,21 +331,88 @@ public abstract class BaseRequest<R extends BaseRequest> {
         return (R) this;
     }
 
-    protected OkHttpClient.Builder generateOkHttpClientBuilder() {
-        if (mReadTimeout <= 0 && mWriteTimeout <= 0 && mConnectTimeout <= 0 && mSslParams == null
+    /**
+     * 生成请求有效配置的指纹，配置相同的请求共用同一个OkHttpClient/Retrofit/ApiManager
+     */
+    protected ClientCache.Key generateClientKey() {
+        return new ClientCache.Key(mConfig, mBaseUrl, mReadTimeout, mWriteTimeout, mConnectTimeout,
+                mSslParams, mSslSocketFactory, mTrustManager, mHostnameVerifier,
+                mCache, mCacheFile, mCacheMaxSize, mConnectionPool, mProxy, mCookieJar,
+                mInterceptorList.isEmpty() ? null : new ArrayList<>(mInterceptorList),
+                mNetworkInterceptorList.isEmpty() ? null : new ArrayList<>(mNetworkInterceptorList),
+                mConverterFactory, mCallAdapterFactory, mHttpClient, mProtocolMode);
+    }
+
+    /**
+     * 生成请求的指纹（配置、地址、请求头、参数），需在{@link #build()}之后调用
+     */
+    protected ClientCache.Key generateRequestKey() {
+        return new ClientCache.Key(generateClientKey(), mUrl, mRequestHeaders, generateBodyKey());
+    }
+
+    /**
+     * 请求体的指纹，子类有其他请求体时需要重写
+     */
+    protected Object generateBodyKey() {
+        return new ClientCache.Key(new HashMap<>(mHttpParams.getParamMap()), new HashMap<>(mHttpParams.getFileMap()));
+    }
+
+    /**
+     * 开启合并时，相同请求且解析方式相同的订阅共享同一次请求的结果
+     *
+     * @param observable 解析后的请求
+     * @param decodeKey  解析方式（类型、回调等），不同解析方式的请求不会合并
+     */
+    protected <T> Observable<T> coalesce(Observable<T> observable, Object... decodeKey) {
+        if (!mCoalesce) {
+            return observable;
+        }
+        ClientCache.Key key = new ClientCache.Key(generateRequestKey(), new ClientCache.Key(decodeKey));
+        return RxHttp.getInstance().getRequestCoalescer().coalesce(key, observable);
+    }
+
+    /**
+     * 回调投递到主线程使用的调度器
+     */
+    protected Scheduler deliveryScheduler() {
+        return mBatchDelivery ? BatchMainScheduler.getInstance() : AndroidSchedulers.mainThread();
+    }
+
+    /**
+     * 完整的请求地址，用于选择统一格式配置（见ResultConfigLoader），在build之后调用
+     */
+    protected HttpUrl requestUrl() {
+        if (mRetrofit == null) {
+            return null;
+        }
+        return mUrl != null ? mRetrofit.baseUrl().resolve(mUrl) : mRetrofit.baseUrl();
+    }
+
+    /**
+     * 没有单独设置OkHttpClient相关的配置时直接使用全局快照中的OkHttpClient
+     */
+    private boolean isDefaultClientConfig() {
+        return mReadTimeout <= 0 && mWriteTimeout <= 0 && mConnectTimeout <= 0 && mSslParams == null
                 && mCookieJar == null && mCache == null && mCacheFile == null && mCacheMaxSize <= 0
                 && mInterceptorList.size() == 0 && mNetworkInterceptorList.size() == 0 && mProxy == null
                 && mSslSocketFactory == null && mTrustManager == null && mHostnameVerifier == null
-                && mCallAdapterFactory == null && mConverterFactory == null && mHeaders.isEmpty()) {
-            OkHttpClient.Builder builder = RxHttp.getInstance().getOkHttpClientBuilder();
-            for (Interceptor interceptor : builder.interceptors()) {
-                if (interceptor instanceof BaseDynamicInterceptor) {
-                    ((BaseDynamicInterceptor) interceptor).sign(isSign).accessToken(accessToken);
-                }
-            }
-            return builder;
+                && mCallAdapterFactory == null && mConverterFactory == null && mProtocolMode == null;
+    }
+
+    /**
+     * 没有单独设置Retrofit相关的配置时直接使用全局快照中的Retrofit
+     */
+    private boolean isDefaultRetrofitConfig() {
+        return (mBaseUrl == null || mBaseUrl.equals(mConfig.getBaseUrl())) && mConverterFactory == null
+                && mCallAdapterFactory == null && mHttpClient == null && mConfig.getRetrofit() != null;
+    }
+
+    protected OkHttpClient.Builder generateOkHttpClientBuilder() {
+        if (isDefaultClientConfig()) {
+            return mConfig.getOkHttpClient().newBuilder();
         } else {
-            OkHttpClient.Builder newBuilder = RxHttp.getInstance().getOkHttpClient().newBuilder();
+            //由全局OkHttpClient派生，共用ConnectionPool和Dispatcher
+            OkHttpClient.Builder newBuilder = mConfig.getOkHttpClient().newBuilder();
             if (mReadTimeout > 0) {
                 newBuilder.readTimeout(mReadTimeout, TimeUnit.SECONDS);
             }
@@ -304,6 +422,9 @@ public abstract class BaseRequest<R extends BaseRequest> {
             if (mConnectTimeout > 0) {
                 newBuilder.connectTimeout(mConnectTimeout, TimeUnit.SECONDS);
             }
+            if (mProtocolMode != null) {
+                newBuilder.protocols(mProtocolMode.protocols());
+            }
 
             if (mSslSocketFactory != null) {
                 if (mTrustManager == null) {
@@ -317,15 +438,12 @@ public abstract class BaseRequest<R extends BaseRequest> {
             if (mHostnameVerifier != null) {
                 newBuilder.hostnameVerifier(mHostnameVerifier);
             }
-            if (mCacheFile == null) {
-                mCacheFile = new File(mContext.getCacheDir(), "retrofit_http_cache");
-            }
-            if (mCache == null && mCacheFile != null) {
-                mCache = new Cache(mCacheFile, Math.max(5 * 1024 * 1024, mCacheMaxSize));
-            }
-            if (mCache != null) {
-                newBuilder.cache(mCache);
+            Cache cache = mCache;
+            if (cache == null) {
+                File cacheFile = mCacheFile != null ? mCacheFile : new File(mContext.getCacheDir(), "retrofit_http_cache");
+                cache = RxHttp.getInstance().getClientCache().cache(cacheFile, Math.max(5 * 1024 * 1024, mCacheMaxSize));
             }
+            newBuilder.cache(cache);
             if (mConnectionPool != null) {
                 newBuilder.connectionPool(mConnectionPool);
             }
@@ -335,17 +453,11 @@ public abstract class BaseRequest<R extends BaseRequest> {
             if (mCookieJar != null) {
                 newBuilder.cookieJar(mCookieJar);
             }
-            addHeaderInterceptor(newBuilder);
             if (mInterceptorList.size() > 0) {
                 for (Interceptor interceptor : mInterceptorList) {
                     newBuilder.addInterceptor(interceptor);
                 }
             }
-            for (Interceptor interceptor : newBuilder.interceptors()) {
-                if (interceptor instanceof BaseDynamicInterceptor) {
-                    ((BaseDynamicInterceptor) interceptor).sign(isSign).accessToken(accessToken);
-                }
-            }
             if (mNetworkInterceptorList.size() > 0) {
                 for (Interceptor interceptor : mNetworkInterceptorList) {
                     newBuilder.addNetworkInterceptor(interceptor);
@@ -357,57 +469,56 @@ public abstract class BaseRequest<R extends BaseRequest> {
     }
 
     /**
-     * 添加请求头，并保证在拦截器的第一位，以方便后面的拦截器使用到头信息
+     * 生成随本次请求发送的请求头，签名/token等选项也以请求头的形式传给共享的拦截器
      */
-    private void addHeaderInterceptor(OkHttpClient.Builder newBuilder) {
-        mHeaderInterceptor = RxHttp.getInstance().getBaseHeaderInterceptor();
-        if (mHeaderInterceptor != null) {
-            mHeaderInterceptor.addHeaderMap(mHeaders);
-        } else if (mHeaders != null && mHeaders.size() > 0) {
-            mHeaderInterceptor = new HeaderInterceptor(mHeaders);
-            //将添加统一头内容的拦截器放在第一位方便后面的拦截器使用
-            if (newBuilder.interceptors().size() > 0) {
-                newBuilder.interceptors().add(0, mHeaderInterceptor);
-            } else {
-                newBuilder.interceptors().add(mHeaderInterceptor);
-            }
-        }
+    protected Map<String, String> generateHeaders() {
+        Map<String, String> headers = new HashMap<>(mHeaders.size() + 1);
+        headers.putAll(mHeaders);
+        headers.put(RequestOptions.HEADER, new RequestOptions(isSign, accessToken, mLane, mPriority).toHeader());
+        return headers;
     }
 
     protected Retrofit.Builder generateRetrofitBuilder() {
-        RxHttp rxHttp = RxHttp.getInstance();
-        if (mBaseUrl == null || mBaseUrl.equals(rxHttp.getBaseUrl()) && mConverterFactory == null
-                && mCallAdapterFactory == null && mHttpClient == null && rxHttp.getHttpClient() == null) {
-            return rxHttp.getRetrofitBuilder();
-        } else {
-            Retrofit.Builder builder = rxHttp.getRetrofit().newBuilder();
-            if (mBaseUrl != null) {
-                builder.baseUrl(mBaseUrl);
-            }
-            if (mCallAdapterFactory != null) {
-                builder.addCallAdapterFactory(mCallAdapterFactory);
-            }
-            if (mConverterFactory != null) {
-                builder.addConverterFactory(mConverterFactory);
-            }
-
-            return builder;
+        Retrofit retrofit = mConfig.getRetrofit();
+        //未设置全局baseUrl时没有全局Retrofit，只能使用全局的Builder
+        Retrofit.Builder builder = retrofit != null ? retrofit.newBuilder() : RxHttp.getInstance().getRetrofitBuilder();
+        if (mBaseUrl != null) {
+            builder.baseUrl(mBaseUrl);
+        }
+        if (mCallAdapterFactory != null) {
+            builder.addCallAdapterFactory(mCallAdapterFactory);
         }
+        if (mConverterFactory != null) {
+            builder.addConverterFactory(mConverterFactory);
+        }
+        return builder;
     }
 
     protected <T> R build() {
-        OkHttpClient.Builder okHttpClientBuilder = generateOkHttpClientBuilder();
-        Retrofit.Builder retrofitBuilder = generateRetrofitBuilder();
-        if (mHttpClient != null) {
-            mOkHttpClient = mHttpClient;
-        } else if (RxHttp.getInstance().getHttpClient() != null) {
-            mOkHttpClient = RxHttp.getInstance().getHttpClient();
-        } else {
-           mOkHttpClient =  okHttpClientBuilder.build();
-        }
-        retrofitBuilder.client(mOkHttpClient);
-        mRetrofit = retrofitBuilder.build();
-        mApiManager = mRetrofit.create(ApiManager.class);
+        ClientCache.Entry entry = RxHttp.getInstance().getClientCache().get(generateClientKey(), new ClientCache.Factory() {
+            @Override
+            public ClientCache.Entry create() {
+                OkHttpClient client;
+                if (mHttpClient != null) {
+                    client = mConfig.wrapClient(mHttpClient);
+                } else if (mConfig.getHttpClient() != null) {
+                    client = mConfig.getHttpClient();
+                } else if (isDefaultClientConfig()) {
+                    client = mConfig.getOkHttpClient();
+                } else {
+                    client = generateOkHttpClientBuilder().build();
+                }
+                if (isDefaultRetrofitConfig() && client == mConfig.getRetrofit().callFactory()) {
+                    return new ClientCache.Entry(client, mConfig.getRetrofit(), mConfig.getApiManager());
+                }
+                Retrofit retrofit = generateRetrofitBuilder().client(client).build();
+                return new ClientCache.Entry(client, retrofit, retrofit.create(ApiManager.class));
+            }
+        });
+        mOkHttpClient = entry.client;
+        mRetrofit = entry.retrofit;
+        mApiManager = entry.apiManager;
+        mRequestHeaders = generateHeaders();
         return (R) this;
     }
 
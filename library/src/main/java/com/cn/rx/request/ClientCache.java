@@ -0,0 +1,139 @@
+package com.cn.rx.request;
+
+import com.cn.rx.ApiManager;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+
+/**
+ * 按请求的有效配置缓存已构建好的OkHttpClient/Retrofit/ApiManager，避免每次请求都重新构建
+ * <p>
+ * 缓存项都由全局OkHttpClient派生（newBuilder），因此共用同一个ConnectionPool和Dispatcher，
+ * 同一个缓存目录也只会创建一个{@link Cache}
+ */
+public final class ClientCache {
+
+    private static final int DEFAULT_MAX_SIZE = 8;                    //默认最多缓存的配置数
+
+    private int mMaxSize = DEFAULT_MAX_SIZE;
+    private final Map<File, Cache> mCaches = new HashMap<>();
+    private final LinkedHashMap<Key, Entry> mEntries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > mMaxSize;
+        }
+    };
+
+    /**
+     * 获取配置对应的缓存项，不存在时通过factory构建并缓存
+     */
+    public synchronized Entry get(Key key, Factory factory) {
+        Entry entry = mEntries.get(key);
+        if (entry == null) {
+            entry = factory.create();
+            mEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 同一个缓存目录共用一个Cache对象
+     */
+    public synchronized Cache cache(File cacheFile, long cacheMaxSize) {
+        Cache cache = mCaches.get(cacheFile);
+        if (cache == null) {
+            cache = new Cache(cacheFile, cacheMaxSize);
+            mCaches.put(cacheFile, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * 设置最多缓存的配置数
+     */
+    public synchronized void maxSize(int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must > 0");
+        this.mMaxSize = maxSize;
+        while (mEntries.size() > maxSize) {
+            mEntries.remove(mEntries.keySet().iterator().next());
+        }
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * 全局配置改变后清空所有缓存项
+     */
+    public synchronized void evictAll() {
+        mEntries.clear();
+    }
+
+    public interface Factory {
+        Entry create();
+    }
+
+    /**
+     * 请求有效配置的指纹
+     */
+    public static final class Key {
+        private final Object[] parts;
+        private final int hashCode;
+
+        public Key(Object... parts) {
+            this.parts = parts;
+            this.hashCode = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hashCode == ((Key) o).hashCode && Arrays.equals(parts, ((Key) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * 按对象本身（而不是equals）区分的指纹，用于回调等有状态的对象
+     */
+    public static final class Identity {
+        private final Object target;
+
+        public Identity(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity && target == ((Identity) o).target;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(target);
+        }
+    }
+
+    public static final class Entry {
+        public final OkHttpClient client;
+        public final Retrofit retrofit;
+        public final ApiManager apiManager;
+
+        public Entry(OkHttpClient client, Retrofit retrofit, ApiManager apiManager) {
+            this.client = client;
+            this.retrofit = retrofit;
+            this.apiManager = apiManager;
+        }
+    }
+}
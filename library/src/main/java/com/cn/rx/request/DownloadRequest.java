@@ -1 +1 @@
-package com.cn.rx.request;import com.cn.rx.callback.DownloadProgressCallBack;import com.cn.rx.func.RetryExceptionFunc;import com.cn.rx.subscriber.RxDownloadSubscriber;import com.cn.rx.transformer.HandleErrorTransformer;import io.reactivex.Observable;import io.reactivex.ObservableSource;import io.reactivex.ObservableTransformer;import io.reactivex.disposables.Disposable;import io.reactivex.schedulers.Schedulers;import okhttp3.ResponseBody;@SuppressWarnings(value = {"unchecked", "deprecation"})public class DownloadRequest extends BaseRequest<DownloadRequest> {    private String saveName;    private String savePath;    public DownloadRequest(String url) {        super(url);    }    /**     * 下载文件名称<br>     * 默认名字是时间戳生成的<br>     */    public DownloadRequest saveName(String saveName) {        this.saveName = saveName;        return this;    }    /**     * 下载文件保存的路径<br/>     * 默认在：/storage/emulated/0/Android/data/包名/files/1494647767055<br>     */    public DownloadRequest savePath(String savePath) {        this.savePath = savePath;        return this;    }    @Override    protected Observable<ResponseBody> generateRequest() {        return mApiManager.downloadFile(mUrl);    }    public Disposable execute(Object tag, DownloadProgressCallBack callBack) {        return build().generateRequest().compose(new ObservableTransformer<ResponseBody, ResponseBody>() {            @Override            public ObservableSource<ResponseBody> apply(Observable<ResponseBody> upstream) {                if (isSyncRequest) {                    return upstream.subscribeOn(Schedulers.io())                            .unsubscribeOn(Schedulers.io())                            .observeOn(Schedulers.computation());                } else {                    return upstream;                }            }        }).compose(new HandleErrorTransformer<>())                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))                .subscribeWith(new RxDownloadSubscriber(tag, mUrl, mContext, savePath, saveName, callBack));    }}
\ No newline at end of file
+package com.cn.rx.request;import com.cn.rx.callback.DownloadProgressCallBack;import com.cn.rx.func.RetryExceptionFunc;import com.cn.rx.subscriber.ResultCallbackSubscriber;import com.cn.rx.subscriber.RxDownloadSubscriber;import com.cn.rx.transformer.HandleErrorTransformer;import com.cn.rx.util.RxUtil;import io.reactivex.Observable;import io.reactivex.ObservableEmitter;import io.reactivex.ObservableOnSubscribe;import io.reactivex.ObservableSource;import io.reactivex.ObservableTransformer;import io.reactivex.disposables.Disposable;import io.reactivex.functions.Cancellable;import io.reactivex.schedulers.Schedulers;import okhttp3.ResponseBody;@SuppressWarnings(value = {"unchecked", "deprecation"})public class DownloadRequest extends BaseRequest<DownloadRequest> {    private String saveName;    private String savePath;    private int maxConnections = 1;             //大于1时分段下载    private long minSegmentSize;    public DownloadRequest(String url) {        super(url);    }    /**     * 下载文件名称<br>     * 默认名字是时间戳生成的<br>     */    public DownloadRequest saveName(String saveName) {        this.saveName = saveName;        return this;    }    /**     * 下载文件保存的路径<br/>     * 默认在：/storage/emulated/0/Android/data/包名/files/1494647767055<br>     */    public DownloadRequest savePath(String savePath) {        this.savePath = savePath;        return this;    }    /**     * 多连接分段下载<br>     * 服务器支持Range时从两个连接开始，总速度还在提升时逐步增加到maxConnections，     * 每段失败后从断开的位置单独重试；不支持Range时按单连接下载<br>     *     * @param maxConnections 最多同时使用的连接数     * @param minSegmentSize 每段的最小字节数，小于两段的文件不分段     */    public DownloadRequest segmented(int maxConnections, long minSegmentSize) {        if (maxConnections < 1 || minSegmentSize <= 0) {            throw new IllegalArgumentException("maxConnections < 1 || minSegmentSize <= 0");        }        this.maxConnections = maxConnections;        this.minSegmentSize = minSegmentSize;        return this;    }    @Override    protected Observable<ResponseBody> generateRequest() {        return mApiManager.downloadFile(mUrl, mRequestHeaders);    }    public Disposable execute(Object tag, DownloadProgressCallBack callBack) {        if (maxConnections > 1) {            return executeSegmented(tag, callBack);        }        return build().generateRequest().compose(new ObservableTransformer<ResponseBody, ResponseBody>() {            @Override            public ObservableSource<ResponseBody> apply(Observable<ResponseBody> upstream) {                if (isSyncRequest) {                    return upstream.subscribeOn(Schedulers.io())                            .unsubscribeOn(Schedulers.io())                            .observeOn(Schedulers.computation());                } else {                    return upstream;                }            }        }).compose(new HandleErrorTransformer<>())                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))                .subscribeWith(new RxDownloadSubscriber(tag, mUrl, mContext, savePath, saveName, callBack, deliveryScheduler()));    }    /**     * 每段单独重试，不再整体retryWhen     */    private Disposable executeSegmented(Object tag, DownloadProgressCallBack callBack) {        build();        final SegmentedDownloader downloader = new SegmentedDownloader(mApiManager, mUrl, mRequestHeaders, mContext,                savePath, saveName, maxConnections, minSegmentSize, mRetryCount, mRetryDelay, mRetryIncreaseDelay,                tag, callBack, deliveryScheduler());        return Observable.create(new ObservableOnSubscribe<String>() {            @Override            public void subscribe(ObservableEmitter<String> emitter) throws Exception {                emitter.setCancellable(new Cancellable() {                    @Override                    public void cancel() throws Exception {                        downloader.cancel();                    }                });                String path;                try {                    path = downloader.download();                } catch (Exception e) {                    if (!emitter.isDisposed()) {                        emitter.onError(e);                    }                    return;                }                if (path != null) {                    emitter.onNext(path);                    emitter.onComplete();                }            }        }).compose(isSyncRequest ? RxUtil.<String>_io_main(deliveryScheduler()) : RxUtil.<String>_main())                .compose(new HandleErrorTransformer<String>())                .subscribeWith(new ResultCallbackSubscriber<>(tag, callBack));    }}
\ No newline at end of file
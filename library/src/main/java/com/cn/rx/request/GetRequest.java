@@ -0,0 +1,136 @@
+package com.cn.rx.request;
+
+
+import com.cn.rx.RxHttp;
+import com.cn.rx.callback.ResultCallback;
+import com.cn.rx.callback.ResultCallbackProxy;
+import com.cn.rx.callback.ResultClazzCallProxy;
+import com.cn.rx.codec.PathProjection;
+import com.cn.rx.entity.ApiResultEntity;
+import com.cn.rx.func.ApiResultFunc;
+import com.cn.rx.func.ProjectionFunc;
+import com.cn.rx.func.RetryExceptionFunc;
+import com.cn.rx.func.RevalidateFunc;
+import com.cn.rx.subscriber.ResultCallbackSubscriber;
+import com.cn.rx.transformer.HandleErrorTransformer;
+import com.cn.rx.util.RxUtil;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Function;
+import okhttp3.ResponseBody;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * GET请求，参数拼接在地址上
+ * <p>
+ * 自动保存响应的ETag/Last-Modified并在下次请求时携带If-None-Match/If-Modified-Since，
+ * 服务端返回304时直接使用上次解析好的结果，见{@link ValidatorCache}
+ */
+@SuppressWarnings(value = {"unchecked", "deprecation"})
+public class GetRequest extends BaseRequest<GetRequest> {
+
+    public GetRequest(String url) {
+        super(url);
+    }
+
+    public <T> Observable<T> execute(Class<T> clazz) {
+        return execute((Type) clazz);
+    }
+
+    public <T> Observable<T> execute(final Type type) {
+        Observable<T> observable = build().generateConditionalRequest(type, new Function<ResponseBody, T>() {
+            @Override
+            public T apply(ResponseBody body) throws Exception {
+                return RxHttp.getInstance().getCodecRegistry().codecFor(body).decode(body, type);
+            }
+        })
+                .compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
+                .compose(new HandleErrorTransformer())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+        return coalesce(observable, type);
+    }
+
+    /**
+     * 只解析响应中路径指向的部分，如execute("data.items[*].id", new TypeReference&lt;List&lt;Long&gt;&gt;(){}.getType())
+     *
+     * @param path 路径格式见{@link PathProjection}
+     * @param type 路径上的值的类型，路径含有[*]时为集合或数组类型
+     */
+    public <T> Observable<T> execute(String path, Type type) {
+        Observable<T> observable = build().generateConditionalRequest(new ClientCache.Key(path, type), new ProjectionFunc<T>(path, type))
+                .compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
+                .compose(new HandleErrorTransformer())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+        return coalesce(observable, path, type);
+    }
+
+    public <T> Observable<T> execute(ResultClazzCallProxy<? extends ApiResultEntity<T>, T> proxy) {
+        Observable<T> observable = build().generateConditionalRequest(proxy.getType(), new ApiResultFunc(proxy.getType()))
+                .compose(isSyncRequest ? RxUtil._io_main_result(deliveryScheduler()) : RxUtil._main_result())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+        return coalesce(observable, proxy.getType());
+    }
+
+    public <T> Disposable execute(Object tag, ResultCallback<T> callback) {
+        return execute(tag, ResultCallbackProxy.NEW_DEFAULT_INSTANCE(callback));
+    }
+
+    public <T> Disposable execute(Object tag, ResultCallbackProxy<? extends ApiResultEntity<T>, T> proxy) {
+        Observable<T> observable = build().generateConditionalRequest(proxy.getType(), new ApiResultFunc(proxy.getType()))
+                .compose(isSyncRequest ? RxUtil._io_main_result(deliveryScheduler()) : RxUtil._main_result())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+        return coalesce(observable, proxy.getType())
+                .subscribeWith(new ResultCallbackSubscriber<T>(tag, proxy.getCallback()));
+    }
+
+    /**
+     * 订阅时查找协商缓存，有缓存时携带校验头发起请求
+     *
+     * @param decodeKey 解析方式，同一地址不同解析方式的结果分开缓存
+     * @param decoder   解析响应体
+     */
+    private <T> Observable<T> generateConditionalRequest(Object decodeKey, final Function<ResponseBody, T> decoder) {
+        final ValidatorCache cache = RxHttp.getInstance().getValidatorCache();
+        final Object key = new ClientCache.Key(generateRequestKey(), decodeKey);
+        return Observable.defer(new Callable<ObservableSource<T>>() {
+            @Override
+            public ObservableSource<T> call() throws Exception {
+                ValidatorCache.Entry cached = cache.get(key);
+                Map<String, String> headers = mRequestHeaders;
+                if (cached != null) {
+                    headers = new HashMap<>(mRequestHeaders);
+                    if (cached.etag != null) {
+                        headers.put("If-None-Match", cached.etag);
+                    }
+                    if (cached.lastModified != null) {
+                        headers.put("If-Modified-Since", cached.lastModified);
+                    }
+                }
+                return mApiManager.get(mUrl, mHttpParams.getParamMap(), headers)
+                        .map(new RevalidateFunc<T>(cache, key, cached, decoder));
+            }
+        });
+    }
+
+    @Override
+    protected Observable<ResponseBody> generateRequest() {
+        return mApiManager.get(mUrl, mHttpParams.getParamMap(), mRequestHeaders)
+                .map(new Function<Response<ResponseBody>, ResponseBody>() {
+                    @Override
+                    public ResponseBody apply(Response<ResponseBody> response) throws Exception {
+                        if (!response.isSuccessful()) {
+                            throw new HttpException(response);
+                        }
+                        return response.body();
+                    }
+                });
+    }
+}
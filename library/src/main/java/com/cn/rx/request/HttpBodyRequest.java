@@ -4,12 +4,20 @@ import android.text.TextUtils;
 
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.cn.rx.func.RetryExceptionFunc;
+import com.cn.rx.func.StreamFunc;
+import com.cn.rx.transformer.HandleErrorTransformer;
+import com.cn.rx.util.RxUtil;
 import com.cn.rx.util.Util;
 
+import java.util.HashMap;
+
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.ByteString;
 
 @SuppressWarnings(value = {"unchecked", "deprecation"})
 public class HttpBodyRequest<R extends BaseRequest> extends BaseRequest<R> {
@@ -70,27 +78,78 @@ public class HttpBodyRequest<R extends BaseRequest> extends BaseRequest<R> {
         return (R) this;
     }
 
+    @Override
+    protected Object generateBodyKey() {
+        //JSON对象可能在请求过程中被修改，取序列化后的内容
+        return new ClientCache.Key(mRequestBody, mJsonStr,
+                mJsonObj != null ? mJsonObj.toJSONString() : null,
+                mJsonArr != null ? mJsonArr.toJSONString() : null,
+                mBytes != null ? ByteString.of(mBytes) : null,
+                mStr, mMediaType, mObject,
+                new HashMap<>(mHttpParams.getParamMap()));
+    }
+
     @Override
     protected Observable<ResponseBody> generateRequest() {
         if (mRequestBody != null) {
-            return mApiManager.postBody(mUrl, mRequestBody);
+            return mApiManager.postBody(mUrl, mRequestBody, mRequestHeaders);
         } else if (!TextUtils.isEmpty(mJsonStr)) {
-            return mApiManager.potJsonStr(mUrl, Util.createJson(mJsonStr));
+            return mApiManager.potJsonStr(mUrl, Util.createJson(mJsonStr), mRequestHeaders);
         } else if (mJsonObj != null) {
-            return mApiManager.postJson(mUrl, mJsonObj);
+            return mApiManager.postJson(mUrl, mJsonObj, mRequestHeaders);
         } else if (mJsonArr != null) {
-            return mApiManager.postJson(mUrl, mJsonArr);
+            return mApiManager.postJson(mUrl, mJsonArr, mRequestHeaders);
         } else if (!TextUtils.isEmpty(mStr)) {
             RequestBody requestBody = RequestBody.create(mMediaType, mStr);
-            return mApiManager.postBody(mUrl, requestBody);
+            return mApiManager.postBody(mUrl, requestBody, mRequestHeaders);
         } else if (mBytes != null) {
-            return mApiManager.postBody(mUrl, Util.createBytes(mBytes));
+            return mApiManager.postBody(mUrl, Util.createBytes(mBytes), mRequestHeaders);
         } else if (mObject != null) {
-            return mApiManager.postBody(mUrl, mObject);
+            return mApiManager.postBody(mUrl, mObject, mRequestHeaders);
         } else if (!mHttpParams.isParamsEmpty() && mHttpParams.isFilesEmpty()) {
-            return mApiManager.postMap(mUrl, mHttpParams.getParamMap());
+            return mApiManager.postMap(mUrl, mHttpParams.getParamMap(), mRequestHeaders);
         }  else {
-            return mApiManager.post(mUrl);
+            return mApiManager.post(mUrl, mRequestHeaders);
+        }
+    }
+
+    /**
+     * 响应中data数组的元素边下载边解析、逐个发送，下游处理不过来时暂停读取
+     * <p>
+     * 只在收到响应之前失败时重试，已经发送元素后重试会重复发送；在build之后调用
+     */
+    protected <T> Flowable<T> generateStream(StreamFunc<T> func) {
+        Flowable<T> flowable = generateStreamingRequest()
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
+                .firstOrError()
+                .flatMapPublisher(func);
+        return flowable.compose(isSyncRequest ? RxUtil.<T>_io_main_flowable(deliveryScheduler()) : RxUtil.<T>_main_flowable())
+                .compose(new HandleErrorTransformer<T>());
+    }
+
+    /**
+     * 与generateRequest相同，但响应体不预先读入内存
+     */
+    protected Observable<ResponseBody> generateStreamingRequest() {
+        if (mRequestBody != null) {
+            return mApiManager.postBodyStreaming(mUrl, mRequestBody, mRequestHeaders);
+        } else if (!TextUtils.isEmpty(mJsonStr)) {
+            return mApiManager.postJsonStrStreaming(mUrl, Util.createJson(mJsonStr), mRequestHeaders);
+        } else if (mJsonObj != null) {
+            return mApiManager.postJsonStreaming(mUrl, mJsonObj, mRequestHeaders);
+        } else if (mJsonArr != null) {
+            return mApiManager.postJsonStreaming(mUrl, mJsonArr, mRequestHeaders);
+        } else if (!TextUtils.isEmpty(mStr)) {
+            RequestBody requestBody = RequestBody.create(mMediaType, mStr);
+            return mApiManager.postBodyStreaming(mUrl, requestBody, mRequestHeaders);
+        } else if (mBytes != null) {
+            return mApiManager.postBodyStreaming(mUrl, Util.createBytes(mBytes), mRequestHeaders);
+        } else if (mObject != null) {
+            return mApiManager.postBodyStreaming(mUrl, mObject, mRequestHeaders);
+        } else if (!mHttpParams.isParamsEmpty() && mHttpParams.isFilesEmpty()) {
+            return mApiManager.postMapStreaming(mUrl, mHttpParams.getParamMap(), mRequestHeaders);
+        } else {
+            return mApiManager.postStreaming(mUrl, mRequestHeaders);
         }
     }
 
@@ -0,0 +1,98 @@
+package com.cn.rx.request;
+
+import com.cn.rx.entity.PreconnectResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 预先建立到指定域名的连接
+ * <p>
+ * 对每个域名发送一个HEAD请求完成DNS、TCP和TLS握手，响应关闭后连接留在连接池中。
+ * 使用的OkHttpClient由全局OkHttpClient派生，共用连接池和SSL配置，
+ * 之后未单独设置connectionPool的请求都能直接复用这些连接
+ */
+public final class Preconnector {
+
+    private Preconnector() {
+    }
+
+    /**
+     * 在io线程并行预连接，每个域名（协议+域名+端口）只连接一次，逐个返回结果
+     *
+     * @param client 全局OkHttpClient
+     * @param urls   需要预连接的地址
+     */
+    public static Observable<PreconnectResult> preconnect(OkHttpClient client, String... urls) {
+        //不经过签名、日志等拦截器，也不读写缓存
+        OkHttpClient.Builder builder = client.newBuilder()
+                .cache(null)
+                .followRedirects(false)
+                .followSslRedirects(false);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        final OkHttpClient preconnectClient = builder.build();
+
+        Map<String, HttpUrl> hosts = new LinkedHashMap<>();
+        final List<PreconnectResult> invalid = new ArrayList<>();
+        for (String url : urls) {
+            HttpUrl httpUrl = url != null ? HttpUrl.parse(url) : null;
+            if (httpUrl == null) {
+                invalid.add(new PreconnectResult(url, null, false, 0, null, new IllegalArgumentException("invalid url: " + url)));
+                continue;
+            }
+            String key = httpUrl.scheme() + "://" + httpUrl.host() + ":" + httpUrl.port();
+            if (!hosts.containsKey(key)) {
+                hosts.put(key, httpUrl.newBuilder().encodedPath("/").query(null).fragment(null).build());
+            }
+        }
+        return Observable.fromIterable(hosts.values())
+                .flatMap(new Function<HttpUrl, ObservableSource<PreconnectResult>>() {
+                    @Override
+                    public ObservableSource<PreconnectResult> apply(final HttpUrl url) throws Exception {
+                        return Observable.fromCallable(new Callable<PreconnectResult>() {
+                            @Override
+                            public PreconnectResult call() throws Exception {
+                                return connect(preconnectClient, url);
+                            }
+                        }).subscribeOn(Schedulers.io());
+                    }
+                })
+                .startWith(invalid);
+    }
+
+    private static PreconnectResult connect(OkHttpClient client, HttpUrl url) {
+        long start = System.nanoTime();
+        Request request = new Request.Builder().url(url).head().build();
+        PreconnectResult result;
+        Response response = null;
+        try {
+            response = client.newCall(request).execute();
+            result = new PreconnectResult(url.toString(), url.host(), true, elapsed(start), response.protocol(), null);
+        } catch (Exception e) {
+            result = new PreconnectResult(url.toString(), url.host(), false, elapsed(start), null, e);
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+        return result;
+    }
+
+    private static long elapsed(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,61 @@
+package com.cn.rx.request;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.functions.Action;
+
+/**
+ * 合并相同的进行中请求
+ * <p>
+ * 相同的请求（地址、参数、请求头、解析类型都相同）在前一个请求结束前再次发起时，不再重复访问网络，
+ * 而是共享前一个请求解析后的结果（同一个对象，订阅者不应修改）；所有订阅者都取消后才会取消真正的请求，
+ * 请求结束或取消后立即移除
+ */
+@SuppressWarnings("unchecked")
+public final class RequestCoalescer {
+
+    private final ConcurrentHashMap<Object, Flight<?>> mInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 订阅时如果有相同key的请求正在进行则共享其结果，否则执行source并登记
+     */
+    public <T> Observable<T> coalesce(final Object key, final Observable<T> source) {
+        return Observable.defer(new Callable<ObservableSource<T>>() {
+            @Override
+            public ObservableSource<T> call() throws Exception {
+                Flight<T> flight = new Flight<>(key, source);
+                Flight<?> existing = mInFlight.putIfAbsent(key, flight);
+                return existing != null ? (Observable<T>) existing.shared : flight.shared;
+            }
+        });
+    }
+
+    /**
+     * 当前正在进行的合并请求数
+     */
+    public int size() {
+        return mInFlight.size();
+    }
+
+    private final class Flight<T> implements Action {
+        final Object key;
+        final Observable<T> shared;
+
+        Flight(Object key, Observable<T> source) {
+            this.key = key;
+            //先移除再下发结束事件，订阅者在回调中重新发起请求时不会拿到已结束的请求
+            this.shared = source.doOnTerminate(this)
+                    .doOnDispose(this)
+                    .replay(1)
+                    .refCount();
+        }
+
+        @Override
+        public void run() throws Exception {
+            mInFlight.remove(key, this);
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.cn.rx.request;
+
+import android.content.Context;
+
+import com.cn.rx.ApiManager;
+import com.cn.rx.callback.DownloadProgressCallBack;
+import com.cn.rx.subscriber.RxDownloadSubscriber;
+import com.cn.rx.util.LogUtil;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okhttp3.internal.Util;
+import okio.Buffer;
+import okio.BufferedSource;
+import retrofit2.Call;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * 多连接分段下载
+ * <p>
+ * 先用HEAD获取文件大小和Accept-Ranges，支持Range时预先分配文件，每个连接下载一段并按位置写入FileChannel；
+ * 不支持时退回到单连接顺序写入。开始时使用两个连接，每次增加连接后比较总速度，提升不到10%就不再增加；
+ * 有连接空闲时，把预计剩余时间最长的一段从中间拆开交给空闲的连接。
+ * 每段出错后从已下载的位置单独重试，If-Range保证服务器上的文件变化时不会拼接出错误的内容
+ */
+final class SegmentedDownloader {
+
+    private static final int READ_SIZE = 64 * 1024;
+    private static final long SAMPLE_MILLIS = 300;      //统计速度、回调进度的间隔
+    private static final int INITIAL_CONNECTIONS = 2;
+    private static final float MIN_GAIN = 1.1F;         //增加连接后总速度至少提升10%
+    private static final int SETTLE_SAMPLES = 2;        //增加连接后等待的统计次数，跳过建立连接的时间
+
+    private final ApiManager apiManager;
+    private final String url;
+    private final Map<String, String> headers;
+    private final Context context;
+    private final String savePath;
+    private final String saveName;
+    private final int maxConnections;
+    private final long minSegmentSize;
+    private final int retryCount;
+    private final long retryDelay;
+    private final long retryIncreaseDelay;
+    private final Object tag;
+    private final DownloadProgressCallBack callback;
+    private final Scheduler deliveryScheduler;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final AtomicLong downloaded = new AtomicLong();
+    private FileChannel channel;
+    private long length = -1;
+    private boolean ranged;
+    private String validator;                           //If-Range使用的ETag或Last-Modified
+    private Call<Void> probeCall;
+    private volatile boolean cancelled;
+    private Throwable error;
+    private int running;
+    private int connectionLimit;
+
+    //速度统计，都在持有锁时访问
+    private long sampleTime;
+    private long sampleBytes;
+    private float baseline;
+    private int settle;
+    private boolean growing = true;
+    private long reportedBytes = -1;
+
+    SegmentedDownloader(ApiManager apiManager, String url, Map<String, String> headers, Context context,
+                        String savePath, String saveName, int maxConnections, long minSegmentSize,
+                        int retryCount, long retryDelay, long retryIncreaseDelay,
+                        Object tag, DownloadProgressCallBack callback, Scheduler deliveryScheduler) {
+        this.apiManager = apiManager;
+        this.url = url;
+        this.headers = headers;
+        this.context = context;
+        this.savePath = savePath;
+        this.saveName = saveName;
+        this.maxConnections = maxConnections;
+        this.minSegmentSize = minSegmentSize;
+        this.retryCount = retryCount;
+        this.retryDelay = retryDelay;
+        this.retryIncreaseDelay = retryIncreaseDelay;
+        this.tag = tag;
+        this.callback = callback;
+        this.deliveryScheduler = deliveryScheduler;
+    }
+
+    /**
+     * 在当前线程等待下载完成，返回文件路径；被取消时返回null
+     */
+    String download() throws Exception {
+        MediaType mediaType = probe();
+        if (cancelled) {
+            return null;
+        }
+        File target = RxDownloadSubscriber.resolveFile(context, url, savePath, saveName, mediaType);
+        File parent = target.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("can not create " + parent);
+        }
+        File temp = new File(target.getPath() + ".download");
+        RandomAccessFile file = new RandomAccessFile(temp, "rw");
+        boolean success = false;
+        try {
+            channel = file.getChannel();
+            synchronized (this) {
+                if (ranged) {
+                    file.setLength(length);
+                    int count = (int) Math.min(Math.min(INITIAL_CONNECTIONS, maxConnections), length / minSegmentSize);
+                    long size = length / count;
+                    for (int i = 0; i < count; i++) {
+                        segments.add(new Segment(i * size, i == count - 1 ? length : (i + 1) * size));
+                    }
+                    connectionLimit = count;
+                } else {
+                    file.setLength(0);
+                    segments.add(new Segment(0, Long.MAX_VALUE));
+                    connectionLimit = 1;
+                }
+                for (Segment segment : segments) {
+                    start(segment);
+                }
+                sampleTime = System.currentTimeMillis();
+                while (error == null && !cancelled && running > 0) {
+                    long wait = sampleTime + SAMPLE_MILLIS - System.currentTimeMillis();
+                    if (wait > 0) {
+                        wait(wait);
+                    } else {
+                        sample();
+                    }
+                }
+                if (cancelled) {
+                    return null;
+                }
+                if (error != null) {
+                    //其他连接不再重试，文件关闭后不会再写入
+                    cancelled = true;
+                    cancelCalls();
+                    if (error instanceof Exception) {
+                        throw (Exception) error;
+                    }
+                    throw (Error) error;
+                }
+                if (!ranged) {
+                    channel.truncate(segments.get(0).position);
+                }
+                report();
+            }
+            file.close();
+            if (target.exists() && !target.delete()) {
+                throw new IOException("can not delete " + target);
+            }
+            if (!temp.renameTo(target)) {
+                throw new IOException("can not rename " + temp + " to " + target);
+            }
+            success = true;
+            return target.getPath();
+        } finally {
+            Util.closeQuietly(file);
+            if (!success) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * 取消所有连接，正在下载的线程结束后不再回调
+     */
+    void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            if (probeCall != null) {
+                probeCall.cancel();
+            }
+            cancelCalls();
+            notifyAll();
+        }
+    }
+
+    /**
+     * 获取文件大小、是否支持Range以及验证文件未变化的ETag/Last-Modified
+     */
+    private MediaType probe() throws IOException {
+        Map<String, String> probeHeaders = new HashMap<>(headers);
+        //避免OkHttp请求gzip后得到压缩后的长度
+        probeHeaders.put("Accept-Encoding", "identity");
+        Call<Void> call = apiManager.head(url, probeHeaders);
+        synchronized (this) {
+            if (cancelled) {
+                return null;
+            }
+            probeCall = call;
+        }
+        Response<Void> response;
+        try {
+            response = call.execute();
+        } catch (IOException e) {
+            if (cancelled) {
+                return null;
+            }
+            throw e;
+        }
+        if (!response.isSuccessful()) {
+            //不支持HEAD时按单连接下载
+            LogUtil.i("download", "HEAD failed: " + response.code());
+            return null;
+        }
+        length = parseLong(response.headers().get("Content-Length"));
+        String etag = response.headers().get("ETag");
+        validator = etag != null && !etag.startsWith("W/") ? etag : response.headers().get("Last-Modified");
+        ranged = "bytes".equalsIgnoreCase(response.headers().get("Accept-Ranges"))
+                && length >= 2 * minSegmentSize && maxConnections > 1;
+        String contentType = response.headers().get("Content-Type");
+        return contentType != null ? MediaType.parse(contentType) : null;
+    }
+
+    private void start(final Segment segment) {
+        running++;
+        Schedulers.io().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                download(segment);
+            }
+        });
+    }
+
+    private void download(Segment segment) {
+        int retry = 0;
+        Throwable failure = null;
+        while (!stopped()) {
+            try {
+                fetch(segment);
+                break;
+            } catch (Throwable e) {
+                if (stopped()) {
+                    break;
+                }
+                if (e instanceof IOException && retry < retryCount) {
+                    retry++;
+                    LogUtil.i("download", "segment " + segment.start + " retry " + retry + ": " + e);
+                    if (!ranged) {
+                        //不支持Range只能从头开始
+                        downloaded.addAndGet(-segment.position);
+                        synchronized (this) {
+                            segment.position = 0;
+                        }
+                    }
+                    try {
+                        Thread.sleep(retryDelay + (retry - 1) * retryIncreaseDelay);
+                    } catch (InterruptedException interrupted) {
+                        failure = interrupted;
+                        break;
+                    }
+                    continue;
+                }
+                failure = e;
+                break;
+            }
+        }
+        synchronized (this) {
+            segment.call = null;
+            segment.done = true;
+            running--;
+            if (failure != null && error == null) {
+                error = failure;
+            }
+            if (error == null && !cancelled) {
+                //把剩余时间最长的一段拆给空出来的连接
+                fillConnections();
+            }
+            notifyAll();
+        }
+    }
+
+    private void fetch(Segment segment) throws IOException {
+        Map<String, String> rangeHeaders = new HashMap<>(headers);
+        long position;
+        synchronized (this) {
+            position = segment.position;
+            if (position >= segment.end) {
+                return;
+            }
+            if (ranged) {
+                rangeHeaders.put("Range", "bytes=" + position + "-" + (segment.end - 1));
+                if (validator != null) {
+                    rangeHeaders.put("If-Range", validator);
+                }
+            }
+        }
+        Call<ResponseBody> call = apiManager.downloadRange(url, rangeHeaders);
+        synchronized (this) {
+            if (cancelled || error != null) {
+                return;
+            }
+            segment.call = call;
+        }
+        Response<ResponseBody> response = call.execute();
+        if (!response.isSuccessful()) {
+            Util.closeQuietly(response.errorBody());
+            throw new HttpException(response);
+        }
+        ResponseBody body = response.body();
+        try {
+            String contentRange = response.headers().get("Content-Range");
+            if (ranged && (response.code() != 206 || contentRange == null || !contentRange.startsWith("bytes " + position + "-"))) {
+                //If-Range不匹配时服务器返回完整的新文件
+                throw new IllegalStateException("file changed on server while downloading: " + url);
+            }
+            BufferedSource source = body.source();
+            Buffer buffer = new Buffer();
+            ByteBuffer byteBuffer = ByteBuffer.allocateDirect(READ_SIZE);
+            while (true) {
+                long toRead;
+                synchronized (this) {
+                    //end可能已被拆分缩短，只读到当前的end
+                    toRead = Math.min(READ_SIZE, segment.end - position);
+                    segment.reserved = position + toRead;
+                }
+                if (toRead <= 0) {
+                    break;
+                }
+                long read = source.read(buffer, toRead);
+                if (read == -1) {
+                    if (ranged) {
+                        throw new EOFException("unexpected end of segment " + segment.start);
+                    }
+                    break;
+                }
+                while (buffer.size() > 0) {
+                    byteBuffer.clear();
+                    buffer.read(byteBuffer);
+                    byteBuffer.flip();
+                    while (byteBuffer.hasRemaining()) {
+                        position += channel.write(byteBuffer, position);
+                    }
+                }
+                synchronized (this) {
+                    segment.position = position;
+                }
+                downloaded.addAndGet(read);
+            }
+        } finally {
+            Util.closeQuietly(body);
+        }
+    }
+
+    /**
+     * 统计速度并回调进度，决定是否增加连接
+     */
+    private void sample() {
+        long now = System.currentTimeMillis();
+        long elapsed = Math.max(1, now - sampleTime);
+        long bytes = downloaded.get();
+        float speed = (bytes - sampleBytes) / (float) elapsed;
+        for (Segment segment : segments) {
+            segment.speed = (segment.position - segment.sampledPosition) / (float) elapsed;
+            segment.sampledPosition = segment.position;
+        }
+        sampleTime = now;
+        sampleBytes = bytes;
+        report();
+        if (!ranged || !growing) {
+            return;
+        }
+        if (settle > 0) {
+            settle--;
+            return;
+        }
+        if (baseline > 0 && speed <= baseline * MIN_GAIN) {
+            //再增加连接也不会更快，可能受限于带宽或服务器
+            growing = false;
+            return;
+        }
+        baseline = speed;
+        if (connectionLimit >= maxConnections) {
+            growing = false;
+            return;
+        }
+        connectionLimit++;
+        settle = SETTLE_SAMPLES;
+        fillConnections();
+    }
+
+    /**
+     * 连接数未达到上限时，拆分预计剩余时间最长的一段
+     */
+    private void fillConnections() {
+        while (ranged && running < connectionLimit) {
+            Segment slowest = null;
+            float longest = -1;
+            for (Segment segment : segments) {
+                long remaining = segment.end - Math.max(segment.position, segment.reserved);
+                if (segment.done || remaining < 2 * minSegmentSize) {
+                    continue;
+                }
+                float time = remaining / Math.max(segment.speed, 0.001F);
+                if (time > longest) {
+                    longest = time;
+                    slowest = segment;
+                }
+            }
+            if (slowest == null) {
+                return;
+            }
+            long from = Math.max(slowest.position, slowest.reserved);
+            long middle = from + (slowest.end - from) / 2;
+            Segment segment = new Segment(middle, slowest.end);
+            segment.speed = slowest.speed;
+            slowest.end = middle;
+            segments.add(segment);
+            start(segment);
+        }
+    }
+
+    private void report() {
+        final long bytes = downloaded.get();
+        if (callback == null || bytes == reportedBytes) {
+            return;
+        }
+        reportedBytes = bytes;
+        final long total = length;
+        final float progress = total > 0 ? Math.min(100F, bytes * 100F / total) : 100;
+        deliveryScheduler.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                callback.onProgress(tag, bytes, total, progress);
+            }
+        });
+    }
+
+    /**
+     * 已取消或其他连接已经出错，不再继续下载和重试
+     */
+    private synchronized boolean stopped() {
+        return cancelled || error != null;
+    }
+
+    private void cancelCalls() {
+        for (Segment segment : segments) {
+            if (segment.call != null) {
+                segment.call.cancel();
+            }
+        }
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * [start, end)中的一段，position之前的已写入文件；除position外的字段在持有锁时访问
+     */
+    private static final class Segment {
+        final long start;
+        volatile long position;
+        long end;
+        long reserved;                  //正在读取的范围的结尾，拆分时不能早于这里
+        boolean done;
+        Call<ResponseBody> call;
+        long sampledPosition;
+        float speed;                    //bytes/ms
+
+        Segment(long start, long end) {
+            this.start = start;
+            this.position = start;
+            this.end = end;
+            this.sampledPosition = start;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.cn.rx.request;
 
 
+import com.cn.rx.RxHttp;
 import com.cn.rx.callback.ResponseCallback;
 import com.cn.rx.callback.ResponseClazzCallback;
+import com.cn.rx.config.ResultConfigLoader;
 import com.cn.rx.func.RetryExceptionFunc;
+import com.cn.rx.func.StreamFunc;
 import com.cn.rx.subscriber.RxCallbackSubscriber;
 import com.cn.rx.transformer.HandleClazzBodyTransformer;
 import com.cn.rx.transformer.HandleErrorTransformer;
@@ -12,6 +15,7 @@ import com.cn.rx.util.RxUtil;
 
 import java.lang.reflect.Type;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 import okhttp3.ResponseBody;
@@ -24,46 +28,59 @@ public class TemplatePostRequest extends HttpBodyRequest<TemplatePostRequest> {
     }
 
     public <T> Observable<T> execute(Type type) {
-        return build().generateRequest()
-                .compose(isSyncRequest ? RxUtil._io_main() : RxUtil._main())
+        Observable<T> observable = build().generateRequest()
+                .compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
                 .compose(new HandleErrorTransformer())
                 .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
                 .compose(new HandleClazzBodyTransformer(type, null));
+        return coalesce(observable, type);
     }
 
     public <T> Observable<T> execute(Class<T> clazz) {
-        return build().generateRequest()
-                .compose(isSyncRequest ? RxUtil._io_main() : RxUtil._main())
+        Observable<T> observable = build().generateRequest()
+                .compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
                 .compose(new HandleErrorTransformer())
                 .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
                 .compose(new HandleClazzBodyTransformer(clazz, null));
+        return coalesce(observable, clazz);
+    }
+
+    /**
+     * 按请求地址对应的ResultConfigLoader配置读取，data为数组（或分页对象中的数组）时逐个发送其中的元素；
+     * code不是配置的成功状态码时发送ServerException
+     */
+    public <T> Flowable<T> executeStream(Class<T> clazz) {
+        ResultConfigLoader.lazyInit(RxHttp.getInstance().getContext());
+        return build().generateStream(new StreamFunc<T>(clazz, true, requestUrl()));
     }
 
     public <T> Observable<T> execute(Type type, ResponseClazzCallback callback) {
-        return build().generateRequest()
-                .compose(isSyncRequest ? RxUtil._io_main() : RxUtil._main())
+        Observable<T> observable = build().generateRequest()
+                .compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
                 .compose(new HandleErrorTransformer())
                 .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
-                .compose(new HandleClazzBodyTransformer(type, callback));
+                .compose(new HandleClazzBodyTransformer(type, callback, requestUrl()));
+        return coalesce(observable, type, callback != null ? new ClientCache.Identity(callback) : null);
     }
 
     public <T> Observable<T> execute(Class<T> clazz, ResponseClazzCallback callback) {
-        return build().generateRequest()
-                .compose(isSyncRequest ? RxUtil._io_main() : RxUtil._main())
+        Observable<T> observable = build().generateRequest()
+                .compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
                 .compose(new HandleErrorTransformer())
                 .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
-                .compose(new HandleClazzBodyTransformer(clazz, callback));
+                .compose(new HandleClazzBodyTransformer(clazz, callback, requestUrl()));
+        return coalesce(observable, clazz, callback != null ? new ClientCache.Identity(callback) : null);
     }
 
     public <T> Disposable execute(final Object tag, final ResponseCallback<T> callback) {
         Observable<ResponseBody> observable = build().generateObservable(generateRequest());
-        return observable.compose(new HandleResponseBodyTransformer<T>(callback, tag))
+        return observable.compose(new HandleResponseBodyTransformer<T>(callback, tag, requestUrl()))
                 .compose(new HandleErrorTransformer<T>())
                 .subscribeWith(new RxCallbackSubscriber<T>(mContext, tag, callback));
     }
 
     private Observable<ResponseBody> generateObservable(Observable observable) {
-        return observable.compose(isSyncRequest ? RxUtil._io_main() : RxUtil._main())
+        return observable.compose(isSyncRequest ? RxUtil._io_main(deliveryScheduler()) : RxUtil._main())
                 .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
     }
 
@@ -0,0 +1,100 @@
+package com.cn.rx.request;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import okio.ByteString;
+
+/**
+ * 分片上传的完成状态，保存在磁盘上，进程被杀后可以继续上传
+ * <p>
+ * 每个分片占状态文件的一个字节，完成后写入1，只改写这一个字节；
+ * 文件名由请求地址、文件路径、大小、修改时间和分片大小计算，文件变化后不会沿用旧状态
+ */
+final class UploadChunkState {
+
+    private final File stateFile;
+    private final String uploadId;
+    private final int chunkCount;
+    private final boolean[] done;
+    private RandomAccessFile raf;
+
+    private UploadChunkState(File stateFile, String uploadId, int chunkCount) {
+        this.stateFile = stateFile;
+        this.uploadId = uploadId;
+        this.chunkCount = chunkCount;
+        this.done = new boolean[chunkCount];
+    }
+
+    /**
+     * 读取已有状态，没有或不匹配时新建
+     */
+    static UploadChunkState open(File dir, String url, File file, long chunkSize) throws IOException {
+        String uploadId = ByteString.encodeUtf8(url + '\n' + file.getAbsolutePath() + '\n' + file.length()
+                + '\n' + file.lastModified() + '\n' + chunkSize).md5().hex();
+        long count = Math.max(1, (file.length() + chunkSize - 1) / chunkSize);
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("chunkSize is too small");
+        }
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("can not create " + dir);
+        }
+        UploadChunkState state = new UploadChunkState(new File(dir, uploadId + ".chunks"), uploadId, (int) count);
+        state.load();
+        return state;
+    }
+
+    private void load() throws IOException {
+        raf = new RandomAccessFile(stateFile, "rw");
+        if (raf.length() != chunkCount) {
+            raf.setLength(0);
+            raf.setLength(chunkCount);
+            return;
+        }
+        byte[] bytes = new byte[chunkCount];
+        raf.readFully(bytes);
+        for (int i = 0; i < chunkCount; i++) {
+            done[i] = bytes[i] == 1;
+        }
+    }
+
+    String getUploadId() {
+        return uploadId;
+    }
+
+    int getChunkCount() {
+        return chunkCount;
+    }
+
+    synchronized boolean isDone(int index) {
+        return done[index];
+    }
+
+    synchronized void markDone(int index) throws IOException {
+        if (done[index]) {
+            return;
+        }
+        done[index] = true;
+        if (raf == null) {
+            return;
+        }
+        raf.seek(index);
+        raf.write(1);
+    }
+
+    /**
+     * 全部完成后删除状态文件
+     */
+    synchronized void delete() {
+        close();
+        stateFile.delete();
+    }
+
+    synchronized void close() {
+        if (raf != null) {
+            okhttp3.internal.Util.closeQuietly(raf);
+            raf = null;
+        }
+    }
+}
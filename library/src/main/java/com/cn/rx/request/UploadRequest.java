@@ -3,6 +3,10 @@ package com.cn.rx.request;
 import android.text.TextUtils;
 
 
+import com.cn.rx.body.FileRequestBody;
+import com.cn.rx.body.InputStreamRequestBody;
+import com.cn.rx.body.ProgressReporter;
+import com.cn.rx.body.ProgressRequestBody;
 import com.cn.rx.callback.ResultCallback;
 import com.cn.rx.callback.ResultCallbackProxy;
 import com.cn.rx.callback.ResultClazzCallProxy;
@@ -10,37 +14,61 @@ import com.cn.rx.callback.ResultProgressCallback;
 import com.cn.rx.config.UploadFileType;
 import com.cn.rx.entity.ApiResultEntity;
 import com.cn.rx.entity.FileEntity;
+import com.cn.rx.entity.UploadResult;
+import com.cn.rx.exception.ExceptionFactory;
 import com.cn.rx.func.ApiResultFunc;
+import com.cn.rx.func.HandleResultFunc;
 import com.cn.rx.func.RetryExceptionFunc;
-import com.cn.rx.interceptor.ProgressRequestInterceptor;
 import com.cn.rx.subscriber.ResultCallbackSubscriber;
 import com.cn.rx.util.RxUtil;
 import com.cn.rx.util.Util;
 
+import org.reactivestreams.Publisher;
+
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Single;
+import io.reactivex.SingleSource;
+import io.reactivex.annotations.NonNull;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
-import okio.BufferedSink;
-import okio.Okio;
-import okio.Source;
 
 @SuppressWarnings(value = {"unchecked", "deprecation"})
 public class UploadRequest extends HttpBodyRequest<UploadRequest> {
 
+    /**
+     * 分片上传时每个分片请求附带的字段
+     */
+    public static final String CHUNK_UPLOAD_ID = "uploadId";
+    public static final String CHUNK_INDEX = "chunkIndex";
+    public static final String CHUNK_COUNT = "chunkCount";
+    public static final String CHUNK_SIZE = "chunkSize";
+    public static final String CHUNK_FILE_SIZE = "fileSize";
+
     private RequestBody mRequestBody;
     private UploadFileType mUploadType;
+    private long mChunkSize;                                          //分片大小，0为不分片
+    private int mChunkConcurrency;                                    //同时上传的分片数
+    private File mChunkStateDir;                                      //分片完成状态的保存目录
+    private long mStreamReplayLimit = -1;                             //InputStream重放时内存中保存的大小，-1为不重放
+    private final List<InputStreamRequestBody> mStreamBodies = new ArrayList<>();
 
     public UploadRequest(String url) {
         super(url);
@@ -67,7 +95,7 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
     }
 
     public UploadRequest addFileParams(String key, List<File> files) {
-        if (TextUtils.isEmpty(key) && files != null && !files.isEmpty()) {
+        if (!TextUtils.isEmpty(key) && files != null && !files.isEmpty()) {
             for (File file : files) {
                 params(key, file);
             }
@@ -95,18 +123,71 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
         return this;
     }
 
+    /**
+     * 分片上传：文件按chunkSize切分，最多concurrency个分片同时上传
+     * <p>
+     * 每个分片是一个multipart请求，包含普通参数、文件的这一段和{@link #CHUNK_UPLOAD_ID}等字段，
+     * 服务端按uploadId和chunkIndex合并；每个分片单独重试。
+     * 完成的分片记录在磁盘上，重新执行相同的请求（地址、文件不变）时跳过，
+     * 全部完成后每个文件回调一次最后完成的分片的结果。只支持File
+     *
+     * @param chunkSize   分片大小
+     * @param concurrency 同时上传的分片数
+     */
+    public UploadRequest chunked(long chunkSize, int concurrency) {
+        if (chunkSize <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("chunkSize and concurrency must > 0");
+        }
+        this.mChunkSize = chunkSize;
+        this.mChunkConcurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * 分片完成状态的保存目录，默认为缓存目录下的rxhttp_upload
+     */
+    public UploadRequest chunkStateDir(File dir) {
+        this.mChunkStateDir = Util.checkNotNull(dir, "dir == null");
+        return this;
+    }
+
+    /**
+     * InputStream参数支持重试：发送时记录读到的数据，memoryLimit以内保存在内存中，超出部分写入缓存目录的临时文件，
+     * 重试时重放记录的数据；不设置时InputStream只能发送一次，重试会失败
+     */
+    public UploadRequest replayStreams(long memoryLimit) {
+        if (memoryLimit < 0) {
+            throw new IllegalArgumentException("memoryLimit must >= 0");
+        }
+        this.mStreamReplayLimit = memoryLimit;
+        return this;
+    }
+
     @Override
     protected Observable<ResponseBody> generateRequest() {
+        return generateRequest(null, null);
+    }
+
+    /**
+     * 进度在请求体上统计而不是加拦截器，拦截器会进入ClientCache的key，每次上传都要新建OkHttpClient
+     *
+     * @param callback 进度回调，可以为null
+     */
+    private Observable<ResponseBody> generateRequest(ResultProgressCallback callback, Object tag) {
         Util.checkNotNull(mUploadType, "UploadType is null");
-        if (mUploadType == UploadFileType.BODY_MAP) {
-            return uploadFilesWithBodyMap();
-        } else if (mUploadType == UploadFileType.PART_FROM) {
-            return uploadFilesWithPartList();
-        } else if (mUploadType == UploadFileType.PART_MAP) {
-            return uploadFilesWithPartMap();
-        } else {
-            return mApiManager.postBody(mUrl, mRequestBody);
+        if (mUploadType == UploadFileType.BODY_MAP || mUploadType == UploadFileType.PART_FROM
+                || mUploadType == UploadFileType.PART_MAP) {
+            //所有文件共用一个进度
+            ProgressReporter reporter = callback == null ? null : new ProgressReporter(callback, totalFileLength(), tag);
+            if (mUploadType == UploadFileType.BODY_MAP) {
+                return uploadFilesWithBodyMap(reporter);
+            } else if (mUploadType == UploadFileType.PART_FROM) {
+                return uploadFilesWithPartList(reporter);
+            }
+            return uploadFilesWithPartMap(reporter);
         }
+        RequestBody body = callback == null ? mRequestBody : new ProgressRequestBody(mRequestBody, callback, tag);
+        return mApiManager.postBody(mUrl, body, mRequestHeaders);
     }
 
 
@@ -121,11 +202,36 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
     }
 
     private <T> Observable<T> execute(ResultClazzCallProxy<? extends ApiResultEntity<T>, T> proxy, ResultProgressCallback<T> callback) {
-        return addInterceptor(new ProgressRequestInterceptor(null, callback)).
-                build().generateRequest()
+        if (mChunkSize > 0) {
+            return build().generateChunked(proxy.getType(), null, callback);
+        }
+        return build().generateRequest(callback, null)
                 .map(new ApiResultFunc(proxy.getType()))
-                .compose(isSyncRequest ? RxUtil._io_main_result() : RxUtil._main_result())
-                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+                .compose(isSyncRequest ? RxUtil._io_main_result(deliveryScheduler()) : RxUtil._main_result())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
+                .doFinally(new Action() {
+                    @Override
+                    public void run() throws Exception {
+                        releaseStreams();
+                    }
+                });
+    }
+
+    /**
+     * 批量上传：每个文件单独一个multipart请求（带上普通参数），最多concurrency个同时上传，每个文件单独重试
+     * <p>
+     * 一个文件失败不影响其他文件，按完成顺序发送每个文件的{@link UploadResult}；
+     * 进度按所有文件的总大小汇总，失败的文件从总大小中去掉，有长度未知的InputStream时进度为-1
+     *
+     * @param callback 汇总的进度，可以为null
+     */
+    public <T> Flowable<UploadResult<T>> executeBatch(Class<T> clazz, int concurrency, ResultProgressCallback<?> callback) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must > 0");
+        }
+        Type type = new ResultClazzCallProxy<ApiResultEntity<T>, T>(clazz) {
+        }.getType();
+        return build().generateBatch(type, concurrency, callback);
     }
 
     public <T> Disposable execute(Object tag, ResultCallback<T> callback) {
@@ -134,26 +240,267 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
 
     public <T> Disposable execute(Object tag, ResultCallbackProxy<? extends ApiResultEntity<T>, T> proxy) {
         ResultCallback<T> callback = proxy.getCallback();
-        if (callback instanceof ResultProgressCallback) {
-            addInterceptor(new ProgressRequestInterceptor(tag, (ResultProgressCallback) proxy.getCallback()));
+        if (mChunkSize > 0) {
+            ResultProgressCallback progressCallback = callback instanceof ResultProgressCallback ? (ResultProgressCallback) callback : null;
+            Observable<T> observable = build().generateChunked(proxy.getType(), tag, progressCallback);
+            return observable.subscribeWith(new ResultCallbackSubscriber<>(tag, callback));
         }
-        Observable<T> observable = build().generateObservable(generateRequest(), proxy);
+        ResultProgressCallback progressCallback = callback instanceof ResultProgressCallback ? (ResultProgressCallback) callback : null;
+        Observable<T> observable = build().generateObservable(generateRequest(progressCallback, tag), proxy);
         return observable.subscribeWith(new ResultCallbackSubscriber<>(tag, proxy.getCallback()));
     }
 
     protected  <T> Observable<T> generateObservable(Observable observable, ResultCallbackProxy<? extends ApiResultEntity<T>, T> proxy) {
         return observable.map(new ApiResultFunc(proxy.getType()))
-                .compose(isSyncRequest ? RxUtil._io_main_result() : RxUtil._main_result())
-                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay));
+                .compose(isSyncRequest ? RxUtil._io_main_result(deliveryScheduler()) : RxUtil._main_result())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
+                .doFinally(new Action() {
+                    @Override
+                    public void run() throws Exception {
+                        releaseStreams();
+                    }
+                });
+    }
+
+
+    /**
+     * 分片上传，进度按所有文件的总大小汇总，已完成的分片直接计入
+     */
+    private <T> Observable<T> generateChunked(final Type type, final Object tag, final ResultProgressCallback callback) {
+        return Observable.defer(new Callable<ObservableSource<T>>() {
+            @Override
+            public ObservableSource<T> call() throws Exception {
+                File stateDir = mChunkStateDir != null ? mChunkStateDir : new File(mContext.getCacheDir(), "rxhttp_upload");
+                final List<ChunkedFile> files = new ArrayList<>();
+                List<Chunk> chunks = new ArrayList<>();
+                long total = 0;
+                long uploaded = 0;
+                try {
+                    for (Map.Entry<String, List<FileEntity>> entry : mHttpParams.getFileMap().entrySet()) {
+                        for (FileEntity entity : entry.getValue()) {
+                            if (!(entity.getData() instanceof File)) {
+                                throw new IllegalArgumentException("chunked upload only supports File");
+                            }
+                            File file = (File) entity.getData();
+                            ChunkedFile chunkedFile = new ChunkedFile(entry.getKey(), entity, file,
+                                    UploadChunkState.open(stateDir, mUrl, file, mChunkSize));
+                            files.add(chunkedFile);
+                            total += chunkedFile.length;
+                            int count = chunkedFile.state.getChunkCount();
+                            int pending = 0;
+                            for (int i = 0; i < count; i++) {
+                                if (chunkedFile.state.isDone(i)) {
+                                    uploaded += chunkedFile.chunkLength(i, mChunkSize);
+                                } else {
+                                    chunks.add(new Chunk(chunkedFile, i));
+                                    pending++;
+                                }
+                            }
+                            if (pending == 0) {
+                                //上次已全部完成但没有拿到结果，重新发送最后一个分片
+                                uploaded -= chunkedFile.chunkLength(count - 1, mChunkSize);
+                                chunks.add(new Chunk(chunkedFile, count - 1));
+                                pending = 1;
+                            }
+                            chunkedFile.remaining.set(pending);
+                        }
+                    }
+                } catch (Exception e) {
+                    closeAll(files);
+                    throw e;
+                }
+                final ProgressReporter reporter = callback == null ? null : new ProgressReporter(callback, total, tag);
+                if (reporter != null && uploaded > 0) {
+                    reporter.add(uploaded);
+                }
+                return Observable.fromIterable(chunks)
+                        .flatMap(new Function<Chunk, ObservableSource<T>>() {
+                            @Override
+                            public ObservableSource<T> apply(@NonNull Chunk chunk) throws Exception {
+                                return uploadChunk(chunk, type, reporter);
+                            }
+                        }, mChunkConcurrency)
+                        .doFinally(new Action() {
+                            @Override
+                            public void run() throws Exception {
+                                closeAll(files);
+                            }
+                        });
+            }
+        }).compose(isSyncRequest ? RxUtil.<T>_io_main(deliveryScheduler()) : RxUtil.<T>_main());
+    }
+
+    private <T> Observable<T> uploadChunk(final Chunk chunk, Type type, ProgressReporter reporter) {
+        final ChunkedFile file = chunk.file;
+        long offset = chunk.index * mChunkSize;
+        RequestBody body = new FileRequestBody(file.entity.getMediaType(), file.file, offset, file.chunkLength(chunk.index, mChunkSize));
+        if (reporter != null) {
+            body = new ProgressRequestBody(body, reporter);
+        }
+        List<MultipartBody.Part> partList = new ArrayList<>();
+        HashMap<String, String> paramMap = mHttpParams.getParamMap();
+        for (String key : paramMap.keySet()) {
+            partList.add(MultipartBody.Part.createFormData(key, paramMap.get(key)));
+        }
+        partList.add(MultipartBody.Part.createFormData(CHUNK_UPLOAD_ID, file.state.getUploadId()));
+        partList.add(MultipartBody.Part.createFormData(CHUNK_INDEX, String.valueOf(chunk.index)));
+        partList.add(MultipartBody.Part.createFormData(CHUNK_COUNT, String.valueOf(file.state.getChunkCount())));
+        partList.add(MultipartBody.Part.createFormData(CHUNK_SIZE, String.valueOf(mChunkSize)));
+        partList.add(MultipartBody.Part.createFormData(CHUNK_FILE_SIZE, String.valueOf(file.length)));
+        partList.add(MultipartBody.Part.createFormData(file.key, file.entity.getFileName(), body));
+        return mApiManager.uploadFileWithPartList(mUrl, partList, mRequestHeaders)
+                .subscribeOn(Schedulers.io())
+                .map(new ApiResultFunc<T>(type))
+                .map(new HandleResultFunc<T>())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
+                .flatMap(new Function<T, ObservableSource<T>>() {
+                    @Override
+                    public ObservableSource<T> apply(@NonNull T result) throws Exception {
+                        file.state.markDone(chunk.index);
+                        if (file.remaining.decrementAndGet() == 0) {
+                            file.state.delete();
+                            return Observable.just(result);
+                        }
+                        return Observable.empty();
+                    }
+                });
+    }
+
+    private <T> Flowable<UploadResult<T>> generateBatch(final Type type, final int concurrency, final ResultProgressCallback<?> callback) {
+        return Flowable.defer(new Callable<Publisher<UploadResult<T>>>() {
+            @Override
+            public Publisher<UploadResult<T>> call() throws Exception {
+                //每次订阅重新创建请求体，上次订阅结束时已经关闭了InputStream请求体
+                List<BatchFile> files = new ArrayList<>();
+                for (Map.Entry<String, List<FileEntity>> entry : mHttpParams.getFileMap().entrySet()) {
+                    for (FileEntity entity : entry.getValue()) {
+                        RequestBody requestBody = getRequestBody(entity);
+                        Util.checkNotNull(requestBody, "requestBody==null fileEntity.data must is File/InputStream/byte[]");
+                        files.add(new BatchFile(entry.getKey(), entity, requestBody));
+                    }
+                }
+                ProgressReporter reporter = null;
+                if (callback != null) {
+                    long total = 0;
+                    for (BatchFile file : files) {
+                        long length = file.body.contentLength();
+                        if (length < 0) {
+                            total = -1;
+                            break;
+                        }
+                        total += length;
+                    }
+                    reporter = new ProgressReporter(callback, total, null);
+                }
+                final ProgressReporter batchReporter = reporter;
+                return Flowable.fromIterable(files).flatMapSingle(new Function<BatchFile, SingleSource<UploadResult<T>>>() {
+                    @Override
+                    public SingleSource<UploadResult<T>> apply(@NonNull BatchFile file) throws Exception {
+                        return uploadBatchFile(file, type, batchReporter);
+                    }
+                }, false, concurrency);
+            }
+        }).doFinally(new Action() {
+            @Override
+            public void run() throws Exception {
+                releaseStreams();
+            }
+        }).compose(isSyncRequest ? RxUtil.<UploadResult<T>>_io_main_flowable(deliveryScheduler()) : RxUtil.<UploadResult<T>>_main_flowable());
+    }
+
+    private <T> Single<UploadResult<T>> uploadBatchFile(final BatchFile file, Type type, ProgressReporter reporter) {
+        final ProgressRequestBody progressBody = reporter != null ? new ProgressRequestBody(file.body, reporter) : null;
+        List<MultipartBody.Part> partList = new ArrayList<>();
+        HashMap<String, String> paramMap = mHttpParams.getParamMap();
+        for (String key : paramMap.keySet()) {
+            partList.add(MultipartBody.Part.createFormData(key, paramMap.get(key)));
+        }
+        partList.add(MultipartBody.Part.createFormData(file.key, file.entity.getFileName(),
+                progressBody != null ? progressBody : file.body));
+        return mApiManager.uploadFileWithPartList(mUrl, partList, mRequestHeaders)
+                .subscribeOn(Schedulers.io())
+                .map(new ApiResultFunc<T>(type))
+                .map(new HandleResultFunc<T>())
+                .retryWhen(new RetryExceptionFunc(mRetryCount, mRetryDelay, mRetryIncreaseDelay))
+                .singleOrError()
+                .map(new Function<T, UploadResult<T>>() {
+                    @Override
+                    public UploadResult<T> apply(@NonNull T data) throws Exception {
+                        return UploadResult.success(file.key, file.entity, data);
+                    }
+                })
+                .onErrorReturn(new Function<Throwable, UploadResult<T>>() {
+                    @Override
+                    public UploadResult<T> apply(@NonNull Throwable throwable) throws Exception {
+                        if (progressBody != null) {
+                            progressBody.discard();
+                        }
+                        return UploadResult.failure(file.key, file.entity, ExceptionFactory.handleException(throwable));
+                    }
+                });
+    }
+
+    /**
+     * 批量上传中的一个文件
+     */
+    private static final class BatchFile {
+        final String key;
+        final FileEntity entity;
+        final RequestBody body;
+
+        BatchFile(String key, FileEntity entity, RequestBody body) {
+            this.key = key;
+            this.entity = entity;
+            this.body = body;
+        }
     }
 
+    private static void closeAll(List<ChunkedFile> files) {
+        for (ChunkedFile file : files) {
+            file.state.close();
+        }
+    }
+
+    /**
+     * 分片上传中的一个文件
+     */
+    private static final class ChunkedFile {
+        final String key;
+        final FileEntity entity;
+        final File file;
+        final long length;
+        final UploadChunkState state;
+        final AtomicInteger remaining = new AtomicInteger();      //还未完成的分片数
+
+        ChunkedFile(String key, FileEntity entity, File file, UploadChunkState state) {
+            this.key = key;
+            this.entity = entity;
+            this.file = file;
+            this.length = file.length();
+            this.state = state;
+        }
+
+        long chunkLength(int index, long chunkSize) {
+            return Math.min(chunkSize, length - index * chunkSize);
+        }
+    }
+
+    private static final class Chunk {
+        final ChunkedFile file;
+        final int index;
+
+        Chunk(ChunkedFile file, int index) {
+            this.file = file;
+            this.index = index;
+        }
+    }
 
     /**
      * 以RequestBody的Map形式提交
      *
      * @return
      */
-    private Observable<ResponseBody> uploadFilesWithBodyMap() {
+    private Observable<ResponseBody> uploadFilesWithBodyMap(ProgressReporter reporter) {
         Map<String, RequestBody> mBodyMap = new HashMap<>();
         //拼接参数键值对
         for (Map.Entry<String, String> mapEntry : mHttpParams.getParamMap().entrySet()) {
@@ -165,10 +512,10 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
             List<FileEntity> fileValues = entry.getValue();
             for (FileEntity fileWrapper : fileValues) {
                 RequestBody requestBody = getRequestBody(fileWrapper);
-                mBodyMap.put(entry.getKey(), requestBody);
+                mBodyMap.put(entry.getKey(), withProgress(requestBody, reporter));
             }
         }
-        return mApiManager.uploadFileWithBodyMap(mUrl, mBodyMap);
+        return mApiManager.uploadFileWithBodyMap(mUrl, mBodyMap, mRequestHeaders);
     }
 
     /**
@@ -176,7 +523,7 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
      *
      * @return
      */
-    private Observable<ResponseBody> uploadFilesWithPartList() {
+    private Observable<ResponseBody> uploadFilesWithPartList(ProgressReporter reporter) {
         List<MultipartBody.Part> partList = new ArrayList<>();
         HashMap<String, String> paramMap = mHttpParams.getParamMap();
         for (String key : paramMap.keySet()) {
@@ -184,11 +531,11 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
         }
         for (Map.Entry<String, List<FileEntity>> fileEntity : mHttpParams.getFileMap().entrySet()) {
             for (FileEntity entity : fileEntity.getValue()) {
-                MultipartBody.Part part = createPartBody(fileEntity.getKey(), entity);
+                MultipartBody.Part part = createPartBody(fileEntity.getKey(), entity, reporter);
                 partList.add(part);
             }
         }
-        return mApiManager.uploadFileWithPartList(mUrl, partList);
+        return mApiManager.uploadFileWithPartList(mUrl, partList, mRequestHeaders);
     }
 
     /**
@@ -196,7 +543,7 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
      *
      * @return
      */
-    private Observable<ResponseBody> uploadFilesWithPartMap() {
+    private Observable<ResponseBody> uploadFilesWithPartMap(ProgressReporter reporter) {
         Map<String, MultipartBody.Part> partMap = new HashMap<>();
         //拼接普通参数
         HashMap<String, String> paramMap = mHttpParams.getParamMap();
@@ -208,59 +555,77 @@ public class UploadRequest extends HttpBodyRequest<UploadRequest> {
         for (Map.Entry<String, List<FileEntity>> entitySet : fileMap.entrySet()) {
             String key = entitySet.getKey();
             for (FileEntity entity : entitySet.getValue()) {
-                MultipartBody.Part part = createPartBody(key, entity);
+                MultipartBody.Part part = createPartBody(key, entity, reporter);
                 partMap.put(key, part);
             }
         }
-        return mApiManager.uploadFileWithPartMap(mUrl, partMap);
+        return mApiManager.uploadFileWithPartMap(mUrl, partMap, mRequestHeaders);
     }
 
-    private MultipartBody.Part createPartBody(String key, FileEntity value) {
+    private MultipartBody.Part createPartBody(String key, FileEntity value, ProgressReporter reporter) {
         RequestBody requestBody = getRequestBody(value);
         Util.checkNotNull(requestBody, "requestBody==null fileEntity.data must is File/InputStream/byte[]");
-        return MultipartBody.Part.createFormData(key, value.getFileName(), requestBody);
+        return MultipartBody.Part.createFormData(key, value.getFileName(), withProgress(requestBody, reporter));
+    }
+
+    private static RequestBody withProgress(RequestBody body, ProgressReporter reporter) {
+        return reporter == null || body == null ? body : new ProgressRequestBody(body, reporter);
+    }
+
+    /**
+     * 所有文件的总大小，有长度未知的InputStream时为-1
+     */
+    private long totalFileLength() {
+        long total = 0;
+        for (List<FileEntity> entities : mHttpParams.getFileMap().values()) {
+            for (FileEntity entity : entities) {
+                Object data = entity.getData();
+                if (data instanceof File) {
+                    total += ((File) data).length();
+                } else if (data instanceof byte[]) {
+                    total += ((byte[]) data).length;
+                } else if (data instanceof InputStream) {
+                    if (entity.getFileSize() <= 0) {
+                        return -1;
+                    }
+                    total += entity.getFileSize();
+                }
+            }
+        }
+        return total;
     }
 
 
     private RequestBody getRequestBody(FileEntity value) {
         RequestBody requestBody = null;
         if (value.getData() instanceof File) {
-            requestBody = RequestBody.create(value.getMediaType(), (File) value.getData());
+            requestBody = new FileRequestBody(value.getMediaType(), (File) value.getData());
         } else if (value.getData() instanceof InputStream) {
-            requestBody = create(value.getMediaType(), (InputStream) value.getData());
+            //长度由调用者通过FileEntity.setFileSize指定，否则使用chunked编码
+            long length = value.getFileSize() > 0 ? value.getFileSize() : -1;
+            InputStreamRequestBody body = new InputStreamRequestBody(value.getMediaType(), (InputStream) value.getData(),
+                    length, mStreamReplayLimit, mContext.getCacheDir());
+            synchronized (mStreamBodies) {
+                mStreamBodies.add(body);
+            }
+            requestBody = body;
         } else if (value.getData() instanceof byte[]) {
             requestBody = RequestBody.create(value.getMediaType(), (byte[]) value.getData());
         }
         return requestBody;
     }
 
-    private RequestBody create(final MediaType mediaType, final InputStream inputStream) {
-        return new RequestBody() {
-            @Override
-            public MediaType contentType() {
-                return mediaType;
-            }
-
-            @Override
-            public long contentLength() {
-                try {
-                    return inputStream.available();
-                } catch (IOException e) {
-                    return 0;
-                }
-            }
-
-            @Override
-            public void writeTo(BufferedSink sink) throws IOException {
-                Source source = null;
-                try {
-                    source = Okio.source(inputStream);
-                    sink.writeAll(source);
-                } finally {
-                    okhttp3.internal.Util.closeQuietly(source);
-                }
+    /**
+     * 请求结束（包括所有重试）后关闭InputStream请求体，删除重放用的临时文件；
+     * 批量上传在订阅时才创建请求体，可能与其他线程同时访问
+     */
+    private void releaseStreams() {
+        synchronized (mStreamBodies) {
+            for (InputStreamRequestBody body : mStreamBodies) {
+                body.close();
             }
-        };
+            mStreamBodies.clear();
+        }
     }
 
 }
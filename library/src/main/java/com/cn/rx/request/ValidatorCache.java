@@ -0,0 +1,67 @@
+package com.cn.rx.request;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET请求的协商缓存
+ * <p>
+ * 按请求（配置、地址、参数、请求头、解析类型）保存服务端返回的ETag/Last-Modified以及解析后的结果，
+ * 再次请求时携带If-None-Match/If-Modified-Since，服务端返回304时直接使用缓存的结果，不再下载和解析响应体。
+ * 缓存的结果会返回给之后的每个订阅者，订阅者不应修改
+ */
+public final class ValidatorCache {
+
+    private static final int DEFAULT_MAX_SIZE = 64;
+
+    private final LinkedHashMap<Object, Entry> mEntries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            return size() > mMaxSize;
+        }
+    };
+    private int mMaxSize = DEFAULT_MAX_SIZE;
+
+    public synchronized Entry get(Object key) {
+        return mEntries.get(key);
+    }
+
+    public synchronized void put(Object key, Entry entry) {
+        mEntries.put(key, entry);
+    }
+
+    public synchronized void remove(Object key) {
+        mEntries.remove(key);
+    }
+
+    /**
+     * 设置最多缓存多少个请求的结果，默认64
+     */
+    public synchronized void maxSize(int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must >= 1");
+        this.mMaxSize = maxSize;
+        while (mEntries.size() > maxSize) {
+            mEntries.remove(mEntries.keySet().iterator().next());
+        }
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public synchronized void evictAll() {
+        mEntries.clear();
+    }
+
+    public static final class Entry {
+        public final String etag;
+        public final String lastModified;
+        public final Object value;
+
+        public Entry(String etag, String lastModified, Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+}
@@ -19,10 +19,8 @@ import java.lang.ref.WeakReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import io.reactivex.Observable;
+import io.reactivex.Scheduler;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.functions.Consumer;
-import io.reactivex.functions.Function;
 import okhttp3.MediaType;
 
 @SuppressWarnings(value = {"unchecked", "deprecation", "CheckResult"})
@@ -34,9 +32,16 @@ public class RxDownloadSubscriber<ResponseBody extends okhttp3.ResponseBody> ext
     private String mSavePath;
     private String mSaveName;
     private String mUrl;
+    private Scheduler mDeliveryScheduler;                //进度、结果投递到主线程使用的调度器
 
 
     public RxDownloadSubscriber(Object tag, String url, Context mContext, String savePath, String saveName, DownloadProgressCallBack callback) {
+        this(tag, url, mContext, savePath, saveName, callback, AndroidSchedulers.mainThread());
+    }
+
+    public RxDownloadSubscriber(Object tag, String url, Context mContext, String savePath, String saveName, DownloadProgressCallBack callback,
+                                Scheduler deliveryScheduler) {
+        this.mDeliveryScheduler = Util.checkNotNull(deliveryScheduler, "deliveryScheduler is null");
         contextWeakReference = new WeakReference<>(mContext);
         this.mSaveName = saveName;
         this.mSavePath = savePath;
@@ -62,19 +67,7 @@ public class RxDownloadSubscriber<ResponseBody extends okhttp3.ResponseBody> ext
 
     private void writeResponseBodyToDisk(ResponseBody body, final Object mTag, String fileName, String filePath, final DownloadProgressCallBack mCallback) {
         Util.checkNotNull(body, "ResponseBody is null");
-        fileName = getFileName(fileName, mUrl, body.contentType());
-        LogUtil.i("download", "fileName = " + fileName);
-        if (TextUtils.isEmpty(filePath)) {
-            filePath = contextWeakReference.get().getExternalFilesDir(null) + File.separator + "Downloads" + File.separator + fileName;
-        } else {
-            File file = new File(filePath);
-            if (!file.exists()) {
-                file.mkdirs();
-            }
-            filePath = filePath + File.separator + fileName;
-            filePath = filePath.replaceAll("//", "/");
-        }
-        LogUtil.i("download", "filePath = " + filePath);
+        filePath = resolveFile(contextWeakReference.get(), mUrl, filePath, fileName, body.contentType()).getPath();
         InputStream inputStream = null;
         OutputStream outputStream = null;
         try {
@@ -109,28 +102,26 @@ public class RxDownloadSubscriber<ResponseBody extends okhttp3.ResponseBody> ext
                     if (mCallback != null) {
                         final float finaProgress = progress;
                         final long finalFileSize = fileSize;
-                        Observable.just(fileSizeDownloaded)
-                                .observeOn(AndroidSchedulers.mainThread())
-                                .subscribe(new Consumer<Long>() {
-                                    @Override
-                                    public void accept(Long fileSizeDownloaded) {
-                                        mCallback.onProgress(mTag, fileSizeDownloaded, finalFileSize, finaProgress);
-                                    }
-                                });
+                        final long finalFileSizeDownloaded = fileSizeDownloaded;
+                        mDeliveryScheduler.scheduleDirect(new Runnable() {
+                            @Override
+                            public void run() {
+                                mCallback.onProgress(mTag, finalFileSizeDownloaded, finalFileSize, finaProgress);
+                            }
+                        });
                     }
                 }
             }
             outputStream.flush();
-            if (mCallback != null)
-                Observable.just(filePath)
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(new Consumer<String>() {
-                            @Override
-                            public void accept(String path) {
-                                mCallback.onSuccess(mTag, path);
-
-                            }
-                        });
+            if (mCallback != null) {
+                final String path = filePath;
+                mDeliveryScheduler.scheduleDirect(new Runnable() {
+                    @Override
+                    public void run() {
+                        mCallback.onSuccess(mTag, path);
+                    }
+                });
+            }
 
         } catch (
                 IOException e)
@@ -155,6 +146,29 @@ public class RxDownloadSubscriber<ResponseBody extends okhttp3.ResponseBody> ext
 
     }
 
+    /**
+     * 确定下载文件的保存位置，没有指定文件名时从url或Content-Type生成
+     *
+     * @param savePath 保存目录，为空时保存在应用外部存储的Downloads目录
+     */
+    public static File resolveFile(Context context, String url, String savePath, String saveName, MediaType mediaType) {
+        String fileName = getFileName(saveName, url, mediaType);
+        LogUtil.i("download", "fileName = " + fileName);
+        String filePath;
+        if (TextUtils.isEmpty(savePath)) {
+            filePath = context.getExternalFilesDir(null) + File.separator + "Downloads" + File.separator + fileName;
+        } else {
+            File file = new File(savePath);
+            if (!file.exists()) {
+                file.mkdirs();
+            }
+            filePath = savePath + File.separator + fileName;
+            filePath = filePath.replaceAll("//", "/");
+        }
+        LogUtil.i("download", "filePath = " + filePath);
+        return new File(filePath);
+    }
+
     @Override
     public void onError(ApiThrowable throwable) {
         if (mCallback != null) {
@@ -169,29 +183,17 @@ public class RxDownloadSubscriber<ResponseBody extends okhttp3.ResponseBody> ext
         }
     }
 
-    private void finalOnError(Exception e) {
+    private void finalOnError(final Exception e) {
         if (mCallback != null)
-            Observable.just(e)
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .map(new Function<Exception, ApiThrowable>() {
-                        @Override
-                        public ApiThrowable apply(Exception e) {
-                            return ExceptionFactory.handleException(e);
-                        }
-                    }).subscribe(new Consumer<ApiThrowable>() {
-                @Override
-                public void accept(ApiThrowable apiThrowable) {
-                    mCallback.onError(mTag, apiThrowable);
-                }
-            }, new Consumer<Throwable>() {
+            mDeliveryScheduler.scheduleDirect(new Runnable() {
                 @Override
-                public void accept(Throwable throwable) {
-                    mCallback.onError(mTag, ExceptionFactory.handleException(throwable));
+                public void run() {
+                    mCallback.onError(mTag, ExceptionFactory.handleException(e));
                 }
             });
     }
 
-    private String getFileSuffixByUrl(String url) {
+    private static String getFileSuffixByUrl(String url) {
         String fileName = getFileNameByUrl(url);
         // 从路径中获取
         if (fileName != null && !"" .equals(fileName) && fileName.contains(".")) {
@@ -200,7 +202,7 @@ public class RxDownloadSubscriber<ResponseBody extends okhttp3.ResponseBody> ext
         return null;
     }
 
-    private String getFileNameByUrl(String url) {
+    private static String getFileNameByUrl(String url) {
         String urlReg = "^((ht|f)tps?):\\/\\/([\\w\\-]+(\\.[\\w\\-]+)*\\/)*[\\w\\-]+(\\.[\\w\\-]+)*\\/?(\\?([\\w\\-\\.,@?^=%&:\\/~\\+#]*)+)?";
         Pattern pattern = Pattern.compile(urlReg);
         Matcher matcher = pattern.matcher(url);
@@ -215,7 +217,7 @@ public class RxDownloadSubscriber<ResponseBody extends okhttp3.ResponseBody> ext
         return null;
     }
 
-    private String getFileName(String saveName, String url, MediaType mediaType) {
+    private static String getFileName(String saveName, String url, MediaType mediaType) {
         String fileName = saveName;
         if (TextUtils.isEmpty(fileName)) { // 如果没有配置文件名称，则从Url中解析文件名称
             fileName = getFileNameByUrl(url);
@@ -3,6 +3,7 @@ package com.cn.rx.transformer;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.alibaba.fastjson.parser.Feature;
+import com.cn.rx.RxHttp;
 import com.cn.rx.callback.ResponseClazzCallback;
 import com.cn.rx.config.ResultConfigLoader;
 
@@ -13,17 +14,26 @@ import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.ObservableTransformer;
 import io.reactivex.functions.Function;
+import okhttp3.HttpUrl;
 import okhttp3.ResponseBody;
 
 public class HandleClazzBodyTransformer<T> implements ObservableTransformer<ResponseBody, T> {
 
     private Type type;
     private ResponseClazzCallback callback;
+    private HttpUrl url;
 
     public HandleClazzBodyTransformer(Type type, ResponseClazzCallback callback) {
+        this(type, callback, null);
+    }
+
+    /**
+     * @param url 请求地址，用于选择统一格式配置，为null时使用全局配置
+     */
+    public HandleClazzBodyTransformer(Type type, ResponseClazzCallback callback, HttpUrl url) {
         this.type = type;
         this.callback = callback;
-
+        this.url = url;
     }
 
     @Override
@@ -32,10 +42,10 @@ public class HandleClazzBodyTransformer<T> implements ObservableTransformer<Resp
             @Override
             public T apply(ResponseBody body) throws Exception {
                 if (callback != null) {
-                    String jsonStr = callback.onTransformationResponse(body);
+                    String jsonStr = callback.onTransformationResponse(body, ResultConfigLoader.getProfile(url));
                     return JSON.parseObject(jsonStr, type, Feature.UseBigDecimal);
                 } else {
-                    return JSON.parseObject(body.string(), type, Feature.UseBigDecimal);
+                    return RxHttp.getInstance().getCodecRegistry().codecFor(body).decode(body, type);
                 }
             }
         });
@@ -1,14 +1,30 @@
 package com.cn.rx.transformer;
 
+import com.cn.rx.exception.ExceptionFactory;
 import com.cn.rx.func.HandleErrorFunc;
 
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.ObservableTransformer;
+import io.reactivex.functions.Function;
 
-public class HandleErrorTransformer<T> implements ObservableTransformer<T, T> {
+public class HandleErrorTransformer<T> implements ObservableTransformer<T, T>, FlowableTransformer<T, T> {
     @Override
     public ObservableSource<T> apply(Observable<T> upstream) {
         return upstream.onErrorResumeNext(new HandleErrorFunc<T>());
     }
+
+    @Override
+    public Publisher<T> apply(Flowable<T> upstream) {
+        return upstream.onErrorResumeNext(new Function<Throwable, Publisher<T>>() {
+            @Override
+            public Publisher<T> apply(Throwable throwable) throws Exception {
+                return Flowable.error(ExceptionFactory.handleException(throwable));
+            }
+        });
+    }
 }
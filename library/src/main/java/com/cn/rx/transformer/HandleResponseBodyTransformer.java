@@ -1,20 +1,31 @@
 package com.cn.rx.transformer;
 
 import com.cn.rx.callback.ResponseCallback;
+import com.cn.rx.config.ResultConfigLoader;
 
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.ObservableTransformer;
 import io.reactivex.functions.Function;
+import okhttp3.HttpUrl;
 import okhttp3.ResponseBody;
 
 public class HandleResponseBodyTransformer<T> implements ObservableTransformer<ResponseBody, T> {
     private ResponseCallback<T> callback;
     private Object mTag;
+    private HttpUrl url;
 
     public HandleResponseBodyTransformer(ResponseCallback<T> callback, Object mTag) {
+        this(callback, mTag, null);
+    }
+
+    /**
+     * @param url 请求地址，用于选择统一格式配置，为null时使用全局配置
+     */
+    public HandleResponseBodyTransformer(ResponseCallback<T> callback, Object mTag, HttpUrl url) {
         this.callback = callback;
         this.mTag = mTag;
+        this.url = url;
     }
 
     @Override
@@ -22,7 +33,7 @@ public class HandleResponseBodyTransformer<T> implements ObservableTransformer<R
         return upstream.map(new Function<ResponseBody, T>() {
             @Override
             public T apply(ResponseBody body) throws Exception {
-                return callback.onTransformationResponse(body);
+                return callback.onTransformationResponse(body, ResultConfigLoader.getProfile(url));
             }
         });
     }
@@ -0,0 +1,65 @@
+package com.cn.rx.util;
+
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.Feature;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+
+/**
+ * 直接从响应体的字符流解析JSON
+ * <p>
+ * 边读边按UTF-8（或Content-Type指定的编码）解码并解析，不再通过body.string()把整个响应转成String，
+ * 大列表接口的内存峰值只有解析结果本身，解析完成后关闭响应体
+ */
+public final class JsonUtil {
+
+    private JsonUtil() {
+    }
+
+    /**
+     * 解析为指定类型
+     *
+     * @throws NullPointerException 响应体为空
+     */
+    public static <T> T parseObject(ResponseBody body, Type type) throws IOException {
+        JSONReader reader = open(body);
+        try {
+            return reader.readObject(type);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 解析为JSONObject，用于按配置的字段名读取code、msg、data
+     *
+     * @throws NullPointerException 响应体为空
+     */
+    public static JSONObject parseObject(ResponseBody body) throws IOException {
+        return parseObject(body, JSONObject.class);
+    }
+
+    private static JSONReader open(ResponseBody body) throws IOException {
+        return new JSONReader(charStream(body), Feature.UseBigDecimal);
+    }
+
+    /**
+     * 响应体的字符流，响应体为空时关闭响应体并抛出NullPointerException
+     */
+    public static Reader charStream(ResponseBody body) throws IOException {
+        try {
+            if (body.source().exhausted()) {
+                throw new NullPointerException("body is null");
+            }
+        } catch (IOException | RuntimeException e) {
+            body.close();
+            throw e;
+        }
+        return body.charStream();
+    }
+}
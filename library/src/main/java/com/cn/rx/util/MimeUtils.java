@@ -17,10 +17,31 @@ public final class MimeUtils {
     private static final Map<String, String> mimeTypeToExtensionMap = new LinkedHashMap<>();
     private static final Map<String, String> extensionToMimeTypeMap = new LinkedHashMap<>();
 
+    private static volatile boolean sLoaded;
+
     private MimeUtils() {
     }
 
-    static {
+    /**
+     * Loads the mapping tables now, e.g. from a background thread during startup.
+     * Otherwise they are loaded on the first lookup.
+     */
+    public static void preload() {
+        ensureLoaded();
+    }
+
+    private static void ensureLoaded() {
+        if (!sLoaded) {
+            synchronized (MimeUtils.class) {
+                if (!sLoaded) {
+                    loadTables();
+                    sLoaded = true;
+                }
+            }
+        }
+    }
+
+    private static void loadTables() {
         add("application/andrew-inset", "ez");
         add("application/dsptype", "tsp");
         add("application/futuresplash", "spl");
@@ -1140,6 +1161,7 @@ public final class MimeUtils {
         if (mimeType == null || mimeType.isEmpty()) {
             return false;
         }
+        ensureLoaded();
         return mimeTypeToExtensionMap.containsKey(mimeType);
     }
 
@@ -1153,6 +1175,7 @@ public final class MimeUtils {
         if (extension == null || extension.isEmpty()) {
             return null;
         }
+        ensureLoaded();
         return extensionToMimeTypeMap.get(extension);
     }
 
@@ -1166,6 +1189,7 @@ public final class MimeUtils {
         if (extension == null || extension.isEmpty()) {
             return false;
         }
+        ensureLoaded();
         return extensionToMimeTypeMap.containsKey(extension);
     }
 
@@ -1181,6 +1205,7 @@ public final class MimeUtils {
         if (mimeType == null || mimeType.isEmpty()) {
             return null;
         }
+        ensureLoaded();
         return mimeTypeToExtensionMap.get(mimeType);
     }
 
@@ -3,9 +3,15 @@ package com.cn.rx.util;
 import com.cn.rx.entity.ApiResultEntity;
 import com.cn.rx.func.HandleResultFunc;
 
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.ObservableTransformer;
+import io.reactivex.Scheduler;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.annotations.NonNull;
 import io.reactivex.disposables.Disposable;
@@ -40,13 +46,20 @@ public class RxUtil {
     }
 
     public static <T> ObservableTransformer<T, T> _io_main() {
+        return _io_main(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * @param deliveryScheduler 投递结果的主线程调度器
+     */
+    public static <T> ObservableTransformer<T, T> _io_main(final Scheduler deliveryScheduler) {
         return new ObservableTransformer<T, T>() {
             @Override
             public ObservableSource<T> apply(@NonNull Observable<T> upstream) {
                 return upstream
                         .subscribeOn(Schedulers.io())
                         .unsubscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
+                        .observeOn(deliveryScheduler)
                         .doOnSubscribe(new Consumer<Disposable>() {
                             @Override
                             public void accept(@NonNull Disposable disposable) throws Exception {
@@ -64,13 +77,20 @@ public class RxUtil {
     }
 
     public static <T> ObservableTransformer<ApiResultEntity<T>, T> _io_main_result() {
+        return _io_main_result(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * @param deliveryScheduler 投递结果的主线程调度器
+     */
+    public static <T> ObservableTransformer<ApiResultEntity<T>, T> _io_main_result(final Scheduler deliveryScheduler) {
         return new ObservableTransformer<ApiResultEntity<T>, T>() {
             @Override
             public ObservableSource<T> apply(@NonNull Observable<ApiResultEntity<T>> upstream) {
                 return upstream
                         .subscribeOn(Schedulers.io())
                         .unsubscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
+                        .observeOn(deliveryScheduler)
                         .map(new HandleResultFunc<T>())
                         .doOnSubscribe(new Consumer<Disposable>() {
                             @Override
@@ -89,6 +109,56 @@ public class RxUtil {
     }
 
 
+    /**
+     * 逐个发送的数据在io线程读取，下游请求更多数据时也回到io线程读取，不会在主线程解析
+     *
+     * @param deliveryScheduler 投递结果的主线程调度器
+     */
+    public static <T> FlowableTransformer<T, T> _io_main_flowable(final Scheduler deliveryScheduler) {
+        return new FlowableTransformer<T, T>() {
+            @Override
+            public Publisher<T> apply(@NonNull Flowable<T> upstream) {
+                return upstream
+                        .subscribeOn(Schedulers.io(), true)
+                        .unsubscribeOn(Schedulers.io())
+                        .observeOn(deliveryScheduler)
+                        .doOnSubscribe(new Consumer<Subscription>() {
+                            @Override
+                            public void accept(@NonNull Subscription subscription) throws Exception {
+                                LogUtil.i("+++doOnSubscribe+++");
+                            }
+                        })
+                        .doFinally(new Action() {
+                            @Override
+                            public void run() throws Exception {
+                                LogUtil.i("+++doFinally+++");
+                            }
+                        });
+            }
+        };
+    }
+
+    public static <T> FlowableTransformer<T, T> _main_flowable() {
+        return new FlowableTransformer<T, T>() {
+            @Override
+            public Publisher<T> apply(@NonNull Flowable<T> upstream) {
+                return upstream
+                        .doOnSubscribe(new Consumer<Subscription>() {
+                            @Override
+                            public void accept(@NonNull Subscription subscription) throws Exception {
+                                LogUtil.i("+++doOnSubscribe+++");
+                            }
+                        })
+                        .doFinally(new Action() {
+                            @Override
+                            public void run() throws Exception {
+                                LogUtil.i("+++doFinally+++");
+                            }
+                        });
+            }
+        };
+    }
+
     public static <T> ObservableTransformer<T, T> _main() {
         return new ObservableTransformer<T, T>() {
             @Override
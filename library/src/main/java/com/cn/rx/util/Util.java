@@ -1,6 +1,8 @@
 package com.cn.rx.util;
 
 
+import com.cn.rx.body.FileRequestBody;
+
 import java.io.File;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
@@ -62,13 +64,13 @@ public class Util {
 
     public static RequestBody createFile(File file) {
         checkNotNull(file, "file not null!");
-        return RequestBody.create(okhttp3.MediaType.parse(MULTIPART_FORM_DATA + "; charset=utf-8"), file);
+        return new FileRequestBody(okhttp3.MediaType.parse(MULTIPART_FORM_DATA + "; charset=utf-8"), file);
     }
 
     @NonNull
     public static RequestBody createImage(File file) {
         checkNotNull(file, "file not null!");
-        return RequestBody.create(okhttp3.MediaType.parse(MULTIPART_IMAGE_DATA), file);
+        return new FileRequestBody(okhttp3.MediaType.parse(MULTIPART_IMAGE_DATA), file);
     }
 
     @NonNull
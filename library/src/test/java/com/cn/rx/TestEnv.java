@@ -0,0 +1,94 @@
+package com.cn.rx;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+
+import com.cn.rx.config.ResultConfigLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import io.reactivex.Scheduler;
+import io.reactivex.android.plugins.RxAndroidPlugins;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * 单元测试公共的初始化：主线程调度器改为在当前线程执行，Context的目录指向临时目录，使用默认的统一格式配置
+ */
+public final class TestEnv {
+
+    private static boolean sInitialized;
+
+    private TestEnv() {
+    }
+
+    /**
+     * 初始化RxHttp，只执行一次；不重试，测试结果不受重试影响
+     */
+    public static synchronized RxHttp init() {
+        if (!sInitialized) {
+            RxAndroidPlugins.setMainThreadSchedulerHandler(new Function<Scheduler, Scheduler>() {
+                @Override
+                public Scheduler apply(Scheduler scheduler) throws Exception {
+                    return Schedulers.trampoline();
+                }
+            });
+            RxAndroidPlugins.setInitMainThreadSchedulerHandler(new Function<Callable<Scheduler>, Scheduler>() {
+                @Override
+                public Scheduler apply(Callable<Scheduler> callable) throws Exception {
+                    return Schedulers.trampoline();
+                }
+            });
+            final File dir = newTempDir("rxhttp-test");
+            RxHttp.getInstance().init(new ContextWrapper(null) {
+                @Override
+                public Context getApplicationContext() {
+                    return this;
+                }
+
+                @Override
+                public File getCacheDir() {
+                    return new File(dir, "cache");
+                }
+
+                @Override
+                public File getExternalFilesDir(String type) {
+                    return new File(dir, "files");
+                }
+            }).retryCount(0);
+            ResultConfigLoader.setConfig(null);
+            sInitialized = true;
+        }
+        return RxHttp.getInstance();
+    }
+
+    /**
+     * 新建空的临时目录
+     */
+    public static File newTempDir(String prefix) {
+        try {
+            File dir = File.createTempFile(prefix, "");
+            if (!dir.delete() || !dir.mkdirs()) {
+                throw new IOException("can not create " + dir);
+            }
+            return dir;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 删除目录及其中的文件
+     */
+    public static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,165 @@
+package com.cn.rx.body;
+
+import com.cn.rx.TestEnv;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InputStreamRequestBodyTest {
+
+    private File tempDir;
+
+    @Before
+    public void setUp() {
+        tempDir = TestEnv.newTempDir("replay");
+    }
+
+    @After
+    public void tearDown() {
+        TestEnv.delete(tempDir);
+    }
+
+    @Test
+    public void withoutReplaySecondWriteFails() throws IOException {
+        TrackingStream input = new TrackingStream(content(1000));
+        InputStreamRequestBody body = new InputStreamRequestBody(null, input);
+        assertEquals(content(1000), write(body));
+        assertTrue(input.closed);
+        try {
+            write(body);
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void replayFromMemory() throws IOException {
+        assertReplay(4096, 4096, 0);
+        assertReplay(1000, 4096, 0);
+    }
+
+    @Test
+    public void replayAcrossMemoryLimit() throws IOException {
+        assertReplay(4097, 4096, 1);
+        assertReplay(50000, 10000, 1);
+        //memoryLimit为0时全部写入临时文件
+        assertReplay(20000, 0, 1);
+    }
+
+    @Test
+    public void replayAfterFailedWrite() throws IOException {
+        ByteString expected = content(50000);
+        InputStreamRequestBody body = new InputStreamRequestBody(null,
+                new ByteArrayInputStream(expected.toByteArray()), -1, 10000, tempDir);
+        Buffer partial = new Buffer();
+        BufferedSink failing = Okio.buffer(new FailingSink(partial, 25000));
+        try {
+            body.writeTo(failing);
+            fail();
+        } catch (IOException e) {
+            assertEquals("broken pipe", e.getMessage());
+        }
+        assertTrue(partial.size() < expected.size());
+        //重试时先重放已读到的数据，再继续读取原来的流
+        assertEquals(expected, write(body));
+        assertEquals(expected, write(body));
+        body.close();
+        assertEquals(0, tempDir.list().length);
+    }
+
+    @Test
+    public void contentLength() throws IOException {
+        InputStreamRequestBody known = new InputStreamRequestBody(null,
+                new ByteArrayInputStream(content(100).toByteArray()), 100, -1, tempDir);
+        assertEquals(100, known.contentLength());
+
+        InputStreamRequestBody unknown = new InputStreamRequestBody(null,
+                new ByteArrayInputStream(content(100).toByteArray()), -1, 1000, tempDir);
+        assertEquals(-1, unknown.contentLength());
+        write(unknown);
+        //完整记录后重发时长度已知
+        assertEquals(100, unknown.contentLength());
+    }
+
+    private void assertReplay(int size, long memoryLimit, int spillFiles) throws IOException {
+        ByteString expected = content(size);
+        TrackingStream input = new TrackingStream(expected);
+        InputStreamRequestBody body = new InputStreamRequestBody(null, input, -1, memoryLimit, tempDir);
+        assertEquals(expected, write(body));
+        assertEquals(spillFiles, tempDir.list().length);
+        assertEquals(expected, write(body));
+        assertEquals(expected, write(body));
+
+        body.close();
+        assertTrue(input.closed);
+        assertEquals(0, tempDir.list().length);
+    }
+
+    private static ByteString write(InputStreamRequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        BufferedSink sink = Okio.buffer((Sink) buffer);
+        body.writeTo(sink);
+        sink.flush();
+        return buffer.readByteString();
+    }
+
+    private static ByteString content(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + i / 251);
+        }
+        return ByteString.of(bytes);
+    }
+
+    private static final class TrackingStream extends ByteArrayInputStream {
+        boolean closed;
+
+        TrackingStream(ByteString content) {
+            super(content.toByteArray());
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    /**
+     * 写入超过limit字节后抛出IOException，模拟发送过程中连接断开
+     */
+    private static final class FailingSink extends ForwardingSink {
+        private final long limit;
+        private long written;
+
+        FailingSink(Buffer delegate, long limit) {
+            super(delegate);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            if (written + byteCount > limit) {
+                throw new IOException("broken pipe");
+            }
+            written += byteCount;
+            super.write(source, byteCount);
+        }
+    }
+}
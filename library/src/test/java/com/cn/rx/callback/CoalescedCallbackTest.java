@@ -0,0 +1,100 @@
+package com.cn.rx.callback;
+
+import com.alibaba.fastjson.JSONObject;
+import com.cn.rx.RxHttp;
+import com.cn.rx.TestEnv;
+import com.cn.rx.exception.ServerException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 合并请求时按回调对象区分：同一类的不同回调对象判断成功的逻辑可能不同，不能共享结果
+ */
+public class CoalescedCallbackTest {
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        TestEnv.init();
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void distinctCallbackInstancesGetOwnResult() {
+        enqueue(2);
+        TestObserver<JSONObject> accepted = request(new CodeCallback(5)).test();
+        TestObserver<JSONObject> rejected = request(new CodeCallback(0)).test();
+
+        accepted.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        rejected.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        accepted.assertNoErrors();
+        assertEquals("value", accepted.values().get(0).getString("name"));
+        rejected.assertNoValues();
+        assertEquals(1, rejected.errorCount());
+        assertTrue(rejected.errors().get(0) instanceof ServerException);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void sameCallbackInstanceIsCoalesced() {
+        enqueue(1);
+        CodeCallback callback = new CodeCallback(5);
+        TestObserver<JSONObject> first = request(callback).test();
+        TestObserver<JSONObject> second = request(callback).test();
+
+        first.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        second.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        first.assertNoErrors();
+        second.assertNoErrors();
+        assertEquals(first.values(), second.values());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private void enqueue(int count) {
+        for (int i = 0; i < count; i++) {
+            server.enqueue(new MockResponse()
+                    .setBody("{\"code\":5,\"msg\":\"partial\",\"data\":{\"name\":\"value\"}}")
+                    .setBodyDelay(300, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private Observable<JSONObject> request(ResponseClazzCallback callback) {
+        return RxHttp.post(server.url("/coalesce").toString())
+                .coalesce(true)
+                .json("{\"id\":1}")
+                .execute(JSONObject.class, callback);
+    }
+
+    private static final class CodeCallback extends ResponseClazzCallback {
+        private final int successCode;
+
+        CodeCallback(int successCode) {
+            this.successCode = successCode;
+        }
+
+        @Override
+        boolean checkSuccess(int code) {
+            return code == successCode;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.ProtocolException;
+import java.util.Arrays;
+import java.util.Date;
+
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * 用例取自RFC 7049附录A
+ */
+public class CborReaderTest {
+
+    @Test
+    public void integers() throws IOException {
+        assertEquals(0, read("00"));
+        assertEquals(23, read("17"));
+        assertEquals(24, read("1818"));
+        assertEquals(1000, read("1903e8"));
+        assertEquals(1000000, read("1a000f4240"));
+        assertEquals(1000000000000L, read("1b000000e8d4a51000"));
+        assertEquals(new BigInteger("18446744073709551615"), read("1bffffffffffffffff"));
+        assertEquals(-1, read("20"));
+        assertEquals(-100, read("3863"));
+        assertEquals(new BigInteger("-18446744073709551616"), read("3bffffffffffffffff"));
+    }
+
+    @Test
+    public void floats() throws IOException {
+        assertEquals(0.0f, read("f90000"));
+        assertEquals(1.0f, read("f93c00"));
+        assertEquals(65504.0f, read("f97bff"));
+        assertEquals(-4.0f, read("f9c400"));
+        assertEquals(5.960464477539063e-8f, read("f90001"));
+        assertEquals(Float.POSITIVE_INFINITY, read("f97c00"));
+        assertEquals(100000.0f, read("fa47c35000"));
+        assertEquals(1.1, read("fb3ff199999999999a"));
+    }
+
+    @Test
+    public void simpleValues() throws IOException {
+        assertEquals(false, read("f4"));
+        assertEquals(true, read("f5"));
+        assertNull(read("f6"));
+        assertNull(read("f7"));
+    }
+
+    @Test
+    public void strings() throws IOException {
+        assertEquals("", read("60"));
+        assertEquals("a", read("6161"));
+        assertEquals("ü", read("62c3bc"));
+        assertEquals("streaming", read("7f657374726561646d696e67ff"));
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, (byte[]) read("4401020304"));
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, (byte[]) read("5f42010243030405ff"));
+    }
+
+    @Test
+    public void arraysAndMaps() throws IOException {
+        assertEquals(new JSONArray(), read("80"));
+        assertEquals(array(1, array(2, 3), array(4, 5)), read("8301820203820405"));
+        assertEquals(array(1, array(2, 3), array(4, 5)), read("9f018202039f0405ffff"));
+
+        JSONObject map = (JSONObject) read("a26161016162820203");
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(map.keySet().toArray()));
+        assertEquals(1, map.get("a"));
+        assertEquals(array(2, 3), map.get("b"));
+        assertEquals(map, read("bf61610161629f0203ffff"));
+
+        //非字符串的键转为字符串
+        assertEquals(2, ((JSONObject) read("a10102")).get("1"));
+    }
+
+    @Test
+    public void tags() throws IOException {
+        assertEquals(new Date(1363896240000L), read("c11a514b67b0"));
+        assertEquals(new Date(1363896240500L), read("c1fb41d452d9ec200000"));
+        assertEquals(new BigInteger("18446744073709551616"), read("c249010000000000000000"));
+        assertEquals(new BigInteger("-18446744073709551617"), read("c349010000000000000000"));
+        assertEquals("2013-03-21T20:04:00Z", read("c074323031332d30332d32315432303a30343a30305a"));
+    }
+
+    @Test
+    public void malformed() throws IOException {
+        assertProtocolError("ff");
+        assertProtocolError("1c");
+        assertProtocolError("8201ff");
+        assertProtocolError("5f6161ff");
+        try {
+            read("6261");
+            fail();
+        } catch (EOFException expected) {
+        }
+    }
+
+    @Test
+    public void nestingTooDeep() throws IOException {
+        StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            hex.append("81");
+        }
+        assertProtocolError(hex.append("00").toString());
+    }
+
+    /**
+     * 与解析响应体时一样经过RealBufferedSource读取，数据不完整时抛出EOFException
+     */
+    private static Object read(String hex) throws IOException {
+        return new CborReader(Okio.buffer((Source) new Buffer().write(ByteString.decodeHex(hex)))).read();
+    }
+
+    private static void assertProtocolError(String hex) throws IOException {
+        try {
+            read(hex);
+            fail("expected ProtocolException for " + hex);
+        } catch (ProtocolException expected) {
+        }
+    }
+
+    private static JSONArray array(Object... items) {
+        return new JSONArray(Arrays.asList(items));
+    }
+}
@@ -0,0 +1,70 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EnvelopeTest {
+
+    private static final ResultProfile PROFILE = profile("0", "OK");
+
+    @Test
+    public void numericCodes() throws IOException {
+        assertCode("{\"code\":0}", 0, true);
+        assertCode("{\"code\":\"0\"}", 0, true);
+        assertCode("{\"code\":\"00\"}", 0, true);
+        assertCode("{\"code\":500}", 500, false);
+        assertCode("{\"code\":-1}", -1, false);
+    }
+
+    @Test
+    public void nonNumericCodes() throws IOException {
+        assertCode("{\"code\":\"OK\"}", -1, true);
+        assertCode("{\"code\":\"FAIL\"}", -1, false);
+        assertCode("{\"code\":null}", -1, false);
+        assertCode("{\"code\":0.5}", -1, false);
+        assertCode("{\"code\":4294967296}", -1, false);
+    }
+
+    @Test
+    public void missingCode() throws IOException {
+        assertCode("{\"msg\":\"ok\"}", -1, false);
+        //没有配置成功状态码时任何状态码都算成功
+        Envelope envelope = EnvelopeDecoder.decode(body("{\"msg\":\"ok\"}"), ResultProfile.DEFAULT, null, false);
+        assertTrue(envelope.isSuccess(ResultProfile.DEFAULT));
+    }
+
+    private static void assertCode(String json, int code, boolean success) throws IOException {
+        Envelope decoded = EnvelopeDecoder.decode(body(json), PROFILE, null, false);
+        assertEquals(json, code, decoded.getCode());
+        assertEquals(json, success, decoded.isSuccess(PROFILE));
+
+        //二进制格式从已解析的结构读取，结果应与JSON一致
+        Envelope tree = Envelope.fromTree(JSON.parse(json), PROFILE, null, false);
+        assertEquals(json, code, tree.getCode());
+        assertEquals(json, success, tree.isSuccess(PROFILE));
+        assertFalse(tree.hasData());
+    }
+
+    private static ResultProfile profile(String... successCodes) {
+        ResultConfigLoader.Config config = new ResultConfigLoader.Config();
+        config.setSuccessCode(Arrays.asList(successCodes));
+        return ResultProfile.compile(config, ResultProfile.DEFAULT);
+    }
+
+    private static ResponseBody body(String json) {
+        return ResponseBody.create(MediaType.parse("application/json"), json);
+    }
+}
@@ -0,0 +1,149 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONException;
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
+import com.cn.rx.exception.ServerException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JsonArrayStreamTest {
+
+    private static final String ITEMS = "[{\"id\":1},null,{\"id\":2}]";
+
+    @Test
+    public void codeBeforeData() throws IOException {
+        assertEquals(Arrays.asList(1, 2), ids("{\"code\":0,\"msg\":\"ok\",\"data\":" + ITEMS + "}"));
+    }
+
+    @Test
+    public void dataBeforeCode() throws IOException {
+        assertEquals(Arrays.asList(1, 2), ids("{\"data\":" + ITEMS + ",\"msg\":\"ok\",\"code\":0}"));
+    }
+
+    @Test
+    public void pagedData() throws IOException {
+        String page = "{\"total\":2,\"data\":" + ITEMS + ",\"next\":[{\"id\":9}]}";
+        assertEquals(Arrays.asList(1, 2), ids("{\"code\":0,\"data\":" + page + ",\"extra\":[{\"id\":8}]}"));
+        assertEquals(Arrays.asList(1, 2), ids("{\"data\":" + page + ",\"code\":0}"));
+    }
+
+    @Test
+    public void emptyOrMissingData() throws IOException {
+        assertEquals(Collections.emptyList(), ids("{\"code\":0,\"data\":null}"));
+        assertEquals(Collections.emptyList(), ids("{\"code\":0,\"data\":[]}"));
+        assertEquals(Collections.emptyList(), ids("{\"code\":0,\"msg\":\"ok\"}"));
+        assertEquals(Collections.emptyList(), ids("{\"code\":0,\"data\":{\"total\":0}}"));
+    }
+
+    @Test
+    public void missingCodeIsSuccessForApiResult() throws IOException {
+        assertEquals(Arrays.asList(1, 2), ids("{\"data\":" + ITEMS + "}"));
+    }
+
+    @Test
+    public void failedCodeBeforeData() throws IOException {
+        //失败时不解析data，id不是数字也不影响
+        assertServerError("{\"code\":7,\"data\":[{\"id\":\"x\"}],\"msg\":\"denied\"}", 7, "denied");
+        assertServerError("{\"code\":7,\"msg\":\"denied\",\"data\":[{\"id\":\"x\"}]}", 7, "denied");
+    }
+
+    @Test
+    public void failedCodeAfterData() throws IOException {
+        assertServerError("{\"data\":" + ITEMS + ",\"code\":7,\"msg\":\"denied\"}", 7, "denied");
+        assertServerError("{\"data\":" + ITEMS + ",\"code\":\"E1\"}", -1, null);
+    }
+
+    @Test
+    public void configuredProfile() throws IOException {
+        ResultConfigLoader.Config config = new ResultConfigLoader.Config();
+        config.setCodeKey("status");
+        config.setMsgKey("message");
+        config.setDataKey(Arrays.asList("list", "data"));
+        config.setSuccessCode(Collections.singletonList("200"));
+        ResultProfile profile = ResultProfile.compile(config, ResultProfile.DEFAULT);
+
+        assertEquals(Arrays.asList(1, 2), ids("{\"status\":200,\"list\":" + ITEMS + "}", profile));
+        assertEquals(Arrays.asList(1, 2), ids("{\"status\":\"200\",\"data\":{\"list\":" + ITEMS + "}}", profile));
+        try {
+            ids("{\"status\":500,\"message\":\"busy\",\"list\":" + ITEMS + "}", profile);
+            fail();
+        } catch (ServerException e) {
+            assertEquals(500, e.getCode());
+            assertEquals("busy", e.getMsg());
+        }
+        //没有code字段时不算成功
+        try {
+            ids("{\"list\":" + ITEMS + "}", profile);
+            fail();
+        } catch (ServerException expected) {
+        }
+    }
+
+    @Test
+    public void dataNotArray() throws IOException {
+        for (String json : Arrays.asList("{\"code\":0,\"data\":1}", "{\"data\":\"x\",\"code\":0}")) {
+            try {
+                ids(json);
+                fail("expected JSONException for " + json);
+            } catch (JSONException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void closeBeforeEnd() throws IOException {
+        JsonArrayStream<Item> stream = JsonArrayStream.open(body("{\"code\":0,\"data\":" + ITEMS + "}"),
+                ResultProfile.API_RESULT, Item.class);
+        assertEquals(1, stream.next().id);
+        stream.close();
+    }
+
+    private static void assertServerError(String json, int code, String msg) throws IOException {
+        try {
+            ids(json);
+            fail("expected ServerException for " + json);
+        } catch (ServerException e) {
+            assertEquals(code, e.getCode());
+            assertEquals(msg, e.getMsg());
+        }
+    }
+
+    private static List<Integer> ids(String json) throws IOException {
+        return ids(json, ResultProfile.API_RESULT);
+    }
+
+    private static List<Integer> ids(String json, ResultProfile profile) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        JsonArrayStream<Item> stream = JsonArrayStream.open(body(json), profile, Item.class);
+        try {
+            Item item;
+            while ((item = stream.next()) != null) {
+                ids.add(item.id);
+            }
+        } finally {
+            stream.close();
+        }
+        return ids;
+    }
+
+    private static ResponseBody body(String json) {
+        return ResponseBody.create(MediaType.parse("application/json"), json);
+    }
+
+    public static class Item {
+        public int id;
+    }
+}
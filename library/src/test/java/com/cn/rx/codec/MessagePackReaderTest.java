@@ -0,0 +1,135 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.ProtocolException;
+import java.util.Arrays;
+import java.util.Date;
+
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class MessagePackReaderTest {
+
+    @Test
+    public void integers() throws IOException {
+        assertEquals(0, read("00"));
+        assertEquals(127, read("7f"));
+        assertEquals(-1, read("ff"));
+        assertEquals(-32, read("e0"));
+        assertEquals(255, read("ccff"));
+        assertEquals(65535, read("cdffff"));
+        assertEquals(4294967295L, read("ceffffffff"));
+        assertEquals(Long.MAX_VALUE, read("cf7fffffffffffffff"));
+        assertEquals(new BigInteger("18446744073709551615"), read("cfffffffffffffffff"));
+        assertEquals(-128, read("d080"));
+        assertEquals(-32768, read("d18000"));
+        assertEquals(Integer.MIN_VALUE, read("d280000000"));
+        assertEquals(Long.MIN_VALUE, read("d38000000000000000"));
+    }
+
+    @Test
+    public void scalars() throws IOException {
+        assertNull(read("c0"));
+        assertEquals(false, read("c2"));
+        assertEquals(true, read("c3"));
+        assertEquals(1.0f, read("ca3f800000"));
+        assertEquals(1.1, read("cb3ff199999999999a"));
+    }
+
+    @Test
+    public void stringsAndBinary() throws IOException {
+        assertEquals("", read("a0"));
+        assertEquals("abc", read("a3616263"));
+        assertEquals("abc", read("d903616263"));
+        assertEquals("abc", read("da0003616263"));
+        assertEquals("abc", read("db00000003616263"));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) read("c403010203"));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) read("c50003010203"));
+    }
+
+    @Test
+    public void arraysAndMaps() throws IOException {
+        assertEquals(new JSONArray(), read("90"));
+        assertEquals(new JSONArray(Arrays.<Object>asList(1, "a", null)), read("9301a161c0"));
+        assertEquals(new JSONArray(Arrays.<Object>asList(1, 2)), read("dc00020102"));
+
+        JSONObject map = (JSONObject) read("82a16101a162920203");
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(map.keySet().toArray()));
+        assertEquals(1, map.get("a"));
+        assertEquals(new JSONArray(Arrays.<Object>asList(2, 3)), map.get("b"));
+        assertEquals(map, read("de0002a16101a162920203"));
+
+        //非字符串的键转为字符串
+        assertEquals(2, ((JSONObject) read("810102")).get("1"));
+    }
+
+    @Test
+    public void timestamps() throws IOException {
+        assertEquals(new Date(1363896240000L), read("d6ff514b67b0"));
+
+        long nanos = 500000000L;
+        long seconds = 1363896240L;
+        Buffer timestamp64 = new Buffer().writeByte(0xd7).writeByte(0xff).writeLong(nanos << 34 | seconds);
+        assertEquals(new Date(1363896240500L), new MessagePackReader(timestamp64).read());
+
+        Buffer timestamp96 = new Buffer().writeByte(0xc7).writeByte(12).writeByte(0xff)
+                .writeInt((int) nanos).writeLong(seconds);
+        assertEquals(new Date(1363896240500L), new MessagePackReader(timestamp96).read());
+    }
+
+    @Test
+    public void otherExtensionReadsData() throws IOException {
+        assertArrayEquals(new byte[]{0x2a}, (byte[]) read("d4012a"));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) read("c70305010203"));
+    }
+
+    @Test
+    public void malformed() throws IOException {
+        assertProtocolError("c1");
+        assertProtocolError("ddffffffff");
+        assertProtocolError("c6ffffffff");
+        try {
+            read("a361");
+            fail();
+        } catch (EOFException expected) {
+        }
+    }
+
+    @Test
+    public void nestingTooDeep() throws IOException {
+        StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            hex.append("91");
+        }
+        assertProtocolError(hex.append("00").toString());
+    }
+
+    /**
+     * 与解析响应体时一样经过RealBufferedSource读取，数据不完整时抛出EOFException
+     */
+    private static Object read(String hex) throws IOException {
+        return new MessagePackReader(Okio.buffer((Source) new Buffer().write(ByteString.decodeHex(hex)))).read();
+    }
+
+    private static void assertProtocolError(String hex) throws IOException {
+        try {
+            read(hex);
+            fail("expected ProtocolException for " + hex);
+        } catch (ProtocolException expected) {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.cn.rx.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PathProjectionTest {
+
+    private static final String JSON_TEXT = "{\"code\":0,\"msg\":\"ok [1] {x}\","
+            + "\"extra\":{\"nested\":[{\"a\":[1,2,{\"b\":null}]}],\"s\":\"}]\"},"
+            + "\"data\":{\"page\":{\"total\":3,\"price\":1.10},"
+            + "\"items\":[{\"id\":1,\"tags\":[\"a\"]},{\"id\":2,\"tags\":[]},{\"name\":\"no id\"},{\"id\":3,\"tags\":[\"b\",\"c\"]}]}}";
+
+    private static final Type LONG_LIST = new TypeReference<List<Long>>() {
+    }.getType();
+
+    @Test
+    public void compile() {
+        PathProjection projection = PathProjection.compile("data.items[*].id");
+        assertEquals("data.items[*].id", projection.path());
+        assertTrue(projection.isMultiple());
+        assertFalse(PathProjection.compile("data[0]").isMultiple());
+        assertFalse(PathProjection.compile("[0].id").isMultiple());
+        assertFalse(PathProjection.compile("$.data.items[1][2]").isMultiple());
+    }
+
+    @Test
+    public void illegalPaths() {
+        for (String path : Arrays.asList("data..id", "data.[0]", "data[", "data[x]", "data[-1]", "data[0]x", "a.b.")) {
+            try {
+                PathProjection.compile(path);
+                fail("expected IllegalArgumentException for " + path);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void readsSingleValues() throws IOException {
+        assertEquals(Integer.valueOf(0), read("code", Integer.class));
+        assertEquals("ok [1] {x}", read("msg", String.class));
+        assertEquals(Integer.valueOf(3), read("data.page.total", Integer.class));
+        assertEquals(new BigDecimal("1.10"), read("data.page.price", BigDecimal.class));
+        assertEquals(Long.valueOf(2), read("data.items[1].id", Long.class));
+        assertEquals(Long.valueOf(2), read("$.data.items[1].id", Long.class));
+        assertEquals("c", read("data.items[3].tags[1]", String.class));
+
+        Page page = read("data.page", Page.class);
+        assertEquals(3, page.total);
+    }
+
+    @Test
+    public void missingPathReadsNull() throws IOException {
+        assertNull(read("data.missing", String.class));
+        assertNull(read("data.items[9].id", Long.class));
+        assertNull(read("data.items[2].id", Long.class));
+        //路径上的值类型不符
+        assertNull(read("code.value", String.class));
+        assertNull(read("data.page[0]", String.class));
+        assertNull(read("extra.nested[0].a[2].b", String.class));
+    }
+
+    @Test
+    public void wildcardCollectsAllMatches() throws IOException {
+        List<Long> ids = read("data.items[*].id", LONG_LIST);
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+
+        List<Long> none = read("data.missing[*].id", LONG_LIST);
+        assertEquals(Collections.<Long>emptyList(), none);
+
+        long[] array = read("data.items[*].id", long[].class);
+        assertArrayEquals(new long[]{1, 2, 3}, array);
+
+        Set<String> tags = read("data.items[*].tags[*]", new TypeReference<Set<String>>() {
+        }.getType());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), tags);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wildcardRequiresCollectionType() throws IOException {
+        read("data.items[*].id", Long.class);
+    }
+
+    @Test
+    public void topLevelArray() throws IOException {
+        PathProjection projection = PathProjection.compile("[1].id");
+        assertEquals(Integer.valueOf(7), projection.read(body("[{\"id\":5},{\"id\":7}]"), Integer.class));
+    }
+
+    @Test
+    public void duplicateKeyReadsFirst() throws IOException {
+        PathProjection projection = PathProjection.compile("a");
+        assertEquals("first", projection.read(body("{\"a\":\"first\",\"a\":\"second\"}"), String.class));
+    }
+
+    @Test
+    public void selectMatchesRead() throws IOException {
+        Object tree = JSON.parse(JSON_TEXT);
+        for (String path : Arrays.asList("code", "data.page.total", "data.items[1].id", "data.items[3].tags[1]",
+                "data.missing", "data.items[9].id", "code.value")) {
+            PathProjection projection = PathProjection.compile(path);
+            String read = projection.read(body(JSON_TEXT), String.class);
+            String selected = projection.select(tree, String.class);
+            assertEquals(path, read, selected);
+        }
+        List<Long> ids = PathProjection.compile("data.items[*].id").select(tree, LONG_LIST);
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+        Page page = PathProjection.compile("data.page").select(tree, Page.class);
+        assertEquals(3, page.total);
+    }
+
+    private static <T> T read(String path, Type type) throws IOException {
+        return PathProjection.compile(path).read(body(JSON_TEXT), type);
+    }
+
+    private static ResponseBody body(String json) {
+        return ResponseBody.create(MediaType.parse("application/json"), json);
+    }
+
+    public static class Page {
+        public int total;
+        public BigDecimal price;
+    }
+}
@@ -0,0 +1,155 @@
+package com.cn.rx.dispatch;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchMainSchedulerTest {
+
+    private final ManualPoster poster = new ManualPoster();
+    private final BatchMainScheduler scheduler = new BatchMainScheduler(poster);
+    private final List<String> order = new ArrayList<>();
+
+    @Test
+    public void drainsInArrivalOrder() {
+        Scheduler.Worker first = scheduler.createWorker();
+        Scheduler.Worker second = scheduler.createWorker();
+        first.schedule(record("a1"));
+        second.schedule(record("b1"));
+        first.schedule(record("a2"));
+        second.schedule(record("b2"));
+        //队列非空期间只发送一条消息
+        assertEquals(1, poster.posted.size());
+
+        poster.runPosted();
+        assertEquals(Arrays.asList("a1", "b1", "a2", "b2"), order);
+        assertTrue(poster.posted.isEmpty());
+    }
+
+    @Test
+    public void tasksArrivingDuringDrainRunInNextMessage() {
+        final Scheduler.Worker worker = scheduler.createWorker();
+        worker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                order.add("a");
+                worker.schedule(record("c"));
+            }
+        });
+        worker.schedule(record("b"));
+
+        poster.runPosted();
+        assertEquals(Arrays.asList("a", "b"), order);
+        assertEquals(1, poster.posted.size());
+
+        poster.runPosted();
+        assertEquals(Arrays.asList("a", "b", "c"), order);
+    }
+
+    @Test
+    public void disposedTasksAreSkippedAndRemoved() {
+        Scheduler.Worker worker = scheduler.createWorker();
+        worker.schedule(record("a"));
+        worker.schedule(record("b")).dispose();
+        Disposable delayed = worker.schedule(record("delayed"), 1, TimeUnit.SECONDS);
+        assertEquals(1, poster.delayed.size());
+
+        delayed.dispose();
+        assertTrue(poster.delayed.isEmpty());
+        poster.runPosted();
+        assertEquals(Arrays.asList("a"), order);
+    }
+
+    @Test
+    public void disposedWorkerRemovesDelayedTasks() {
+        Scheduler.Worker worker = scheduler.createWorker();
+        Scheduler.Worker other = scheduler.createWorker();
+        worker.schedule(record("a"));
+        worker.schedule(record("delayed"), 1, TimeUnit.SECONDS);
+        other.schedule(record("other"), 1, TimeUnit.SECONDS);
+
+        worker.dispose();
+        assertEquals(1, poster.delayed.size());
+        poster.runPosted();
+        assertTrue(order.isEmpty());
+
+        //到时间的延迟任务进入队列，在下一条消息中执行
+        poster.runDelayed();
+        poster.runPosted();
+        assertEquals(Arrays.asList("other"), order);
+    }
+
+    private Runnable record(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+            }
+        };
+    }
+
+    /**
+     * 不自动执行，由测试决定消息处理的时机
+     */
+    private static final class ManualPoster implements BatchMainScheduler.Poster {
+        final List<Runnable> posted = new ArrayList<>();
+        final List<Runnable> delayed = new ArrayList<>();
+        final List<Object> tokens = new ArrayList<>();
+
+        @Override
+        public void post(Runnable run) {
+            posted.add(run);
+        }
+
+        @Override
+        public void postDelayed(Runnable run, Object token, long delayMillis) {
+            delayed.add(run);
+            tokens.add(token);
+        }
+
+        @Override
+        public void remove(Runnable run) {
+            int index = delayed.indexOf(run);
+            if (index >= 0) {
+                delayed.remove(index);
+                tokens.remove(index);
+            }
+        }
+
+        @Override
+        public void removeAll(Object token) {
+            for (int i = tokens.size() - 1; i >= 0; i--) {
+                if (tokens.get(i) == token) {
+                    delayed.remove(i);
+                    tokens.remove(i);
+                }
+            }
+        }
+
+        void runPosted() {
+            List<Runnable> runs = new ArrayList<>(posted);
+            posted.clear();
+            for (Runnable run : runs) {
+                run.run();
+            }
+        }
+
+        void runDelayed() {
+            List<Runnable> runs = new ArrayList<>(delayed);
+            delayed.clear();
+            tokens.clear();
+            for (Runnable run : runs) {
+                run.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.cn.rx.dispatch;
+
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestDispatcherTest {
+
+    private static final String HOST = "example.com";
+
+    private final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+    @Test
+    public void grantsByLaneAndPriority() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher().maxRequests(1).agingInterval(Long.MAX_VALUE);
+        dispatcher.acquire(Lane.NORMAL, 0, HOST);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(enqueue(dispatcher, Lane.BULK, 0, HOST, "bulk"));
+        threads.add(enqueue(dispatcher, Lane.NORMAL, 0, HOST, "normal"));
+        threads.add(enqueue(dispatcher, Lane.INTERACTIVE, 0, HOST, "interactive"));
+        threads.add(enqueue(dispatcher, Lane.NORMAL, 5, HOST, "normal+5"));
+        threads.add(enqueue(dispatcher, Lane.NORMAL, 0, HOST, "normal2"));
+
+        dispatcher.release(Lane.NORMAL, HOST);
+        join(threads);
+        //同一通道同一优先级按排队顺序
+        assertEquals(Arrays.asList("interactive", "normal+5", "normal", "normal2", "bulk"), order);
+    }
+
+    @Test
+    public void agingPromotesWaitingRequests() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher().maxRequests(1).agingInterval(10);
+        dispatcher.acquire(Lane.NORMAL, 0, HOST);
+        Thread bulk = enqueue(dispatcher, Lane.BULK, 0, HOST, "bulk");
+        //BULK与INTERACTIVE相差20，排队超过200ms后BULK的优先级更高
+        Thread.sleep(400);
+        Thread interactive = enqueue(dispatcher, Lane.INTERACTIVE, 0, HOST, "interactive");
+
+        dispatcher.release(Lane.NORMAL, HOST);
+        join(Arrays.asList(bulk, interactive));
+        assertEquals(Arrays.asList("bulk", "interactive"), order);
+
+        LaneStats stats = dispatcher.getStats(Lane.BULK);
+        assertEquals(1, stats.getExecutedCount());
+        assertTrue(stats.getMaxWaitMillis() >= 400);
+    }
+
+    @Test
+    public void limitsPerHostWithinLane() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher().lane(Lane.NORMAL, 4, 1);
+        dispatcher.acquire(Lane.NORMAL, 0, "a.com");
+        Thread sameHost = enqueue(dispatcher, Lane.NORMAL, 0, "a.com", "a");
+        //其他域名和其他通道不受影响
+        dispatcher.acquire(Lane.NORMAL, 0, "b.com");
+        dispatcher.acquire(Lane.INTERACTIVE, 0, "a.com");
+        assertEquals(1, dispatcher.getStats(Lane.NORMAL).getQueued());
+        assertEquals(2, dispatcher.getStats(Lane.NORMAL).getRunning());
+        assertTrue(order.isEmpty());
+
+        dispatcher.release(Lane.NORMAL, "a.com");
+        join(Collections.singletonList(sameHost));
+        assertEquals(Collections.singletonList("a"), order);
+    }
+
+    @Test
+    public void limitsLaneRequests() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher().lane(Lane.BULK, 1, 1);
+        dispatcher.acquire(Lane.BULK, 0, "a.com");
+        Thread waiting = enqueue(dispatcher, Lane.BULK, 0, "b.com", "bulk");
+        dispatcher.acquire(Lane.NORMAL, 0, "a.com");
+        assertTrue(order.isEmpty());
+
+        dispatcher.release(Lane.BULK, "a.com");
+        join(Collections.singletonList(waiting));
+        assertEquals(Collections.singletonList("bulk"), order);
+    }
+
+    @Test
+    public void interruptRemovesWaitingRequest() throws Exception {
+        final RequestDispatcher dispatcher = new RequestDispatcher().maxRequests(1);
+        dispatcher.acquire(Lane.NORMAL, 0, HOST);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    dispatcher.acquire(Lane.NORMAL, 0, HOST);
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            }
+        });
+        thread.start();
+        awaitQueued(dispatcher, Lane.NORMAL, 1);
+        thread.interrupt();
+        thread.join(5000);
+        assertTrue(error.get() instanceof InterruptedIOException);
+        assertEquals(0, dispatcher.getStats(Lane.NORMAL).getQueued());
+
+        //取消的请求不占用名额
+        dispatcher.release(Lane.NORMAL, HOST);
+        dispatcher.acquire(Lane.BULK, 0, HOST);
+        assertEquals(1, dispatcher.getStats(Lane.BULK).getRunning());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidLimits() {
+        new RequestDispatcher().lane(Lane.NORMAL, 1, 0);
+    }
+
+    /**
+     * 在新线程上排队，获得名额后记录名称并立即归还；返回时该请求已经在排队
+     */
+    private Thread enqueue(final RequestDispatcher dispatcher, final Lane lane, final int priority,
+                           final String host, final String name) throws InterruptedException {
+        int queued = dispatcher.getStats(lane).getQueued();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    dispatcher.acquire(lane, priority, host);
+                } catch (InterruptedIOException e) {
+                    return;
+                }
+                order.add(name);
+                dispatcher.release(lane, host);
+            }
+        }, name);
+        thread.start();
+        awaitQueued(dispatcher, lane, queued + 1);
+        return thread;
+    }
+
+    private static void awaitQueued(RequestDispatcher dispatcher, Lane lane, int queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.getStats(lane).getQueued() < queued) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("request was not queued");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void join(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(5000);
+            assertTrue(thread.getName(), !thread.isAlive());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cn.rx.exception;
+
+import com.cn.rx.config.ResultConfigLoader;
+import com.cn.rx.config.ResultProfile;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExceptionFactoryTest {
+
+    @After
+    public void tearDown() {
+        ResultConfigLoader.setConfig(null);
+    }
+
+    @Test
+    public void serverErrorUsesRequestProfile() {
+        ResultConfigLoader.setConfig(config("1001", "默认说明"));
+        ResultProfile host = ResultProfile.compile(config("1001", "接口说明"), ResultConfigLoader.getProfile());
+
+        assertEquals("接口说明", message(new ServerException(1001, "msg", host)));
+        assertEquals("默认说明", message(new ServerException(1001, "msg")));
+        assertEquals("默认说明", message(new ServerException(1001, "msg", ResultProfile.API_RESULT)));
+        //没有配置说明时使用服务器返回的msg
+        assertEquals("msg", message(new ServerException(1002, "msg", host)));
+    }
+
+    private static String message(ServerException e) {
+        return ExceptionFactory.handleException(e).getMessage();
+    }
+
+    private static ResultConfigLoader.Config config(String code, String desc) {
+        HashMap<String, String> errorInfo = new HashMap<>();
+        errorInfo.put(code, desc);
+        ResultConfigLoader.Config config = new ResultConfigLoader.Config();
+        config.setErrorInfo(errorInfo);
+        return config;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cn.rx.interceptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+
+public class AcceptInterceptorTest {
+
+    private static final String NEGOTIATED = "application/cbor, application/json;q=0.9";
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new AcceptInterceptor(NEGOTIATED))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void addsAcceptWhenMissing() throws Exception {
+        assertEquals(NEGOTIATED, send(null));
+    }
+
+    @Test
+    public void replacesDefaultJsonAccept() throws Exception {
+        assertEquals(NEGOTIATED, send("application/json"));
+    }
+
+    @Test
+    public void keepsExplicitAccept() throws Exception {
+        assertEquals("text/plain", send("text/plain"));
+        assertEquals("application/json, text/plain", send("application/json, text/plain"));
+    }
+
+    private String send(String accept) throws Exception {
+        server.enqueue(new MockResponse());
+        Request.Builder builder = new Request.Builder().url(server.url("/"));
+        if (accept != null) {
+            builder.header("Accept", accept);
+        }
+        client.newCall(builder.build()).execute().close();
+        return server.takeRequest().getHeader("Accept");
+    }
+}
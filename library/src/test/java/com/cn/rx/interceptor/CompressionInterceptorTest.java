@@ -0,0 +1,142 @@
+package com.cn.rx.interceptor;
+
+import com.cn.rx.compress.CompressionStats;
+import com.cn.rx.compress.GzipEncoder;
+import com.cn.rx.compress.RequestCompression;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompressionInterceptorTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private MockWebServer server;
+    private RequestCompression compression;
+    private OkHttpClient client;
+    private String json;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        compression = new RequestCompression(1024, new GzipEncoder());
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new CompressionInterceptor(compression))
+                .build();
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            builder.append(i > 0 ? "," : "").append("{\"id\":").append(i).append(",\"name\":\"item\"}");
+        }
+        json = builder.append(']').toString();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void unsupportedMediaTypeFallsBackToIdentity() throws Exception {
+        compression.addHost(server.url("/").toString());
+        server.enqueue(new MockResponse().setResponseCode(415));
+        server.enqueue(new MockResponse().setBody("ok"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        Response response = post(json);
+        assertEquals(200, response.code());
+        assertEquals("ok", response.body().string());
+
+        RecordedRequest compressed = server.takeRequest();
+        assertEquals("gzip", compressed.getHeader("Content-Encoding"));
+        assertEquals(json, gunzip(compressed.getBody()));
+        RecordedRequest retried = server.takeRequest();
+        assertNull(retried.getHeader("Content-Encoding"));
+        assertEquals(json, retried.getBody().readUtf8());
+
+        //之后不再对该服务器压缩
+        post(json).close();
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void compressesAfterServerAdvertisesEncoding() throws Exception {
+        server.enqueue(new MockResponse().addHeader("Accept-Encoding", "br;q=1, gzip"));
+        server.enqueue(new MockResponse());
+
+        post(json).close();
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+
+        post(json).close();
+        RecordedRequest request = server.takeRequest();
+        assertEquals("gzip", request.getHeader("Content-Encoding"));
+        assertEquals(json, gunzip(request.getBody()));
+
+        CompressionStats.Entry entry = compression.snapshot().getEndpoints().get(server.getHostName() + "/upload");
+        assertEquals(1, entry.getRequests());
+        assertEquals(json.length(), entry.getOriginalBytes());
+        assertTrue(entry.getEncodedBytes() < entry.getOriginalBytes());
+    }
+
+    @Test
+    public void skipsSmallOrBinaryBodies() throws Exception {
+        compression.addHost(server.url("/").toString());
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+
+        post("{\"id\":1}").close();
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+
+        client.newCall(new Request.Builder()
+                .url(server.url("/upload"))
+                .post(RequestBody.create(MediaType.parse("image/png"), new byte[4096]))
+                .build()).execute().close();
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void refusedEncodingIsNotUsed() throws Exception {
+        compression.addHost(server.url("/").toString());
+        server.enqueue(new MockResponse().addHeader("Accept-Encoding", "gzip;q=0"));
+        server.enqueue(new MockResponse());
+
+        post(json).close();
+        assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+        post(json).close();
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+    }
+
+    private Response post(String body) throws IOException {
+        return client.newCall(new Request.Builder()
+                .url(server.url("/upload"))
+                .post(RequestBody.create(JSON, body))
+                .build()).execute();
+    }
+
+    private static String gunzip(Buffer body) throws IOException {
+        Buffer result = new Buffer();
+        GzipSource source = new GzipSource(body);
+        while (source.read(result, 8192) != -1) {
+        }
+        return result.readUtf8();
+    }
+}
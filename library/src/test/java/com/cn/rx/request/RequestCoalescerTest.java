@@ -0,0 +1,94 @@
+package com.cn.rx.request;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final PublishSubject<String> subject = PublishSubject.create();
+    private final AtomicInteger subscribed = new AtomicInteger();
+    private final AtomicInteger disposed = new AtomicInteger();
+
+    private Observable<String> source() {
+        return subject.doOnSubscribe(new Consumer<Disposable>() {
+            @Override
+            public void accept(Disposable disposable) throws Exception {
+                subscribed.incrementAndGet();
+            }
+        }).doOnDispose(new Action() {
+            @Override
+            public void run() throws Exception {
+                disposed.incrementAndGet();
+            }
+        });
+    }
+
+    @Test
+    public void sameKeySharesOneRequest() {
+        TestObserver<String> first = coalescer.coalesce("a", source()).test();
+        TestObserver<String> second = coalescer.coalesce("a", source()).test();
+        assertEquals(1, subscribed.get());
+        assertEquals(1, coalescer.size());
+
+        subject.onNext("result");
+        subject.onComplete();
+        first.assertResult("result");
+        second.assertResult("result");
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    public void differentKeysRunSeparately() {
+        coalescer.coalesce("a", source()).test();
+        coalescer.coalesce("b", source()).test();
+        assertEquals(2, subscribed.get());
+        assertEquals(2, coalescer.size());
+    }
+
+    @Test
+    public void cancelsOnlyAfterLastSubscriberDisposes() {
+        TestObserver<String> first = coalescer.coalesce("a", source()).test();
+        TestObserver<String> second = coalescer.coalesce("a", source()).test();
+
+        first.dispose();
+        assertEquals(0, disposed.get());
+        assertEquals(1, coalescer.size());
+
+        subject.onNext("result");
+        second.assertValue("result");
+
+        second.dispose();
+        assertEquals(1, disposed.get());
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    public void newRequestAfterPreviousFinished() {
+        coalescer.coalesce("a", source()).test();
+        subject.onComplete();
+        assertEquals(0, coalescer.size());
+
+        coalescer.coalesce("a", Observable.just("again")).test().assertResult("again");
+        assertEquals(1, subscribed.get());
+    }
+
+    @Test
+    public void newRequestAfterAllCancelled() {
+        coalescer.coalesce("a", source()).test().dispose();
+        TestObserver<String> next = coalescer.coalesce("a", source()).test();
+        assertEquals(2, subscribed.get());
+        subject.onNext("result");
+        next.assertValue("result");
+    }
+}
@@ -0,0 +1,179 @@
+package com.cn.rx.request;
+
+import com.cn.rx.ApiManager;
+import com.cn.rx.RxHttp;
+import com.cn.rx.TestEnv;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SegmentedDownloaderTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final int LENGTH = 1000000;
+    private static final long MIN_SEGMENT = 100000;
+
+    private final ByteString content = content(LENGTH);
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<String>());
+    private MockWebServer server;
+    private ApiManager apiManager;
+    private File dir;
+
+    //各用例修改服务器的行为
+    private volatile boolean acceptRanges = true;
+    private volatile boolean ignoreIfRange;
+    private volatile boolean failSecondSegment;
+    private volatile boolean throttle;
+
+    @Before
+    public void setUp() throws IOException {
+        TestEnv.init();
+        dir = TestEnv.newTempDir("segmented");
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request);
+            }
+        });
+        server.start();
+        apiManager = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+                .build()
+                .create(ApiManager.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        TestEnv.delete(dir);
+    }
+
+    @Test
+    public void splitsIntoRangedSegments() throws Exception {
+        throttle = true;
+        String path = newDownloader(4).download();
+        assertEquals(content, Okio.buffer(Okio.source(new File(path))).readByteString());
+        assertFalse(new File(path + ".download").exists());
+        //开始两个连接，速度提升后拆分出更多的段
+        assertTrue(String.valueOf(ranges), ranges.size() > 2);
+        assertTrue(ranges.contains("0"));
+    }
+
+    @Test
+    public void changedFileFailsDownload() throws Exception {
+        ignoreIfRange = true;
+        try {
+            newDownloader(4).download();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().startsWith("file changed on server"));
+        }
+        assertEquals(0, new File(dir, "out").list().length);
+    }
+
+    @Test
+    public void fallsBackToSingleConnection() throws Exception {
+        acceptRanges = false;
+        String path = newDownloader(4).download();
+        assertEquals(content, Okio.buffer(Okio.source(new File(path))).readByteString());
+        assertEquals(Collections.singletonList("none"), ranges);
+    }
+
+    @Test
+    public void errorStopsRetriesOfOtherSegments() throws Exception {
+        failSecondSegment = true;
+        try {
+            newDownloader(2).download();
+            fail();
+        } catch (retrofit2.HttpException e) {
+            assertEquals(500, e.code());
+        }
+        //第一段断开后在等待重试，出错后不再重试
+        Thread.sleep(1500);
+        assertEquals(2, ranges.size());
+        assertEquals(0, new File(dir, "out").list().length);
+    }
+
+    private SegmentedDownloader newDownloader(int maxConnections) {
+        return new SegmentedDownloader(apiManager, server.url("/file.bin").toString(),
+                Collections.<String, String>emptyMap(), RxHttp.getInstance().getContext(),
+                new File(dir, "out").getPath(), "file.bin", maxConnections, MIN_SEGMENT,
+                3, 1000, 0, null, null, Schedulers.trampoline());
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        MockResponse response = new MockResponse()
+                .setHeader("ETag", "\"v1\"")
+                .setHeader("Content-Type", "application/octet-stream");
+        if (acceptRanges) {
+            response.setHeader("Accept-Ranges", "bytes");
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return response.setHeader("Content-Length", LENGTH);
+        }
+        String range = request.getHeader("Range");
+        Matcher matcher = range != null ? RANGE.matcher(range) : null;
+        if (matcher == null || !matcher.matches() || !acceptRanges) {
+            ranges.add("none");
+            return response.setBody(new Buffer().write(content));
+        }
+        long start = Long.parseLong(matcher.group(1));
+        long end = Long.parseLong(matcher.group(2));
+        ranges.add(String.valueOf(start));
+        if (ignoreIfRange || !"\"v1\"".equals(request.getHeader("If-Range"))) {
+            return response.setBody(new Buffer().write(content));
+        }
+        if (failSecondSegment && start > 0) {
+            return new MockResponse().setResponseCode(500).setHeadersDelay(200, TimeUnit.MILLISECONDS);
+        }
+        response.setResponseCode(206)
+                .setHeader("Content-Range", "bytes " + start + "-" + end + "/" + LENGTH)
+                .setBody(new Buffer().write(content.substring((int) start, (int) end + 1)));
+        if (failSecondSegment) {
+            //第一段读到一半时断开，等待重试
+            response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+        }
+        if (throttle) {
+            response.throttleBody(64 * 1024, 100, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private static ByteString content(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + i / 997);
+        }
+        return ByteString.of(bytes);
+    }
+}
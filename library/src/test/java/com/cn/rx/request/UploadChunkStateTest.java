@@ -0,0 +1,113 @@
+package com.cn.rx.request;
+
+import com.cn.rx.TestEnv;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UploadChunkStateTest {
+
+    private static final String URL = "http://localhost/upload";
+
+    private File dir;
+    private File stateDir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = TestEnv.newTempDir("chunk-state");
+        stateDir = new File(dir, "state");
+        file = new File(dir, "data.bin");
+        write(file, 4500);
+    }
+
+    @After
+    public void tearDown() {
+        TestEnv.delete(dir);
+    }
+
+    @Test
+    public void newStateHasNoDoneChunks() throws IOException {
+        UploadChunkState state = UploadChunkState.open(stateDir, URL, file, 1000);
+        assertEquals(5, state.getChunkCount());
+        for (int i = 0; i < 5; i++) {
+            assertFalse(state.isDone(i));
+        }
+        assertEquals(1, stateDir.list().length);
+        state.close();
+    }
+
+    @Test
+    public void doneChunksSurviveReopen() throws IOException {
+        UploadChunkState state = UploadChunkState.open(stateDir, URL, file, 1000);
+        state.markDone(1);
+        state.markDone(4);
+        state.close();
+
+        UploadChunkState reopened = UploadChunkState.open(stateDir, URL, file, 1000);
+        assertEquals(state.getUploadId(), reopened.getUploadId());
+        assertFalse(reopened.isDone(0));
+        assertTrue(reopened.isDone(1));
+        assertFalse(reopened.isDone(2));
+        assertTrue(reopened.isDone(4));
+        reopened.close();
+    }
+
+    @Test
+    public void changedFileOrChunkSizeStartsOver() throws IOException {
+        UploadChunkState state = UploadChunkState.open(stateDir, URL, file, 1000);
+        state.markDone(0);
+        state.close();
+
+        UploadChunkState otherSize = UploadChunkState.open(stateDir, URL, file, 500);
+        assertNotEquals(state.getUploadId(), otherSize.getUploadId());
+        assertEquals(9, otherSize.getChunkCount());
+        assertFalse(otherSize.isDone(0));
+        otherSize.close();
+
+        write(file, 4600);
+        UploadChunkState changed = UploadChunkState.open(stateDir, URL, file, 1000);
+        assertNotEquals(state.getUploadId(), changed.getUploadId());
+        assertFalse(changed.isDone(0));
+        changed.close();
+    }
+
+    @Test
+    public void emptyFileHasOneChunk() throws IOException {
+        write(file, 0);
+        UploadChunkState state = UploadChunkState.open(stateDir, URL, file, 1000);
+        assertEquals(1, state.getChunkCount());
+        state.close();
+    }
+
+    @Test
+    public void deleteRemovesStateFile() throws IOException {
+        UploadChunkState state = UploadChunkState.open(stateDir, URL, file, 1000);
+        state.markDone(0);
+        state.delete();
+        assertEquals(0, stateDir.list().length);
+    }
+
+    static void write(File file, int length) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) ('a' + i % 26);
+            }
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+}
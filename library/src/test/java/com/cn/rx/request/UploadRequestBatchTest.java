@@ -0,0 +1,142 @@
+package com.cn.rx.request;
+
+import com.cn.rx.RxHttp;
+import com.cn.rx.TestEnv;
+import com.cn.rx.entity.UploadResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UploadRequestBatchTest {
+
+    private static final String STREAM_CONTENT = "stream content";
+
+    private MockWebServer server;
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        TestEnv.init();
+        dir = TestEnv.newTempDir("batch");
+        file = new File(dir, "data.bin");
+        UploadChunkStateTest.write(file, 3000);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("{\"code\":0,\"msg\":\"ok\",\"data\":\"" + request.getBodySize() + "\"}");
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        TestEnv.delete(dir);
+    }
+
+    @Test
+    public void eachFileIsUploadedSeparately() {
+        Flowable<UploadResult<String>> batch = RxHttp.upload(server.url("/batch").toString())
+                .params("a", file)
+                .params("b", "b.txt", STREAM_CONTENT.getBytes())
+                .executeBatch(String.class, 2, null);
+        List<UploadResult<String>> results = await(batch);
+        assertEquals(2, results.size());
+        for (UploadResult<String> result : results) {
+            assertTrue(result.isSuccess());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void resubscribeCreatesNewBodies() {
+        Flowable<UploadResult<String>> batch = RxHttp.upload(server.url("/batch").toString())
+                .params("a", file)
+                .params("b", "b.txt", new ClosableStream(STREAM_CONTENT.getBytes()))
+                .replayStreams(1024)
+                .executeBatch(String.class, 1, null);
+
+        List<UploadResult<String>> first = await(batch);
+        assertTrue(result(first, "a").isSuccess());
+        assertTrue(result(first, "b").isSuccess());
+
+        //文件重新上传；第一次订阅结束时流已经关闭，不能当作空内容发送
+        List<UploadResult<String>> second = await(batch);
+        assertTrue(result(second, "a").isSuccess());
+        assertEquals(result(first, "a").getData(), result(second, "a").getData());
+        assertFalse(result(second, "b").isSuccess());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    private static UploadResult<String> result(List<UploadResult<String>> results, String key) {
+        for (UploadResult<String> result : results) {
+            if (key.equals(result.getKey())) {
+                return result;
+            }
+        }
+        throw new AssertionError("no result for " + key);
+    }
+
+    private static List<UploadResult<String>> await(Flowable<UploadResult<String>> batch) {
+        TestSubscriber<UploadResult<String>> subscriber = batch.test();
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+        return subscriber.values();
+    }
+
+    /**
+     * 关闭后读取时抛出IOException，与FileInputStream等一致
+     */
+    private static final class ClosableStream extends FilterInputStream {
+        private boolean closed;
+
+        ClosableStream(byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkOpen();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkOpen();
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void checkOpen() throws IOException {
+            if (closed) {
+                throw new IOException("stream closed");
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.cn.rx.request;
+
+import com.cn.rx.RxHttp;
+import com.cn.rx.TestEnv;
+import com.cn.rx.callback.ResultProgressCallback;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.reactivex.observers.TestObserver;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UploadRequestChunkedTest {
+
+    private static final Pattern CHUNK_INDEX = Pattern.compile(
+            "name=\"" + UploadRequest.CHUNK_INDEX + "\"\\r\\n(?:[^\\r\\n]+\\r\\n)*\\r\\n(\\d+)\\r\\n");
+
+    private MockWebServer server;
+    private File dir;
+    private File stateDir;
+    private File file;
+    private final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+    private volatile int rejectIndex = -1;
+
+    @Before
+    public void setUp() throws IOException {
+        TestEnv.init();
+        dir = TestEnv.newTempDir("chunked");
+        stateDir = new File(dir, "state");
+        file = new File(dir, "data.bin");
+        UploadChunkStateTest.write(file, 4500);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Matcher matcher = CHUNK_INDEX.matcher(request.getBody().readUtf8());
+                if (!matcher.find()) {
+                    return new MockResponse().setResponseCode(400);
+                }
+                int index = Integer.parseInt(matcher.group(1));
+                received.add(index);
+                if (index == rejectIndex) {
+                    return new MockResponse().setBody("{\"code\":7,\"msg\":\"rejected\",\"data\":null}");
+                }
+                return new MockResponse().setBody("{\"code\":0,\"msg\":\"ok\",\"data\":\"stored\"}");
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        TestEnv.delete(dir);
+    }
+
+    @Test
+    public void resumesOnlyRemainingChunks() throws InterruptedException {
+        rejectIndex = 2;
+        TestObserver<String> failed = upload();
+        failed.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        failed.assertNoValues();
+        assertEquals(1, failed.errorCount());
+        assertEquals(Arrays.asList(0, 1, 2), received);
+        assertEquals(1, stateDir.list().length);
+
+        received.clear();
+        rejectIndex = -1;
+        TestObserver<String> resumed = upload();
+        resumed.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        resumed.assertNoErrors();
+        resumed.assertValue("stored");
+        assertEquals(Arrays.asList(2, 3, 4), received);
+        assertEquals(0, stateDir.list().length);
+    }
+
+    @Test
+    public void completedUploadStartsOver() throws InterruptedException {
+        TestObserver<String> first = upload();
+        first.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        first.assertValue("stored");
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), received);
+
+        received.clear();
+        TestObserver<String> second = upload();
+        second.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        second.assertValue("stored");
+        assertTrue(received.contains(0));
+        assertEquals(0, stateDir.list().length);
+    }
+
+    private TestObserver<String> upload() {
+        //每次一个分片，顺序确定
+        return RxHttp.upload(server.url("/upload").toString())
+                .params("file", file)
+                .chunked(1000, 1)
+                .chunkStateDir(stateDir)
+                .execute(String.class, (ResultProgressCallback<String>) null)
+                .test();
+    }
+}
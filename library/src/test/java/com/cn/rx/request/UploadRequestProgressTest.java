@@ -0,0 +1,112 @@
+package com.cn.rx.request;
+
+import com.cn.rx.RxHttp;
+import com.cn.rx.TestEnv;
+import com.cn.rx.callback.ResultProgressCallback;
+import com.cn.rx.config.UploadFileType;
+import com.cn.rx.exception.ApiThrowable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UploadRequestProgressTest {
+
+    private MockWebServer server;
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        TestEnv.init();
+        dir = TestEnv.newTempDir("progress");
+        file = new File(dir, "data.bin");
+        UploadChunkStateTest.write(file, 3000);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("{\"code\":0,\"msg\":\"ok\",\"data\":\"stored\"}");
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        TestEnv.delete(dir);
+    }
+
+    @Test
+    public void progressUploadsShareCachedClient() {
+        upload(UploadFileType.PART_FROM, new RecordingCallback());
+        int size = RxHttp.getInstance().getClientCache().size();
+
+        for (UploadFileType type : new UploadFileType[]{UploadFileType.PART_FROM, UploadFileType.BODY_MAP}) {
+            RecordingCallback callback = new RecordingCallback();
+            upload(type, callback);
+            assertEquals(type.name(), size, RxHttp.getInstance().getClientCache().size());
+            assertTrue(type.name(), callback.finished);
+            assertEquals(type.name(), file.length(), callback.totalBytes);
+            assertEquals(type.name(), file.length(), callback.numBytes);
+        }
+    }
+
+    private void upload(UploadFileType type, RecordingCallback callback) {
+        TestObserver<String> observer = RxHttp.upload(server.url("/upload").toString())
+                .params("file", file)
+                .uploadType(type)
+                .execute(String.class, callback)
+                .test();
+        observer.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        observer.assertNoErrors();
+        observer.assertValue("stored");
+    }
+
+    private static final class RecordingCallback extends ResultProgressCallback<String> {
+        volatile long numBytes;
+        volatile long totalBytes;
+        volatile boolean finished;
+
+        @Override
+        public void onUIProgressChanged(Object mTag, long numBytes, long totalBytes, float percent, float speed) {
+            this.numBytes = numBytes;
+            this.totalBytes = totalBytes;
+        }
+
+        @Override
+        public void onUIProgressFinish(Object mTag) {
+            finished = true;
+        }
+
+        @Override
+        public void onStart(Object tag) {
+        }
+
+        @Override
+        public void onCompleted(Object tag) {
+        }
+
+        @Override
+        public void onError(Object tag, ApiThrowable e) {
+        }
+
+        @Override
+        public void onSuccess(Object tag, String s) {
+        }
+    }
+}